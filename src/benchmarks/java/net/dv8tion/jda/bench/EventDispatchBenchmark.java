@@ -0,0 +1,252 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.bench;
+
+import net.dv8tion.jda.core.entities.impl.JDAImpl;
+import net.dv8tion.jda.core.events.Event;
+import net.dv8tion.jda.core.events.ReadyEvent;
+import net.dv8tion.jda.core.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.core.events.user.GenericUserEvent;
+import net.dv8tion.jda.core.events.user.UserNameUpdateEvent;
+import net.dv8tion.jda.core.events.user.UserTypingEvent;
+import net.dv8tion.jda.core.hooks.AnnotatedEventManager;
+import net.dv8tion.jda.core.hooks.IEventManager;
+import net.dv8tion.jda.core.hooks.SubscribeEvent;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Compares the {@link AnnotatedEventManager} against the reflective implementation it replaced, which looked up the
+ * subscribers of every superclass of an event on each call and invoked them with {@link Method#invoke(Object, Object...)}.
+ * <br>Half of the listeners are public (generated invokers), the other half are package-private (MethodHandles).
+ * Every event is handled by subscribers of its own class, a superclass and {@link Event}.
+ * <p>
+ * Arguments (all optional): <code>--listeners N --events N --iterations N</code>
+ */
+public class EventDispatchBenchmark
+{
+    public static void main(String[] args)
+    {
+        int listeners = 50;
+        int events = 1_000_000;
+        int iterations = 5;
+        for (int i = 0; i < args.length - 1; i += 2)
+        {
+            switch (args[i])
+            {
+                case "--listeners":
+                    listeners = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--events":
+                    events = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        Event[] payloads = {
+                new MessageReceivedEvent(null, 0, null),
+                new UserNameUpdateEvent(null, 0, null, "name", "0000"),
+                new UserTypingEvent(null, 0, null, null, null),
+                new ReadyEvent(null, 0)
+        };
+
+        IEventManager reflective = new ReflectiveEventManager();
+        IEventManager annotated = new AnnotatedEventManager();
+        for (int i = 0; i < listeners; i++)
+        {
+            Object listener = i % 2 == 0 ? new PublicListener() : new PackageListener();
+            reflective.register(listener);
+            annotated.register(listener);
+        }
+
+        //Warm up both paths before measuring
+        run(reflective, payloads, events);
+        run(annotated, payloads, events);
+
+        long[] reflectiveTimes = new long[iterations];
+        long[] annotatedTimes = new long[iterations];
+        for (int i = 0; i < iterations; i++)
+        {
+            reflectiveTimes[i] = run(reflective, payloads, events);
+            annotatedTimes[i] = run(annotated, payloads, events);
+        }
+
+        long reflectiveMedian = median(reflectiveTimes);
+        long annotatedMedian = median(annotatedTimes);
+        System.out.printf("Events:     %d (%d listeners)%n", events, listeners);
+        System.out.printf("Reflective: %d ms (median of %d, %.0f events/s)%n", reflectiveMedian / 1_000_000, iterations, events * 1e9 / reflectiveMedian);
+        System.out.printf("Annotated:  %d ms (median of %d, %.0f events/s)%n", annotatedMedian / 1_000_000, iterations, events * 1e9 / annotatedMedian);
+        System.out.printf("Speedup:    %.2fx%n", (double) reflectiveMedian / annotatedMedian);
+    }
+
+    private static long run(IEventManager manager, Event[] payloads, int events)
+    {
+        long before = PublicListener.calls + PackageListener.calls;
+        long start = System.nanoTime();
+        for (int i = 0; i < events; i++)
+            manager.handle(payloads[i & 3]);
+        long time = System.nanoTime() - start;
+        if (PublicListener.calls + PackageListener.calls == before)
+            throw new IllegalStateException("No listener was called");
+        return time;
+    }
+
+    private static long median(long[] values)
+    {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    public static class PublicListener
+    {
+        static long calls;
+
+        @SubscribeEvent
+        public void onMessage(MessageReceivedEvent event)
+        {
+            calls++;
+        }
+
+        @SubscribeEvent
+        public void onUser(GenericUserEvent event)
+        {
+            calls++;
+        }
+
+        @SubscribeEvent
+        public void onEvent(Event event)
+        {
+            calls++;
+        }
+    }
+
+    static class PackageListener
+    {
+        static long calls;
+
+        @SubscribeEvent
+        void onMessage(MessageReceivedEvent event)
+        {
+            calls++;
+        }
+
+        @SubscribeEvent
+        void onUser(GenericUserEvent event)
+        {
+            calls++;
+        }
+
+        @SubscribeEvent
+        void onEvent(Event event)
+        {
+            calls++;
+        }
+    }
+
+    /**
+     * The previous implementation of the AnnotatedEventManager, kept as baseline.
+     */
+    private static class ReflectiveEventManager implements IEventManager
+    {
+        private final Set<Object> listeners = new HashSet<>();
+        private final Map<Class<? extends Event>, Map<Object, List<Method>>> methods = new HashMap<>();
+
+        @Override
+        public void register(Object listener)
+        {
+            if (listeners.add(listener))
+            {
+                updateMethods();
+            }
+        }
+
+        @Override
+        public void unregister(Object listener)
+        {
+            if (listeners.remove(listener))
+            {
+                updateMethods();
+            }
+        }
+
+        @Override
+        public List<Object> getRegisteredListeners()
+        {
+            return Collections.unmodifiableList(new LinkedList<>(listeners));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void handle(Event event)
+        {
+            Class<? extends Event> eventClass = event.getClass();
+            do
+            {
+                Map<Object, List<Method>> listeners = methods.get(eventClass);
+                if (listeners != null)
+                {
+                    listeners.entrySet().forEach(e -> e.getValue().forEach(method ->
+                    {
+                        try
+                        {
+                            method.setAccessible(true);
+                            method.invoke(e.getKey(), event);
+                        }
+                        catch (IllegalAccessException | InvocationTargetException e1)
+                        {
+                            JDAImpl.LOG.log(e1);
+                        }
+                    }));
+                }
+                eventClass = eventClass == Event.class ? null : (Class<? extends Event>) eventClass.getSuperclass();
+            }
+            while (eventClass != null);
+        }
+
+        private void updateMethods()
+        {
+            methods.clear();
+            for (Object listener : listeners)
+            {
+                boolean isClass = listener instanceof Class;
+                Class<?> c = isClass ? (Class) listener : listener.getClass();
+                for (Method m : c.getDeclaredMethods())
+                {
+                    if (!m.isAnnotationPresent(SubscribeEvent.class) || (isClass && !Modifier.isStatic(m.getModifiers())))
+                        continue;
+                    Class<?>[] pType = m.getParameterTypes();
+                    if (pType.length == 1 && Event.class.isAssignableFrom(pType[0]))
+                    {
+                        @SuppressWarnings("unchecked")
+                        Class<? extends Event> eventClass = (Class<? extends Event>) pType[0];
+                        methods.computeIfAbsent(eventClass, k -> new HashMap<>())
+                                .computeIfAbsent(listener, k -> new ArrayList<>()).add(m);
+                    }
+                }
+            }
+        }
+    }
+}
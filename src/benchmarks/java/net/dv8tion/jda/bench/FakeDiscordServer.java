@@ -0,0 +1,302 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.bench;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Embeddable stand-in for the Discord REST api that emulates its ratelimit semantics.
+ * <p>
+ * Every request is assigned to a bucket (by default the request path without its query) which allows
+ * {@link #setRouteLimit(int, int) routeLimit} requests per window. Each response carries the
+ * <code>x-ratelimit-limit</code>, <code>x-ratelimit-remaining</code> and <code>x-ratelimit-reset</code> headers as
+ * well as a RFC 1123 <code>date</code> header. Exceeding a bucket returns a 429 with <code>retry-after</code>
+ * (milliseconds) and a json body. Exceeding the {@link #setGlobalLimit(int) global limit} additionally sets
+ * <code>x-ratelimit-global: true</code>.
+ * <p>
+ * Successful requests are answered with <code>{"id": ..., "route": ...}</code> after an optional artificial latency.
+ */
+public class FakeDiscordServer
+{
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, Bucket> buckets = new HashMap<>();
+    private final Object globalLock = new Object();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong routeLimited = new AtomicLong();
+    private final AtomicLong globalLimited = new AtomicLong();
+    private final AtomicLong ids = new AtomicLong(200000000000000000L);
+
+    private volatile int routeLimit = 5;
+    private volatile int routeWindowSeconds = 1;
+    private volatile int globalLimit = 50;
+    private volatile long latencyMillis = 0;
+    private volatile Function<String, String> bucketResolver = path -> path;
+
+    private long globalWindowStart = 0;
+    private int globalUsed = 0;
+
+    public FakeDiscordServer() throws IOException
+    {
+        this(0, 8);
+    }
+
+    public FakeDiscordServer(int port, int threads) throws IOException
+    {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 512);
+        this.executor = Executors.newFixedThreadPool(threads, r ->
+        {
+            Thread t = new Thread(r, "FakeDiscordServer");
+            t.setDaemon(true);
+            return t;
+        });
+        this.server.setExecutor(executor);
+        this.server.createContext("/api/", this::handle);
+    }
+
+    public FakeDiscordServer start()
+    {
+        server.start();
+        return this;
+    }
+
+    public void stop()
+    {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * The base url to pass to {@link net.dv8tion.jda.core.requests.Requester#Requester(net.dv8tion.jda.core.JDA, net.dv8tion.jda.core.AccountType, String)}.
+     *
+     * @return The base url of this server, ending with a '/'
+     */
+    public String getApiPrefix()
+    {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/api/";
+    }
+
+    public FakeDiscordServer setRouteLimit(int limit, int windowSeconds)
+    {
+        if (limit < 1 || windowSeconds < 1)
+            throw new IllegalArgumentException("Route limit and window must be positive");
+        this.routeLimit = limit;
+        this.routeWindowSeconds = windowSeconds;
+        return this;
+    }
+
+    /**
+     * Sets how many requests are allowed over all routes per second. Use <code>0</code> to disable the global limit.
+     */
+    public FakeDiscordServer setGlobalLimit(int globalLimit)
+    {
+        this.globalLimit = globalLimit;
+        return this;
+    }
+
+    public FakeDiscordServer setLatency(long latencyMillis)
+    {
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    /**
+     * Changes how request paths are mapped to ratelimit buckets.
+     * The default uses the full path, which matches routes whose only parameter is the major parameter.
+     */
+    public FakeDiscordServer setBucketResolver(Function<String, String> bucketResolver)
+    {
+        this.bucketResolver = bucketResolver;
+        return this;
+    }
+
+    public long getRequestCount()
+    {
+        return requests.get();
+    }
+
+    public long getRouteLimitedCount()
+    {
+        return routeLimited.get();
+    }
+
+    public long getGlobalLimitedCount()
+    {
+        return globalLimited.get();
+    }
+
+    public void resetStatistics()
+    {
+        requests.set(0);
+        routeLimited.set(0);
+        globalLimited.set(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            drain(exchange.getRequestBody());
+            requests.incrementAndGet();
+
+            String path = exchange.getRequestURI().getPath().substring("/api/".length());
+            long now = System.currentTimeMillis();
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("date", DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(now).atOffset(ZoneOffset.UTC)));
+            headers.set("content-type", "application/json");
+
+            long globalRetry = acquireGlobal(now);
+            if (globalRetry > 0)
+            {
+                globalLimited.incrementAndGet();
+                headers.set("retry-after", Long.toString(globalRetry));
+                headers.set("x-ratelimit-global", "true");
+                respond(exchange, 429, new JSONObject()
+                        .put("message", "You are being rate limited.")
+                        .put("retry_after", globalRetry)
+                        .put("global", true));
+                return;
+            }
+
+            Bucket bucket = getBucket(bucketResolver.apply(path));
+            long retryAfter;
+            int remaining;
+            long resetSeconds;
+            synchronized (bucket)
+            {
+                long windowMillis = routeWindowSeconds * 1000L;
+                if (now >= bucket.resetTime)
+                {
+                    bucket.resetTime = (now / 1000 + routeWindowSeconds) * 1000; //Discord only provides second precision
+                    bucket.remaining = routeLimit;
+                }
+                if (bucket.remaining > 0)
+                {
+                    bucket.remaining--;
+                    retryAfter = 0;
+                }
+                else
+                {
+                    retryAfter = Math.max(1, Math.min(windowMillis, bucket.resetTime - now));
+                }
+                remaining = bucket.remaining;
+                resetSeconds = bucket.resetTime / 1000;
+            }
+
+            headers.set("x-ratelimit-limit", Integer.toString(routeLimit));
+            headers.set("x-ratelimit-remaining", Integer.toString(remaining));
+            headers.set("x-ratelimit-reset", Long.toString(resetSeconds));
+
+            if (retryAfter > 0)
+            {
+                routeLimited.incrementAndGet();
+                headers.set("retry-after", Long.toString(retryAfter));
+                respond(exchange, 429, new JSONObject()
+                        .put("message", "You are being rate limited.")
+                        .put("retry_after", retryAfter)
+                        .put("global", false));
+                return;
+            }
+
+            if (latencyMillis > 0)
+                Thread.sleep(latencyMillis);
+
+            respond(exchange, 200, new JSONObject()
+                    .put("id", Long.toString(ids.incrementAndGet()))
+                    .put("route", path));
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    private long acquireGlobal(long now)
+    {
+        int limit = globalLimit;
+        if (limit <= 0)
+            return 0;
+        synchronized (globalLock)
+        {
+            if (now - globalWindowStart >= 1000)
+            {
+                globalWindowStart = now;
+                globalUsed = 0;
+            }
+            if (globalUsed < limit)
+            {
+                globalUsed++;
+                return 0;
+            }
+            return Math.max(1, 1000 - (now - globalWindowStart));
+        }
+    }
+
+    private Bucket getBucket(String key)
+    {
+        synchronized (buckets)
+        {
+            return buckets.computeIfAbsent(key, k -> new Bucket());
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int code, JSONObject body) throws IOException
+    {
+        byte[] data = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, data.length);
+        try (OutputStream out = exchange.getResponseBody())
+        {
+            out.write(data);
+        }
+    }
+
+    private static void drain(InputStream in) throws IOException
+    {
+        byte[] buffer = new byte[1024];
+        while (in.read(buffer) != -1);
+        in.close();
+    }
+
+    private static class Bucket
+    {
+        long resetTime = 0;
+        int remaining = 0;
+    }
+}
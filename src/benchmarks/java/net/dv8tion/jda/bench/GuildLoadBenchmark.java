@@ -0,0 +1,225 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.bench;
+
+import net.dv8tion.jda.core.AccountType;
+import net.dv8tion.jda.core.entities.EntityBuilder;
+import net.dv8tion.jda.core.entities.impl.JDAImpl;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Replays a synthetic burst of GUILD_CREATE payloads through {@link EntityBuilder#buildGuild(JSONObject)}, once on a
+ * single thread (like the websocket thread does with a guild setup parallelism of 1) and once on a fork-join pool
+ * (like {@link net.dv8tion.jda.core.handle.ReadyHandler ReadyHandler} and the guild setup pipeline do).
+ * <br>Every run starts with an empty cache. Members are partially shared between guilds, so the user cache sees the
+ * same contention as a real shard.
+ * <p>
+ * Arguments (all optional): <code>--guilds N --members N --roles N --channels N --threads N --iterations N</code>
+ */
+public class GuildLoadBenchmark
+{
+    public static void main(String[] args)
+    {
+        int guilds = 2500;
+        int members = 100;
+        int roles = 20;
+        int channels = 20;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int iterations = 5;
+        for (int i = 0; i < args.length - 1; i += 2)
+        {
+            switch (args[i])
+            {
+                case "--guilds":
+                    guilds = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--members":
+                    members = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--roles":
+                    roles = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--channels":
+                    channels = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        List<JSONObject> payloads = new ArrayList<>(guilds);
+        for (int i = 0; i < guilds; i++)
+            payloads.add(createGuild(i, members, roles, channels));
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try
+        {
+            //Warm up both paths before measuring
+            run(payloads, null);
+            run(payloads, pool);
+
+            long[] sequential = new long[iterations];
+            long[] parallel = new long[iterations];
+            for (int i = 0; i < iterations; i++)
+            {
+                sequential[i] = run(payloads, null);
+                parallel[i] = run(payloads, pool);
+            }
+
+            long sequentialMedian = median(sequential);
+            long parallelMedian = median(parallel);
+            System.out.printf("Guilds:     %d (%d members, %d roles, %d channels each)%n", guilds, members, roles, channels);
+            System.out.printf("Sequential: %d ms (median of %d)%n", sequentialMedian / 1_000_000, iterations);
+            System.out.printf("Parallel:   %d ms (median of %d, %d threads)%n", parallelMedian / 1_000_000, iterations, threads);
+            System.out.printf("Speedup:    %.2fx%n", (double) sequentialMedian / parallelMedian);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    private static long run(List<JSONObject> payloads, ForkJoinPool pool)
+    {
+        JDAImpl api = new JDAImpl(AccountType.BOT, null, false, false, false, false);
+        try
+        {
+            EntityBuilder builder = EntityBuilder.get(api);
+            long start = System.nanoTime();
+            if (pool == null)
+                payloads.forEach(builder::buildGuild);
+            else
+                pool.submit(() -> IntStream.range(0, payloads.size()).parallel()
+                        .forEach(i -> builder.buildGuild(payloads.get(i)))).join();
+            long time = System.nanoTime() - start;
+
+            if (api.getGuildMap().size() != payloads.size())
+                throw new IllegalStateException("Expected " + payloads.size() + " guilds but got " + api.getGuildMap().size());
+            return time;
+        }
+        finally
+        {
+            api.getRequester().shutdownNow();
+        }
+    }
+
+    private static JSONObject createGuild(int index, int memberCount, int roleCount, int channelCount)
+    {
+        long guildId = 200000000000000000L + index * 10000L;
+
+        JSONArray roles = new JSONArray();
+        for (int i = 0; i < roleCount; i++)
+        {
+            roles.put(new JSONObject()
+                    .put("id", i == 0 ? guildId : guildId + 1 + i)
+                    .put("name", i == 0 ? "@everyone" : "role-" + i)
+                    .put("position", i)
+                    .put("permissions", 104324161)
+                    .put("managed", false)
+                    .put("hoist", i % 5 == 0)
+                    .put("color", i * 1000)
+                    .put("mentionable", false));
+        }
+
+        //Every guild shares half of its members with the previous guild
+        JSONArray members = new JSONArray();
+        JSONArray presences = new JSONArray();
+        long firstUser = 100000000000000000L + index * (memberCount / 2);
+        for (int i = 0; i < memberCount; i++)
+        {
+            long userId = firstUser + i;
+            JSONObject user = new JSONObject()
+                    .put("id", userId)
+                    .put("username", "user-" + userId % 100000)
+                    .put("discriminator", String.format("%04d", userId % 10000))
+                    .put("avatar", JSONObject.NULL);
+            members.put(new JSONObject()
+                    .put("user", user)
+                    .put("mute", false)
+                    .put("deaf", false)
+                    .put("joined_at", "2016-12-01T12:00:00.000000+00:00")
+                    .put("nick", i % 10 == 0 ? "nick-" + i : JSONObject.NULL)
+                    .put("roles", roleCount > 1
+                            ? new JSONArray().put(guildId + 2 + i % (roleCount - 1))
+                            : new JSONArray()));
+            presences.put(new JSONObject()
+                    .put("user", new JSONObject().put("id", userId))
+                    .put("status", i % 3 == 0 ? "online" : "idle")
+                    .put("game", i % 4 == 0 ? new JSONObject().put("name", "game-" + i % 20) : JSONObject.NULL));
+        }
+
+        JSONArray channels = new JSONArray();
+        for (int i = 0; i < channelCount; i++)
+        {
+            boolean text = i % 4 != 3;
+            JSONArray overrides = new JSONArray()
+                    .put(new JSONObject().put("id", guildId).put("type", "role").put("allow", 0).put("deny", 2048))
+                    .put(new JSONObject().put("id", firstUser + i % memberCount).put("type", "member").put("allow", 2048).put("deny", 0));
+            JSONObject channel = new JSONObject()
+                    .put("id", i == 0 ? guildId : guildId + 5000 + i)
+                    .put("type", text ? 0 : 2)
+                    .put("name", "channel-" + i)
+                    .put("position", i)
+                    .put("permission_overwrites", overrides);
+            if (text)
+                channel.put("topic", "Topic of channel " + i);
+            else
+                channel.put("user_limit", 0).put("bitrate", 64000);
+            channels.put(channel);
+        }
+
+        return new JSONObject()
+                .put("id", guildId)
+                .put("name", "guild-" + index)
+                .put("icon", JSONObject.NULL)
+                .put("splash", JSONObject.NULL)
+                .put("region", "us-east")
+                .put("afk_timeout", 300)
+                .put("afk_channel_id", JSONObject.NULL)
+                .put("verification_level", 0)
+                .put("default_message_notifications", 0)
+                .put("mfa_level", 0)
+                .put("owner_id", firstUser)
+                .put("member_count", memberCount)
+                .put("roles", roles)
+                .put("emojis", new JSONArray())
+                .put("members", members)
+                .put("presences", presences)
+                .put("channels", channels)
+                .put("voice_states", new JSONArray());
+    }
+
+    private static long median(long[] values)
+    {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.bench;
+
+import net.dv8tion.jda.core.AccountType;
+import net.dv8tion.jda.core.entities.impl.*;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.PrintStream;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures the heap footprint of cached {@link net.dv8tion.jda.core.entities.Member Members} with
+ * <a href="http://openjdk.java.net/projects/code-tools/jol/">JOL</a>.
+ * <br>Fills a guild with members and reports the retained size per member (including its user and the index
+ * entries of the guild) by comparing the object graph of the guild before and after.
+ * <p>
+ * Arguments (all optional): <code>--members N --roles N --roles-per-member N</code>
+ */
+public class MemberFootprint
+{
+    public static void main(String[] args)
+    {
+        int members = 10000;
+        int roles = 50;
+        int rolesPerMember = 3;
+        for (int i = 0; i < args.length - 1; i += 2)
+        {
+            switch (args[i])
+            {
+                case "--members":
+                    members = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--roles":
+                    roles = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--roles-per-member":
+                    rolesPerMember = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        JDAImpl api = new JDAImpl(AccountType.BOT, null, false, false, false, false);
+        try
+        {
+            print(System.out, api, members, roles, rolesPerMember);
+        }
+        finally
+        {
+            api.getRequester().shutdownNow();
+        }
+    }
+
+    private static void print(PrintStream out, JDAImpl api, int memberCount, int roleCount, int rolesPerMember)
+    {
+        GuildImpl guild = new GuildImpl(api, 1L);
+        long[] roleIds = new long[roleCount];
+        for (int i = 0; i < roleCount; i++)
+        {
+            roleIds[i] = 1000L + i;
+            RoleImpl role = new RoleImpl(roleIds[i], guild)
+                    .setName("role-" + i)
+                    .setRawPosition(i);
+            guild.getRolesMap().put(role.getIdLong(), role);
+        }
+
+        long before = GraphLayout.parseInstance(guild).totalSize();
+
+        Random random = new Random(0);
+        OffsetDateTime joined = OffsetDateTime.now();
+        for (int i = 0; i < memberCount; i++)
+        {
+            long userId = 100000000000000000L + i;
+            UserImpl user = new UserImpl(userId, api)
+                    .setName("user-" + i)
+                    .setDiscriminator(String.format("%04d", i % 10000));
+            api.getUserMap().put(userId, user);
+
+            long[] memberRoles = new long[Math.min(rolesPerMember, roleCount)];
+            for (int k = 0; k < memberRoles.length; k++)
+                memberRoles[k] = roleIds[random.nextInt(roleCount)];
+            MemberImpl member = new MemberImpl(guild, user)
+                    .setJoinDate(joined.minusMinutes(i))
+                    .setNickname(i % 10 == 0 ? "nick-" + i : null)
+                    .setRoleIds(Arrays.stream(memberRoles).distinct().toArray());
+            guild.getMembersMap().put(userId, member);
+        }
+
+        long after = GraphLayout.parseInstance(guild).totalSize();
+
+        out.println(ClassLayout.parseClass(MemberImpl.class).toPrintable());
+        out.printf("Members:             %d (%d roles each, %d roles in the guild)%n",
+                memberCount, rolesPerMember, roleCount);
+        out.printf("Guild graph:         %d bytes before, %d bytes after%n", before, after);
+        out.printf("Retained per member: %d bytes (member, user, names and indexes)%n",
+                memberCount == 0 ? 0 : (after - before) / memberCount);
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.bench;
+
+import net.dv8tion.jda.core.AccountType;
+import net.dv8tion.jda.core.entities.impl.JDAImpl;
+import net.dv8tion.jda.core.requests.*;
+import org.json.JSONObject;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives thousands of {@link net.dv8tion.jda.core.requests.RestAction RestActions} through the
+ * {@link net.dv8tion.jda.core.requests.Requester Requester} against a {@link FakeDiscordServer} and reports
+ * throughput, 429 rate, queue latency percentiles and thread usage.
+ * <p>
+ * Arguments (all optional): <code>--requests N --channels N --route-limit N --window SECONDS --global N
+ * --latency MILLIS --client --timeout SECONDS</code>
+ */
+public class RequesterBenchmark
+{
+    public static void main(String[] args) throws Exception
+    {
+        Options options = Options.parse(args);
+        FakeDiscordServer server = new FakeDiscordServer()
+                .setRouteLimit(options.routeLimit, options.windowSeconds)
+                .setGlobalLimit(options.globalLimit)
+                .setLatency(options.latencyMillis)
+                .start();
+        try
+        {
+            Result result = run(server, options);
+            result.print(System.out);
+        }
+        finally
+        {
+            server.stop();
+        }
+    }
+
+    public static Result run(FakeDiscordServer server, Options options) throws InterruptedException
+    {
+        BenchmarkJDA api = new BenchmarkJDA(options.accountType, server.getApiPrefix());
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        int total = options.requests;
+        long[] latencies = new long[total];
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(total);
+
+        server.resetStatistics();
+        threads.resetPeakThreadCount();
+        long startedThreads = threads.getTotalStartedThreadCount();
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++)
+        {
+            final int index = i;
+            String channelId = Long.toString(100000000000000000L + (i % options.channels));
+            JSONObject body = new JSONObject().put("content", "Benchmark message " + i);
+            long queued = System.nanoTime();
+            new BenchmarkAction(api, Route.Messages.SEND_MESSAGE.compile(channelId), body).queue(
+                success ->
+                {
+                    latencies[index] = System.nanoTime() - queued;
+                    done.countDown();
+                },
+                failure ->
+                {
+                    latencies[index] = System.nanoTime() - queued;
+                    failures.incrementAndGet();
+                    done.countDown();
+                });
+        }
+
+        boolean finished = done.await(options.timeoutSeconds, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+
+        Result result = new Result();
+        result.finished = finished;
+        result.completed = total - (int) done.getCount();
+        result.failures = failures.get();
+        result.elapsedNanos = elapsed;
+        result.serverRequests = server.getRequestCount();
+        result.routeLimited = server.getRouteLimitedCount();
+        result.globalLimited = server.getGlobalLimitedCount();
+        result.peakThreads = threads.getPeakThreadCount();
+        result.startedThreads = threads.getTotalStartedThreadCount() - startedThreads;
+        result.latencies = Arrays.copyOf(latencies, result.completed);
+        if (finished)
+            Arrays.sort(result.latencies);
+
+        api.getRequester().shutdownNow();
+        return result;
+    }
+
+    public static class Options
+    {
+        public int requests = 2000;
+        public int channels = 50;
+        public int routeLimit = 5;
+        public int windowSeconds = 1;
+        public int globalLimit = 50;
+        public long latencyMillis = 0;
+        public long timeoutSeconds = 300;
+        public AccountType accountType = AccountType.BOT;
+
+        public static Options parse(String[] args)
+        {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++)
+            {
+                switch (args[i])
+                {
+                    case "--requests":
+                        options.requests = Integer.parseInt(args[++i]);
+                        break;
+                    case "--channels":
+                        options.channels = Integer.parseInt(args[++i]);
+                        break;
+                    case "--route-limit":
+                        options.routeLimit = Integer.parseInt(args[++i]);
+                        break;
+                    case "--window":
+                        options.windowSeconds = Integer.parseInt(args[++i]);
+                        break;
+                    case "--global":
+                        options.globalLimit = Integer.parseInt(args[++i]);
+                        break;
+                    case "--latency":
+                        options.latencyMillis = Long.parseLong(args[++i]);
+                        break;
+                    case "--timeout":
+                        options.timeoutSeconds = Long.parseLong(args[++i]);
+                        break;
+                    case "--client":
+                        options.accountType = AccountType.CLIENT;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+            return options;
+        }
+    }
+
+    public static class Result
+    {
+        public boolean finished;
+        public int completed;
+        public int failures;
+        public long elapsedNanos;
+        public long serverRequests;
+        public long routeLimited;
+        public long globalLimited;
+        public int peakThreads;
+        public long startedThreads;
+        public long[] latencies;
+
+        public double getRequestsPerSecond()
+        {
+            return completed / (elapsedNanos / 1_000_000_000D);
+        }
+
+        public double getRateLimitedRatio()
+        {
+            return serverRequests == 0 ? 0 : (routeLimited + globalLimited) / (double) serverRequests;
+        }
+
+        public long getLatencyPercentile(double percentile)
+        {
+            if (latencies.length == 0)
+                return 0;
+            int index = (int) Math.ceil(percentile / 100D * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+        }
+
+        public void print(java.io.PrintStream out)
+        {
+            out.printf("Completed:        %d (%d failed)%s%n", completed, failures, finished ? "" : " [TIMED OUT]");
+            out.printf("Elapsed:          %.2f s%n", elapsedNanos / 1_000_000_000D);
+            out.printf("Throughput:       %.1f requests/s%n", getRequestsPerSecond());
+            out.printf("HTTP requests:    %d (%d route 429, %d global 429, %.2f%% limited)%n",
+                    serverRequests, routeLimited, globalLimited, getRateLimitedRatio() * 100);
+            if (finished)
+            {
+                out.printf("Queue latency:    p50 %.1f ms | p90 %.1f ms | p99 %.1f ms | max %.1f ms%n",
+                        getLatencyPercentile(50) / 1_000_000D, getLatencyPercentile(90) / 1_000_000D,
+                        getLatencyPercentile(99) / 1_000_000D, getLatencyPercentile(100) / 1_000_000D);
+            }
+            out.printf("Threads:          peak %d live, %d started during run%n", peakThreads, startedThreads);
+        }
+    }
+
+    private static class BenchmarkJDA extends JDAImpl
+    {
+        BenchmarkJDA(AccountType accountType, String apiPrefix)
+        {
+            super(accountType, null, false, false, false, false);
+            this.requester.shutdownNow();
+            this.requester = new Requester(this, accountType, apiPrefix);
+            setToken("benchmark-token");
+        }
+    }
+
+    private static class BenchmarkAction extends RestAction<Void>
+    {
+        BenchmarkAction(JDAImpl api, Route.CompiledRoute route, Object data)
+        {
+            super(api, route, data);
+        }
+
+        @Override
+        protected void handleResponse(Response response, Request request)
+        {
+            if (response.isOk())
+                request.onSuccess(null);
+            else
+                request.onFailure(response);
+        }
+    }
+}
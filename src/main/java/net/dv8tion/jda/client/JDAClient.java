@@ -30,6 +30,7 @@ public interface JDAClient
     List<Group> getGroups();
     List<Group> getGroupsByName(String name, boolean ignoreCase);
     Group getGroupById(String id);
+    Group getGroupById(long id);
 
     List<Relationship> getRelationships();
     List<Relationship> getRelationships(RelationshipType type);
@@ -39,12 +40,15 @@ public interface JDAClient
     Relationship getRelationship(Member member);
     Relationship getRelationshipById(String id);
     Relationship getRelationshipById(String id, RelationshipType type);
+    Relationship getRelationshipById(long id);
+    Relationship getRelationshipById(long id, RelationshipType type);
 
     List<Friend> getFriends();
     List<Friend> getFriendsByName(String name, boolean ignoreCase);
     Friend getFriend(User user);
     Friend getFriend(Member member);
     Friend getFriendById(String id);
+    Friend getFriendById(long id);
 
     UserSettings getSettings();
 }
@@ -16,6 +16,7 @@
 
 package net.dv8tion.jda.client.entities.impl;
 
+import gnu.trove.map.TLongObjectMap;
 import net.dv8tion.jda.client.entities.Call;
 import net.dv8tion.jda.client.entities.CallUser;
 import net.dv8tion.jda.client.entities.CallableChannel;
@@ -25,6 +26,7 @@ import net.dv8tion.jda.core.entities.MessageChannel;
 import net.dv8tion.jda.core.entities.PrivateChannel;
 import net.dv8tion.jda.core.entities.TextChannel;
 import net.dv8tion.jda.core.entities.User;
+import net.dv8tion.jda.core.utils.ConcurrentLongObjectMap;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -34,8 +36,8 @@ public class CallImpl implements Call
     private final CallableChannel callableChannel;
     private final String messageId;
 
-    private HashMap<String, CallUser> callUsers = new HashMap<>();
-    private HashMap<String, CallUser> callUserHistory = new HashMap<>();
+    private TLongObjectMap<CallUser> callUsers = new ConcurrentLongObjectMap<>();
+    private TLongObjectMap<CallUser> callUserHistory = new ConcurrentLongObjectMap<>();
 
     private Region region;
 
@@ -84,7 +86,7 @@ public class CallImpl implements Call
     @Override
     public List<CallUser> getRingingUsers()
     {
-        return Collections.unmodifiableList(callUsers.values().stream()
+        return Collections.unmodifiableList(callUsers.valueCollection().stream()
                 .filter(cu -> cu.isRinging())
                 .collect(Collectors.toList()));
     }
@@ -92,7 +94,7 @@ public class CallImpl implements Call
     @Override
     public List<CallUser> getConnectedUsers()
     {
-        return Collections.unmodifiableList(callUsers.values().stream()
+        return Collections.unmodifiableList(callUsers.valueCollection().stream()
                 .filter(cu -> cu.getVoiceState().isInCall())
                 .collect(Collectors.toList()));
     }
@@ -101,20 +103,20 @@ public class CallImpl implements Call
     public List<CallUser> getCallUserHistory()
     {
         return Collections.unmodifiableList(
-                new ArrayList<>(callUserHistory.values()));
+                new ArrayList<>(callUserHistory.valueCollection()));
     }
 
     @Override
     public List<CallUser> getAllCallUsers()
     {
         return Collections.unmodifiableList(
-                new ArrayList<>(callUsers.values()));
+                new ArrayList<>(callUsers.valueCollection()));
     }
 
     @Override
-    public String getId()
+    public long getIdLong()
     {
-        return callableChannel.getId();
+        return callableChannel.getIdLong();
     }
 
     @Override
@@ -130,7 +132,7 @@ public class CallImpl implements Call
             return false;
 
         Call oCall = (Call) o;
-        return getId().equals(oCall.getId()) && Objects.equals(messageId, oCall.getMessageId());
+        return getIdLong() == oCall.getIdLong() && Objects.equals(messageId, oCall.getMessageId());
     }
 
     @Override
@@ -145,12 +147,12 @@ public class CallImpl implements Call
         return this;
     }
 
-    public HashMap<String, CallUser> getCallUserMap()
+    public TLongObjectMap<CallUser> getCallUserMap()
     {
         return callUsers;
     }
 
-    public HashMap<String, CallUser> getCallUserHistoryMap()
+    public TLongObjectMap<CallUser> getCallUserHistoryMap()
     {
         return callUserHistory;
     }
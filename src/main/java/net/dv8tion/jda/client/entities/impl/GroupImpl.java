@@ -18,6 +18,7 @@ package net.dv8tion.jda.client.entities.impl;
 
 import com.mashape.unirest.http.Unirest;
 import com.mashape.unirest.request.body.MultipartBody;
+import gnu.trove.map.TLongObjectMap;
 import net.dv8tion.jda.client.entities.Call;
 import net.dv8tion.jda.client.entities.Friend;
 import net.dv8tion.jda.client.entities.Group;
@@ -30,6 +31,7 @@ import net.dv8tion.jda.core.entities.Message;
 import net.dv8tion.jda.core.entities.User;
 import net.dv8tion.jda.core.entities.impl.JDAImpl;
 import net.dv8tion.jda.core.requests.*;
+import net.dv8tion.jda.core.utils.ConcurrentLongObjectMap;
 import net.dv8tion.jda.core.utils.IOUtil;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -41,17 +43,17 @@ import java.util.*;
 
 public class GroupImpl implements Group
 {
-    private final String id;
+    private final long id;
     private final JDAImpl api;
 
-    private HashMap<String, User> userMap = new HashMap<>();
+    private TLongObjectMap<User> userMap = new ConcurrentLongObjectMap<>();
 
     private Call currentCall;
     private User owner;
     private String name;
     private String iconId;
 
-    public GroupImpl(String id, JDAImpl api)
+    public GroupImpl(long id, JDAImpl api)
     {
         this.id = id;
         this.api = api;
@@ -92,18 +94,19 @@ public class GroupImpl implements Group
     {
         return Collections.unmodifiableList(
                 new ArrayList<>(
-                        userMap.values()));
+                        userMap.valueCollection()));
     }
 
     @Override
     public List<User> getNonFriendUsers()
     {
         List<User> nonFriends = new ArrayList<>();
-        userMap.forEach((userId, user) ->
+        userMap.forEachEntry((userId, user) ->
         {
             Friend friend = api.asClient().getFriendById(userId);
             if (friend == null)
                 nonFriends.add(user);
+            return true;
         });
         return Collections.unmodifiableList(nonFriends);
     }
@@ -112,7 +115,7 @@ public class GroupImpl implements Group
     public List<Friend> getFriends()
     {
         List<Friend> friends = new ArrayList<>();
-        for (String userId : userMap.keySet())
+        for (long userId : userMap.keys())
         {
             Friend friend = api.asClient().getFriendById(userId);
             if (friend != null)
@@ -140,7 +143,7 @@ public class GroupImpl implements Group
     }
 
     @Override
-    public String getId()
+    public long getIdLong()
     {
         return id;
     }
@@ -207,8 +210,8 @@ public class GroupImpl implements Group
         checkNull(data, "data InputStream");
         checkNull(fileName, "fileName");
 
-        Route.CompiledRoute route = Route.Messages.SEND_MESSAGE.compile(id);
-        MultipartBody body = Unirest.post(Requester.DISCORD_API_PREFIX + route.getCompiledRoute())
+        Route.CompiledRoute route = Route.Messages.SEND_MESSAGE.compile(getId());
+        MultipartBody body = Unirest.post(api.getRequester().getApiPrefix() + route.getCompiledRoute())
                 .fields(null); //We use this to change from an HttpRequest to a MultipartBody
 
         body.field("file", data, fileName);
@@ -240,8 +243,8 @@ public class GroupImpl implements Group
         if (data.length > 8<<20)   //8MB
             throw new IllegalArgumentException("Provided data is too large! Max file-size is 8MB");
 
-        Route.CompiledRoute route = Route.Messages.SEND_MESSAGE.compile(id);
-        MultipartBody body = Unirest.post(Requester.DISCORD_API_PREFIX + route.getCompiledRoute())
+        Route.CompiledRoute route = Route.Messages.SEND_MESSAGE.compile(getId());
+        MultipartBody body = Unirest.post(api.getRequester().getApiPrefix() + route.getCompiledRoute())
                 .fields(null); //We use this to change from an HttpRequest to a MultipartBody
 
         body.field("file", data, fileName);
@@ -329,7 +332,7 @@ public class GroupImpl implements Group
     @Override
     public RestAction<Void> sendTyping()
     {
-        Route.CompiledRoute route = Route.Channels.SEND_TYPING.compile(id);
+        Route.CompiledRoute route = Route.Channels.SEND_TYPING.compile(getId());
         return new RestAction<Void>(getJDA(), route, null)
         {
             @Override
@@ -424,16 +427,16 @@ public class GroupImpl implements Group
             return false;
 
         Group oGroup = (Group) o;
-        return id.equals(oGroup.getId());
+        return id == oGroup.getIdLong();
     }
 
     @Override
     public int hashCode()
     {
-        return id.hashCode();
+        return Long.hashCode(id);
     }
 
-    public HashMap<String, User> getUserMap()
+    public TLongObjectMap<User> getUserMap()
     {
         return userMap;
     }
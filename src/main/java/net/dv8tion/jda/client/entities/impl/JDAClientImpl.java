@@ -16,25 +16,27 @@
 
 package net.dv8tion.jda.client.entities.impl;
 
+import gnu.trove.map.TLongObjectMap;
 import net.dv8tion.jda.client.JDAClient;
 import net.dv8tion.jda.client.entities.*;
 import net.dv8tion.jda.core.JDA;
 import net.dv8tion.jda.core.entities.Member;
 import net.dv8tion.jda.core.entities.User;
 import net.dv8tion.jda.core.entities.impl.JDAImpl;
+import net.dv8tion.jda.core.utils.ConcurrentLongObjectMap;
+import net.dv8tion.jda.core.utils.MiscUtil;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class JDAClientImpl implements JDAClient
 {
     protected final JDAImpl api;
-    protected final HashMap<String, Group> groups = new HashMap<>();
-    protected final HashMap<String, Relationship> relationships = new HashMap<>();
-    protected final HashMap<String, CallUser> callUsers = new HashMap<>();
+    protected final TLongObjectMap<Group> groups = new ConcurrentLongObjectMap<>();
+    protected final TLongObjectMap<Relationship> relationships = new ConcurrentLongObjectMap<>();
+    protected final TLongObjectMap<CallUser> callUsers = new ConcurrentLongObjectMap<>();
     protected UserSettingsImpl userSettings;
 
     public JDAClientImpl(JDAImpl api)
@@ -54,13 +56,13 @@ public class JDAClientImpl implements JDAClient
     {
         return Collections.unmodifiableList(
                 new ArrayList<>(
-                        groups.values()));
+                        groups.valueCollection()));
     }
 
     @Override
     public List<Group> getGroupsByName(String name, boolean ignoreCase)
     {
-        return Collections.unmodifiableList(groups.values().stream()
+        return Collections.unmodifiableList(groups.valueCollection().stream()
                 .filter(g -> g.getName() != null
                         && (ignoreCase
                             ? g.getName().equalsIgnoreCase(name)
@@ -70,6 +72,12 @@ public class JDAClientImpl implements JDAClient
 
     @Override
     public Group getGroupById(String id)
+    {
+        return getGroupById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Override
+    public Group getGroupById(long id)
     {
         return groups.get(id);
     }
@@ -79,13 +87,13 @@ public class JDAClientImpl implements JDAClient
     {
         return Collections.unmodifiableList(
                 new ArrayList<>(
-                        relationships.values()));
+                        relationships.valueCollection()));
     }
 
     @Override
     public List<Relationship> getRelationships(RelationshipType type)
     {
-        return Collections.unmodifiableList(relationships.values().stream()
+        return Collections.unmodifiableList(relationships.valueCollection().stream()
                 .filter(r -> r.getType().equals(type))
                 .collect(Collectors.toList()));
     }
@@ -93,7 +101,7 @@ public class JDAClientImpl implements JDAClient
     @Override
     public List<Relationship> getRelationships(RelationshipType type, String name, boolean ignoreCase)
     {
-        return Collections.unmodifiableList(relationships.values().stream()
+        return Collections.unmodifiableList(relationships.valueCollection().stream()
                 .filter(r -> r.getType().equals(type))
                 .filter(r -> (ignoreCase
                         ? r.getUser().getName().equalsIgnoreCase(name)
@@ -104,7 +112,7 @@ public class JDAClientImpl implements JDAClient
     @Override
     public List<Relationship> getRelationshipsByName(String name, boolean ignoreCase)
     {
-        return Collections.unmodifiableList(relationships.values().stream()
+        return Collections.unmodifiableList(relationships.valueCollection().stream()
                 .filter(r -> (ignoreCase
                         ? r.getUser().getName().equalsIgnoreCase(name)
                         : r.getUser().getName().equals(name)))
@@ -114,7 +122,7 @@ public class JDAClientImpl implements JDAClient
     @Override
     public Relationship getRelationship(User user)
     {
-        return getRelationshipById(user.getId());
+        return getRelationshipById(user.getIdLong());
     }
 
     @Override
@@ -125,12 +133,24 @@ public class JDAClientImpl implements JDAClient
 
     @Override
     public Relationship getRelationshipById(String id)
+    {
+        return getRelationshipById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Override
+    public Relationship getRelationshipById(long id)
     {
         return relationships.get(id);
     }
 
     @Override
     public Relationship getRelationshipById(String id, RelationshipType type)
+    {
+        return getRelationshipById(MiscUtil.parseSnowflake(id), type);
+    }
+
+    @Override
+    public Relationship getRelationshipById(long id, RelationshipType type)
     {
         Relationship relationship = getRelationshipById(id);
         if (relationship != null && relationship.getType() == type)
@@ -156,7 +176,7 @@ public class JDAClientImpl implements JDAClient
     @Override
     public Friend getFriend(User user)
     {
-        return getFriendById(user.getId());
+        return getFriendById(user.getIdLong());
     }
 
     @Override
@@ -167,6 +187,12 @@ public class JDAClientImpl implements JDAClient
 
     @Override
     public Friend getFriendById(String id)
+    {
+        return getFriendById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Override
+    public Friend getFriendById(long id)
     {
         return (Friend) getRelationshipById(id, RelationshipType.FRIEND);
     }
@@ -177,17 +203,17 @@ public class JDAClientImpl implements JDAClient
         return userSettings;
     }
 
-    public HashMap<String, Group> getGroupMap()
+    public TLongObjectMap<Group> getGroupMap()
     {
         return groups;
     }
 
-    public HashMap<String, Relationship> getRelationshipMap()
+    public TLongObjectMap<Relationship> getRelationshipMap()
     {
         return relationships;
     }
 
-    public HashMap<String, CallUser> getCallUserMap()
+    public TLongObjectMap<CallUser> getCallUserMap()
     {
         return callUsers;
     }
@@ -26,7 +26,12 @@ public class GroupMessageDeleteEvent extends GenericGroupMessageEvent
 
     public GroupMessageDeleteEvent(JDA api, long responseNumber, String messageId, Group group)
     {
-        super(api, responseNumber, null, group);
+        this(api, responseNumber, messageId, group, null);
+    }
+
+    public GroupMessageDeleteEvent(JDA api, long responseNumber, String messageId, Group group, Message message)
+    {
+        super(api, responseNumber, message, group);
         this.messageId = messageId;
     }
 
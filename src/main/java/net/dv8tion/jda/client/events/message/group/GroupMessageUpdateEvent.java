@@ -21,8 +21,26 @@ import net.dv8tion.jda.core.entities.Message;
 
 public class GroupMessageUpdateEvent extends GenericGroupMessageEvent
 {
+    private final Message previousMessage;
+
     public GroupMessageUpdateEvent(JDA api, long responseNumber, Message message)
+    {
+        this(api, responseNumber, message, null);
+    }
+
+    public GroupMessageUpdateEvent(JDA api, long responseNumber, Message message, Message previousMessage)
     {
         super(api, responseNumber, message, message.getGroup());
+        this.previousMessage = previousMessage;
+    }
+
+    /**
+     * The message as it was before the update, if it was kept by the message cache.
+     *
+     * @return The previous version of the message, or null if it was not cached
+     */
+    public Message getPreviousMessage()
+    {
+        return previousMessage;
     }
 }
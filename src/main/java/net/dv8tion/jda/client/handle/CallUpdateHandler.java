@@ -16,6 +16,8 @@
 
 package net.dv8tion.jda.client.handle;
 
+import gnu.trove.list.TLongList;
+import gnu.trove.list.array.TLongArrayList;
 import net.dv8tion.jda.client.entities.CallUser;
 import net.dv8tion.jda.client.entities.CallableChannel;
 import net.dv8tion.jda.client.entities.impl.CallImpl;
@@ -42,9 +44,9 @@ public class CallUpdateHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
-        String channelId = content.getString("channel_id");
+        long channelId = content.getLong("channel_id");
         JSONArray ringing = content.getJSONArray("ringing");
         Region region = Region.fromKey(content.getString("region"));
 
@@ -79,13 +81,13 @@ public class CallUpdateHandler extends SocketHandler
         //Deal with CallUser ringing status changes
         if (ringing.length() > 0)
         {
-            List<String> givenRingingIds = toStringList(ringing);
+            TLongList givenRingingIds = toLongList(ringing);
             List<CallUser> stoppedRingingUsers = new ArrayList<>();
             List<CallUser> startedRingingUsers = new ArrayList<>();
 
             for (CallUser cUser : call.getRingingUsers())
             {
-                String userId = cUser.getUser().getId();
+                long userId = cUser.getUser().getIdLong();
 
                 //If the ringing user is no longer ringing, change the ringing status
                 if (!givenRingingIds.contains(userId))
@@ -98,7 +100,7 @@ public class CallUpdateHandler extends SocketHandler
             }
 
             //Any Ids that are users that have started ringing, so we need to set their ringing status as such
-            for (String userId : givenRingingIds)
+            for (long userId : givenRingingIds.toArray())
             {
                 CallUserImpl cUser = (CallUserImpl) call.getCallUserMap().get(userId);
                 cUser.setRinging(true);
@@ -116,12 +118,12 @@ public class CallUpdateHandler extends SocketHandler
         return null;
     }
 
-    private List<String> toStringList(JSONArray array)
+    private TLongList toLongList(JSONArray array)
     {
-        List<String> strings = new ArrayList<>();
+        TLongList ids = new TLongArrayList(array.length());
         for (int i = 0; i < array.length(); i++)
-            strings.add(array.getString(i));
+            ids.add(array.getLong(i));
 
-        return strings;
+        return ids;
     }
 }
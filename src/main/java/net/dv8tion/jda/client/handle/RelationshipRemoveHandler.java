@@ -43,9 +43,9 @@ public class RelationshipRemoveHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
-        String userId = content.getString("id");
+        long userId = content.getLong("id");
         RelationshipType type = RelationshipType.fromKey(content.getInt("type"));
 
         //Technically this could be used to detect when another user has unblocked us,
@@ -70,7 +70,7 @@ public class RelationshipRemoveHandler extends SocketHandler
         if (relationship.getType() == RelationshipType.FRIEND)
         {
             //The user is not in a different guild that we share
-            if (!api.getGuildMap().values().stream().anyMatch(g -> ((GuildImpl) g).getMembersMap().containsKey(userId)))
+            if (!api.getGuildMap().valueCollection().stream().anyMatch(g -> ((GuildImpl) g).getMembersMap().containsKey(userId)))
             {
                 UserImpl user = (UserImpl) api.getUserMap().remove(userId);
                 if (user.hasPrivateChannel())
@@ -78,8 +78,8 @@ public class RelationshipRemoveHandler extends SocketHandler
                     PrivateChannelImpl priv = (PrivateChannelImpl) user.getPrivateChannel();
                     user.setFake(true);
                     priv.setFake(true);
-                    api.getFakeUserMap().put(user.getId(), user);
-                    api.getFakePrivateChannelMap().put(priv.getId(), priv);
+                    api.getFakeUserMap().put(user.getIdLong(), user);
+                    api.getFakePrivateChannelMap().put(priv.getIdLong(), priv);
                 }
                 else
                 {
@@ -91,7 +91,7 @@ public class RelationshipRemoveHandler extends SocketHandler
                         if (grp.getNonFriendUsers().contains(user))
                         {
                             user.setFake(true);
-                            api.getFakeUserMap().put(user.getId(), user);
+                            api.getFakeUserMap().put(user.getIdLong(), user);
                             break;
                         }
                     }
@@ -19,6 +19,8 @@ package net.dv8tion.jda.core;
 import net.dv8tion.jda.bot.JDABot;
 import net.dv8tion.jda.client.JDAClient;
 import net.dv8tion.jda.core.entities.*;
+import net.dv8tion.jda.core.hooks.EventMetricsListener;
+import net.dv8tion.jda.core.hooks.EventWaiter;
 import net.dv8tion.jda.core.hooks.IEventManager;
 import net.dv8tion.jda.core.managers.Presence;
 import net.dv8tion.jda.core.requests.ratelimit.IBucket;
@@ -135,6 +137,34 @@ public interface JDA
      */
     List<Object> getRegisteredListeners();
 
+    /**
+     * The {@link net.dv8tion.jda.core.hooks.EventWaiter EventWaiter} of this instance, used to wait for future events
+     * without registering a listener.
+     * <br>Example: {@code jda.getEventWaiter().waitForChannel(MessageReceivedEvent.class, channelId, null, 30, TimeUnit.SECONDS)}
+     *
+     * @return
+     *      The EventWaiter
+     */
+    EventWaiter getEventWaiter();
+
+    /**
+     * Sets the {@link net.dv8tion.jda.core.hooks.EventMetricsListener EventMetricsListener} that receives the
+     * timestamps of every gateway event and fired Event, e.g. an {@link net.dv8tion.jda.core.hooks.EventMetrics EventMetrics}.
+     * <br>Can be changed at any time, {@code null} disables the instrumentation.
+     *
+     * @param listener
+     *          The EventMetricsListener, or {@code null}
+     */
+    void setEventMetricsListener(EventMetricsListener listener);
+
+    /**
+     * The {@link net.dv8tion.jda.core.hooks.EventMetricsListener EventMetricsListener} of this instance.
+     *
+     * @return
+     *      The EventMetricsListener, or {@code null} if the instrumentation is disabled
+     */
+    EventMetricsListener getEventMetricsListener();
+
     /**
      * An unmodifiable list of all known {@link net.dv8tion.jda.core.entities.User Users}.<br>
      * This list will never contain duplicates and represents all {@link net.dv8tion.jda.core.entities.User Users} that
@@ -151,11 +181,24 @@ public interface JDA
      *
      * @param id
      *          The id of the {@link net.dv8tion.jda.core.entities.User User}.
+     * @throws java.lang.NumberFormatException
+     *      If the provided <code>id</code> cannot be parsed by {@link Long#parseUnsignedLong(String)}
      * @return
      *      Possibly-null {@link net.dv8tion.jda.core.entities.User User} with matching id.
      */
     User getUserById(String id);
 
+    /**
+     * This returns the {@link net.dv8tion.jda.core.entities.User User} who has the same id as the one provided.<br>
+     * If there is no known user with an id that matches the provided one, this this returns <code>null</code>.
+     *
+     * @param id
+     *          The id of the {@link net.dv8tion.jda.core.entities.User User}.
+     * @return
+     *      Possibly-null {@link net.dv8tion.jda.core.entities.User User} with matching id.
+     */
+    User getUserById(long id);
+
     /**
      * This unmodifiable returns all {@link net.dv8tion.jda.core.entities.User Users} that have the same username as the one provided.<br>
      * If there are no {@link net.dv8tion.jda.core.entities.User Users} with the provided name, then this returns an empty list.
@@ -169,6 +212,20 @@ public interface JDA
      */
     List<User> getUsersByName(String name, boolean ignoreCase);
 
+    /**
+     * This returns all {@link net.dv8tion.jda.core.entities.User Users} whose username starts with the provided prefix.
+     * Useful for autocompletion.<br>
+     * If there are no {@link net.dv8tion.jda.core.entities.User Users} with a matching name, then this returns an empty list.
+     *
+     * @param prefix
+     *          The start of the requested {@link net.dv8tion.jda.core.entities.User Users}' names.
+     * @param ignoreCase
+     *          Whether to ignore case or not.
+     * @return
+     *      Possibly-empty list of {@link net.dv8tion.jda.core.entities.User Users} whose names start with the provided prefix.
+     */
+    List<User> getUsersByPrefix(String prefix, boolean ignoreCase);
+
     /**
      * An unmodifiable list of all {@link net.dv8tion.jda.core.entities.Guild Guilds} that this account is connected to.<br>
      * If this account is not connected to any {@link net.dv8tion.jda.core.entities.Guild Guilds}, this will return
@@ -185,11 +242,24 @@ public interface JDA
      *
      * @param id
      *          The id of the {@link net.dv8tion.jda.core.entities.Guild Guild}.
+     * @throws java.lang.NumberFormatException
+     *      If the provided <code>id</code> cannot be parsed by {@link Long#parseUnsignedLong(String)}
      * @return
      *      Possibly-null {@link net.dv8tion.jda.core.entities.Guild Guild} with matching id.
      */
     Guild getGuildById(String id);
 
+    /**
+     * This returns the {@link net.dv8tion.jda.core.entities.Guild Guild} which has the same id as the one provided.<br>
+     * If there is no known guild with an id that matches the provided one, then this returns <code>null</code>.
+     *
+     * @param id
+     *          The id of the {@link net.dv8tion.jda.core.entities.Guild Guild}.
+     * @return
+     *      Possibly-null {@link net.dv8tion.jda.core.entities.Guild Guild} with matching id.
+     */
+    Guild getGuildById(long id);
+
     /**
      * An unmodifiable list of all {@link net.dv8tion.jda.core.entities.Guild Guilds} that have the same name as the one provided.<br>
      * If there are no {@link net.dv8tion.jda.core.entities.Guild Guilds} with the provided name, then this returns an empty list.
@@ -232,11 +302,31 @@ public interface JDA
      *
      * @param id
      *          The id of the {@link net.dv8tion.jda.core.entities.TextChannel TextChannel}.
+     * @throws java.lang.NumberFormatException
+     *      If the provided <code>id</code> cannot be parsed by {@link Long#parseUnsignedLong(String)}
      * @return
      *      Possibly-null {@link net.dv8tion.jda.core.entities.TextChannel TextChannel} with matching id.
      */
     TextChannel getTextChannelById(String id);
 
+    /**
+     * This returns the {@link net.dv8tion.jda.core.entities.TextChannel TextChannel} which has the same id as the one provided.<br>
+     * If there is no known {@link net.dv8tion.jda.core.entities.TextChannel TextChannel} with an id that matches the provided
+     * one, then this returns <code>null</code>.
+     * <p>
+     * <b>Note:</b> just because a {@link net.dv8tion.jda.core.entities.TextChannel TextChannel} is present does
+     * not mean that you will be able to send messages to it. Furthermore, if you log into this account on the discord
+     * client, it is you will not see the channel that this returns. This is because the discord client
+     * hides any {@link net.dv8tion.jda.core.entities.TextChannel TextChannel} that you don't have the
+     * {@link net.dv8tion.jda.core.Permission#MESSAGE_READ Permission.MESSAGE_READ} permission in.
+     *
+     * @param id
+     *          The id of the {@link net.dv8tion.jda.core.entities.TextChannel TextChannel}.
+     * @return
+     *      Possibly-null {@link net.dv8tion.jda.core.entities.TextChannel TextChannel} with matching id.
+     */
+    TextChannel getTextChannelById(long id);
+
     /**
      * An unmodifiable list of all {@link net.dv8tion.jda.core.entities.TextChannel TextChannels} that have the same name as the one provided.<br>
      * If there are no {@link net.dv8tion.jda.core.entities.TextChannel TextChannels} with the provided name, then this returns an empty list.
@@ -273,11 +363,25 @@ public interface JDA
      *
      * @param id
      *          The id of the {@link net.dv8tion.jda.core.entities.VoiceChannel VoiceChannel}.
+     * @throws java.lang.NumberFormatException
+     *      If the provided <code>id</code> cannot be parsed by {@link Long#parseUnsignedLong(String)}
      * @return
      *      Possibly-null {@link net.dv8tion.jda.core.entities.VoiceChannel VoiceChannel} with matching id.
      */
     VoiceChannel getVoiceChannelById(String id);
 
+    /**
+     * This returns the {@link net.dv8tion.jda.core.entities.VoiceChannel VoiceChannel} which has the same id as the one provided.<br>
+     * If there is no known {@link net.dv8tion.jda.core.entities.VoiceChannel VoiceChannel} with an id that matches the provided
+     * one, then this returns <code>null</code>.
+     *
+     * @param id
+     *          The id of the {@link net.dv8tion.jda.core.entities.VoiceChannel VoiceChannel}.
+     * @return
+     *      Possibly-null {@link net.dv8tion.jda.core.entities.VoiceChannel VoiceChannel} with matching id.
+     */
+    VoiceChannel getVoiceChannelById(long id);
+
     /**
      * An unmodifiable list of all {@link net.dv8tion.jda.core.entities.VoiceChannel VoiceChannels} that have the same name as the one provided.<br>
      * If there are no {@link net.dv8tion.jda.core.entities.VoiceChannel VoiceChannels} with the provided name, then this returns an empty list.
@@ -307,11 +411,25 @@ public interface JDA
      *
      * @param id
      *          The id of the {@link net.dv8tion.jda.core.entities.PrivateChannel PrivateChannel}.
+     * @throws java.lang.NumberFormatException
+     *      If the provided <code>id</code> cannot be parsed by {@link Long#parseUnsignedLong(String)}
      * @return
      *      Possibly-null {@link net.dv8tion.jda.core.entities.PrivateChannel PrivateChannel} with matching id.
      */
     PrivateChannel getPrivateChannelById(String id);
 
+    /**
+     * This returns the {@link net.dv8tion.jda.core.entities.PrivateChannel PrivateChannel} which has the same id as the one provided.<br>
+     * If there is no known {@link net.dv8tion.jda.core.entities.PrivateChannel PrivateChannel} with an id that matches the
+     * provided one, then this returns <code>null</code>.
+     *
+     * @param id
+     *          The id of the {@link net.dv8tion.jda.core.entities.PrivateChannel PrivateChannel}.
+     * @return
+     *      Possibly-null {@link net.dv8tion.jda.core.entities.PrivateChannel PrivateChannel} with matching id.
+     */
+    PrivateChannel getPrivateChannelById(long id);
+
     /**
      * A collection of all to us known emotes (managed/restricted included)<br>
      * <b>Hint</b>: To check whether you can use an {@link net.dv8tion.jda.core.entities.Emote Emote} you can use
@@ -341,11 +459,23 @@ public interface JDA
      *
      * @param id
      *      The emote id to look for
+     * @throws java.lang.NumberFormatException
+     *      If the provided <code>id</code> cannot be parsed by {@link Long#parseUnsignedLong(String)}
      * @return
      *      An {@link net.dv8tion.jda.core.entities.Emote Emote} represented by this id or null if none is found in our cache
      */
     Emote getEmoteById(String id);
 
+    /**
+     * Retrieves an emote matching the specified <code>id</code> if one is available in our cache.
+     *
+     * @param id
+     *      The emote id to look for
+     * @return
+     *      An {@link net.dv8tion.jda.core.entities.Emote Emote} represented by this id or null if none is found in our cache
+     */
+    Emote getEmoteById(long id);
+
     /**
      * Returns the currently logged in account represented by {@link net.dv8tion.jda.core.entities.SelfUser SelfUser}.<br>
      * Account settings <b>cannot</b> be modified using this object. If you wish to modify account settings please
@@ -18,11 +18,15 @@ package net.dv8tion.jda.core;
 import net.dv8tion.jda.core.JDA.Status;
 import net.dv8tion.jda.core.entities.Game;
 import net.dv8tion.jda.core.entities.impl.JDAImpl;
+import net.dv8tion.jda.core.entities.impl.MessageCache;
 import net.dv8tion.jda.core.exceptions.RateLimitedException;
+import net.dv8tion.jda.core.hooks.EventMetricsListener;
 import net.dv8tion.jda.core.hooks.IEventManager;
 import net.dv8tion.jda.core.managers.impl.PresenceImpl;
+import net.dv8tion.jda.core.utils.MemberCachePolicy;
 import org.apache.http.HttpHost;
 
+import java.io.File;
 import javax.security.auth.login.LoginException;
 import java.util.Arrays;
 import java.util.Collections;
@@ -56,6 +60,16 @@ public class JDABuilder
     protected JDA.ShardInfo shardInfo = null;
     protected Game game = null;
     protected OnlineStatus status = OnlineStatus.ONLINE;
+    protected MemberCachePolicy memberCachePolicy = MemberCachePolicy.ALL;
+    protected int memberCacheLimit = 0;
+    protected File snapshotFile = null;
+    protected int messageCacheSize = 0;
+    protected long messageCacheMemoryLimit = 0;
+    protected int guildSetupParallelism = Runtime.getRuntime().availableProcessors();
+    protected int largeThreshold = 250;
+    protected boolean chunkingEnabled = true;
+    protected boolean presenceAndTypingEnabled = true;
+    protected EventMetricsListener eventMetricsListener = null;
 
     /**
      * Creates a completely empty JDABuilder.<br>
@@ -165,6 +179,224 @@ public class JDABuilder
         return this;
     }
 
+    /**
+     * Sets the {@link net.dv8tion.jda.core.utils.MemberCachePolicy MemberCachePolicy} which decides what
+     * {@link net.dv8tion.jda.core.entities.Member Members} are kept in the cache.<br>
+     * Members that are not cached can be loaded using
+     * {@link net.dv8tion.jda.core.entities.Guild#retrieveMemberById(String) Guild.retrieveMemberById(String)}.
+     * <p>
+     * Default: <b>{@link net.dv8tion.jda.core.utils.MemberCachePolicy#ALL MemberCachePolicy.ALL}</b>
+     *
+     * @param policy
+     *          The MemberCachePolicy to use
+     * @return
+     *      Returns the {@link net.dv8tion.jda.core.JDABuilder JDABuilder} instance. Useful for chaining.
+     */
+    public JDABuilder setMemberCachePolicy(MemberCachePolicy policy)
+    {
+        if (policy == null)
+            throw new NullPointerException("Provided MemberCachePolicy was null!");
+        this.memberCachePolicy = policy;
+        return this;
+    }
+
+    /**
+     * Limits the amount of {@link net.dv8tion.jda.core.entities.Member Members} cached per Guild.<br>
+     * When the limit is exceeded the least recently active Member (joined, sent a message, changed presence
+     * or voice state) is unloaded (LRU), regardless of the configured
+     * {@link #setMemberCachePolicy(net.dv8tion.jda.core.utils.MemberCachePolicy) MemberCachePolicy}.
+     * <p>
+     * Default: <b>0 (unlimited)</b>
+     *
+     * @param limit
+     *          The maximum amount of cached Members per Guild, or 0 for no limit
+     * @return
+     *      Returns the {@link net.dv8tion.jda.core.JDABuilder JDABuilder} instance. Useful for chaining.
+     */
+    public JDABuilder setMemberCacheLimit(int limit)
+    {
+        if (limit < 0)
+            throw new IllegalArgumentException("Provided member cache limit was negative!");
+        this.memberCacheLimit = limit;
+        return this;
+    }
+
+    /**
+     * Sets the file used to keep a binary snapshot of the Guild cache between restarts.<br>
+     * The snapshot is written when JDA is shut down and loaded during login, so the cached
+     * {@link net.dv8tion.jda.core.entities.Guild Guilds}, channels, roles and members are available right away.
+     * The GUILD_CREATE events received afterwards are applied to the restored entities, and events of restored Guilds
+     * are handled while the remaining Guilds are still loading.
+     * <br>A snapshot written for a different account or shard is ignored.
+     * <p>
+     * Default: <b>null (no snapshot)</b>
+     *
+     * @param file
+     *          The snapshot file, or null to disable snapshots
+     * @return
+     *      Returns the {@link net.dv8tion.jda.core.JDABuilder JDABuilder} instance. Useful for chaining.
+     */
+    public JDABuilder setCacheSnapshot(File file)
+    {
+        this.snapshotFile = file;
+        return this;
+    }
+
+    /**
+     * Enables the message cache, keeping the most recent {@link net.dv8tion.jda.core.entities.Message Messages}
+     * of every {@link net.dv8tion.jda.core.entities.MessageChannel MessageChannel}.<br>
+     * Cached messages are provided as the previous state by the
+     * {@link net.dv8tion.jda.core.events.message.MessageUpdateEvent MessageUpdateEvent},
+     * {@link net.dv8tion.jda.core.events.message.MessageDeleteEvent MessageDeleteEvent} and
+     * {@link net.dv8tion.jda.core.events.message.MessageBulkDeleteEvent MessageBulkDeleteEvent}.
+     * <br>Messages are kept in their compact json form and only built when an event needs them.
+     * <p>
+     * Default: <b>0 (disabled)</b>
+     *
+     * @param size
+     *          The amount of messages cached per channel, or 0 to disable the message cache
+     * @return
+     *      Returns the {@link net.dv8tion.jda.core.JDABuilder JDABuilder} instance. Useful for chaining.
+     */
+    public JDABuilder setMessageCacheSize(int size)
+    {
+        if (size < 0)
+            throw new IllegalArgumentException("Provided message cache size was negative!");
+        this.messageCacheSize = size;
+        return this;
+    }
+
+    /**
+     * Limits the memory used by the message cache of all channels combined.<br>
+     * Once the limit is exceeded the oldest cached messages are dropped, regardless of their channel.
+     * Has no effect unless the cache is enabled using {@link #setMessageCacheSize(int)}.
+     * <p>
+     * Default: <b>0 (unlimited)</b>
+     *
+     * @param bytes
+     *          The maximum amount of bytes of cached message data, or 0 for no limit
+     * @return
+     *      Returns the {@link net.dv8tion.jda.core.JDABuilder JDABuilder} instance. Useful for chaining.
+     */
+    public JDABuilder setMessageCacheMemoryLimit(long bytes)
+    {
+        if (bytes < 0)
+            throw new IllegalArgumentException("Provided message cache memory limit was negative!");
+        this.messageCacheMemoryLimit = bytes;
+        return this;
+    }
+
+    /**
+     * Sets the amount of threads used to build {@link net.dv8tion.jda.core.entities.Guild Guilds} while JDA is loading.<br>
+     * The Guilds provided by READY and the GUILD_CREATE events of the initial load are independent of each other, so
+     * their roles, channels and members are created in parallel. Guilds are still completed, and events fired, in the
+     * order Discord sent them.
+     * <br>Note that the {@link net.dv8tion.jda.core.utils.MemberCachePolicy MemberCachePolicy} is called from these
+     * threads during the initial load.
+     * <p>
+     * Default: <b>the amount of available processors</b>
+     *
+     * @param threads
+     *          The amount of threads, 1 builds all Guilds on the websocket thread
+     * @return
+     *      Returns the {@link net.dv8tion.jda.core.JDABuilder JDABuilder} instance. Useful for chaining.
+     */
+    public JDABuilder setGuildSetupParallelism(int threads)
+    {
+        if (threads < 1)
+            throw new IllegalArgumentException("Guild setup parallelism must be at least 1!");
+        this.guildSetupParallelism = threads;
+        return this;
+    }
+
+    /**
+     * Sets the member count from which Discord considers a {@link net.dv8tion.jda.core.entities.Guild Guild} large.<br>
+     * The GUILD_CREATE of a large Guild only contains its online Members, the remaining Members are requested
+     * afterwards unless chunking is disabled using {@link #setChunkingEnabled(boolean)}.
+     * <p>
+     * Default: <b>250</b>
+     *
+     * @param threshold
+     *          The large threshold, between 50 and 250
+     * @return
+     *      Returns the {@link net.dv8tion.jda.core.JDABuilder JDABuilder} instance. Useful for chaining.
+     */
+    public JDABuilder setLargeThreshold(int threshold)
+    {
+        if (threshold < 50 || threshold > 250)
+            throw new IllegalArgumentException("Large threshold must be between 50 and 250!");
+        this.largeThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Sets whether JDA requests all {@link net.dv8tion.jda.core.entities.Member Members} of large
+     * {@link net.dv8tion.jda.core.entities.Guild Guilds} while loading.<br>
+     * If disabled, large Guilds are completed with the Members sent in their GUILD_CREATE and
+     * {@link net.dv8tion.jda.core.entities.Guild#isLoaded() Guild.isLoaded()} stays false. Other Members are cached
+     * when they show up in events or are requested using
+     * {@link net.dv8tion.jda.core.entities.Guild#requestMembers(String, int) Guild.requestMembers(String, int)}.
+     * The owner of such a Guild is retrieved right after it was loaded, until then
+     * {@link net.dv8tion.jda.core.entities.Guild#getOwner() Guild.getOwner()} can be null.
+     * <p>
+     * Default: <b>true</b>
+     *
+     * @param enabled
+     *          False, to skip member chunking at startup
+     * @return
+     *      Returns the {@link net.dv8tion.jda.core.JDABuilder JDABuilder} instance. Useful for chaining.
+     */
+    public JDABuilder setChunkingEnabled(boolean enabled)
+    {
+        this.chunkingEnabled = enabled;
+        return this;
+    }
+
+    /**
+     * Sets whether JDA processes PRESENCE_UPDATE and TYPING_START.<br>
+     * Presence updates usually make up most of the traffic of a session. If disabled, both are dropped as soon as
+     * they arrive: no {@link net.dv8tion.jda.core.events.user.UserTypingEvent UserTypingEvent},
+     * {@link net.dv8tion.jda.core.events.user.UserOnlineStatusUpdateEvent UserOnlineStatusUpdateEvent},
+     * {@link net.dv8tion.jda.core.events.user.UserGameUpdateEvent UserGameUpdateEvent},
+     * {@link net.dv8tion.jda.core.events.user.UserNameUpdateEvent UserNameUpdateEvent} or
+     * {@link net.dv8tion.jda.core.events.user.UserAvatarUpdateEvent UserAvatarUpdateEvent} is fired, and the
+     * {@link net.dv8tion.jda.core.OnlineStatus OnlineStatus}, {@link net.dv8tion.jda.core.entities.Game Game}, name
+     * and avatar of cached Users and Members keep the values they had when their Guild was loaded.
+     * <p>
+     * This is not needed to save the cost of events nobody listens to. Those are skipped automatically,
+     * see {@link net.dv8tion.jda.core.hooks.IEventManager#isInterested(Class) IEventManager.isInterested(Class)}.
+     * <p>
+     * Default: <b>true</b>
+     *
+     * @param enabled
+     *          False, to ignore presence updates and typing
+     * @return
+     *      Returns the {@link net.dv8tion.jda.core.JDABuilder JDABuilder} instance. Useful for chaining.
+     */
+    public JDABuilder setPresenceAndTypingEnabled(boolean enabled)
+    {
+        this.presenceAndTypingEnabled = enabled;
+        return this;
+    }
+
+    /**
+     * Sets the {@link net.dv8tion.jda.core.hooks.EventMetricsListener EventMetricsListener} that receives the
+     * timestamps of every gateway event and fired Event. Use an {@link net.dv8tion.jda.core.hooks.EventMetrics EventMetrics}
+     * for per-type latency histograms and rates.
+     * <p>
+     * Default: <b>null</b>, no timestamps are taken
+     *
+     * @param listener
+     *          The EventMetricsListener, or null to disable the instrumentation
+     * @return
+     *      Returns the {@link net.dv8tion.jda.core.JDABuilder JDABuilder} instance. Useful for chaining.
+     */
+    public JDABuilder setEventMetricsListener(EventMetricsListener listener)
+    {
+        this.eventMetricsListener = listener;
+        return this;
+    }
+
     /**
      * Sets whether or not JDA should try to reconnect, if a connection-error occured.
      * This will use and incremental reconnect (timeouts are increased each time an attempt fails).
@@ -184,11 +416,15 @@ public class JDABuilder
 
     /**
      * Changes the internally used EventManager.
-     * There are 2 provided Implementations:
+     * There are 4 provided Implementations:
      * <ul>
      *     <li>{@link net.dv8tion.jda.core.hooks.InterfacedEventManager} which uses the Interface {@link net.dv8tion.jda.core.hooks.EventListener}
      *     (tip: use the {@link net.dv8tion.jda.core.hooks.ListenerAdapter}). This is the default EventManager.</li>
      *     <li>{@link net.dv8tion.jda.core.hooks.AnnotatedEventManager} which uses the Annotation {@link net.dv8tion.jda.core.hooks.SubscribeEvent} to mark the methods that listen for events.</li>
+     *     <li>{@link net.dv8tion.jda.core.hooks.AsyncEventManager} which wraps one of the above and handles the events
+     *     on an executor instead of the websocket thread, keeping the order of the events of each Guild.</li>
+     *     <li>{@link net.dv8tion.jda.core.hooks.EventPublisher} which wraps one of the above and additionally publishes
+     *     events to subscribers with bounded buffers and demand-driven delivery.</li>
      * </ul>
      * You can also create your own EventManager (See {@link net.dv8tion.jda.core.hooks.IEventManager}).
      *
@@ -345,6 +581,16 @@ public class JDABuilder
             jda.setEventManager(eventManager);
         }
         listeners.forEach(jda::addEventListener);
+        jda.setMemberCachePolicy(memberCachePolicy);
+        jda.setMemberCacheLimit(memberCacheLimit);
+        jda.setSnapshotFile(snapshotFile);
+        jda.setGuildSetupParallelism(guildSetupParallelism);
+        jda.setLargeThreshold(largeThreshold);
+        jda.setChunkingEnabled(chunkingEnabled);
+        jda.setPresenceAndTypingEnabled(presenceAndTypingEnabled);
+        jda.setEventMetricsListener(eventMetricsListener);
+        if (messageCacheSize > 0)
+            jda.setMessageCache(new MessageCache(jda, messageCacheSize, messageCacheMemoryLimit));
         jda.setStatus(JDA.Status.INITIALIZED);  //This is already set by JDA internally, but this is to make sure the listeners catch it.
 //        jda.login(token, sharding);
         // Set the presence information before connecting to have the correct information ready when sending IDENTIFY
@@ -17,8 +17,9 @@ package net.dv8tion.jda.core;
 
 import org.apache.http.util.Args;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.EnumSet;
 import java.util.List;
 
 public enum Permission
@@ -57,12 +58,52 @@ public enum Permission
 
     UNKNOWN(-1, false, false);
 
+    /**
+     * All known {@link net.dv8tion.jda.core.Permission Permissions} as raw value.
+     */
+    public static final long ALL_PERMISSIONS;
+    /**
+     * All {@link net.dv8tion.jda.core.Permission Permissions} that can be granted by roles, as raw value.
+     */
+    public static final long ALL_GUILD_PERMISSIONS;
+    /**
+     * All {@link net.dv8tion.jda.core.Permission Permissions} that can be changed by channel overrides, as raw value.
+     */
+    public static final long ALL_CHANNEL_PERMISSIONS;
+
+    //values() clones its array on every call, the lookups use these shared tables instead
+    private static final Permission[] VALUES = values();
+    private static final Permission[] BY_OFFSET = new Permission[Long.SIZE];
+
+    static
+    {
+        long all = 0, guild = 0, channel = 0;
+        for (Permission perm : VALUES)
+        {
+            if (perm == UNKNOWN)
+                continue;
+            all |= perm.raw;
+            if (perm.isGuild)
+                guild |= perm.raw;
+            if (perm.isChannel)
+                channel |= perm.raw;
+            //MANAGE_ROLES and MANAGE_PERMISSIONS share an offset, the first declared one is returned by getFromOffset
+            if (BY_OFFSET[perm.offset] == null)
+                BY_OFFSET[perm.offset] = perm;
+        }
+        ALL_PERMISSIONS = all;
+        ALL_GUILD_PERMISSIONS = guild;
+        ALL_CHANNEL_PERMISSIONS = channel;
+    }
+
     private final int offset;
+    private final long raw;
     private final boolean isGuild, isChannel;
 
     Permission(int offset, boolean isGuild, boolean isChannel)
     {
         this.offset = offset;
+        this.raw = offset < 0 ? 0 : 1L << offset;
         this.isGuild = isGuild;
         this.isChannel = isChannel;
     }
@@ -89,7 +130,7 @@ public enum Permission
      */
     public long getRawValue()
     {
-        return 1 << getOffset();
+        return raw;
     }
 
     /**
@@ -126,12 +167,9 @@ public enum Permission
      */
     public static Permission getFromOffset(int offset)
     {
-        for (Permission perm : values())
-        {
-            if (perm.offset == offset)
-                return perm;
-        }
-        return UNKNOWN;
+        if (offset < 0 || offset >= BY_OFFSET.length || BY_OFFSET[offset] == null)
+            return UNKNOWN;
+        return BY_OFFSET[offset];
     }
 
     /**
@@ -151,12 +189,36 @@ public enum Permission
      */
     public static List<Permission> getPermissions(long permissions)
     {
-        List<Permission> perms = new LinkedList<>();
-        for (Permission perm : Permission.values())
+        List<Permission> perms = new ArrayList<>(Long.bitCount(permissions & ALL_PERMISSIONS) + 1);
+        if ((permissions & ALL_PERMISSIONS) == 0)
+            return perms;
+        for (Permission perm : VALUES)
         {
-            if (perm.equals(Permission.UNKNOWN))
-                continue;
-            if(((permissions >> perm.getOffset()) & 1) == 1)
+            if ((permissions & perm.raw) != 0)
+                perms.add(perm);
+        }
+        return perms;
+    }
+
+    /**
+     * An {@link java.util.EnumSet EnumSet} of all {@link net.dv8tion.jda.core.Permission Permissions} that are specified
+     * by this raw representation of permissions.
+     * <br>Unlike {@link #getPermissions(long)} checking the result with {@link java.util.Set#contains(Object) contains}
+     * is a single bit test.
+     *
+     * @param permissions
+     *          The raw <code>long</code> representation of permissions.
+     * @return
+     *      Possibly-empty EnumSet of {@link net.dv8tion.jda.core.Permission Permissions}.
+     */
+    public static EnumSet<Permission> toEnumSet(long permissions)
+    {
+        EnumSet<Permission> perms = EnumSet.noneOf(Permission.class);
+        if ((permissions & ALL_PERMISSIONS) == 0)
+            return perms;
+        for (Permission perm : VALUES)
+        {
+            if ((permissions & perm.raw) != 0)
                 perms.add(perm);
         }
         return perms;
@@ -166,7 +228,7 @@ public enum Permission
     {
         long raw = 0;
         for (Permission perm : permissions)
-            raw |= (1 << perm.getOffset());
+            raw |= perm.raw;
 
         return raw;
     }
@@ -175,6 +237,10 @@ public enum Permission
     {
         Args.notNull(permissions, "Permission Collection");
 
-        return getRaw(permissions.toArray(new Permission[permissions.size()]));
+        long raw = 0;
+        for (Permission perm : permissions)
+            raw |= perm.raw;
+
+        return raw;
     }
 }
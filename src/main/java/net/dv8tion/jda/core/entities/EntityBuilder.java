@@ -16,6 +16,10 @@
 
 package net.dv8tion.jda.core.entities;
 
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import net.dv8tion.jda.client.entities.Friend;
 import net.dv8tion.jda.client.entities.Group;
 import net.dv8tion.jda.client.entities.Relationship;
@@ -32,7 +36,9 @@ import net.dv8tion.jda.core.handle.GuildMembersChunkHandler;
 import net.dv8tion.jda.core.handle.ReadyHandler;
 import net.dv8tion.jda.core.requests.GuildLock;
 import net.dv8tion.jda.core.requests.WebSocketClient;
-import org.apache.commons.lang3.StringUtils;
+import net.dv8tion.jda.core.utils.InternPool;
+import net.dv8tion.jda.core.utils.MiscUtil;
+import net.dv8tion.jda.core.utils.PermissionCache;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -42,6 +48,7 @@ import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -55,8 +62,9 @@ public class EntityBuilder
     private static final Pattern channelMentionPattern = Pattern.compile("<#(\\d+)>");
 
     protected final JDAImpl api;
-    protected final HashMap<String, JSONObject> cachedGuildJsons = new HashMap<>();
-    protected final HashMap<String, Consumer<Guild>> cachedGuildCallbacks = new HashMap<>();
+    protected final TLongObjectMap<JSONObject> cachedGuildJsons = new TLongObjectHashMap<>();
+    protected final TLongObjectMap<Consumer<Guild>> cachedGuildCallbacks = new TLongObjectHashMap<>();
+    protected final TLongObjectMap<TLongSet> cachedGuildMemberIds = new TLongObjectHashMap<>();
 
     public static EntityBuilder get(JDA api)
     {
@@ -79,26 +87,44 @@ public class EntityBuilder
         SelfUserImpl selfUser = ((SelfUserImpl) api.getSelfUser());
         if (selfUser == null)
         {
-            selfUser = new SelfUserImpl(self.getString("id"), api);
+            selfUser = new SelfUserImpl(self.getLong("id"), api);
             api.setSelfUser(selfUser);
         }
-        if (!api.getUserMap().containsKey(selfUser.getId()))
+        if (!api.getUserMap().containsKey(selfUser.getIdLong()))
         {
-            api.getUserMap().put(selfUser.getId(), selfUser);
+            api.getUserMap().put(selfUser.getIdLong(), selfUser);
         }
-        return (SelfUser) selfUser
-                .setVerified(self.getBoolean("verified"))
+        selfUser.setVerified(self.getBoolean("verified"))
                 .setMfaEnabled(self.getBoolean("mfa_enabled"))
                 .setEmail(!self.isNull("email") ? self.getString("email") : null)
                 .setName(self.getString("username"))
                 .setDiscriminator(self.getString("discriminator"))
                 .setAvatarId(self.isNull("avatar") ? null : self.getString("avatar"))
                 .setBot(self.has("bot") && self.getBoolean("bot"));
+        api.reindexUser(selfUser.getIdLong());
+        return selfUser;
     }
 
     public void createGuildFirstPass(JSONObject guild, Consumer<Guild> secondPassCallback)
     {
-        String id = guild.getString("id");
+        finishGuildFirstPass(buildGuild(guild), guild, secondPassCallback);
+    }
+
+    /**
+     * Creates or updates the entities of a Guild provided by READY or GUILD_CREATE, without registering it for
+     * chunking or firing any callbacks. This is the expensive part of the first pass.
+     * <br>Guilds are independent of each other, so this may be called for different Guilds in parallel.
+     * It must not be called concurrently for the same Guild and has to be followed by
+     * {@link #finishGuildFirstPass(GuildImpl, JSONObject, Consumer)} in the order the Guilds were received.
+     *
+     * @param  guild
+     *         The guild json
+     *
+     * @return The created or updated Guild
+     */
+    public GuildImpl buildGuild(JSONObject guild)
+    {
+        long id = guild.getLong("id");
         GuildImpl guildObj = ((GuildImpl) api.getGuildMap().get(id));
         if (guildObj == null)
         {
@@ -108,13 +134,7 @@ public class EntityBuilder
         if (guild.has("unavailable") && guild.getBoolean("unavailable"))
         {
             guildObj.setAvailable(false);
-            //This is used for when GuildCreateHandler receives a guild that is currently unavailable. During normal READY
-            // loading for bots (which unavailable is always true) the secondPassCallback parameter will always
-            // be null.
-            if (secondPassCallback != null)
-                secondPassCallback.accept(guildObj);
-            GuildLock.get(api).lock(id);
-            return;
+            return guildObj;
         }
 
         //If we make it to here, the Guild is available. This means 1 of 2 things:
@@ -145,37 +165,58 @@ public class EntityBuilder
                 .setVerificationLevel(Guild.VerificationLevel.fromKey(guild.getInt("verification_level")))
                 .setDefaultNotificationLevel(Guild.NotificationLevel.fromKey(guild.getInt("default_message_notifications")))
                 .setRequiredMFALevel(Guild.MFALevel.fromKey(guild.getInt("mfa_level")));
+        api.getGuildMap().reindex(id);
 
         JSONArray roles = guild.getJSONArray("roles");
         for (int i = 0; i < roles.length(); i++)
         {
-            Role role = createRole(roles.getJSONObject(i), guildObj.getId());
-            guildObj.getRolesMap().put(role.getId(), role);
-            if (role.getId().equals(guildObj.getId()))
+            Role role = createRole(roles.getJSONObject(i), guildObj.getIdLong());
+            guildObj.getRolesMap().put(role.getIdLong(), role);
+            if (role.getIdLong() == guildObj.getIdLong())
                 guildObj.setPublicRole(role);
         }
+        //The Guild might already be cached (restored from a snapshot or previously unavailable), in which case the
+        // payload is applied as a diff: everything above updated existing entities, remove the ones that are gone.
+        TLongSet roleIds = getIds(roles, "id");
+        for (long roleId : guildObj.getRolesMap().keys())
+        {
+            if (!roleIds.contains(roleId))
+            {
+                guildObj.getRolesMap().remove(roleId);
+                guildObj.getRoleMemberIndex().removeRole(roleId);
+            }
+        }
+        guildObj.increasePermissionVersion();
 
         if (!guild.isNull("emojis"))
         {
             JSONArray array = guild.getJSONArray("emojis");
-            Map<String, Emote> emoteMap = guildObj.getEmoteMap();
+            TLongObjectMap<Emote> emoteMap = guildObj.getEmoteMap();
             for (int i = 0; i < array.length(); i++)
             {
                 JSONObject object = array.getJSONObject(i);
                 JSONArray emoteRoles = object.getJSONArray("roles");
-                String emoteId = object.getString("id");
+                long emoteId = object.getLong("id");
 
                 EmoteImpl emoteObj = new EmoteImpl(emoteId, guildObj);
                 Set<Role> roleSet = emoteObj.getRoleSet();
 
                 for (int j = 0; j < emoteRoles.length(); j++)
-                    roleSet.add(guildObj.getRoleById(emoteRoles.getString(j)));
+                    roleSet.add(guildObj.getRoleById(emoteRoles.getLong(j)));
                 emoteMap.put(emoteId, emoteObj
                         .setName(object.getString("name"))
                         .setManaged(object.getBoolean("managed")));
             }
         }
+        TLongSet emoteIds = guild.isNull("emojis") ? new TLongHashSet() : getIds(guild.getJSONArray("emojis"), "id");
+        for (long emoteId : guildObj.getEmoteMap().keys())
+        {
+            if (!emoteIds.contains(emoteId))
+                guildObj.getEmoteMap().remove(emoteId);
+        }
 
+        //Set before the members are created so that the owner is never unloaded by the MemberCachePolicy
+        guildObj.setOwnerId(guild.getLong("owner_id"));
         if (guild.has("members"))
         {
             JSONArray members = guild.getJSONArray("members");
@@ -183,7 +224,7 @@ public class EntityBuilder
         }
 
         //This could be null for Client accounts. Will be fixed by GUILD_SYNC
-        Member owner = guildObj.getMemberById(guild.getString("owner_id"));
+        Member owner = guildObj.getMemberById(guild.getLong("owner_id"));
         if (owner != null)
             guildObj.setOwner(owner);
 
@@ -193,7 +234,7 @@ public class EntityBuilder
             for (int i = 0; i < presences.length(); i++)
             {
                 JSONObject presence = presences.getJSONObject(i);
-                String userId = presence.getJSONObject("user").getString("id");
+                long userId = presence.getJSONObject("user").getLong("id");
                 MemberImpl member = (MemberImpl) guildObj.getMembersMap().get(userId);
 
                 if (member == null)
@@ -213,20 +254,38 @@ public class EntityBuilder
                 ChannelType type = ChannelType.fromId(channel.getInt("type"));
                 if (type == ChannelType.TEXT)
                 {
-                    TextChannel newChannel = createTextChannel(channel, guildObj.getId());
-                    if (newChannel.getId().equals(guildObj.getId()))
+                    TextChannel newChannel = createTextChannel(channel, guildObj.getIdLong());
+                    if (newChannel.getIdLong() == guildObj.getIdLong())
                         guildObj.setPublicChannel(newChannel);
                 }
                 else if (type == ChannelType.VOICE)
                 {
-                    VoiceChannel newChannel = createVoiceChannel(channel, guildObj.getId());
+                    VoiceChannel newChannel = createVoiceChannel(channel, guildObj.getIdLong());
                     if (!guild.isNull("afk_channel_id")
-                            && newChannel.getId().equals(guild.getString("afk_channel_id")))
+                            && newChannel.getIdLong() == guild.getLong("afk_channel_id"))
                         guildObj.setAfkChannel(newChannel);
                 }
                 else
                     WebSocketClient.LOG.fatal("Received a channel for a guild that isn't a text or voice channel. JSON: " + channel);
             }
+
+            TLongSet channelIds = getIds(channels, "id");
+            for (long channelId : guildObj.getTextChannelsMap().keys())
+            {
+                if (!channelIds.contains(channelId))
+                {
+                    guildObj.getTextChannelsMap().remove(channelId);
+                    api.getTextChannelMap().remove(channelId);
+                }
+            }
+            for (long channelId : guildObj.getVoiceChannelMap().keys())
+            {
+                if (!channelIds.contains(channelId))
+                {
+                    guildObj.getVoiceChannelMap().remove(channelId);
+                    api.getVoiceChannelMap().remove(channelId);
+                }
+            }
         }
 
         //If the members that we were provided with (and loaded above) were not all of the
@@ -235,7 +294,9 @@ public class EntityBuilder
         //  load stuff that relies on Users like Channels, PermissionOverrides and VoiceStatuses
         //  after we have the rest of the users. We will request the GUILD_MEMBERS_CHUNK information
         //  which will be sent from discord over the main Websocket and will be handled by
-        //  GuildMemberChunkHandler. After the handler has received all users as determined by the
+        //  GuildMemberChunkHandler. Every chunk is turned into Members as soon as it arrives (see
+        //  EntityBuilder#createGuildMemberChunk), so only the chunk currently being handled is held in memory.
+        //  After the handler has received all users as determined by the
         //  value set using `setExpectedGuildMembers`, it will do one of the following:
         //    1) If this is a Bot account, immediately call EntityBuilder#createGuildSecondPass, thus finishing
         //        the Guild object creation process.
@@ -247,10 +308,75 @@ public class EntityBuilder
         //If we actually -did- get all of the users needed, then we don't need to Chunk. Furthermore,
         // we don't need to use GUILD_SYNC because we always get presences with users thus we have all information
         // needed to guild the Guild. We will skip
-        if (guild.getJSONArray("members").length() != guild.getInt("member_count"))
+        if (requiresChunking(guild))
+        {
+            //A Guild restored from a snapshot already has (possibly outdated) members, so it can be completed with
+            // them right away and serve events while the chunks are loading. The second pass refreshes the members
+            // and their permission overrides and removes members that left.
+            if (guildObj.isRestored())
+            {
+                createGuildChannelPass(guildObj, guild.getJSONArray("channels"));
+                createGuildVoiceStatePass(guildObj, guild.getJSONArray("voice_states"));
+            }
+            return guildObj;
+        }
+
+        //As detailed in the comment above, if we've made it this far then we have all member information needed to
+        // create the Guild. Thusly, we fill in the remaining information. The Guild is unlocked and provided
+        // to the callback by finishGuildFirstPass.
+        //This should only occur on small user count guilds.
+
+        JSONArray channels = guild.getJSONArray("channels");
+        createGuildChannelPass(guildObj, channels); //Actually creates PermissionOverrides
+
+        JSONArray voiceStates = guild.getJSONArray("voice_states");
+        createGuildVoiceStatePass(guildObj, voiceStates);
+
+        //With chunking disabled a large Guild is completed with the members we have, which might not be all of them.
+        boolean loaded = hasAllMembers(guild);
+        if (loaded)
+            removeMissingMembers(guildObj, getMemberIds(guild.getJSONArray("members")));
+        guildObj.setLoaded(loaded);
+        guildObj.pruneMemberCache();
+        return guildObj;
+    }
+
+    /**
+     * Completes the first pass of a Guild built by {@link #buildGuild(JSONObject)}: locks or unlocks it, registers it
+     * for member chunking if needed and provides it to the callback.
+     *
+     * @param guildObj
+     *        The built Guild
+     * @param guild
+     *        The guild json the Guild was built from
+     * @param secondPassCallback
+     *        Called once the Guild is completely set up, may be null
+     */
+    public void finishGuildFirstPass(GuildImpl guildObj, JSONObject guild, Consumer<Guild> secondPassCallback)
+    {
+        long id = guildObj.getIdLong();
+        if (!guildObj.isAvailable())
+        {
+            //This is used for when GuildCreateHandler receives a guild that is currently unavailable. During normal READY
+            // loading for bots (which unavailable is always true) the secondPassCallback parameter will always
+            // be null.
+            if (secondPassCallback != null)
+                secondPassCallback.accept(guildObj);
+            GuildLock.get(api).lock(id);
+            return;
+        }
+
+        if (requiresChunking(guild))
         {
             cachedGuildJsons.put(id, guild);
             cachedGuildCallbacks.put(id, secondPassCallback);
+            boolean serveEarly = guildObj.isRestored();
+            guildObj.setLoaded(false);
+
+            //Only a restored Guild can hold members that are not part of the chunks, so only then the ids have to
+            // be remembered to remove the members that left in the second pass.
+            if (serveEarly)
+                cachedGuildMemberIds.put(id, getMemberIds(guild.getJSONArray("members")));
 
             GuildMembersChunkHandler handler = api.getClient().getHandler("GUILD_MEMBERS_CHUNK");
             handler.setExpectedGuildMembers(id, guild.getInt("member_count"));
@@ -269,7 +395,7 @@ public class EntityBuilder
                 JSONObject obj = new JSONObject()
                         .put("op", 8)
                         .put("d", new JSONObject()
-                                .put("guild_id", id)
+                                .put("guild_id", guildObj.getId())
                                 .put("query","")
                                 .put("limit", 0)
                         );
@@ -281,30 +407,63 @@ public class EntityBuilder
                 readyHandler.acknowledgeGuild(guildObj, true, true, api.getAccountType() == AccountType.CLIENT);
             }
 
-            GuildLock.get(api).lock(id);
+            if (serveEarly)
+                GuildLock.get(api).unlock(id);
+            else
+                GuildLock.get(api).lock(id);
             return;
         }
 
-        //As detailed in the comment above, if we've made it this far then we have all member information needed to
-        // create the Guild. Thusly, we fill in the remaining information, unlock the guild, and provide the guild
-        // to the callback
-        //This should only occur on small user count guilds.
-
-        JSONArray channels = guild.getJSONArray("channels");
-        createGuildChannelPass(guildObj, channels); //Actually creates PermissionOverrides
-
-        JSONArray voiceStates = guild.getJSONArray("voice_states");
-        createGuildVoiceStatePass(guildObj, voiceStates);
+        //The owner is not necessarily online, so it might be missing from a Guild that was not chunked
+        if (guildObj.getOwner() == null && !hasAllMembers(guild))
+            guildObj.retrieveMemberById(guild.getLong("owner_id")).queue(guildObj::setOwner);
 
-        GuildLock.get(api).unlock(guildObj.getId());
+        GuildLock.get(api).unlock(id);
         if (secondPassCallback != null)
             secondPassCallback.accept(guildObj);
     }
 
-    public void createGuildSecondPass(String guildId, List<JSONArray> memberChunks)
+    private boolean requiresChunking(JSONObject guild)
+    {
+        return api.isChunkingEnabled() && !hasAllMembers(guild);
+    }
+
+    private static boolean hasAllMembers(JSONObject guild)
+    {
+        return guild.getJSONArray("members").length() == guild.getInt("member_count");
+    }
+
+    /**
+     * Builds the Members of a single GUILD_MEMBERS_CHUNK for a Guild that is still being set up.
+     * <br>The Members are available through the Guild right away, the chunk itself is not retained.
+     *
+     * @param guildId
+     *        The id of the chunked Guild
+     * @param members
+     *        The members array of the chunk
+     */
+    public void createGuildMemberChunk(long guildId, JSONArray members)
+    {
+        GuildImpl guildObj = (GuildImpl) api.getGuildMap().get(guildId);
+        if (guildObj == null)
+            throw new IllegalStateException("Received a member chunk for an unknown Guild. Guild not in JDA " +
+                    "mapping. GuildId: " + guildId);
+
+        createGuildMemberPass(guildObj, members);
+
+        TLongSet memberIds = cachedGuildMemberIds.get(guildId);
+        if (memberIds != null)
+        {
+            for (int i = 0; i < members.length(); i++)
+                memberIds.add(members.getJSONObject(i).getJSONObject("user").getLong("id"));
+        }
+    }
+
+    public void createGuildSecondPass(long guildId)
     {
         JSONObject guildJson = cachedGuildJsons.remove(guildId);
         Consumer<Guild> secondPassCallback = cachedGuildCallbacks.remove(guildId);
+        TLongSet memberIds = cachedGuildMemberIds.remove(guildId);
         GuildImpl guildObj = (GuildImpl) api.getGuildMap().get(guildId);
 
         if (guildObj == null)
@@ -316,12 +475,10 @@ public class EntityBuilder
         if (secondPassCallback == null)
             throw new IllegalArgumentException("No callback provided for the second pass on the Guild!");
 
-        for (JSONArray chunk : memberChunks)
-        {
-            createGuildMemberPass(guildObj, chunk);
-        }
+        if (memberIds != null)
+            removeMissingMembers(guildObj, memberIds);
 
-        Member owner = guildObj.getMemberById(guildJson.getString("owner_id"));
+        Member owner = guildObj.getMemberById(guildJson.getLong("owner_id"));
         if (owner != null)
             guildObj.setOwner(owner);
 
@@ -333,6 +490,8 @@ public class EntityBuilder
 
         JSONArray voiceStates = guildJson.getJSONArray("voice_states");
         createGuildVoiceStatePass(guildObj, voiceStates);
+        guildObj.pruneMemberCache();
+        guildObj.setLoaded(true);
 
         secondPassCallback.accept(guildObj);
         GuildLock.get(api).unlock(guildId);
@@ -343,13 +502,13 @@ public class EntityBuilder
         for (int i = 0; i < members.length(); i++)
         {
             JSONObject memberJson = members.getJSONObject(i);
-            Member member = createMember(guild, memberJson);
+            buildMember(guild, memberJson);
         }
 
         for (int i = 0; i < presences.length(); i++)
         {
             JSONObject presenceJson = presences.getJSONObject(i);
-            String userId = presenceJson.getJSONObject("user").getString("id");
+            long userId = presenceJson.getJSONObject("user").getLong("id");
 
             MemberImpl member = (MemberImpl) guild.getMembersMap().get(userId);
             if (member == null)
@@ -357,6 +516,10 @@ public class EntityBuilder
             else
                 this.createPresence(member, presenceJson);
         }
+
+        //If the Guild is still being set up the MemberCachePolicy is applied in the second pass
+        if (!GuildLock.get(api).isLocked(guild.getIdLong()))
+            guild.pruneMemberCache();
     }
 
     private void createGuildMemberPass(GuildImpl guildObj, JSONArray members)
@@ -364,7 +527,7 @@ public class EntityBuilder
         for (int i = 0; i < members.length(); i++)
         {
             JSONObject memberJson = members.getJSONObject(i);
-            Member member = createMember(guildObj, memberJson);
+            buildMember(guildObj, memberJson);
         }
     }
 
@@ -377,11 +540,11 @@ public class EntityBuilder
             Channel channelObj = null;
             if (type == ChannelType.TEXT)
             {
-                channelObj = api.getTextChannelById(channel.getString("id"));
+                channelObj = api.getTextChannelById(channel.getLong("id"));
             }
             else if (type == ChannelType.VOICE)
             {
-                channelObj = api.getVoiceChannelById(channel.getString("id"));
+                channelObj = api.getVoiceChannelById(channel.getLong("id"));
             }
             else
                 WebSocketClient.LOG.fatal("Received a channel for a guild that isn't a text or voice channel (ChannelPass). JSON: " + channel);
@@ -400,48 +563,95 @@ public class EntityBuilder
                         WebSocketClient.LOG.warn(e.getMessage() + ". Ignoring PermissionOverride.");
                     }
                 }
+
+                //Remove overrides of an already cached channel that were deleted in the meantime
+                TLongSet overrideIds = getIds(permissionOverwrites, "id");
+                Map<Member, PermissionOverride> memberOverrides = type == ChannelType.TEXT
+                        ? ((TextChannelImpl) channelObj).getMemberOverrideMap()
+                        : ((VoiceChannelImpl) channelObj).getMemberOverrideMap();
+                Map<Role, PermissionOverride> roleOverrides = type == ChannelType.TEXT
+                        ? ((TextChannelImpl) channelObj).getRoleOverrideMap()
+                        : ((VoiceChannelImpl) channelObj).getRoleOverrideMap();
+                memberOverrides.keySet().removeIf(member -> !overrideIds.contains(member.getUser().getIdLong()));
+                roleOverrides.keySet().removeIf(role -> !overrideIds.contains(role.getIdLong()));
+                PermissionCache.invalidate(channelObj);
             }
             else
             {
-                throw new RuntimeException("Got permission_override for unknown channel with id: " + channel.getString("id"));
+                throw new RuntimeException("Got permission_override for unknown channel with id: " + channel.getLong("id"));
             }
         }
     }
 
+    /**
+     * Removes all cached Members of the Guild that are not part of the complete member list of a GUILD_CREATE
+     * (and its member chunks). Only has an effect on Guilds that were cached before the GUILD_CREATE was received.
+     */
+    private void removeMissingMembers(GuildImpl guildObj, TLongSet memberIds)
+    {
+        for (Member member : guildObj.getMembersMap().valueCollection())
+        {
+            if (!memberIds.contains(member.getUser().getIdLong()))
+                guildObj.unloadMember(member);
+        }
+    }
+
+    private static TLongSet getMemberIds(JSONArray members)
+    {
+        TLongSet ids = new TLongHashSet(members.length());
+        for (int i = 0; i < members.length(); i++)
+            ids.add(members.getJSONObject(i).getJSONObject("user").getLong("id"));
+        return ids;
+    }
+
+    private static TLongSet getIds(JSONArray array, String key)
+    {
+        TLongSet ids = new TLongHashSet(array.length());
+        for (int i = 0; i < array.length(); i++)
+            ids.add(array.getJSONObject(i).getLong(key));
+        return ids;
+    }
+
     public void createGuildVoiceStatePass(GuildImpl guildObj, JSONArray voiceStates)
     {
         for (int i = 0; i < voiceStates.length(); i++)
         {
             JSONObject voiceStateJson = voiceStates.getJSONObject(i);
-            Member member = guildObj.getMembersMap().get(voiceStateJson.getString("user_id"));
+            Member member = guildObj.getMembersMap().get(voiceStateJson.getLong("user_id"));
             if (member == null)
             {
                 WebSocketClient.LOG.fatal("Received a VoiceState for a unknown Member! GuildId: "
-                        + guildObj.getId() + " MemberId: " + voiceStateJson.getString("user_id"));
+                        + guildObj.getId() + " MemberId: " + voiceStateJson.getLong("user_id"));
                 continue;
             }
 
-            VoiceChannelImpl voiceChannel =
-                    (VoiceChannelImpl) guildObj.getVoiceChannelMap().get(voiceStateJson.getString("channel_id"));
-            voiceChannel.getConnectedMembersMap().put(member.getUser().getId(), member);
-
-            GuildVoiceStateImpl voiceState = (GuildVoiceStateImpl) member.getVoiceState();
-            voiceState.setSelfMuted(voiceStateJson.getBoolean("self_mute"))
-                    .setSelfDeafened(voiceStateJson.getBoolean("self_deaf"))
-                    .setGuildMuted(voiceStateJson.getBoolean("mute"))
-                    .setGuildDeafened(voiceStateJson.getBoolean("deaf"))
-                    .setSuppressed(voiceStateJson.getBoolean("suppress"))
-                    .setSessionId(voiceStateJson.getString("session_id"))
-                    .setConnectedChannel(voiceChannel);
+            createVoiceState(guildObj, member, voiceStateJson);
         }
     }
 
+    private void createVoiceState(GuildImpl guildObj, Member member, JSONObject voiceStateJson)
+    {
+        VoiceChannelImpl voiceChannel =
+                (VoiceChannelImpl) guildObj.getVoiceChannelMap().get(voiceStateJson.getLong("channel_id"));
+        voiceChannel.getConnectedMembersMap().put(member.getUser().getIdLong(), member);
+
+        GuildVoiceStateImpl voiceState = (GuildVoiceStateImpl) member.getVoiceState();
+        voiceState.setSelfMuted(voiceStateJson.getBoolean("self_mute"))
+                .setSelfDeafened(voiceStateJson.getBoolean("self_deaf"))
+                .setGuildMuted(voiceStateJson.getBoolean("mute"))
+                .setGuildDeafened(voiceStateJson.getBoolean("deaf"))
+                .setSuppressed(voiceStateJson.getBoolean("suppress"))
+                .setSessionId(voiceStateJson.getString("session_id"))
+                .setConnectedChannel(voiceChannel);
+    }
+
     public User createFakeUser(JSONObject user, boolean modifyCache) { return createUser(user, true, modifyCache); }
     public User createUser(JSONObject user)     { return createUser(user, false, true); }
     private User createUser(JSONObject user, boolean fake, boolean modifyCache)
     {
-        String id = user.getString("id");
+        long id = user.getLong("id");
         UserImpl userObj;
+        boolean created = false;
 
         userObj = (UserImpl) api.getUserMap().get(id);
         if (userObj == null)
@@ -453,49 +663,108 @@ public class EntityBuilder
                 {
                     api.getFakeUserMap().remove(id);
                     userObj.setFake(false);
-                    api.getUserMap().put(userObj.getId(), userObj);
+                    api.getUserMap().put(userObj.getIdLong(), userObj);
                     if (userObj.hasPrivateChannel())
                     {
                         PrivateChannelImpl priv = (PrivateChannelImpl) userObj.getPrivateChannel();
                         priv.setFake(false);
-                        api.getFakePrivateChannelMap().remove(priv.getId());
-                        api.getPrivateChannelMap().put(priv.getId(), priv);
+                        api.getFakePrivateChannelMap().remove(priv.getIdLong());
+                        api.getPrivateChannelMap().put(priv.getIdLong(), priv);
                     }
                 }
             }
             else
             {
                 userObj = new UserImpl(id, api).setFake(fake);
+                created = true;
                 if (modifyCache)
                 {
-                    if (fake)
-                        api.getFakeUserMap().put(id, userObj);
-                    else
-                        api.getUserMap().put(id, userObj);
+                    //Guilds can be built in parallel, another Guild might have created the same User in the meantime
+                    UserImpl existing = fake
+                            ? (UserImpl) api.getFakeUserMap().putIfAbsent(id, userObj)
+                            : (UserImpl) api.getUserMap().putIfAbsent(id, userObj);
+                    if (existing != null)
+                    {
+                        userObj = existing;
+                        created = false;
+                    }
                 }
             }
         }
 
-        return userObj
-                .setName(user.getString("username"))
-                .setDiscriminator(user.get("discriminator").toString())
+        String oldName = userObj.getName();
+        userObj.setName(user.getString("username"))
+                .setDiscriminator(InternPool.STRINGS.intern(user.get("discriminator").toString()))
                 .setAvatarId(user.isNull("avatar") ? null : user.getString("avatar"))
                 .setBot(user.has("bot") && user.getBoolean("bot"));
+
+        //New Users are not a Member of any Guild yet, so only the User index has to be updated
+        if (created)
+            api.getUserMap().reindex(id);
+        else if (!Objects.equals(oldName, userObj.getName()))
+            api.reindexUser(id);
+        return userObj;
     }
 
+    /**
+     * Creates or updates a Member and applies the {@link net.dv8tion.jda.core.utils.MemberCachePolicy}.
+     * The returned Member is not necessarily cached.
+     */
     public Member createMember(GuildImpl guild, JSONObject memberJson)
     {
-        User user = createUser(memberJson.getJSONObject("user"));
-        MemberImpl member = (MemberImpl) guild.getMember(user);
-        if (member == null)
+        return createMember(guild, memberJson, null);
+    }
+
+    /**
+     * Creates or updates a Member, applies the provided voice state (if any) and the
+     * {@link net.dv8tion.jda.core.utils.MemberCachePolicy}. The returned Member is not necessarily cached.
+     */
+    public Member createMember(GuildImpl guild, JSONObject memberJson, JSONObject voiceStateJson)
+    {
+        MemberImpl member = buildMember(guild, memberJson);
+
+        //A PRESENCE_UPDATE might have arrived before the Member was loaded
+        JSONObject presence = guild.getCachedPresenceMap().remove(member.getUser().getIdLong());
+        if (presence != null)
+            createPresence(member, presence);
+
+        if (voiceStateJson != null && !voiceStateJson.isNull("channel_id"))
+            createVoiceState(guild, member, voiceStateJson);
+
+        guild.updateMemberCache(member);
+        return member;
+    }
+
+    private MemberImpl buildMember(GuildImpl guild, JSONObject memberJson)
+    {
+        User user;
+        MemberImpl member;
+        //Holding the read lock keeps JDAImpl#releaseUser from dropping the User before the Member is registered
+        Lock userLock = api.getUserLock().readLock();
+        userLock.lock();
+        try
+        {
+            user = createUser(memberJson.getJSONObject("user"));
+            member = (MemberImpl) guild.getMember(user);
+            if (member == null)
+            {
+                member = new MemberImpl(guild, user);
+                guild.getMembersMap().put(user.getIdLong(), member);
+            }
+        }
+        finally
         {
-            member = new MemberImpl(guild, user);
-            guild.getMembersMap().put(user.getId(), member);
+            userLock.unlock();
         }
 
-        ((GuildVoiceStateImpl) member.getVoiceState())
-            .setGuildMuted(memberJson.getBoolean("mute"))
-            .setGuildDeafened(memberJson.getBoolean("deaf"));
+        boolean guildMuted = memberJson.getBoolean("mute");
+        boolean guildDeafened = memberJson.getBoolean("deaf");
+        if (guildMuted || guildDeafened || member.getVoiceStateIfPresent() != null)
+        {
+            ((GuildVoiceStateImpl) member.getVoiceState())
+                .setGuildMuted(guildMuted)
+                .setGuildDeafened(guildDeafened);
+        }
 
         member.setJoinDate(OffsetDateTime.parse(memberJson.getString("joined_at")))
             .setNickname(memberJson.has("nick") && !memberJson.isNull("nick")
@@ -503,55 +772,68 @@ public class EntityBuilder
                 : null);
 
         JSONArray rolesJson = memberJson.getJSONArray("roles");
+        long[] roleIds = new long[rolesJson.length()];
+        int roleCount = 0;
         for (int k = 0; k < rolesJson.length(); k++)
         {
-            String roleId = rolesJson.getString(k);
-            Role r = guild.getRolesMap().get(roleId);
-            if (r == null)
+            long roleId = rolesJson.getLong(k);
+            if (!guild.getRolesMap().containsKey(roleId))
             {
                 WebSocketClient.LOG.fatal("Received a Member with an unknown Role. MemberId: "
                         + member.getUser().getId() + " GuildId: " + guild.getId() + " roleId: " + roleId);
             }
             else
             {
-                member.getRoleSet().add(r);
+                roleIds[roleCount++] = roleId;
             }
         }
+        member.setRoleIds(Arrays.copyOf(roleIds, roleCount));
 
+        guild.getMembersMap().reindex(user.getIdLong());
         return member;
     }
 
+    /**
+     * Creates the Game of a presence. Equal games are shared through {@link InternPool#GAMES}.
+     *
+     * @param  gameJson
+     *         The game object of a presence, may be {@code null}
+     *
+     * @return The Game, or {@code null} if no game (or a game without name) was provided
+     */
+    public Game createGame(JSONObject gameJson)
+    {
+        if (gameJson == null || gameJson.isNull("name"))
+            return null;
+
+        String gameName = gameJson.get("name").toString();
+        String url = gameJson.isNull("url")
+                ? null
+                : gameJson.get("url").toString();
+
+        Game.GameType gameType;
+        try
+        {
+            gameType = gameJson.isNull("type")
+                    ? Game.GameType.DEFAULT
+                    : Game.GameType.fromKey(Integer.parseInt(gameJson.get("type").toString()));
+        }
+        catch (NumberFormatException e)
+        {
+            gameType = Game.GameType.DEFAULT;
+        }
+
+        return InternPool.GAMES.intern(new GameImpl(InternPool.STRINGS.intern(gameName), url, gameType));
+    }
+
     //Effectively the same as createFriendPresence
     public void createPresence(Object memberOrFriend, JSONObject presenceJson)
     {
         if (memberOrFriend == null)
             throw new NullPointerException("Provided memberOrFriend was null!");
 
-        JSONObject gameJson = presenceJson.isNull("game") ? null: presenceJson.getJSONObject("game");
         OnlineStatus onlineStatus = OnlineStatus.fromKey(presenceJson.getString("status"));
-        Game game = null;
-
-        if (gameJson != null && !gameJson.isNull("name"))
-        {
-            String gameName = gameJson.get("name").toString();
-            String url = gameJson.isNull("url")
-                    ? null
-                    : gameJson.get("url").toString();
-
-            Game.GameType gameType;
-            try
-            {
-                gameType = gameJson.isNull("type")
-                        ? Game.GameType.DEFAULT
-                        : Game.GameType.fromKey(Integer.parseInt(gameJson.get("type").toString()));
-            }
-            catch (NumberFormatException e)
-            {
-                gameType = Game.GameType.DEFAULT;
-            }
-
-            game = new GameImpl(gameName, url, gameType);
-        }
+        Game game = createGame(presenceJson.isNull("game") ? null : presenceJson.getJSONObject("game"));
         if (memberOrFriend instanceof Member)
         {
             MemberImpl member = (MemberImpl) memberOrFriend;
@@ -574,9 +856,9 @@ public class EntityBuilder
             throw new IllegalArgumentException("An object was provided to EntityBuilder#createPresence that wasn't a Member or Friend. JSON: " + presenceJson);
     }
 
-    public TextChannel createTextChannel(JSONObject json, String guildId)
+    public TextChannel createTextChannel(JSONObject json, long guildId)
     {
-        String id = json.getString("id");
+        long id = json.getLong("id");
         TextChannelImpl channel = (TextChannelImpl) api.getTextChannelMap().get(id);
         if (channel == null)
         {
@@ -586,15 +868,17 @@ public class EntityBuilder
             api.getTextChannelMap().put(id, channel);
         }
 
-        return channel
-                .setName(json.getString("name"))
+        channel.setName(json.getString("name"))
                 .setTopic(json.isNull("topic") ? "" : json.getString("topic"))
                 .setRawPosition(json.getInt("position"));
+        ((GuildImpl) channel.getGuild()).getTextChannelsMap().reindex(id);
+        api.getTextChannelMap().reindex(id);
+        return channel;
     }
 
-    public VoiceChannel createVoiceChannel(JSONObject json, String guildId)
+    public VoiceChannel createVoiceChannel(JSONObject json, long guildId)
     {
-        String id = json.getString("id");
+        long id = json.getLong("id");
         VoiceChannelImpl channel = ((VoiceChannelImpl) api.getVoiceChannelMap().get(id));
         if (channel == null)
         {
@@ -604,11 +888,13 @@ public class EntityBuilder
             api.getVoiceChannelMap().put(id, channel);
         }
 
-        return channel
-                .setName(json.getString("name"))
+        channel.setName(json.getString("name"))
                 .setRawPosition(json.getInt("position"))
                 .setUserLimit(json.getInt("user_limit"))
                 .setBitrate(json.getInt("bitrate"));
+        ((GuildImpl) channel.getGuild()).getVoiceChannelMap().reindex(id);
+        api.getVoiceChannelMap().reindex(id);
+        return channel;
     }
 
     public PrivateChannel createPrivateChannel(JSONObject privatechat)
@@ -616,29 +902,29 @@ public class EntityBuilder
         JSONObject recipient = privatechat.has("recipients") ? 
             privatechat.getJSONArray("recipients").getJSONObject(0) :
             privatechat.getJSONObject("recipient");
-        UserImpl user = ((UserImpl) api.getUserMap().get(recipient.getString("id")));
+        UserImpl user = ((UserImpl) api.getUserMap().get(recipient.getLong("id")));
         if (user == null)
         {   //The API can give us private channels connected to Users that we can no longer communicate with.
             // As such, make a fake user and fake private channel.
             user = (UserImpl) createFakeUser(recipient, true);
         }
 
-        PrivateChannelImpl priv = new PrivateChannelImpl(privatechat.getString("id"), user);
+        PrivateChannelImpl priv = new PrivateChannelImpl(privatechat.getLong("id"), user);
         user.setPrivateChannel(priv);
 
         if (user.isFake())
         {
             priv.setFake(true);
-            api.getFakePrivateChannelMap().put(priv.getId(), priv);
+            api.getFakePrivateChannelMap().put(priv.getIdLong(), priv);
         }
         else
-            api.getPrivateChannelMap().put(priv.getId(), priv);
+            api.getPrivateChannelMap().put(priv.getIdLong(), priv);
         return priv;
     }
 
-    public Role createRole(JSONObject roleJson, String guildId)
+    public Role createRole(JSONObject roleJson, long guildId)
     {
-        String id = roleJson.getString("id");
+        long id = roleJson.getLong("id");
         GuildImpl guild = ((GuildImpl) api.getGuildMap().get(guildId));
         RoleImpl role = ((RoleImpl) guild.getRolesMap().get(id));
         if (role == null)
@@ -646,23 +932,25 @@ public class EntityBuilder
             role = new RoleImpl(id, guild);
             guild.getRolesMap().put(id, role);
         }
-        return role.setName(roleJson.getString("name"))
+        role.setName(roleJson.getString("name"))
                 .setRawPosition(roleJson.getInt("position"))
                 .setRawPermissions(roleJson.getLong("permissions"))
                 .setManaged(roleJson.getBoolean("managed"))
                 .setHoisted(roleJson.getBoolean("hoist"))
                 .setColor(roleJson.getInt("color") != 0 ? new Color(roleJson.getInt("color")) : null)
                 .setMentionable(roleJson.has("mentionable") && roleJson.getBoolean("mentionable"));
+        guild.getRolesMap().reindex(id);
+        return role;
     }
 
     public Message createMessage(JSONObject jsonObject) { return createMessage(jsonObject, false); }
     public Message createMessage(JSONObject jsonObject, boolean exceptionOnMissingUser)
     {
-        String id = jsonObject.getString("id");
+        long id = jsonObject.getLong("id");
         String content = !jsonObject.isNull("content") ? jsonObject.getString("content") : "";
-        String channelId = jsonObject.getString("channel_id");
+        long channelId = jsonObject.getLong("channel_id");
         JSONObject author = jsonObject.getJSONObject("author");
-        String authorId = author.getString("id");
+        long authorId = author.getLong("id");
         boolean fromWebhook = jsonObject.has("webhook_id");
         MessageChannel chan = api.getTextChannelById(channelId);
         if (chan == null)
@@ -682,7 +970,7 @@ public class EntityBuilder
                 .setPinned(!jsonObject.isNull("pinned") && jsonObject.getBoolean("pinned"));
         if (chan instanceof PrivateChannel)
         {
-            if (StringUtils.equals(authorId, api.getSelfUser().getId()))
+            if (authorId == api.getSelfUser().getIdLong())
                 message.setAuthor(api.getSelfUser());
             else
                 message.setAuthor(((PrivateChannel) chan).getUser());
@@ -707,7 +995,7 @@ public class EntityBuilder
             if (user.isFake() && !fromWebhook)
             {
                 user.setName(author.getString("username"))
-                        .setDiscriminator(author.get("discriminator").toString())
+                        .setDiscriminator(InternPool.STRINGS.intern(author.get("discriminator").toString()))
                         .setAvatarId(author.isNull("avatar") ? null : author.getString("avatar"))
                         .setBot(author.has("bot") && author.getBoolean("bot"));
             }
@@ -721,6 +1009,8 @@ public class EntityBuilder
                 message.setAuthor(user);
             else if (fromWebhook || !exceptionOnMissingUser)
                 message.setAuthor(createFakeUser(author, false));
+            else if (api.isMemberCacheRestricted())
+                message.setAuthor(createUser(author, false, false)); //Member not cached due to the MemberCachePolicy
             else
                 throw new IllegalArgumentException(MISSING_USER);
         }
@@ -767,12 +1057,12 @@ public class EntityBuilder
                 for (int i = 0; i < mentions.length(); i++)
                 {
                     JSONObject mention = mentions.getJSONObject(i);
-                    User u = api.getUserMap().get(mention.getString("id"));
+                    User u = api.getUserMap().get(mention.getLong("id"));
                     if (u != null)
                     {
                         //We do this to properly order the mentions. The array given by discord is out of order sometimes.
 
-                        int index = content.indexOf("<@" + mention.getString("id") + ">");
+                        int index = content.indexOf("<@" + mention.getLong("id") + ">");
                         mentionedUsers.put(index, u);
                     }
                 }
@@ -785,7 +1075,7 @@ public class EntityBuilder
                 JSONArray roleMentions = jsonObject.getJSONArray("mention_roles");
                 for (int i = 0; i < roleMentions.length(); i++)
                 {
-                    String roleId = roleMentions.getString(i);
+                    long roleId = roleMentions.getLong(i);
                     Role r = textChannel.getGuild().getRoleById(roleId);
                     if (r != null)
                     {
@@ -797,11 +1087,19 @@ public class EntityBuilder
             message.setMentionedRoles(new LinkedList<Role>(mentionedRoles.values()));
 
             List<TextChannel> mentionedChannels = new LinkedList<>();
-            Map<String, TextChannel> chanMap = ((GuildImpl) textChannel.getGuild()).getTextChannelsMap();
+            TLongObjectMap<TextChannel> chanMap = ((GuildImpl) textChannel.getGuild()).getTextChannelsMap();
             Matcher matcher = channelMentionPattern.matcher(content);
             while (matcher.find())
             {
-                TextChannel channel = chanMap.get(matcher.group(1));
+                TextChannel channel;
+                try
+                {
+                    channel = chanMap.get(MiscUtil.parseSnowflake(matcher.group(1)));
+                }
+                catch (NumberFormatException e)
+                {
+                    continue;
+                }
                 if(channel != null && !mentionedChannels.contains(channel))
                 {
                     mentionedChannels.add(channel);
@@ -909,7 +1207,7 @@ public class EntityBuilder
     public PermissionOverride createPermissionOverride(JSONObject override, Channel chan)
     {
         PermissionOverrideImpl permOverride = null;
-        String id = override.getString("id");
+        long id = override.getLong("id");
         long allow = override.getLong("allow");
         long deny = override.getLong("deny");
 
@@ -948,8 +1246,10 @@ public class EntityBuilder
             default:
                 throw new IllegalArgumentException("Provided with an unknown PermissionOverride type! JSON: " + override);
         }
-        return permOverride.setAllow(allow)
+        permOverride.setAllow(allow)
                 .setDeny(deny);
+        PermissionCache.invalidate(chan);
+        return permOverride;
     }
 
     public Relationship createRelationship(JSONObject relationshipJson)
@@ -964,7 +1264,7 @@ public class EntityBuilder
         else
             user = createFakeUser(relationshipJson.getJSONObject("user"), true);
 
-        Relationship relationship = api.asClient().getRelationshipById(user.getId(), type);
+        Relationship relationship = api.asClient().getRelationshipById(user.getIdLong(), type);
         if (relationship == null)
         {
             switch (type)
@@ -984,7 +1284,7 @@ public class EntityBuilder
                 default:
                     return null;
             }
-            ((JDAClientImpl) api.asClient()).getRelationshipMap().put(user.getId(), relationship);
+            ((JDAClientImpl) api.asClient()).getRelationshipMap().put(user.getIdLong(), relationship);
         }
         return relationship;
     }
@@ -994,9 +1294,9 @@ public class EntityBuilder
         if (api.getAccountType() != AccountType.CLIENT)
             throw new AccountTypeException(AccountType.CLIENT, "Attempted to create a Group but the logged in account is not a CLIENT!");
 
-        String groupId = groupJson.getString("id");
+        long groupId = groupJson.getLong("id");
         JSONArray recipients = groupJson.getJSONArray("recipients");
-        String ownerId = groupJson.getString("owner_id");
+        long ownerId = groupJson.getLong("owner_id");
         String name = !groupJson.isNull("name") ? groupJson.getString("name") : null;
         String iconId = !groupJson.isNull("icon") ? groupJson.getString("icon") : null;
 
@@ -1007,12 +1307,12 @@ public class EntityBuilder
             ((JDAClientImpl) api.asClient()).getGroupMap().put(groupId, group);
         }
 
-        HashMap<String, User> groupUsers = group.getUserMap();
-        groupUsers.put(api.getSelfUser().getId(), api.getSelfUser());
+        TLongObjectMap<User> groupUsers = group.getUserMap();
+        groupUsers.put(api.getSelfUser().getIdLong(), api.getSelfUser());
         for (int i = 0; i < recipients.length(); i++)
         {
             JSONObject groupUser = recipients.getJSONObject(i);
-            groupUsers.put(groupUser.getString("id"), createFakeUser(groupUser, true));
+            groupUsers.put(groupUser.getLong("id"), createFakeUser(groupUser, true));
         }
 
         User owner = api.getUserMap().get(ownerId);
@@ -1031,5 +1331,6 @@ public class EntityBuilder
     {
         cachedGuildJsons.clear();
         cachedGuildCallbacks.clear();
+        cachedGuildMemberIds.clear();
     }
 }
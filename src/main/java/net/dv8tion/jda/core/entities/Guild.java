@@ -24,6 +24,7 @@ import net.dv8tion.jda.core.requests.RestAction;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a Discord {@link net.dv8tion.jda.core.entities.Guild Guild}. This should contain all information provided from Discord about a Guild.
@@ -91,6 +92,10 @@ public interface Guild extends ISnowflake
      *
      * @param user
      *          The user to determine whether or not they are a member of this guild.
+     * <p>This only checks cached Members, see {@link net.dv8tion.jda.core.utils.MemberCachePolicy MemberCachePolicy}.
+     *
+     * @param user
+     *          The user to determine whether or not they are a member of this guild.
      * @return
      *      True - if this user is present in this guild.
      */
@@ -98,16 +103,93 @@ public interface Guild extends ISnowflake
 
     Member getSelfMember();
     Member getMember(User user);
+
+    /**
+     * Gets the cached {@link net.dv8tion.jda.core.entities.Member Member} with the provided id.<br>
+     * If a {@link net.dv8tion.jda.core.utils.MemberCachePolicy MemberCachePolicy} other than ALL or a member cache
+     * limit is configured this can return null for Members of this Guild, use {@link #retrieveMemberById(String)}
+     * to load them.
+     *
+     * <p>The same applies to all other methods returning Members, they only return the cached Members.
+     *
+     * @param userId
+     *          The id of the Member's User
+     * @return
+     *      Possibly-null Member with the provided id.
+     */
     Member getMemberById(String userId);
+    Member getMemberById(long userId);
+
+    /**
+     * Retrieves the {@link net.dv8tion.jda.core.entities.Member Member} with the provided id.<br>
+     * If the Member is cached this completes immediately, otherwise the Member is requested from Discord and added
+     * to the cache if the {@link net.dv8tion.jda.core.utils.MemberCachePolicy MemberCachePolicy} accepts it.
+     *
+     * @param userId
+     *          The id of the Member's User
+     * @return
+     *      {@link net.dv8tion.jda.core.requests.RestAction RestAction} - Type: {@link net.dv8tion.jda.core.entities.Member Member}
+     *      <br>The Member with the provided id. Fails if the User is not a Member of this Guild.
+     */
+    RestAction<Member> retrieveMemberById(String userId);
+    RestAction<Member> retrieveMemberById(long userId);
+
+    /**
+     * Requests the {@link net.dv8tion.jda.core.entities.Member Members} whose name starts with the provided query
+     * over the websocket.<br>
+     * The received Members are added to the cache if the
+     * {@link net.dv8tion.jda.core.utils.MemberCachePolicy MemberCachePolicy} accepts them. Identical requests
+     * that are still pending are only sent once.
+     * <br>An empty query with a limit of 0 requests all Members of this Guild, which is what JDA does for every large
+     * Guild at startup unless {@link net.dv8tion.jda.core.JDABuilder#setChunkingEnabled(boolean) chunking is disabled}.
+     *
+     * @param query
+     *          The prefix of the names to look for, or an empty String
+     * @param limit
+     *          The maximum amount of Members, at most 100. 0 requests all Members and requires an empty query
+     * @return
+     *      A future completed with the matching Members. Fails if the connection is invalidated before
+     *      Discord responded.
+     */
+    CompletableFuture<List<Member>> requestMembers(String query, int limit);
+
+    /**
+     * Requests the {@link net.dv8tion.jda.core.entities.Member Members} with the provided user ids over the websocket.
+     * <br>Unlike {@link #retrieveMemberById(long)} this loads up to 100 Members with a single request.
+     * Ids of Users that are not Members of this Guild are left out of the result.
+     *
+     * @param userIds
+     *          The ids of the Members' Users, at most 100
+     * @return
+     *      A future completed with the found Members. Fails if the connection is invalidated before
+     *      Discord responded.
+     */
+    CompletableFuture<List<Member>> requestMembers(long... userIds);
+
     List<Member> getMembers();
     List<Member> getMembersByName(String name, boolean ignoreCase);
     List<Member> getMembersByNickname(String nickname, boolean ignoreCase);
     List<Member> getMembersByEffectiveName(String name, boolean ignoreCase);
+
+    /**
+     * Gets all cached {@link net.dv8tion.jda.core.entities.Member Members} whose
+     * {@link net.dv8tion.jda.core.entities.Member#getEffectiveName() effective name} starts with the provided prefix.
+     * Useful for autocompletion.
+     *
+     * @param prefix
+     *          The start of the effective name
+     * @param ignoreCase
+     *          Whether to ignore case or not.
+     * @return
+     *      Possibly-empty list of Members whose effective names start with the provided prefix.
+     */
+    List<Member> getMembersByPrefix(String prefix, boolean ignoreCase);
     List<Member> getMembersWithRoles(Role... roles);
     List<Member> getMembersWithRoles(Collection<Role> roles);
 
 
     TextChannel getTextChannelById(String id);
+    TextChannel getTextChannelById(long id);
     /**
      * The {@link net.dv8tion.jda.core.entities.TextChannel TextChannels} available on the {@link net.dv8tion.jda.core.entities.Guild Guild}.
      * The channels returned will be sorted according to their position.
@@ -119,6 +201,7 @@ public interface Guild extends ISnowflake
     List<TextChannel> getTextChannelsByName(String name, boolean ignoreCase);
 
     VoiceChannel getVoiceChannelById(String id);
+    VoiceChannel getVoiceChannelById(long id);
 
     /**
      * The {@link net.dv8tion.jda.core.entities.VoiceChannel VoiceChannels} available on the {@link net.dv8tion.jda.core.entities.Guild Guild}.
@@ -137,11 +220,24 @@ public interface Guild extends ISnowflake
      *
      * @param id
      *      The id of the {@link net.dv8tion.jda.core.entities.Role Role}.
+     * @throws java.lang.NumberFormatException
+     *      If the provided <code>id</code> cannot be parsed by {@link Long#parseUnsignedLong(String)}
      * @return
      *      Possibly-null Role with matching id.
      */
     Role getRoleById(String id);
 
+    /**
+     * This returns the {@link net.dv8tion.jda.core.entities.Role Role} which has the same id as the one provided.<br>
+     * If there is no {@link net.dv8tion.jda.core.entities.Role Role} that matches the requested id, <code>null</code> is returned.
+     *
+     * @param id
+     *      The id of the {@link net.dv8tion.jda.core.entities.Role Role}.
+     * @return
+     *      Possibly-null Role with matching id.
+     */
+    Role getRoleById(long id);
+
     /**
      * The {@link net.dv8tion.jda.core.entities.Role Roles} of this {@link net.dv8tion.jda.core.entities.Guild Guild}.
      * The roles returned will be sorted according to their position.
@@ -157,11 +253,23 @@ public interface Guild extends ISnowflake
      *
      * @param id
      *      the emote id
+     * @throws java.lang.NumberFormatException
+     *      If the provided <code>id</code> cannot be parsed by {@link Long#parseUnsignedLong(String)}
      * @return
      *      An Emote matching the specified ID.
      */
     Emote getEmoteById(String id);
 
+    /**
+     * An {@link net.dv8tion.jda.core.entities.Emote Emote} matching the specified ID.<br>
+     *
+     * @param id
+     *      the emote id
+     * @return
+     *      An Emote matching the specified ID.
+     */
+    Emote getEmoteById(long id);
+
     /**
      * An immutable linked list of the emotes contained in this Guild.
      *
@@ -291,6 +399,18 @@ public interface Guild extends ISnowflake
      */
     boolean isAvailable();
 
+    /**
+     * Returns whether all {@link net.dv8tion.jda.core.entities.Member Members} of this Guild have been received.
+     * Members of large Guilds are sent in chunks after the Guild itself. While those chunks are still arriving,
+     * {@link #getMembers()} and the other member getters only contain the Members received so far.
+     * <br>The progress can be followed with the
+     * {@link net.dv8tion.jda.core.events.guild.GuildMembersChunkEvent GuildMembersChunkEvent}.
+     *
+     * @return
+     *      If all Members of this Guild are loaded
+     */
+    boolean isLoaded();
+
 //    /**
 //     * Provides a list of all {@link net.dv8tion.jda.utils.InviteUtil.AdvancedInvite Invites} for this Guild.
 //     *
@@ -28,16 +28,28 @@ public interface ISnowflake
      * @return
      *      Never-null String containing the Id.
      */
-    String getId();
+    default String getId()
+    {
+        return Long.toUnsignedString(getIdLong());
+    }
+
+    /**
+     * The Snowflake id of this entity as a primitive long. This is unique to every entity and will never change.
+     * <br>This is the form JDA stores ids in internally; prefer it over {@link #getId()} for comparisons and lookups.
+     *
+     * @return
+     *      Long containing the Id.
+     */
+    long getIdLong();
 
     /**
-     * The time this entity was created. Calculated through the Snowflake in {@link #getId}.
+     * The time this entity was created. Calculated through the Snowflake in {@link #getIdLong}.
      *
      * @return
      *      OffsetDateTime - Time this entity was created at.
      */
     default OffsetDateTime getCreationTime()
     {
-        return MiscUtil.getCreationTime(getId());
+        return MiscUtil.getCreationTime(getIdLong());
     }
 }
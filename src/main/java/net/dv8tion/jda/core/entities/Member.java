@@ -143,6 +143,25 @@ public interface Member extends IMentionable
      */
     List<Permission> getPermissions(Channel channel);
 
+    /**
+     * The <code>long</code> representation of the Guild-Wide Permissions this Member holds.
+     *
+     * @return
+     *      The raw permissions of this Member.
+     */
+    long getPermissionsRaw();
+
+    /**
+     * The <code>long</code> representation of the Permissions this Member holds in the specified
+     * {@link net.dv8tion.jda.core.entities.Channel Channel}.
+     *
+     * @param channel
+     *          The {@link net.dv8tion.jda.core.entities.Channel Channel} in which to check.
+     * @return
+     *      The raw permissions of this Member in the provided Channel.
+     */
+    long getPermissionsRaw(Channel channel);
+
     /**
      * Checks whether or not this Member has the given {@link net.dv8tion.jda.core.Permission Permissions} in the Guild.
      *
@@ -164,6 +183,18 @@ public interface Member extends IMentionable
      */
     boolean hasPermission(Collection<Permission> permissions);
 
+    /**
+     * Checks whether or not this Member has all permissions of the provided raw permission mask in the Guild.
+     * <br>This is a single bitwise test, use {@link net.dv8tion.jda.core.Permission#getRaw(Permission...) Permission.getRaw(Permission...)}
+     * once to build the mask.
+     *
+     * @param permissions
+     *          The raw permissions to check for.
+     * @return
+     *      True - if all of the specified Permissions are granted to this Member.
+     */
+    boolean hasPermission(long permissions);
+
     /**
      * Checks whether or not this Member has the given {@link net.dv8tion.jda.core.Permission Permissions} in the specified Channel.
      *
@@ -189,6 +220,18 @@ public interface Member extends IMentionable
      */
     boolean hasPermission(Channel channel, Collection<Permission> permissions);
 
+    /**
+     * Checks whether or not this Member has all permissions of the provided raw permission mask in the specified Channel.
+     *
+     * @param channel
+     *          The {@link net.dv8tion.jda.core.entities.Channel Channel} in which to check.
+     * @param permissions
+     *          The raw permissions to check for.
+     * @return
+     *      True - if all of the specified Permissions are granted to this Member in the provided Channel.
+     */
+    boolean hasPermission(Channel channel, long permissions);
+
     boolean canInteract(Member member);
 
     boolean canInteract(Role role);
@@ -141,6 +141,17 @@ public interface Role extends ISnowflake, IMentionable, Comparable<Role>
      */
     boolean hasPermission(Collection<Permission> permissions);
 
+    /**
+     * Checks if this {@link net.dv8tion.jda.core.entities.Role Role} has access to all permissions of the provided raw
+     * permission mask. This is a single bitwise test and does not check the Channel-specific overrides.
+     *
+     * @param permissions
+     *          The raw permissions to check for, see {@link net.dv8tion.jda.core.Permission#getRaw(Permission...) Permission.getRaw(Permission...)}
+     * @return
+     *      If all of the given permissions are available to this {@link net.dv8tion.jda.core.entities.Role Role}
+     */
+    boolean hasPermission(long permissions);
+
     /**
      * Checks if this {@link net.dv8tion.jda.core.entities.Role Role} has access to the provided {@link net.dv8tion.jda.core.Permission Permissions}
      * in the specified {@link net.dv8tion.jda.core.entities.Channel Channel}.
@@ -163,6 +174,17 @@ public interface Role extends ISnowflake, IMentionable, Comparable<Role>
      */
     boolean hasPermission(Channel channel, Collection<Permission> permissions);
 
+    /**
+     * Checks if this {@link net.dv8tion.jda.core.entities.Role Role} has access to all permissions of the provided raw
+     * permission mask in the specified {@link net.dv8tion.jda.core.entities.Channel Channel}.
+     *
+     * @param permissions
+     *          The raw permissions to check for, see {@link net.dv8tion.jda.core.Permission#getRaw(Permission...) Permission.getRaw(Permission...)}
+     * @return
+     *      If all of the given permissions are available to this {@link net.dv8tion.jda.core.entities.Role Role} in this Channel
+     */
+    boolean hasPermission(Channel channel, long permissions);
+
     boolean canInteract(Role role);
 
     /**
@@ -33,14 +33,15 @@ import net.dv8tion.jda.core.requests.Route;
 import net.dv8tion.jda.core.utils.PermissionUtil;
 
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class EmoteImpl implements Emote
 {
 
-    private final String id;
+    private final long id;
     private final Guild guild;
     private final JDA api;
 
@@ -49,18 +50,18 @@ public class EmoteImpl implements Emote
     private Object mngLock = new Object();
 
     private boolean managed = false;
-    private HashSet<Role> roles = null;
+    private Set<Role> roles = null;
     private String name;
 
-    public EmoteImpl(String id,  Guild guild)
+    public EmoteImpl(long id,  Guild guild)
     {
         this.id = id;
         this.guild = guild;
         this.api = guild.getJDA();
-        this.roles = new HashSet<>();
+        this.roles = ConcurrentHashMap.newKeySet();
     }
 
-    public EmoteImpl(String id,  JDA api)
+    public EmoteImpl(long id,  JDA api)
     {
         this.id = id;
         this.api = api;
@@ -100,7 +101,7 @@ public class EmoteImpl implements Emote
     }
 
     @Override
-    public String getId()
+    public long getIdLong()
     {
         return id;
     }
@@ -183,7 +184,7 @@ public class EmoteImpl implements Emote
 
     // -- Set Getter --
 
-    public HashSet<Role> getRoleSet()
+    public Set<Role> getRoleSet()
     {
         return this.roles;
     }
@@ -197,14 +198,14 @@ public class EmoteImpl implements Emote
             return false;
 
         Emote oEmote = (Emote) obj;
-        return getId().equals(oEmote.getId());
+        return getIdLong() == oEmote.getIdLong();
     }
 
 
     @Override
     public int hashCode()
     {
-        return getId().hashCode();
+        return Long.hashCode(getIdLong());
     }
 
     @Override
@@ -0,0 +1,523 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.core.entities.impl;
+
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import net.dv8tion.jda.core.JDA;
+import net.dv8tion.jda.core.Region;
+import net.dv8tion.jda.core.entities.*;
+import net.dv8tion.jda.core.utils.InternPool;
+import net.dv8tion.jda.core.utils.SimpleLog;
+
+import java.awt.Color;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Binary snapshot of the guild cache of a {@link JDAImpl}, used to warm up the cache after a restart.
+ * <p>
+ * The snapshot contains the self user, all users that are members of a cached guild and every available guild
+ * with its roles, emotes, channels, permission overrides and members. Presences and voice states are not stored as
+ * they are outdated by the time the snapshot is loaded.
+ * <br>Restored guilds are marked as {@link GuildImpl#isRestored() restored}. The GUILD_CREATE received for them
+ * is applied as a diff: entities are updated in place and entities missing from the payload (or member chunks) are
+ * removed.
+ * <p>
+ * Format (big endian): {@code int magic, int version, int shardId, int shardTotal}, the self user, a user table and
+ * the guilds. Strings are stored as an {@code int} byte count (-1 for {@code null}) followed by UTF-8 bytes.
+ */
+public class EntitySnapshot
+{
+    public static final SimpleLog LOG = SimpleLog.getLog("JDASnapshot");
+
+    private static final int MAGIC = 0x4A444153; //"JDAS"
+    private static final int VERSION = 1;
+
+    private static final byte OVERRIDE_ROLE = 0;
+    private static final byte OVERRIDE_MEMBER = 1;
+
+    private EntitySnapshot() {}
+
+    /**
+     * Writes the current cache of the provided JDA instance to the file.
+     * <br>The snapshot is first written to a temporary file which then replaces the target, so a crash while writing
+     * never leaves a truncated snapshot behind.
+     *
+     * @param  api
+     *         The JDA instance, should be connected so the cache is complete
+     * @param  file
+     *         The target file
+     *
+     * @throws IOException
+     *         If the file could not be written
+     */
+    public static void write(JDAImpl api, File file) throws IOException
+    {
+        Path target = file.toPath().toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16)))
+        {
+            JDA.ShardInfo shardInfo = api.getShardInfo();
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(shardInfo == null ? -1 : shardInfo.getShardId());
+            out.writeInt(shardInfo == null ? -1 : shardInfo.getShardTotal());
+
+            SelfUser self = api.getSelfUser();
+            writeUser(out, self);
+            out.writeBoolean(self.isVerified());
+            out.writeBoolean(self.isMfaEnabled());
+
+            User[] users = api.getUserMap().valueCollection().stream()
+                    .filter(user -> user.getIdLong() != self.getIdLong())
+                    .toArray(User[]::new);
+            out.writeInt(users.length);
+            for (User user : users)
+                writeUser(out, user);
+
+            int available = 0;
+            for (Guild guild : api.getGuildMap().valueCollection())
+            {
+                if (guild.isAvailable())
+                    available++;
+            }
+            out.writeInt(available);
+            for (Guild guild : api.getGuildMap().valueCollection())
+            {
+                if (guild.isAvailable())
+                    writeGuild(out, (GuildImpl) guild);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a snapshot into the empty cache of the provided JDA instance. The file is memory-mapped for reading.
+     * <br>The snapshot is ignored if it was written for a different account or shard.
+     *
+     * @param  api
+     *         The JDA instance, must have verified its token but not connected yet
+     * @param  selfId
+     *         The id of the logged in account
+     * @param  file
+     *         The snapshot file
+     *
+     * @throws IOException
+     *         If the file could not be read or is not a valid snapshot
+     *
+     * @return True, if the snapshot was loaded
+     */
+    public static boolean load(JDAImpl api, long selfId, File file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC)
+                throw new IOException("Not a JDA snapshot: " + file);
+            int version = buffer.getInt();
+            if (version != VERSION)
+            {
+                LOG.warn("Ignoring snapshot " + file + " with unsupported version " + version);
+                return false;
+            }
+            JDA.ShardInfo shardInfo = api.getShardInfo();
+            int shardId = buffer.getInt();
+            int shardTotal = buffer.getInt();
+            if (shardId != (shardInfo == null ? -1 : shardInfo.getShardId())
+                    || shardTotal != (shardInfo == null ? -1 : shardInfo.getShardTotal()))
+            {
+                LOG.warn("Ignoring snapshot " + file + " written for a different shard");
+                return false;
+            }
+
+            long snapshotSelfId = buffer.getLong();
+            if (snapshotSelfId != selfId)
+            {
+                LOG.warn("Ignoring snapshot " + file + " written for a different account");
+                return false;
+            }
+            SelfUserImpl self = new SelfUserImpl(selfId, api);
+            readUser(buffer, self);
+            self.setVerified(buffer.get() != 0)
+                .setMfaEnabled(buffer.get() != 0);
+            api.setSelfUser(self);
+            api.getUserMap().put(selfId, self);
+
+            int userCount = readCount(buffer, 8);
+            for (int i = 0; i < userCount; i++)
+            {
+                UserImpl user = new UserImpl(buffer.getLong(), api);
+                readUser(buffer, user);
+                api.getUserMap().put(user.getIdLong(), user);
+            }
+
+            int guildCount = readCount(buffer, 8);
+            TLongSet memberIds = new TLongHashSet();
+            for (int i = 0; i < guildCount; i++)
+                memberIds.addAll(readGuild(buffer, api).getMembersMap().keys());
+
+            //Users are only kept while they share a cached guild with us
+            memberIds.add(selfId);
+            for (long userId : api.getUserMap().keys())
+            {
+                if (!memberIds.contains(userId))
+                    api.getUserMap().remove(userId);
+            }
+            LOG.info("Restored " + guildCount + " guilds and " + api.getUserMap().size() + " users from " + file);
+            return true;
+        }
+        catch (RuntimeException e)
+        {
+            //Truncated data, invalid counts or unknown enum keys
+            throw new IOException("Corrupt JDA snapshot: " + file, e);
+        }
+    }
+
+    // -- Writing --
+
+    private static void writeUser(DataOutputStream out, User user) throws IOException
+    {
+        out.writeLong(user.getIdLong());
+        writeString(out, user.getName());
+        writeString(out, user.getDiscriminator());
+        writeString(out, user.getAvatarId());
+        out.writeBoolean(user.isBot());
+    }
+
+    private static void writeGuild(DataOutputStream out, GuildImpl guild) throws IOException
+    {
+        out.writeLong(guild.getIdLong());
+        writeString(out, guild.getName());
+        writeString(out, guild.getIconId());
+        writeString(out, guild.getSplashId());
+        writeString(out, guild.getRegion().getKey());
+        out.writeInt(guild.getAfkTimeout().getSeconds());
+        out.writeInt(guild.getVerificationLevel().getKey());
+        out.writeInt(guild.getDefaultNotificationLevel().getKey());
+        out.writeInt(guild.getRequiredMFALevel().getKey());
+        out.writeLong(guild.getOwnerIdLong());
+        out.writeLong(guild.getAfkChannel() == null ? 0 : guild.getAfkChannel().getIdLong());
+
+        Collection<Role> roles = guild.getRolesMap().valueCollection();
+        out.writeInt(roles.size());
+        for (Role role : roles)
+        {
+            out.writeLong(role.getIdLong());
+            writeString(out, role.getName());
+            out.writeInt(role.getColor() == null ? 0 : role.getColor().getRGB() & 0xFFFFFF);
+            out.writeLong(role.getPermissionsRaw());
+            out.writeInt(role.getPositionRaw());
+            out.writeBoolean(role.isManaged());
+            out.writeBoolean(role.isHoisted());
+            out.writeBoolean(role.isMentionable());
+        }
+
+        Collection<Emote> emotes = guild.getEmoteMap().valueCollection();
+        out.writeInt(emotes.size());
+        for (Emote emote : emotes)
+        {
+            EmoteImpl emoteImpl = (EmoteImpl) emote;
+            out.writeLong(emote.getIdLong());
+            writeString(out, emote.getName());
+            out.writeBoolean(emote.isManaged());
+            Role[] emoteRoles = emoteImpl.getRoleSet().toArray(new Role[0]);
+            out.writeInt(emoteRoles.length);
+            for (Role role : emoteRoles)
+                out.writeLong(role.getIdLong());
+        }
+
+        Collection<TextChannel> textChannels = guild.getTextChannelsMap().valueCollection();
+        out.writeInt(textChannels.size());
+        for (TextChannel channel : textChannels)
+        {
+            TextChannelImpl channelImpl = (TextChannelImpl) channel;
+            out.writeLong(channel.getIdLong());
+            writeString(out, channel.getName());
+            writeString(out, channel.getTopic());
+            out.writeInt(channel.getPositionRaw());
+            writeOverrides(out, channelImpl.getRoleOverrideMap(), channelImpl.getMemberOverrideMap());
+        }
+
+        Collection<VoiceChannel> voiceChannels = guild.getVoiceChannelMap().valueCollection();
+        out.writeInt(voiceChannels.size());
+        for (VoiceChannel channel : voiceChannels)
+        {
+            VoiceChannelImpl channelImpl = (VoiceChannelImpl) channel;
+            out.writeLong(channel.getIdLong());
+            writeString(out, channel.getName());
+            out.writeInt(channel.getPositionRaw());
+            out.writeInt(channel.getUserLimit());
+            out.writeInt(channel.getBitrate());
+            writeOverrides(out, channelImpl.getRoleOverrideMap(), channelImpl.getMemberOverrideMap());
+        }
+
+        Collection<Member> members = guild.getMembersMap().valueCollection();
+        out.writeInt(members.size());
+        for (Member member : members)
+        {
+            MemberImpl memberImpl = (MemberImpl) member;
+            OffsetDateTime joinDate = member.getJoinDate();
+            long[] roleIds = memberImpl.getRoleIds();
+            out.writeLong(member.getUser().getIdLong());
+            writeString(out, member.getNickname());
+            out.writeLong(joinDate == null ? 0 : joinDate.toInstant().toEpochMilli());
+            out.writeInt(roleIds.length);
+            for (long roleId : roleIds)
+                out.writeLong(roleId);
+        }
+    }
+
+    private static void writeOverrides(DataOutputStream out, Map<Role, PermissionOverride> roleOverrides,
+                                       Map<Member, PermissionOverride> memberOverrides) throws IOException
+    {
+        //Copy first, the maps are concurrent and their size might change while writing
+        PermissionOverride[] roles = roleOverrides.values().toArray(new PermissionOverride[0]);
+        PermissionOverride[] members = memberOverrides.values().toArray(new PermissionOverride[0]);
+        out.writeInt(roles.length + members.length);
+        for (PermissionOverride override : roles)
+        {
+            out.writeByte(OVERRIDE_ROLE);
+            out.writeLong(override.getRole().getIdLong());
+            out.writeLong(override.getAllowedRaw());
+            out.writeLong(override.getDeniedRaw());
+        }
+        for (PermissionOverride override : members)
+        {
+            out.writeByte(OVERRIDE_MEMBER);
+            out.writeLong(override.getMember().getUser().getIdLong());
+            out.writeLong(override.getAllowedRaw());
+            out.writeLong(override.getDeniedRaw());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException
+    {
+        if (value == null)
+        {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // -- Reading --
+
+    private static void readUser(ByteBuffer buffer, UserImpl user)
+    {
+        user.setName(readString(buffer))
+            .setDiscriminator(InternPool.STRINGS.intern(readString(buffer)))
+            .setAvatarId(readString(buffer))
+            .setBot(buffer.get() != 0);
+    }
+
+    private static GuildImpl readGuild(ByteBuffer buffer, JDAImpl api)
+    {
+        GuildImpl guild = new GuildImpl(api, buffer.getLong());
+        guild.setName(readString(buffer))
+             .setIconId(readString(buffer))
+             .setSplashId(readString(buffer))
+             .setRegion(Region.fromKey(readString(buffer)))
+             .setAfkTimeout(Guild.Timeout.fromKey(buffer.getInt()))
+             .setVerificationLevel(Guild.VerificationLevel.fromKey(buffer.getInt()))
+             .setDefaultNotificationLevel(Guild.NotificationLevel.fromKey(buffer.getInt()))
+             .setRequiredMFALevel(Guild.MFALevel.fromKey(buffer.getInt()))
+             .setAvailable(true)
+             .setRestored(true);
+        long ownerId = buffer.getLong();
+        long afkChannelId = buffer.getLong();
+        guild.setOwnerId(ownerId);
+        api.getGuildMap().put(guild.getIdLong(), guild);
+
+        int roleCount = readCount(buffer, 8);
+        for (int i = 0; i < roleCount; i++)
+        {
+            RoleImpl role = new RoleImpl(buffer.getLong(), guild);
+            role.setName(readString(buffer));
+            int color = buffer.getInt();
+            role.setColor(color != 0 ? new Color(color) : null)
+                .setRawPermissions(buffer.getLong())
+                .setRawPosition(buffer.getInt())
+                .setManaged(buffer.get() != 0)
+                .setHoisted(buffer.get() != 0)
+                .setMentionable(buffer.get() != 0);
+            guild.getRolesMap().put(role.getIdLong(), role);
+            if (role.getIdLong() == guild.getIdLong())
+                guild.setPublicRole(role);
+        }
+
+        int emoteCount = readCount(buffer, 8);
+        for (int i = 0; i < emoteCount; i++)
+        {
+            EmoteImpl emote = new EmoteImpl(buffer.getLong(), guild);
+            emote.setName(readString(buffer))
+                 .setManaged(buffer.get() != 0);
+            int emoteRoles = readCount(buffer, 8);
+            for (int j = 0; j < emoteRoles; j++)
+            {
+                Role role = guild.getRolesMap().get(buffer.getLong());
+                if (role != null)
+                    emote.getRoleSet().add(role);
+            }
+            guild.getEmoteMap().put(emote.getIdLong(), emote);
+        }
+
+        //Members are stored after the channels but overrides reference them, so overrides are applied afterwards
+        int textCount = readCount(buffer, 8);
+        TextChannelImpl[] textChannels = new TextChannelImpl[textCount];
+        long[][] textOverrides = new long[textCount][];
+        for (int i = 0; i < textCount; i++)
+        {
+            TextChannelImpl channel = new TextChannelImpl(buffer.getLong(), guild);
+            channel.setName(readString(buffer))
+                   .setTopic(readString(buffer))
+                   .setRawPosition(buffer.getInt());
+            textOverrides[i] = readOverrides(buffer);
+            textChannels[i] = channel;
+            guild.getTextChannelsMap().put(channel.getIdLong(), channel);
+            api.getTextChannelMap().put(channel.getIdLong(), channel);
+            if (channel.getIdLong() == guild.getIdLong())
+                guild.setPublicChannel(channel);
+        }
+
+        int voiceCount = readCount(buffer, 8);
+        VoiceChannelImpl[] voiceChannels = new VoiceChannelImpl[voiceCount];
+        long[][] voiceOverrides = new long[voiceCount][];
+        for (int i = 0; i < voiceCount; i++)
+        {
+            VoiceChannelImpl channel = new VoiceChannelImpl(buffer.getLong(), guild);
+            channel.setName(readString(buffer))
+                   .setRawPosition(buffer.getInt())
+                   .setUserLimit(buffer.getInt())
+                   .setBitrate(buffer.getInt());
+            voiceOverrides[i] = readOverrides(buffer);
+            voiceChannels[i] = channel;
+            guild.getVoiceChannelMap().put(channel.getIdLong(), channel);
+            api.getVoiceChannelMap().put(channel.getIdLong(), channel);
+            if (channel.getIdLong() == afkChannelId)
+                guild.setAfkChannel(channel);
+        }
+
+        int memberCount = readCount(buffer, 8);
+        for (int i = 0; i < memberCount; i++)
+        {
+            long userId = buffer.getLong();
+            String nickname = readString(buffer);
+            long joinTime = buffer.getLong();
+            long[] roleIds = new long[readCount(buffer, 8)];
+            for (int j = 0; j < roleIds.length; j++)
+                roleIds[j] = buffer.getLong();
+
+            User user = api.getUserMap().get(userId);
+            if (user == null)
+                continue;
+            MemberImpl member = new MemberImpl(guild, user)
+                    .setNickname(nickname)
+                    .setJoinDate(joinTime == 0 ? null : OffsetDateTime.ofInstant(Instant.ofEpochMilli(joinTime), ZoneOffset.UTC))
+                    .setRoleIds(roleIds);
+            guild.getMembersMap().put(userId, member);
+        }
+        Member owner = guild.getMembersMap().get(ownerId);
+        if (owner != null)
+            guild.setOwner(owner);
+
+        for (int i = 0; i < textCount; i++)
+            applyOverrides(guild, textChannels[i], textOverrides[i], textChannels[i].getRoleOverrideMap(), textChannels[i].getMemberOverrideMap());
+        for (int i = 0; i < voiceCount; i++)
+            applyOverrides(guild, voiceChannels[i], voiceOverrides[i], voiceChannels[i].getRoleOverrideMap(), voiceChannels[i].getMemberOverrideMap());
+
+        guild.pruneMemberCache();
+        return guild;
+    }
+
+    /**
+     * Reads the overrides of a channel as flat {@code [type, id, allow, deny]} quadruples.
+     */
+    private static long[] readOverrides(ByteBuffer buffer)
+    {
+        long[] overrides = new long[readCount(buffer, 25) * 4];
+        for (int i = 0; i < overrides.length; i += 4)
+        {
+            overrides[i] = buffer.get();
+            overrides[i + 1] = buffer.getLong();
+            overrides[i + 2] = buffer.getLong();
+            overrides[i + 3] = buffer.getLong();
+        }
+        return overrides;
+    }
+
+    private static void applyOverrides(GuildImpl guild, Channel channel, long[] overrides,
+                                       Map<Role, PermissionOverride> roleOverrides,
+                                       Map<Member, PermissionOverride> memberOverrides)
+    {
+        for (int i = 0; i < overrides.length; i += 4)
+        {
+            long id = overrides[i + 1];
+            if (overrides[i] == OVERRIDE_ROLE)
+            {
+                Role role = guild.getRolesMap().get(id);
+                if (role != null)
+                    roleOverrides.put(role, new PermissionOverrideImpl(channel, null, role)
+                            .setAllow(overrides[i + 2])
+                            .setDeny(overrides[i + 3]));
+            }
+            else
+            {
+                Member member = guild.getMembersMap().get(id);
+                if (member != null)
+                    memberOverrides.put(member, new PermissionOverrideImpl(channel, member, null)
+                            .setAllow(overrides[i + 2])
+                            .setDeny(overrides[i + 3]));
+            }
+        }
+    }
+
+    /**
+     * Reads the count of the following elements and checks it against the remaining bytes, so that a corrupt
+     * snapshot can't cause huge allocations.
+     */
+    private static int readCount(ByteBuffer buffer, int minElementSize)
+    {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / minElementSize)
+            throw new IllegalArgumentException("Invalid element count " + count);
+        return count;
+    }
+
+    private static String readString(ByteBuffer buffer)
+    {
+        int length = buffer.getInt();
+        if (length == -1)
+            return null;
+        if (length < 0 || length > buffer.remaining())
+            throw new IllegalArgumentException("Invalid string length " + length);
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
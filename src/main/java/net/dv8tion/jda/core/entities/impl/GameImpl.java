@@ -17,6 +17,8 @@ package net.dv8tion.jda.core.entities.impl;
 
 import net.dv8tion.jda.core.entities.Game;
 
+import java.util.Objects;
+
 public class GameImpl implements Game
 {
     private String name;
@@ -65,7 +67,7 @@ public class GameImpl implements Game
     @Override
     public int hashCode()
     {
-        return (name + type + url).hashCode();
+        return Objects.hash(name, type, url);
     }
 
     @Override
@@ -16,11 +16,16 @@
 
 package net.dv8tion.jda.core.entities.impl;
 
+import gnu.trove.impl.Constants;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongIntHashMap;
 import net.dv8tion.jda.core.AccountType;
 import net.dv8tion.jda.core.JDA;
 import net.dv8tion.jda.core.Region;
 import net.dv8tion.jda.core.entities.*;
 import net.dv8tion.jda.core.exceptions.PermissionException;
+import net.dv8tion.jda.core.handle.GuildMembersChunkHandler;
 import net.dv8tion.jda.core.managers.GuildController;
 import net.dv8tion.jda.core.managers.GuildManager;
 import net.dv8tion.jda.core.managers.GuildManagerUpdatable;
@@ -28,26 +33,46 @@ import net.dv8tion.jda.core.requests.Request;
 import net.dv8tion.jda.core.requests.Response;
 import net.dv8tion.jda.core.requests.RestAction;
 import net.dv8tion.jda.core.requests.Route;
+import net.dv8tion.jda.core.utils.ConcurrentLongObjectMap;
+import net.dv8tion.jda.core.utils.IndexedLongObjectMap;
 import net.dv8tion.jda.core.utils.MiscUtil;
-import org.apache.commons.lang3.StringUtils;
+import net.dv8tion.jda.core.utils.NameIndex;
+import net.dv8tion.jda.core.utils.SortedIndex;
 import org.json.JSONObject;
 
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class GuildImpl implements Guild
 {
-    private final String id;
+    private final long id;
     private final JDAImpl api;
-    private final HashMap<String, TextChannel> textChannels = new HashMap<>();
-    private final HashMap<String, VoiceChannel> voiceChannels = new HashMap<>();
-    private final HashMap<String, Member> members = new HashMap<>();
-    private final HashMap<String, Role> roles = new HashMap<>();
-    private final HashMap<String, Emote> emotes = new HashMap<>();
-
-    private final HashMap<String, JSONObject> cachedPresences = new HashMap<>();
+    private final NameIndex<TextChannel> textChannelNames = new NameIndex<>(TextChannel::getName);
+    private final NameIndex<VoiceChannel> voiceChannelNames = new NameIndex<>(VoiceChannel::getName);
+    private final NameIndex<Member> memberNames = new NameIndex<>(m -> m.getUser().getName());
+    private final NameIndex<Member> memberNicknames = new NameIndex<>(Member::getNickname);
+    private final NameIndex<Member> memberEffectiveNames = new NameIndex<>(Member::getEffectiveName);
+    private final NameIndex<Role> roleNames = new NameIndex<>(Role::getName);
+    private final NameIndex<Emote> emoteNames = new NameIndex<>(Emote::getName);
+    private final RoleMemberIndex roleMembers = new RoleMemberIndex();
+    private final SortedIndex<TextChannel> sortedTextChannels = new SortedIndex<>((c1, c2) -> c2.compareTo(c1));
+    private final SortedIndex<VoiceChannel> sortedVoiceChannels = new SortedIndex<>((v1, v2) -> v2.compareTo(v1));
+    private final SortedIndex<Role> sortedRoles = new SortedIndex<>((r1, r2) -> r2.compareTo(r1));
+
+    private final IndexedLongObjectMap<TextChannel> textChannels = new IndexedLongObjectMap<>(textChannelNames, sortedTextChannels);
+    private final IndexedLongObjectMap<VoiceChannel> voiceChannels = new IndexedLongObjectMap<>(voiceChannelNames, sortedVoiceChannels);
+    private final MemberMap members = new MemberMap(memberNames, memberNicknames, memberEffectiveNames, roleMembers);
+    private final IndexedLongObjectMap<Role> roles = new IndexedLongObjectMap<>(roleNames, sortedRoles);
+    private final IndexedLongObjectMap<Emote> emotes = new IndexedLongObjectMap<>(emoteNames);
+
+    private final TLongObjectMap<JSONObject> cachedPresences = new ConcurrentLongObjectMap<>();
+
+    // Access ordered, only used when a member cache limit is configured
+    private final Object memberCacheLock = new Object();
+    private LinkedHashMap<Long, Member> recentMembers = null;
 
     private volatile GuildManager manager;
     private volatile GuildManagerUpdatable managerUpdatable;
@@ -55,6 +80,7 @@ public class GuildImpl implements Guild
     private Object mngLock = new Object();
 
     private Member owner;
+    private long ownerId;
     private String name;
     private String iconId;
     private String splashId;
@@ -67,9 +93,13 @@ public class GuildImpl implements Guild
     private MFALevel mfaLevel;
     private Timeout afkTimeout;
     private boolean available;
+    private volatile boolean restored;
+    private volatile boolean loaded = true;
+    private volatile int permissionVersion;
+    private volatile RoleRanks roleRanks;
     private boolean canSendVerification = false;
 
-    public GuildImpl(JDAImpl api, String id)
+    public GuildImpl(JDAImpl api, long id)
     {
         this.id = id;
         this.api = api;
@@ -132,7 +162,7 @@ public class GuildImpl implements Guild
     @Override
     public boolean isMember(User user)
     {
-        return members.containsKey(user.getId());
+        return members.containsKey(user.getIdLong());
     }
 
     @Override
@@ -144,52 +174,102 @@ public class GuildImpl implements Guild
     @Override
     public Member getMember(User user)
     {
-        return getMemberById(user.getId());
+        return getMemberById(user.getIdLong());
     }
 
     @Override
     public Member getMemberById(String userId)
+    {
+        return getMemberById(MiscUtil.parseSnowflake(userId));
+    }
+
+    @Override
+    public Member getMemberById(long userId)
     {
         return members.get(userId);
     }
 
+    @Override
+    public RestAction<Member> retrieveMemberById(String userId)
+    {
+        return retrieveMemberById(MiscUtil.parseSnowflake(userId));
+    }
+
+    @Override
+    public RestAction<Member> retrieveMemberById(long userId)
+    {
+        Member member = getMemberById(userId);
+        if (member != null)
+            return new RestAction.EmptyRestAction<>(member);
+
+        Route.CompiledRoute route = Route.Guilds.GET_MEMBER.compile(getId(), Long.toUnsignedString(userId));
+        return new RestAction<Member>(api, route, null)
+        {
+            @Override
+            protected void handleResponse(Response response, Request request)
+            {
+                if (response.isOk())
+                    request.onSuccess(EntityBuilder.get(api).createMember(GuildImpl.this, response.getObject()));
+                else
+                    request.onFailure(response);
+            }
+        };
+    }
+
+    @Override
+    public CompletableFuture<List<Member>> requestMembers(String query, int limit)
+    {
+        if (query == null)
+            throw new IllegalArgumentException("Provided query was null!");
+        if (limit < 0 || limit > 100)
+            throw new IllegalArgumentException("Limit must be between 0 and 100!");
+        if (limit == 0 && !query.isEmpty())
+            throw new IllegalArgumentException("A limit of 0 can only be used with an empty query!");
+
+        GuildMembersChunkHandler handler = api.getClient().getHandler("GUILD_MEMBERS_CHUNK");
+        return handler.requestMembers(this, query, null, limit);
+    }
+
+    @Override
+    public CompletableFuture<List<Member>> requestMembers(long... userIds)
+    {
+        if (userIds == null || userIds.length == 0)
+            throw new IllegalArgumentException("Provided user ids were empty!");
+        if (userIds.length > 100)
+            throw new IllegalArgumentException("Cannot request more than 100 Members at once!");
+
+        GuildMembersChunkHandler handler = api.getClient().getHandler("GUILD_MEMBERS_CHUNK");
+        return handler.requestMembers(this, null, userIds, userIds.length);
+    }
+
     @Override
     public List<Member> getMembers()
     {
-        return Collections.unmodifiableList(new ArrayList<>(members.values()));
+        return Collections.unmodifiableList(new ArrayList<>(members.valueCollection()));
     }
 
     @Override
     public List<Member> getMembersByName(String name, boolean ignoreCase)
     {
-        return Collections.unmodifiableList(members.values().stream()
-                .filter(m ->
-                    ignoreCase
-                    ? name.equalsIgnoreCase(m.getUser().getName())
-                    : name.equals(m.getUser().getName()))
-                .collect(Collectors.toList()));
+        return Collections.unmodifiableList(memberNames.get(name, ignoreCase));
     }
 
     @Override
     public List<Member> getMembersByNickname(String nickname, boolean ignoreCase)
     {
-        return Collections.unmodifiableList(members.values().stream()
-                .filter(m ->
-                    ignoreCase
-                    ? nickname.equalsIgnoreCase(m.getNickname())
-                    : nickname.equals(m.getNickname()))
-                .collect(Collectors.toList()));
+        return Collections.unmodifiableList(memberNicknames.get(nickname, ignoreCase));
     }
 
     @Override
     public List<Member> getMembersByEffectiveName(String name, boolean ignoreCase)
     {
-        return Collections.unmodifiableList(members.values().stream()
-                .filter(m ->
-                    ignoreCase
-                    ? name.equalsIgnoreCase(m.getEffectiveName())
-                    : name.equals(m.getEffectiveName()))
-                .collect(Collectors.toList()));
+        return Collections.unmodifiableList(memberEffectiveNames.get(name, ignoreCase));
+    }
+
+    @Override
+    public List<Member> getMembersByPrefix(String prefix, boolean ignoreCase)
+    {
+        return Collections.unmodifiableList(memberEffectiveNames.getByPrefix(prefix, ignoreCase));
     }
 
     @Override
@@ -201,13 +281,17 @@ public class GuildImpl implements Guild
     @Override
     public List<Member> getMembersWithRoles(Collection<Role> roles)
     {
-        return Collections.unmodifiableList(members.values().stream()
-                        .filter(m -> m.getRoles().containsAll(roles))
-                        .collect(Collectors.toList()));
+        return Collections.unmodifiableList(roleMembers.getMembersWithRoles(roles, members.valueCollection()));
     }
 
     @Override
     public TextChannel getTextChannelById(String id)
+    {
+        return getTextChannelById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Override
+    public TextChannel getTextChannelById(long id)
     {
         return textChannels.get(id);
     }
@@ -215,24 +299,23 @@ public class GuildImpl implements Guild
     @Override
     public List<TextChannel> getTextChannelsByName(String name, boolean ignoreCase)
     {
-        return Collections.unmodifiableList(textChannels.values().stream()
-                .filter(tc ->
-                    ignoreCase
-                    ? name.equalsIgnoreCase(tc.getName())
-                    : name.equals(tc.getName()))
-                .collect(Collectors.toList()));
+        return Collections.unmodifiableList(textChannelNames.get(name, ignoreCase));
     }
 
     @Override
     public List<TextChannel> getTextChannels()
     {
-        ArrayList<TextChannel> channels = new ArrayList<>(textChannels.values());
-        Collections.sort(channels, (c1, c2) -> c2.compareTo(c1));
-        return Collections.unmodifiableList(channels);
+        return sortedTextChannels.getSorted();
     }
 
     @Override
     public VoiceChannel getVoiceChannelById(String id)
+    {
+        return getVoiceChannelById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Override
+    public VoiceChannel getVoiceChannelById(long id)
     {
         return voiceChannels.get(id);
     }
@@ -240,24 +323,23 @@ public class GuildImpl implements Guild
     @Override
     public List<VoiceChannel> getVoiceChannelsByName(String name, boolean ignoreCase)
     {
-        return Collections.unmodifiableList(voiceChannels.values().stream()
-            .filter(vc ->
-                    ignoreCase
-                    ? name.equalsIgnoreCase(vc.getName())
-                    : name.equals(vc.getName()))
-            .collect(Collectors.toList()));
+        return Collections.unmodifiableList(voiceChannelNames.get(name, ignoreCase));
     }
 
     @Override
     public List<VoiceChannel> getVoiceChannels()
     {
-        List<VoiceChannel> channels = new ArrayList<>(voiceChannels.values());
-        Collections.sort(channels, (v1, v2) -> v2.compareTo(v1));
-        return Collections.unmodifiableList(channels);
+        return sortedVoiceChannels.getSorted();
     }
 
     @Override
     public Role getRoleById(String id)
+    {
+        return getRoleById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Override
+    public Role getRoleById(long id)
     {
         return roles.get(id);
     }
@@ -265,24 +347,23 @@ public class GuildImpl implements Guild
     @Override
     public List<Role> getRoles()
     {
-        List<Role> list = new ArrayList<>(roles.values());
-        Collections.sort(list, (r1, r2) -> r2.compareTo(r1));
-        return Collections.unmodifiableList(list);
+        return sortedRoles.getSorted();
     }
 
     @Override
     public List<Role> getRolesByName(String name, boolean ignoreCase)
     {
-        return Collections.unmodifiableList(roles.values().stream()
-                .filter(r ->
-                        ignoreCase
-                        ? name.equalsIgnoreCase(r.getName())
-                        : name.equals(r.getName()))
-                .collect(Collectors.toList()));
+        return Collections.unmodifiableList(roleNames.get(name, ignoreCase));
     }
 
     @Override
     public Emote getEmoteById(String id)
+    {
+        return getEmoteById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Override
+    public Emote getEmoteById(long id)
     {
         return emotes.get(id);
     }
@@ -290,18 +371,13 @@ public class GuildImpl implements Guild
     @Override
     public List<Emote> getEmotes()
     {
-        return Collections.unmodifiableList(new LinkedList<>(emotes.values()));
+        return Collections.unmodifiableList(new LinkedList<>(emotes.valueCollection()));
     }
 
     @Override
     public List<Emote> getEmotesByName(String name, boolean ignoreCase)
     {
-        return Collections.unmodifiableList(emotes.values().parallelStream()
-                .filter(e ->
-                        ignoreCase
-                        ? StringUtils.equalsIgnoreCase(e.getName(), name)
-                        : StringUtils.equals(e.getName(), name))
-                .collect(Collectors.toList()));
+        return Collections.unmodifiableList(emoteNames.get(name, ignoreCase));
     }
 
     @Override
@@ -367,10 +443,10 @@ public class GuildImpl implements Guild
     @Override
     public RestAction<Void> leave()
     {
-        if (owner.equals(getSelfMember()))
+        if (isOwner(getSelfMember()))
             throw new IllegalStateException("Cannot leave a guild that you are the owner of! Transfer guild ownership first!");
 
-        Route.CompiledRoute route = Route.Self.LEAVE_GUILD.compile(id);
+        Route.CompiledRoute route = Route.Self.LEAVE_GUILD.compile(getId());
         return new RestAction<Void>(api, route, null)
         {
             @Override
@@ -387,10 +463,10 @@ public class GuildImpl implements Guild
     @Override
     public RestAction<Void> delete()
     {
-        if (!owner.equals(getSelfMember()))
+        if (!isOwner(getSelfMember()))
             throw new PermissionException("Cannot delete a guild that you do not own!");
 
-        Route.CompiledRoute route = Route.Guilds.DELETE_GUILD.compile(id);
+        Route.CompiledRoute route = Route.Guilds.DELETE_GUILD.compile(getId());
         return new RestAction<Void>(api, route, null)
         {
             @Override
@@ -414,7 +490,7 @@ public class GuildImpl implements Guild
     public List<VoiceState> getVoiceStates()
     {
         return Collections.unmodifiableList(
-                members.values().stream().<VoiceState>map(Member::getVoiceState).collect(Collectors.toList()));
+                members.valueCollection().stream().<VoiceState>map(Member::getVoiceState).collect(Collectors.toList()));
     }
 
     @Override
@@ -467,7 +543,25 @@ public class GuildImpl implements Guild
     }
 
     @Override
-    public String getId()
+    public boolean isLoaded()
+    {
+        return loaded;
+    }
+
+    /**
+     * Whether this Guild was loaded from an {@link EntitySnapshot}.
+     * <br>Events of restored Guilds are handled as soon as their GUILD_CREATE was applied, even if other Guilds are
+     * still loading.
+     *
+     * @return True, if this Guild was restored from a snapshot
+     */
+    public boolean isRestored()
+    {
+        return restored;
+    }
+
+    @Override
+    public long getIdLong()
     {
         return id;
     }
@@ -480,12 +574,60 @@ public class GuildImpl implements Guild
         return this;
     }
 
+    public GuildImpl setRestored(boolean restored)
+    {
+        this.restored = restored;
+        return this;
+    }
+
+    public GuildImpl setLoaded(boolean loaded)
+    {
+        this.loaded = loaded;
+        return this;
+    }
+
     public GuildImpl setOwner(Member owner)
     {
         this.owner = owner;
+        if (owner != null)
+            this.ownerId = owner.getUser().getIdLong();
         return this;
     }
 
+    /**
+     * Sets the id of the owner. The owner is never unloaded by the {@link net.dv8tion.jda.core.utils.MemberCachePolicy},
+     * so this should be set before the owner Member is created.
+     *
+     * @param  ownerId
+     *         The id of the owner
+     *
+     * @return This GuildImpl
+     */
+    public GuildImpl setOwnerId(long ownerId)
+    {
+        this.ownerId = ownerId;
+        return this;
+    }
+
+    public long getOwnerIdLong()
+    {
+        return ownerId;
+    }
+
+    /**
+     * Whether the provided Member is the owner of this Guild.
+     * <br>Unlike comparing with {@link #getOwner()} this also works while the owner Member is not loaded yet.
+     *
+     * @param  member
+     *         The Member to check
+     *
+     * @return True, if the Member owns this Guild
+     */
+    public boolean isOwner(Member member)
+    {
+        return member.getUser().getIdLong() == ownerId;
+    }
+
     public GuildImpl setName(String name)
     {
         this.name = name;
@@ -555,32 +697,262 @@ public class GuildImpl implements Guild
 
     // -- Map getters --
 
-    public HashMap<String, TextChannel> getTextChannelsMap()
+    public IndexedLongObjectMap<TextChannel> getTextChannelsMap()
     {
         return textChannels;
     }
 
-    public HashMap<String, VoiceChannel> getVoiceChannelMap()
+    public IndexedLongObjectMap<VoiceChannel> getVoiceChannelMap()
     {
         return voiceChannels;
     }
 
-    public HashMap<String, Member> getMembersMap()
+    public IndexedLongObjectMap<Member> getMembersMap()
     {
         return members;
     }
 
-    public HashMap<String, Role> getRolesMap()
+    public IndexedLongObjectMap<Role> getRolesMap()
     {
         return roles;
     }
 
-    public HashMap<String, JSONObject> getCachedPresenceMap()
+    /**
+     * Stops counting the cached Members of this Guild as memberships of their Users.
+     * <br>Has to be called when this Guild is removed from the cache, before the Users are released
+     * using {@link JDAImpl#releaseUser(long)}.
+     */
+    public void detachMembers()
+    {
+        members.detach();
+    }
+
+    /**
+     * Checks the provided Member against the configured {@link net.dv8tion.jda.core.utils.MemberCachePolicy}
+     * and either (re-)adds it to the cache or unloads it.
+     *
+     * @param  member
+     *         The Member to check
+     *
+     * @return True, if the Member is cached
+     */
+    public boolean updateMemberCache(Member member)
+    {
+        if (!api.isMemberCacheRestricted())
+            return true;
+
+        long userId = member.getUser().getIdLong();
+        if (!isPinned(userId) && !api.getMemberCachePolicy().cacheMember(member))
+        {
+            unloadMember(member);
+            return false;
+        }
+        members.putIfAbsent(userId, member);
+        touchMember(member);
+        return true;
+    }
+
+    /**
+     * Re-evaluates the {@link net.dv8tion.jda.core.utils.MemberCachePolicy} for every cached Member.
+     * Used after the Guild has been loaded, when presences and voice states are known.
+     */
+    public void pruneMemberCache()
+    {
+        if (!api.isMemberCacheRestricted())
+            return;
+        for (Member member : getMembers())
+            updateMemberCache(member);
+    }
+
+    /**
+     * Marks the provided Member as recently active. If a member cache limit is configured
+     * the least recently active Members above that limit are unloaded.
+     *
+     * @param member
+     *        The active Member
+     */
+    public void touchMember(Member member)
+    {
+        int limit = api.getMemberCacheLimit();
+        if (limit <= 0)
+            return;
+
+        List<Member> evicted = null;
+        synchronized (memberCacheLock)
+        {
+            if (recentMembers == null)
+                recentMembers = new LinkedHashMap<>(16, 0.75f, true);
+            recentMembers.put(member.getUser().getIdLong(), member);
+
+            for (Iterator<Member> it = recentMembers.values().iterator(); recentMembers.size() > limit && it.hasNext();)
+            {
+                Member eldest = it.next();
+                if (isPinned(eldest.getUser().getIdLong()))
+                    continue;
+                it.remove();
+                if (evicted == null)
+                    evicted = new LinkedList<>();
+                evicted.add(eldest);
+            }
+        }
+        if (evicted != null)
+            evicted.forEach(this::unloadMember);
+    }
+
+    public void forgetMemberActivity(long userId)
+    {
+        synchronized (memberCacheLock)
+        {
+            if (recentMembers != null)
+                recentMembers.remove(userId);
+        }
+    }
+
+    //The currently logged in account and the owner are always cached
+    private boolean isPinned(long userId)
+    {
+        return userId == api.getSelfUser().getIdLong() || userId == ownerId;
+    }
+
+    /**
+     * Removes the provided Member from the cache without firing any events. The Member is still part of the Guild
+     * and can be loaded again using {@link #retrieveMemberById(long)}.
+     *
+     * @param member
+     *        The Member to unload
+     */
+    public void unloadMember(Member member)
+    {
+        long userId = member.getUser().getIdLong();
+        if (isPinned(userId))
+            return;
+
+        forgetMemberActivity(userId);
+        if (members.remove(userId) == null)
+            return;
+        GuildVoiceStateImpl voiceState = ((MemberImpl) member).getVoiceStateIfPresent();
+        VoiceChannelImpl channel = voiceState == null ? null : (VoiceChannelImpl) voiceState.getChannel();
+        if (channel != null)
+            channel.getConnectedMembersMap().remove(userId);
+        api.releaseUser(userId);
+    }
+
+    /**
+     * Updates the roles of a Member and the role index of this Guild.
+     *
+     * @param member
+     *        The Member
+     * @param removed
+     *        The roles the Member lost
+     * @param added
+     *        The roles the Member gained
+     */
+    public void updateMemberRoles(MemberImpl member, Collection<Role> removed, Collection<Role> added)
+    {
+        if (removed.isEmpty() && added.isEmpty())
+            return;
+        if (!removed.isEmpty())
+            member.removeRoles(removed);
+        if (!added.isEmpty())
+            member.addRoles(added);
+        //The role index compares the new roles with the previously indexed ones
+        members.reindex(member.getUser().getIdLong());
+    }
+
+    public RoleMemberIndex getRoleMemberIndex()
+    {
+        return roleMembers;
+    }
+
+    /**
+     * Index of the channel in {@link #getTextChannels()}, or {@code -1} if it is not cached in this guild.
+     */
+    public int getTextChannelIndex(TextChannel channel)
+    {
+        return sortedTextChannels.indexOf(channel);
+    }
+
+    /**
+     * Index of the channel in {@link #getVoiceChannels()}, or {@code -1} if it is not cached in this guild.
+     */
+    public int getVoiceChannelIndex(VoiceChannel channel)
+    {
+        return sortedVoiceChannels.indexOf(channel);
+    }
+
+    /**
+     * Index of the role in {@link #getRoles()}, or {@code -1} if it is not cached in this guild.
+     */
+    public int getRoleIndex(Role role)
+    {
+        return sortedRoles.indexOf(role);
+    }
+
+    /**
+     * Dense rank of the role in the hierarchy of this guild. The highest role has rank {@code 0}, the public role
+     * and roles that are not cached rank below all other roles.
+     * <br>The ranks are rebuilt once after the role order changed, e.g. by a burst of role position updates.
+     */
+    public int getRoleRank(Role role)
+    {
+        return getRoleRanks().get(role.getIdLong());
+    }
+
+    /**
+     * Rank of the highest role of the member, see {@link #getRoleRank(Role)}.
+     * <br>The result is cached on the member until its roles or the role order change.
+     *
+     * @return The rank, or {@link Integer#MAX_VALUE} if the member has no roles
+     */
+    public int getTopRoleRank(MemberImpl member)
+    {
+        RoleRanks ranks = getRoleRanks();
+        long[] roleIds = member.getRoleIds();
+        MemberImpl.TopRole topRole = member.getTopRole();
+        if (topRole != null && topRole.roleIds == roleIds && topRole.version == ranks.version)
+            return topRole.rank;
+
+        int rank = Integer.MAX_VALUE;
+        for (long roleId : roleIds)
+            rank = Math.min(rank, ranks.get(roleId));
+        member.setTopRole(new MemberImpl.TopRole(roleIds, ranks.version, rank));
+        return rank;
+    }
+
+    private RoleRanks getRoleRanks()
+    {
+        int version = sortedRoles.getVersion();
+        RoleRanks ranks = roleRanks;
+        if (ranks != null && ranks.version == version)
+            return ranks;
+
+        ranks = new RoleRanks(version, sortedRoles.getSorted(), publicRole);
+        roleRanks = ranks;
+        return ranks;
+    }
+
+    /**
+     * Version of the role permissions of this guild, used by the {@link net.dv8tion.jda.core.utils.PermissionCache}.
+     */
+    public int getPermissionVersion()
+    {
+        return permissionVersion;
+    }
+
+    /**
+     * Invalidates the cached permissions of all members of this guild. Only called by the websocket thread.
+     */
+    public void increasePermissionVersion()
+    {
+        permissionVersion++;
+    }
+
+    public TLongObjectMap<JSONObject> getCachedPresenceMap()
     {
         return cachedPresences;
     }
 
-    public HashMap<String, Emote> getEmoteMap()
+    public IndexedLongObjectMap<Emote> getEmoteMap()
     {
         return emotes;
     }
@@ -594,13 +966,13 @@ public class GuildImpl implements Guild
         if (!(o instanceof Guild))
             return false;
         Guild oGuild = (Guild) o;
-        return this == oGuild || this.getId().equals(oGuild.getId());
+        return this == oGuild || this.getIdLong() == oGuild.getIdLong();
     }
 
     @Override
     public int hashCode()
     {
-        return getId().hashCode();
+        return Long.hashCode(getIdLong());
     }
 
     @Override
@@ -608,4 +980,85 @@ public class GuildImpl implements Guild
     {
         return "G:" + getName() + '(' + getId() + ')';
     }
+
+    //Keeps the membership count of every cached User, which is used by JDAImpl#releaseUser(long)
+    private static class MemberMap extends IndexedLongObjectMap<Member>
+    {
+        private boolean detached = false;
+
+        @SafeVarargs
+        private MemberMap(Index<Member>... indexes)
+        {
+            super(indexes);
+        }
+
+        @Override
+        public void clear()
+        {
+            locked(() ->
+            {
+                if (!detached)
+                    valueCollection().forEach(member -> adjust(member, -1));
+                super.clear();
+            });
+        }
+
+        private void detach()
+        {
+            locked(() ->
+            {
+                if (detached)
+                    return;
+                detached = true;
+                valueCollection().forEach(member -> adjust(member, -1));
+            });
+        }
+
+        @Override
+        protected void onPut(Member oldValue, Member value)
+        {
+            super.onPut(oldValue, value);
+            if (detached || (oldValue != null && oldValue.getUser() == value.getUser()))
+                return;
+            if (oldValue != null)
+                adjust(oldValue, -1);
+            adjust(value, 1);
+        }
+
+        @Override
+        protected void onRemove(Member oldValue)
+        {
+            super.onRemove(oldValue);
+            if (!detached)
+                adjust(oldValue, -1);
+        }
+
+        private static void adjust(Member member, int delta)
+        {
+            ((UserImpl) member.getUser()).adjustMemberships(delta);
+        }
+    }
+
+    private static class RoleRanks
+    {
+        private final int version;
+        private final TLongIntMap ranks;
+
+        private RoleRanks(int version, List<Role> sortedRoles, Role publicRole)
+        {
+            this.version = version;
+            this.ranks = new TLongIntHashMap(sortedRoles.size(), Constants.DEFAULT_LOAD_FACTOR, 0, Integer.MAX_VALUE);
+            int rank = 0;
+            for (Role role : sortedRoles)
+            {
+                if (role != publicRole)
+                    ranks.put(role.getIdLong(), rank++);
+            }
+        }
+
+        private int get(long roleId)
+        {
+            return ranks.get(roleId);
+        }
+    }
 }
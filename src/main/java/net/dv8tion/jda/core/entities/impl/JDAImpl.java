@@ -17,45 +17,67 @@
 package net.dv8tion.jda.core.entities.impl;
 
 import com.mashape.unirest.http.Unirest;
+import gnu.trove.map.TLongObjectMap;
 import net.dv8tion.jda.bot.JDABot;
 import net.dv8tion.jda.bot.entities.impl.JDABotImpl;
 import net.dv8tion.jda.client.JDAClient;
+import net.dv8tion.jda.client.entities.Group;
 import net.dv8tion.jda.client.entities.impl.JDAClientImpl;
 import net.dv8tion.jda.core.AccountType;
 import net.dv8tion.jda.core.JDA;
 import net.dv8tion.jda.core.entities.*;
+import net.dv8tion.jda.core.events.Event;
 import net.dv8tion.jda.core.exceptions.AccountTypeException;
 import net.dv8tion.jda.core.exceptions.RateLimitedException;
+import net.dv8tion.jda.core.hooks.AsyncEventManager;
+import net.dv8tion.jda.core.hooks.EventMetricsListener;
+import net.dv8tion.jda.core.hooks.EventPublisher;
+import net.dv8tion.jda.core.hooks.EventWaiter;
 import net.dv8tion.jda.core.hooks.IEventManager;
 import net.dv8tion.jda.core.hooks.InterfacedEventManager;
 import net.dv8tion.jda.core.managers.Presence;
 import net.dv8tion.jda.core.managers.impl.PresenceImpl;
 import net.dv8tion.jda.core.requests.*;
 import net.dv8tion.jda.core.requests.ratelimit.IBucket;
+import net.dv8tion.jda.core.utils.ConcurrentLongObjectMap;
+import net.dv8tion.jda.core.utils.IndexedLongObjectMap;
+import net.dv8tion.jda.core.utils.MemberCachePolicy;
+import net.dv8tion.jda.core.utils.MiscUtil;
+import net.dv8tion.jda.core.utils.NameIndex;
+import net.dv8tion.jda.core.utils.PermissionCache;
 import net.dv8tion.jda.core.utils.SimpleLog;
 import org.apache.http.HttpHost;
 import org.json.JSONObject;
 
 import javax.security.auth.login.LoginException;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 public class JDAImpl implements JDA
 {
     public static final SimpleLog LOG = SimpleLog.getLog("JDA");
 
-    protected final HashMap<String, User> users = new HashMap<>(200);
-    protected final HashMap<String, Guild> guilds = new HashMap<>(10);
-    protected final HashMap<String, TextChannel> textChannels = new HashMap<>();
-    protected final HashMap<String, VoiceChannel> voiceChannels = new HashMap<>();
-    protected final HashMap<String, PrivateChannel> privateChannels = new HashMap<>();
+    protected final NameIndex<User> userNames = new NameIndex<>(User::getName);
+    protected final NameIndex<Guild> guildNames = new NameIndex<>(Guild::getName);
+    protected final NameIndex<TextChannel> textChannelNames = new NameIndex<>(TextChannel::getName);
+    protected final NameIndex<VoiceChannel> voiceChannelNames = new NameIndex<>(VoiceChannel::getName);
 
-    protected final HashMap<String, User> fakeUsers = new HashMap<>();
-    protected final HashMap<String, PrivateChannel> fakePrivateChannels = new HashMap<>();
+    protected final IndexedLongObjectMap<User> users = new IndexedLongObjectMap<>(userNames);
+    protected final IndexedLongObjectMap<Guild> guilds = new IndexedLongObjectMap<>(guildNames);
+    protected final IndexedLongObjectMap<TextChannel> textChannels = new IndexedLongObjectMap<>(textChannelNames);
+    protected final IndexedLongObjectMap<VoiceChannel> voiceChannels = new IndexedLongObjectMap<>(voiceChannelNames);
+    protected final TLongObjectMap<PrivateChannel> privateChannels = new ConcurrentLongObjectMap<>();
+
+    protected final TLongObjectMap<User> fakeUsers = new ConcurrentLongObjectMap<>();
+    protected final TLongObjectMap<PrivateChannel> fakePrivateChannels = new ConcurrentLongObjectMap<>();
 
     protected final AccountType accountType;
     protected final PresenceImpl presence;
@@ -66,6 +88,11 @@ public class JDAImpl implements JDA
     protected WebSocketClient client;
     protected Requester requester;
     protected IEventManager eventManager = new InterfacedEventManager();
+    protected final IEventManager eventDispatcher = new EventDispatcher();
+    protected final EventWaiter eventWaiter = new EventWaiter();
+    protected volatile EventMetricsListener eventMetricsListener;
+    //Receive time of the gateway frame handled by the current thread, only tracked while metrics are enabled
+    protected final ThreadLocal<long[]> frameReceivedAt = ThreadLocal.withInitial(() -> new long[1]);
     protected Status status = Status.INITIALIZING;
     protected SelfUser selfUser;
     protected ShardInfo shardInfo;
@@ -75,6 +102,17 @@ public class JDAImpl implements JDA
     protected boolean bulkDeleteSplittingEnabled;
     protected boolean autoReconnect;
     protected long responseTotal;
+    protected MemberCachePolicy memberCachePolicy = MemberCachePolicy.ALL;
+    protected int memberCacheLimit = 0;
+    protected File snapshotFile;
+    protected MessageCache messageCache;
+    protected int guildSetupParallelism = 1;
+    protected ForkJoinPool guildSetupPool;
+    protected int largeThreshold = 250;
+    protected boolean chunkingEnabled = true;
+    protected boolean presenceAndTypingEnabled = true;
+    protected final PermissionCache permissionCache = new PermissionCache();
+    protected final ReadWriteLock userLock = new ReentrantReadWriteLock();
 
     public JDAImpl(AccountType accountType, HttpHost proxy, boolean autoReconnect, boolean audioEnabled, boolean useShutdownHook, boolean bulkDeleteSplittingEnabled)
     {
@@ -101,10 +139,28 @@ public class JDAImpl implements JDA
             throw new LoginException("Provided token was null or empty!");
 
         setToken(token);
-        verifyToken();
+        JSONObject self = verifyToken();
         this.shardInfo = shardInfo;
         LOG.info("Login Successful!");
 
+        if (snapshotFile != null && snapshotFile.isFile())
+        {
+            try
+            {
+                EntitySnapshot.load(this, self.getLong("id"), snapshotFile);
+            }
+            catch (IOException e)
+            {
+                EntitySnapshot.LOG.warn("Could not load the cache snapshot, starting with an empty cache");
+                EntitySnapshot.LOG.log(e);
+                textChannels.clear();
+                voiceChannels.clear();
+                guilds.clear();
+                users.clear();
+                selfUser = null;
+            }
+        }
+
         //TODO: Implement sharding
         client = new WebSocketClient(this);
 
@@ -141,7 +197,7 @@ public class JDAImpl implements JDA
             this.token = token;
     }
 
-    public void verifyToken() throws LoginException, RateLimitedException
+    public JSONObject verifyToken() throws LoginException, RateLimitedException
     {
         RestAction<JSONObject> login = new RestAction<JSONObject>(this, Route.Self.GET_SELF.compile(), null)
         {
@@ -222,6 +278,7 @@ public class JDAImpl implements JDA
             else    //We 401'd again. This is an invalid token
                 throw new LoginException("The provided token is invalid!");
         }
+        return userResponse;
     }
 
     private void verifyToken(JSONObject userResponse)
@@ -287,11 +344,17 @@ public class JDAImpl implements JDA
     @Override
     public List<User> getUsers()
     {
-        return Collections.unmodifiableList(new ArrayList<>(users.values()));
+        return Collections.unmodifiableList(new ArrayList<>(users.valueCollection()));
     }
 
     @Override
     public User getUserById(String id)
+    {
+        return getUserById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Override
+    public User getUserById(long id)
     {
         return users.get(id);
     }
@@ -299,21 +362,29 @@ public class JDAImpl implements JDA
     @Override
     public List<User> getUsersByName(String name, boolean ignoreCase)
     {
-        return users.values().stream().filter(u ->
-            ignoreCase
-            ? name.equalsIgnoreCase(u.getName())
-            : name.equals(u.getName()))
-        .collect(Collectors.toList());
+        return userNames.get(name, ignoreCase);
+    }
+
+    @Override
+    public List<User> getUsersByPrefix(String prefix, boolean ignoreCase)
+    {
+        return userNames.getByPrefix(prefix, ignoreCase);
     }
 
     @Override
     public List<Guild> getGuilds()
     {
-        return Collections.unmodifiableList(new ArrayList<>(guilds.values()));
+        return Collections.unmodifiableList(new ArrayList<>(guilds.valueCollection()));
     }
 
     @Override
     public Guild getGuildById(String id)
+    {
+        return getGuildById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Override
+    public Guild getGuildById(long id)
     {
         return guilds.get(id);
     }
@@ -321,21 +392,23 @@ public class JDAImpl implements JDA
     @Override
     public List<Guild> getGuildsByName(String name, boolean ignoreCase)
     {
-        return guilds.values().stream().filter(g ->
-                ignoreCase
-                        ? name.equalsIgnoreCase(g.getName())
-                        : name.equals(g.getName()))
-                .collect(Collectors.toList());
+        return guildNames.get(name, ignoreCase);
     }
 
     @Override
     public List<TextChannel> getTextChannels()
     {
-        return Collections.unmodifiableList(new ArrayList<>(textChannels.values()));
+        return Collections.unmodifiableList(new ArrayList<>(textChannels.valueCollection()));
     }
 
     @Override
     public TextChannel getTextChannelById(String id)
+    {
+        return getTextChannelById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Override
+    public TextChannel getTextChannelById(long id)
     {
         return textChannels.get(id);
     }
@@ -343,21 +416,23 @@ public class JDAImpl implements JDA
     @Override
     public List<TextChannel> getTextChannelsByName(String name, boolean ignoreCase)
     {
-        return textChannels.values().stream().filter(tc ->
-                ignoreCase
-                        ? name.equalsIgnoreCase(tc.getName())
-                        : name.equals(tc.getName()))
-                .collect(Collectors.toList());
+        return textChannelNames.get(name, ignoreCase);
     }
 
     @Override
     public List<VoiceChannel> getVoiceChannels()
     {
-        return Collections.unmodifiableList(new ArrayList<>(voiceChannels.values()));
+        return Collections.unmodifiableList(new ArrayList<>(voiceChannels.valueCollection()));
     }
 
     @Override
     public VoiceChannel getVoiceChannelById(String id)
+    {
+        return getVoiceChannelById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Override
+    public VoiceChannel getVoiceChannelById(long id)
     {
         return voiceChannels.get(id);
     }
@@ -365,21 +440,23 @@ public class JDAImpl implements JDA
     @Override
     public List<VoiceChannel> getVoiceChannelByName(String name, boolean ignoreCase)
     {
-        return voiceChannels.values().stream().filter(vc ->
-                ignoreCase
-                        ? name.equalsIgnoreCase(vc.getName())
-                        : name.equals(vc.getName()))
-                .collect(Collectors.toList());
+        return voiceChannelNames.get(name, ignoreCase);
     }
 
     @Override
     public List<PrivateChannel> getPrivateChannels()
     {
-        return Collections.unmodifiableList(new ArrayList<>(privateChannels.values()));
+        return Collections.unmodifiableList(new ArrayList<>(privateChannels.valueCollection()));
     }
 
     @Override
     public PrivateChannel getPrivateChannelById(String id)
+    {
+        return getPrivateChannelById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Override
+    public PrivateChannel getPrivateChannelById(long id)
     {
         return privateChannels.get(id);
     }
@@ -387,21 +464,27 @@ public class JDAImpl implements JDA
     @Override
     public List<Emote> getEmotes()
     {
-        List<Emote> emotes = new ArrayList<>();
-        getGuilds().parallelStream().forEach(g -> emotes.addAll(g.getEmotes()));
-        return Collections.unmodifiableList(emotes);
+        return Collections.unmodifiableList(getGuilds().stream()
+                .flatMap(g -> g.getEmotes().stream())
+                .collect(Collectors.toList()));
     }
 
     @Override
     public List<Emote> getEmotesByName(String name, boolean ignoreCase)
     {
-        List<Emote> emotes = new ArrayList<>();
-        getGuilds().parallelStream().forEach(g -> emotes.addAll(g.getEmotesByName(name, ignoreCase)));
-        return Collections.unmodifiableList(emotes);
+        return Collections.unmodifiableList(getGuilds().stream()
+                .flatMap(g -> g.getEmotesByName(name, ignoreCase).stream())
+                .collect(Collectors.toList()));
     }
 
     @Override
     public Emote getEmoteById(String id)
+    {
+        return getEmoteById(MiscUtil.parseSnowflake(id));
+    }
+
+    @Override
+    public Emote getEmoteById(long id)
     {
         for (Guild guild : getGuilds())
         {
@@ -432,6 +515,9 @@ public class JDAImpl implements JDA
         //TODO: Shutdown audio connections.
         getClient().setAutoReconnect(false);
         getClient().close();
+        writeSnapshot();
+        shutdownGuildSetupPool();
+        shutdownEventHandling();
 
         if (free)
         {
@@ -452,6 +538,9 @@ public class JDAImpl implements JDA
         //TODO: Shutdown audio connections.
         getClient().setAutoReconnect(false);
         getClient().close();
+        writeSnapshot();
+        shutdownGuildSetupPool();
+        shutdownEventHandling();
 
         if (free)
         {
@@ -465,6 +554,20 @@ public class JDAImpl implements JDA
         return buckets;
     }
 
+    /**
+     * Stops the event handling. Shared by {@link #shutdown(boolean)} and {@link #shutdownNow(boolean)}, which is used
+     * by the shutdown hook, so queued events are still handled, subscribers are completed and pending
+     * {@link net.dv8tion.jda.core.hooks.EventWaiter EventWaiter} futures are cancelled in both cases.
+     */
+    protected void shutdownEventHandling()
+    {
+        if (eventManager instanceof AsyncEventManager)
+            ((AsyncEventManager) eventManager).shutdown();
+        else if (eventManager instanceof EventPublisher)
+            ((EventPublisher) eventManager).shutdown();
+        eventWaiter.cancelAll();
+    }
+
     @Override
     public JDAClient asClient()
     {
@@ -544,9 +647,45 @@ public class JDAImpl implements JDA
         return requester;
     }
 
+    /**
+     * The IEventManager the handlers fire their events on. Passes every event to the IEventManager set by the user
+     * and afterwards to the {@link net.dv8tion.jda.core.hooks.EventWaiter EventWaiter}.
+     *
+     * @return The event dispatcher
+     */
     public IEventManager getEventManager()
     {
-        return eventManager;
+        return eventDispatcher;
+    }
+
+    @Override
+    public EventWaiter getEventWaiter()
+    {
+        return eventWaiter;
+    }
+
+    @Override
+    public void setEventMetricsListener(EventMetricsListener listener)
+    {
+        this.eventMetricsListener = listener;
+    }
+
+    @Override
+    public EventMetricsListener getEventMetricsListener()
+    {
+        return eventMetricsListener;
+    }
+
+    /**
+     * Sets the receive time of the gateway frame handled by the current thread, reported for the events fired
+     * while handling it.
+     *
+     * @param nanos
+     *        The {@link System#nanoTime()} the frame was received at, or {@code 0} once it was handled
+     */
+    public void setFrameReceivedAt(long nanos)
+    {
+        frameReceivedAt.get()[0] = nanos;
     }
 
     public WebSocketClient getClient()
@@ -554,41 +693,268 @@ public class JDAImpl implements JDA
         return client;
     }
 
-    public HashMap<String, User> getUserMap()
+    public IndexedLongObjectMap<User> getUserMap()
     {
         return users;
     }
 
-    public HashMap<String, Guild> getGuildMap()
+    public IndexedLongObjectMap<Guild> getGuildMap()
     {
         return guilds;
     }
 
-    public HashMap<String, TextChannel> getTextChannelMap()
+    public IndexedLongObjectMap<TextChannel> getTextChannelMap()
     {
         return textChannels;
     }
 
-    public HashMap<String, VoiceChannel> getVoiceChannelMap()
+    public IndexedLongObjectMap<VoiceChannel> getVoiceChannelMap()
     {
         return voiceChannels;
     }
 
-    public HashMap<String, PrivateChannel> getPrivateChannelMap()
+    public TLongObjectMap<PrivateChannel> getPrivateChannelMap()
     {
         return privateChannels;
     }
 
-    public HashMap<String, User> getFakeUserMap()
+    public TLongObjectMap<User> getFakeUserMap()
     {
         return fakeUsers;
     }
 
-    public HashMap<String, PrivateChannel> getFakePrivateChannelMap()
+    public TLongObjectMap<PrivateChannel> getFakePrivateChannelMap()
     {
         return fakePrivateChannels;
     }
 
+    public MemberCachePolicy getMemberCachePolicy()
+    {
+        return memberCachePolicy;
+    }
+
+    public void setMemberCachePolicy(MemberCachePolicy memberCachePolicy)
+    {
+        this.memberCachePolicy = memberCachePolicy;
+    }
+
+    public int getMemberCacheLimit()
+    {
+        return memberCacheLimit;
+    }
+
+    public void setMemberCacheLimit(int memberCacheLimit)
+    {
+        this.memberCacheLimit = memberCacheLimit;
+    }
+
+    public File getSnapshotFile()
+    {
+        return snapshotFile;
+    }
+
+    public void setSnapshotFile(File snapshotFile)
+    {
+        this.snapshotFile = snapshotFile;
+    }
+
+    public MessageCache getMessageCache()
+    {
+        return messageCache;
+    }
+
+    public void setMessageCache(MessageCache messageCache)
+    {
+        this.messageCache = messageCache;
+    }
+
+    public int getGuildSetupParallelism()
+    {
+        return guildSetupParallelism;
+    }
+
+    public void setGuildSetupParallelism(int guildSetupParallelism)
+    {
+        this.guildSetupParallelism = guildSetupParallelism;
+    }
+
+    public PermissionCache getPermissionCache()
+    {
+        return permissionCache;
+    }
+
+    public int getLargeThreshold()
+    {
+        return largeThreshold;
+    }
+
+    public void setLargeThreshold(int largeThreshold)
+    {
+        this.largeThreshold = largeThreshold;
+    }
+
+    public boolean isChunkingEnabled()
+    {
+        return chunkingEnabled;
+    }
+
+    public void setChunkingEnabled(boolean chunkingEnabled)
+    {
+        this.chunkingEnabled = chunkingEnabled;
+    }
+
+    public boolean isPresenceAndTypingEnabled()
+    {
+        return presenceAndTypingEnabled;
+    }
+
+    public void setPresenceAndTypingEnabled(boolean presenceAndTypingEnabled)
+    {
+        this.presenceAndTypingEnabled = presenceAndTypingEnabled;
+    }
+
+    /**
+     * The pool used to build Guilds in parallel during READY and the GUILD_CREATE burst of the initial load.
+     * <br>Created on first use, returns null if the guild setup parallelism is 1 or less.
+     *
+     * @return The guild setup pool, or null if Guilds are built on the websocket thread
+     */
+    public synchronized ForkJoinPool getGuildSetupPool()
+    {
+        if (guildSetupParallelism <= 1)
+            return null;
+        if (guildSetupPool == null)
+        {
+            guildSetupPool = new ForkJoinPool(guildSetupParallelism, pool ->
+            {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("JDA Guild-Setup Worker " + thread.getPoolIndex());
+                return thread;
+            }, null, false);
+        }
+        return guildSetupPool;
+    }
+
+    protected synchronized void shutdownGuildSetupPool()
+    {
+        if (guildSetupPool != null)
+        {
+            guildSetupPool.shutdown();
+            guildSetupPool = null;
+        }
+    }
+
+    /**
+     * Lock guarding the User cache against concurrent Guild construction.
+     * <br>The read lock is held while a Member and its User are registered, the write lock while
+     * {@link #releaseUser(long)} decides whether a User is still referenced.
+     *
+     * @return The User cache lock
+     */
+    public ReadWriteLock getUserLock()
+    {
+        return userLock;
+    }
+
+    /**
+     * Writes the cache to the configured snapshot file, if any.
+     * <br>Only done if the cache is complete, i.e. the session finished loading.
+     */
+    protected void writeSnapshot()
+    {
+        if (snapshotFile == null || client == null || !client.isReady() || selfUser == null)
+            return;
+        try
+        {
+            EntitySnapshot.write(this, snapshotFile);
+            EntitySnapshot.LOG.info("Wrote cache snapshot to " + snapshotFile);
+        }
+        catch (IOException e)
+        {
+            EntitySnapshot.LOG.warn("Could not write the cache snapshot to " + snapshotFile);
+            EntitySnapshot.LOG.log(e);
+        }
+    }
+
+    /**
+     * Whether Members may be missing from the cache because of the configured
+     * {@link net.dv8tion.jda.core.utils.MemberCachePolicy MemberCachePolicy} or member cache limit.
+     *
+     * @return True, if not every Member is cached
+     */
+    public boolean isMemberCacheRestricted()
+    {
+        return memberCachePolicy != MemberCachePolicy.ALL || memberCacheLimit > 0;
+    }
+
+    /**
+     * Removes the User with the provided id from the User cache if it is no longer a Member of any cached Guild
+     * and, for client accounts, not a Friend. Users that still have a PrivateChannel or share a Group are moved
+     * to the fake User cache instead.
+     *
+     * @param userId
+     *        The id of the User
+     */
+    public void releaseUser(long userId)
+    {
+        if (userId == selfUser.getIdLong())
+            return;
+        userLock.writeLock().lock();
+        try
+        {
+            UserImpl user = (UserImpl) users.get(userId);
+            if (user == null || user.getMemberships() > 0)
+                return;
+            if (accountType == AccountType.CLIENT && asClient().getFriendById(userId) != null)
+                return;
+
+            users.remove(userId);
+            if (user.hasPrivateChannel())
+            {
+                PrivateChannelImpl priv = (PrivateChannelImpl) user.getPrivateChannel();
+                user.setFake(true);
+                priv.setFake(true);
+                fakeUsers.put(user.getIdLong(), user);
+                fakePrivateChannels.put(priv.getIdLong(), priv);
+            }
+            else if (accountType == AccountType.CLIENT)
+            {
+                //While the user might not have a private channel, if this is a client account then the user
+                // could be in a Group, and if so we need to change the User object to be fake and
+                // place it in the FakeUserMap
+                for (Group grp : asClient().getGroups())
+                {
+                    if (grp.getNonFriendUsers().contains(user))
+                    {
+                        user.setFake(true);
+                        fakeUsers.put(user.getIdLong(), user);
+                        break;
+                    }
+                }
+            }
+        }
+        finally
+        {
+            userLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the name indexes of the User with the provided id and of its Members after the name of the User changed.
+     *
+     * @param userId
+     *        The id of the renamed User
+     */
+    public void reindexUser(long userId)
+    {
+        users.reindex(userId);
+        guilds.forEachValue(guild ->
+        {
+            ((GuildImpl) guild).getMembersMap().reindex(userId);
+            return true;
+        });
+    }
+
     public void setSelfUser(SelfUser selfUser)
     {
         this.selfUser = selfUser;
@@ -599,4 +965,74 @@ public class JDAImpl implements JDA
         this.responseTotal = responseTotal;
     }
 
+    private class EventDispatcher implements IEventManager
+    {
+        @Override
+        public void register(Object listener)
+        {
+            eventManager.register(listener);
+        }
+
+        @Override
+        public void unregister(Object listener)
+        {
+            eventManager.unregister(listener);
+        }
+
+        @Override
+        public void handle(Event event)
+        {
+            EventMetricsListener metrics = eventMetricsListener;
+            long dispatchedAt = 0, receivedAt = 0;
+            if (metrics != null)
+            {
+                dispatchedAt = System.nanoTime();
+                receivedAt = frameReceivedAt.get()[0];
+                if (receivedAt == 0)
+                    receivedAt = dispatchedAt;
+            }
+            //Waiters and metrics see the event after the listeners, on the thread that ran them
+            if (eventManager instanceof AsyncEventManager)
+            {
+                final long eventReceivedAt = receivedAt, eventDispatchedAt = dispatchedAt;
+                ((AsyncEventManager) eventManager).handle(event, () -> completed(event, metrics, eventReceivedAt, eventDispatchedAt));
+            }
+            else
+            {
+                eventManager.handle(event);
+                completed(event, metrics, receivedAt, dispatchedAt);
+            }
+        }
+
+        private void completed(Event event, EventMetricsListener metrics, long receivedAt, long dispatchedAt)
+        {
+            eventWaiter.handle(event);
+            if (metrics == null)
+                return;
+
+            long completedAt = System.nanoTime();
+            try
+            {
+                metrics.onEvent(event, receivedAt, dispatchedAt, completedAt);
+            }
+            catch (Throwable throwable)
+            {
+                LOG.fatal("The EventMetricsListener had an uncaught exception");
+                LOG.log(throwable);
+            }
+        }
+
+        @Override
+        public List<Object> getRegisteredListeners()
+        {
+            return eventManager.getRegisteredListeners();
+        }
+
+        @Override
+        public boolean isInterested(Class<? extends Event> eventClass)
+        {
+            return eventManager.isInterested(eventClass) || eventWaiter.isWaitingFor(eventClass);
+        }
+    }
+
 }
@@ -20,23 +20,36 @@ import net.dv8tion.jda.core.JDA;
 import net.dv8tion.jda.core.OnlineStatus;
 import net.dv8tion.jda.core.Permission;
 import net.dv8tion.jda.core.entities.*;
+import net.dv8tion.jda.core.utils.ConcurrentLongObjectMap;
+import net.dv8tion.jda.core.utils.PermissionCache;
+import net.dv8tion.jda.core.utils.PermissionList;
 import net.dv8tion.jda.core.utils.PermissionUtil;
 import org.apache.http.util.Args;
 
 import java.awt.*;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.List;
 
 public class MemberImpl implements Member
 {
+    private static final long[] NO_ROLES = new long[0];
+
     private final Guild guild;
     private final User user;
-    private final TreeSet<Role> roles = new TreeSet<>((r1, r2) -> r2.compareTo(r1));
-    private final GuildVoiceState voiceState;
+
+    //Members are the bulk of the cache in large guilds, so they are kept small:
+    // roles are a sorted copy-on-write array of role ids, the join date is stored as epoch millis and the voice state
+    // is only created once the member is seen in voice, muted or deafened, or somebody asks for it.
+    private volatile long[] roleIds = NO_ROLES;
+    private volatile GuildVoiceStateImpl voiceState;
+    private volatile ConcurrentLongObjectMap<PermissionCache.Entry> permissionCache;
+    private volatile TopRole topRole;
 
     private String nickname;
-    private OffsetDateTime joinDate;
+    private long joinTime;
     private Game game;
     private OnlineStatus onlineStatus = OnlineStatus.OFFLINE;
 
@@ -44,7 +57,6 @@ public class MemberImpl implements Member
     {
         this.guild = guild;
         this.user = user;
-        this.voiceState = new GuildVoiceStateImpl(guild, this);
     }
 
     @Override
@@ -68,13 +80,23 @@ public class MemberImpl implements Member
     @Override
     public OffsetDateTime getJoinDate()
     {
-        return joinDate;
+        return joinTime == 0 ? null : OffsetDateTime.ofInstant(Instant.ofEpochMilli(joinTime), ZoneOffset.UTC);
     }
 
     @Override
     public GuildVoiceState getVoiceState()
     {
-        return voiceState;
+        GuildVoiceStateImpl state = voiceState;
+        if (state == null)
+        {
+            synchronized (this)
+            {
+                state = voiceState;
+                if (state == null)
+                    voiceState = state = new GuildVoiceStateImpl(guild, this);
+            }
+        }
+        return state;
     }
 
     @Override
@@ -104,7 +126,19 @@ public class MemberImpl implements Member
     @Override
     public List<Role> getRoles()
     {
-        return Collections.unmodifiableList(new ArrayList<>(roles));
+        //Sorted by the cached role positions of the guild instead of keeping the set sorted, as a
+        // sorted set would break when the position of one of its roles changes.
+        GuildImpl guildImpl = (GuildImpl) guild;
+        long[] ids = roleIds;
+        List<Role> list = new ArrayList<>(ids.length);
+        for (long id : ids)
+        {
+            Role role = guildImpl.getRolesMap().get(id);
+            if (role != null)
+                list.add(role);
+        }
+        list.sort(Comparator.comparingInt(guildImpl::getRoleIndex));
+        return Collections.unmodifiableList(list);
     }
 
     @Override
@@ -121,9 +155,7 @@ public class MemberImpl implements Member
     @Override
     public List<Permission> getPermissions()
     {
-        return Collections.unmodifiableList(
-                Permission.getPermissions(
-                        PermissionUtil.getEffectivePermission(guild, this)));
+        return new PermissionList(getPermissionsRaw());
     }
 
     @Override
@@ -132,9 +164,24 @@ public class MemberImpl implements Member
         if (!guild.equals(channel.getGuild()))
             throw new IllegalArgumentException("Provided channel is not in the same guild as this member!");
 
-        return Collections.unmodifiableList(
-                Permission.getPermissions(
-                        PermissionUtil.getEffectivePermission(channel, this)));
+        long raw = PermissionUtil.getEffectivePermission(channel, this);
+        PermissionCache.Entry entry = getPermissionCache().get(channel.getIdLong());
+        return entry != null ? entry.getPermissionList(raw) : new PermissionList(raw);
+    }
+
+    @Override
+    public long getPermissionsRaw()
+    {
+        return PermissionUtil.getEffectivePermission(guild, this);
+    }
+
+    @Override
+    public long getPermissionsRaw(Channel channel)
+    {
+        if (!guild.equals(channel.getGuild()))
+            throw new IllegalArgumentException("Provided channel is not in the same guild as this member!");
+
+        return PermissionUtil.getEffectivePermission(channel, this);
     }
 
     @Override
@@ -143,12 +190,18 @@ public class MemberImpl implements Member
         return PermissionUtil.checkPermission(guild, this, permissions);
     }
 
+    @Override
+    public boolean hasPermission(long permissions)
+    {
+        return PermissionUtil.checkPermission(guild, this, permissions);
+    }
+
     @Override
     public boolean hasPermission(Collection<Permission> permissions)
     {
         Args.notNull(permissions, "Permission Collection");
 
-        return hasPermission(permissions.toArray(new Permission[permissions.size()]));
+        return hasPermission(Permission.getRaw(permissions));
     }
 
     @Override
@@ -157,12 +210,18 @@ public class MemberImpl implements Member
         return PermissionUtil.checkPermission(channel, this, permissions);
     }
 
+    @Override
+    public boolean hasPermission(Channel channel, long permissions)
+    {
+        return PermissionUtil.checkPermission(channel, this, permissions);
+    }
+
     @Override
     public boolean hasPermission(Channel channel, Collection<Permission> permissions)
     {
         Args.notNull(permissions, "Permission Collection");
 
-        return hasPermission(channel, permissions.toArray(new Permission[permissions.size()]));
+        return hasPermission(channel, Permission.getRaw(permissions));
     }
 
     @Override
@@ -191,7 +250,7 @@ public class MemberImpl implements Member
 
     public MemberImpl setJoinDate(OffsetDateTime joinDate)
     {
-        this.joinDate = joinDate;
+        this.joinTime = joinDate == null ? 0 : joinDate.toInstant().toEpochMilli();
         return this;
     }
 
@@ -207,9 +266,92 @@ public class MemberImpl implements Member
         return this;
     }
 
-    public TreeSet<Role> getRoleSet()
+    /**
+     * The voice state of this member, or {@code null} if it was never needed.
+     * <br>Used by internal code that only has to check the voice state, so no state gets created for it.
+     */
+    public GuildVoiceStateImpl getVoiceStateIfPresent()
+    {
+        return voiceState;
+    }
+
+    /**
+     * The cached effective permissions of this member by channel id, created on first use.
+     */
+    public ConcurrentLongObjectMap<PermissionCache.Entry> getPermissionCache()
+    {
+        ConcurrentLongObjectMap<PermissionCache.Entry> cache = permissionCache;
+        if (cache == null)
+        {
+            synchronized (this)
+            {
+                cache = permissionCache;
+                if (cache == null)
+                    permissionCache = cache = new ConcurrentLongObjectMap<>();
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * The sorted ids of the roles of this member.
+     * <br>The returned array is shared and must not be modified.
+     */
+    public long[] getRoleIds()
+    {
+        return roleIds;
+    }
+
+    TopRole getTopRole()
+    {
+        return topRole;
+    }
+
+    void setTopRole(TopRole topRole)
+    {
+        this.topRole = topRole;
+    }
+
+    public boolean hasRole(long roleId)
+    {
+        return Arrays.binarySearch(roleIds, roleId) >= 0;
+    }
+
+    public synchronized MemberImpl setRoleIds(long[] roleIds)
+    {
+        long[] sorted = roleIds.clone();
+        Arrays.sort(sorted);
+        this.roleIds = sorted.length == 0 ? NO_ROLES : sorted;
+        ((GuildImpl) guild).getRoleMemberIndex().increaseVersion();
+        return this;
+    }
+
+    public synchronized MemberImpl addRoles(Collection<Role> roles)
+    {
+        long[] ids = Arrays.copyOf(roleIds, roleIds.length + roles.size());
+        int size = roleIds.length;
+        for (Role role : roles)
+        {
+            if (Arrays.binarySearch(roleIds, role.getIdLong()) < 0)
+                ids[size++] = role.getIdLong();
+        }
+        return setRoleIds(Arrays.copyOf(ids, size));
+    }
+
+    public synchronized MemberImpl removeRoles(Collection<Role> roles)
     {
-        return roles;
+        long[] ids = roleIds.clone();
+        int size = ids.length;
+        for (Role role : roles)
+        {
+            int index = Arrays.binarySearch(ids, 0, size, role.getIdLong());
+            if (index >= 0)
+            {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+        return setRoleIds(Arrays.copyOf(ids, size));
     }
 
     @Override
@@ -225,7 +367,7 @@ public class MemberImpl implements Member
     @Override
     public int hashCode()
     {
-        return (guild.getId() + user.getId()).hashCode();
+        return 31 * Long.hashCode(guild.getIdLong()) + Long.hashCode(user.getIdLong());
     }
 
     @Override
@@ -239,4 +381,21 @@ public class MemberImpl implements Member
     {
         return user.getAsMention();
     }
+
+    /**
+     * The rank of the highest role of a member, stamped with the role array and role rank version it was computed for.
+     */
+    static final class TopRole
+    {
+        final long[] roleIds;
+        final int version;
+        final int rank;
+
+        TopRole(long[] roleIds, int version, int rank)
+        {
+            this.roleIds = roleIds;
+            this.version = version;
+            this.rank = rank;
+        }
+    }
 }
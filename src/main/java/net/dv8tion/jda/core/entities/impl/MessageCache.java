@@ -0,0 +1,330 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.core.entities.impl;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.core.entities.EntityBuilder;
+import net.dv8tion.jda.core.entities.Message;
+import net.dv8tion.jda.core.utils.SimpleLog;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bounded cache of the most recent messages of every channel, used to provide the previous state of a
+ * message in update and delete events.
+ * <br>Every channel keeps a ring buffer of its newest messages. Messages are stored as the UTF-8 encoded
+ * JSON received from Discord and are only turned into {@link Message Message} objects when requested.
+ * <br>If a memory limit is set the oldest messages of all channels are dropped once the stored JSON exceeds it.
+ */
+public class MessageCache
+{
+    public static final SimpleLog LOG = SimpleLog.getLog("MessageCache");
+
+    private final JDAImpl api;
+    private final int channelCapacity;
+    private final long memoryLimit;
+
+    private final TLongObjectMap<Entry> messages = new TLongObjectHashMap<>();
+    private final TLongObjectMap<Ring> channels = new TLongObjectHashMap<>();
+    private final ArrayDeque<Entry> order = new ArrayDeque<>();
+    private long memory = 0;
+
+    /**
+     * Creates a new message cache.
+     *
+     * @param api
+     *        The JDA instance used to build the cached messages
+     * @param channelCapacity
+     *        The maximum amount of messages kept per channel, must be positive
+     * @param memoryLimit
+     *        The maximum amount of bytes used by the stored message data of all channels, or 0 for no limit
+     */
+    public MessageCache(JDAImpl api, int channelCapacity, long memoryLimit)
+    {
+        if (channelCapacity < 1)
+            throw new IllegalArgumentException("Channel capacity must be positive!");
+        if (memoryLimit < 0)
+            throw new IllegalArgumentException("Memory limit may not be negative!");
+        this.api = api;
+        this.channelCapacity = channelCapacity;
+        this.memoryLimit = memoryLimit;
+    }
+
+    public int getChannelCapacity()
+    {
+        return channelCapacity;
+    }
+
+    public long getMemoryLimit()
+    {
+        return memoryLimit;
+    }
+
+    /**
+     * The amount of bytes currently used by stored message data.
+     *
+     * @return The memory usage of the stored messages
+     */
+    public synchronized long getMemoryUsage()
+    {
+        return memory;
+    }
+
+    public synchronized int size()
+    {
+        return messages.size();
+    }
+
+    /**
+     * Stores the provided message json, replacing a previously cached version of the same message.
+     * <br>New messages evict the oldest message of the channel once its ring buffer is full.
+     *
+     * @param json
+     *        The message json as received from Discord
+     */
+    public synchronized void put(JSONObject json)
+    {
+        long messageId = json.getLong("id");
+        long channelId = json.getLong("channel_id");
+        byte[] data = json.toString().getBytes(StandardCharsets.UTF_8);
+
+        Entry entry = messages.get(messageId);
+        if (entry != null)
+        {
+            memory += data.length - entry.data.length;
+            entry.data = data;
+        }
+        else
+        {
+            entry = new Entry(messageId, data);
+            messages.put(messageId, entry);
+            Ring ring = channels.get(channelId);
+            if (ring == null)
+                channels.put(channelId, ring = new Ring(channelCapacity));
+            Entry evicted = ring.add(entry);
+            if (evicted != null && evicted.data != null)
+                drop(evicted);
+            memory += data.length;
+            if (memoryLimit > 0)
+                order.add(entry);
+        }
+
+        if (memoryLimit > 0)
+            trim();
+    }
+
+    /**
+     * Replaces the embeds of a cached message, used for the partial updates Discord sends once it resolved
+     * the embeds of a link.
+     *
+     * @param messageId
+     *        The id of the message
+     * @param embeds
+     *        The new embeds json array
+     */
+    public synchronized void updateEmbeds(long messageId, Object embeds)
+    {
+        Entry entry = messages.get(messageId);
+        if (entry == null)
+            return;
+        JSONObject json = entry.json();
+        json.put("embeds", embeds);
+        byte[] data = json.toString().getBytes(StandardCharsets.UTF_8);
+        memory += data.length - entry.data.length;
+        entry.data = data;
+        if (memoryLimit > 0)
+            trim();
+    }
+
+    /**
+     * The cached message with the provided id.
+     *
+     * @param  messageId
+     *         The id of the message
+     *
+     * @return The cached message, or null if it is not cached
+     */
+    public Message get(long messageId)
+    {
+        JSONObject json;
+        synchronized (this)
+        {
+            Entry entry = messages.get(messageId);
+            if (entry == null)
+                return null;
+            json = entry.json();
+        }
+        return build(json);
+    }
+
+    /**
+     * Removes the message with the provided id from the cache.
+     *
+     * @param  messageId
+     *         The id of the message
+     *
+     * @return The removed message, or null if it was not cached
+     */
+    public Message remove(long messageId)
+    {
+        JSONObject json;
+        synchronized (this)
+        {
+            Entry entry = messages.get(messageId);
+            if (entry == null)
+                return null;
+            json = entry.json();
+            drop(entry);
+        }
+        return build(json);
+    }
+
+    /**
+     * Removes all messages with the provided ids from the cache.
+     *
+     * @param  messageIds
+     *         The ids of the messages
+     *
+     * @return Modifiable list of the removed messages, ids that were not cached are skipped
+     */
+    public List<Message> removeAll(Collection<String> messageIds)
+    {
+        List<JSONObject> removed = new ArrayList<>();
+        synchronized (this)
+        {
+            for (String id : messageIds)
+            {
+                Entry entry = messages.get(Long.parseLong(id));
+                if (entry == null)
+                    continue;
+                removed.add(entry.json());
+                drop(entry);
+            }
+        }
+        List<Message> result = new ArrayList<>(removed.size());
+        for (JSONObject json : removed)
+        {
+            Message message = build(json);
+            if (message != null)
+                result.add(message);
+        }
+        return result;
+    }
+
+    /**
+     * Removes all messages of a channel, used when the channel was deleted or is no longer accessible.
+     *
+     * @param channelId
+     *        The id of the channel
+     */
+    public synchronized void removeChannel(long channelId)
+    {
+        Ring ring = channels.remove(channelId);
+        if (ring == null)
+            return;
+        for (Entry entry : ring.slots)
+        {
+            if (entry != null && entry.data != null)
+                drop(entry);
+        }
+    }
+
+    public synchronized void clear()
+    {
+        messages.clear();
+        channels.clear();
+        order.clear();
+        memory = 0;
+    }
+
+    private Message build(JSONObject json)
+    {
+        try
+        {
+            return EntityBuilder.get(api).createMessage(json);
+        }
+        catch (IllegalArgumentException e)
+        {
+            // The channel or author is no longer cached
+            LOG.debug("Could not build cached message " + json.optString("id") + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void drop(Entry entry)
+    {
+        messages.remove(entry.id);
+        memory -= entry.data.length;
+        // Ring and order slots are released lazily, a null data marks them as dead
+        entry.data = null;
+    }
+
+    private void trim()
+    {
+        while (memory > memoryLimit && !order.isEmpty())
+        {
+            Entry entry = order.poll();
+            if (entry.data != null)
+                drop(entry);
+        }
+        // Dead entries are only removed when polled, compact the queue if they start to dominate it
+        if (order.size() > 2 * messages.size() + 64)
+            order.removeIf(entry -> entry.data == null);
+    }
+
+    private static class Entry
+    {
+        private final long id;
+        private byte[] data;
+
+        private Entry(long id, byte[] data)
+        {
+            this.id = id;
+            this.data = data;
+        }
+
+        private JSONObject json()
+        {
+            return new JSONObject(new String(data, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static class Ring
+    {
+        private final Entry[] slots;
+        private int next = 0;
+
+        private Ring(int capacity)
+        {
+            this.slots = new Entry[capacity];
+        }
+
+        private Entry add(Entry entry)
+        {
+            Entry previous = slots[next];
+            slots[next] = entry;
+            next = (next + 1) % slots.length;
+            return previous;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import net.dv8tion.jda.core.requests.Request;
 import net.dv8tion.jda.core.requests.Response;
 import net.dv8tion.jda.core.requests.RestAction;
 import net.dv8tion.jda.core.requests.Route;
+import net.dv8tion.jda.core.utils.MiscUtil;
 import org.json.JSONObject;
 
 import java.time.OffsetDateTime;
@@ -38,7 +39,7 @@ public class MessageImpl implements Message
     private static final Pattern EMOTE_PATTERN = Pattern.compile("<:([^:]+):([0-9]+)>");
 
     private final JDAImpl api;
-    private final String id;
+    private final long id;
     private final MessageType type;
     private final MessageChannel channel;
     private final boolean fromWebhook;
@@ -58,12 +59,12 @@ public class MessageImpl implements Message
     private List<MessageEmbed> embeds = new LinkedList<>();
     private List<Emote> emotes = null;
 
-    public MessageImpl(String id, MessageChannel channel, boolean fromWebhook)
+    public MessageImpl(long id, MessageChannel channel, boolean fromWebhook)
     {
         this(id, channel, fromWebhook, MessageType.DEFAULT);
     }
 
-    public MessageImpl(String id, MessageChannel channel, boolean fromWebhook, MessageType type)
+    public MessageImpl(long id, MessageChannel channel, boolean fromWebhook, MessageType type)
     {
         this.id = id;
         this.channel = channel;
@@ -109,7 +110,7 @@ public class MessageImpl implements Message
     }
 
     @Override
-    public String getId()
+    public long getIdLong()
     {
         return id;
     }
@@ -271,7 +272,15 @@ public class MessageImpl implements Message
             Matcher matcher = EMOTE_PATTERN.matcher(getRawContent());
             while (matcher.find())
             {
-                String emoteId   = matcher.group(2);
+                long emoteId;
+                try
+                {
+                    emoteId = MiscUtil.parseSnowflake(matcher.group(2));
+                }
+                catch (NumberFormatException e)
+                {
+                    continue;
+                }
                 String emoteName = matcher.group(1);
                 Emote emote = api.getEmoteById(emoteId);
                 if (emote == null)
@@ -421,13 +430,13 @@ public class MessageImpl implements Message
         if (!(o instanceof Message))
             return false;
         Message oMsg = (Message) o;
-        return this == oMsg || this.getId().equals(oMsg.getId());
+        return this == oMsg || this.getIdLong() == oMsg.getIdLong();
     }
 
     @Override
     public int hashCode()
     {
-        return getId().hashCode();
+        return Long.hashCode(getIdLong());
     }
 
     @Override
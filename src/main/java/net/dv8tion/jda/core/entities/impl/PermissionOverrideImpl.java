@@ -23,8 +23,8 @@ import net.dv8tion.jda.core.managers.ChannelManager;
 import net.dv8tion.jda.core.managers.ChannelManagerUpdatable;
 import net.dv8tion.jda.core.managers.PermOverrideManager;
 import net.dv8tion.jda.core.managers.PermOverrideManagerUpdatable;
+import net.dv8tion.jda.core.utils.PermissionList;
 
-import java.util.Collections;
 import java.util.List;
 
 public class PermissionOverrideImpl implements PermissionOverride
@@ -38,6 +38,9 @@ public class PermissionOverrideImpl implements PermissionOverride
     private final Channel channel;
     private long allow;
     private long deny;
+    private volatile PermissionList allowedList;
+    private volatile PermissionList inheritList;
+    private volatile PermissionList deniedList;
 
     public PermissionOverrideImpl(Channel channel, Member member, Role role)
     {
@@ -67,19 +70,19 @@ public class PermissionOverrideImpl implements PermissionOverride
     @Override
     public List<Permission> getAllowed()
     {
-        return Collections.unmodifiableList(Permission.getPermissions(allow));
+        return allowedList = PermissionList.of(allowedList, allow);
     }
 
     @Override
     public List<Permission> getInherit()
     {
-        return Collections.unmodifiableList(Permission.getPermissions(getInheritRaw()));
+        return inheritList = PermissionList.of(inheritList, getInheritRaw());
     }
 
     @Override
     public List<Permission> getDenied()
     {
-        return Collections.unmodifiableList(Permission.getPermissions(deny));
+        return deniedList = PermissionList.of(deniedList, deny);
     }
 
     @Override
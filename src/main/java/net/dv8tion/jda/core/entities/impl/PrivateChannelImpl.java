@@ -37,13 +37,13 @@ import java.util.List;
 
 public class PrivateChannelImpl implements PrivateChannel
 {
-    private final String id;
+    private final long id;
     private final User user;
 
     private Call currentCall = null;
     private boolean fake = false;
 
-    public PrivateChannelImpl(String id, User user)
+    public PrivateChannelImpl(long id, User user)
     {
         this.id = id;
         this.user = user;
@@ -129,8 +129,8 @@ public class PrivateChannelImpl implements PrivateChannel
         checkNull(data, "data InputStream");
         checkNull(fileName, "fileName");
 
-        Route.CompiledRoute route = Route.Messages.SEND_MESSAGE.compile(id);
-        MultipartBody body = Unirest.post(Requester.DISCORD_API_PREFIX + route.getCompiledRoute())
+        Route.CompiledRoute route = Route.Messages.SEND_MESSAGE.compile(getId());
+        MultipartBody body = Unirest.post(((JDAImpl) getJDA()).getRequester().getApiPrefix() + route.getCompiledRoute())
                 .fields(null); //We use this to change from an HttpRequest to a MultipartBody
 
         body.field("file", data, fileName);
@@ -162,8 +162,8 @@ public class PrivateChannelImpl implements PrivateChannel
         if (data.length > 8<<20)   //8MB
             throw new IllegalArgumentException("Provided data is too large! Max file-size is 8MB");
 
-        Route.CompiledRoute route = Route.Messages.SEND_MESSAGE.compile(id);
-        MultipartBody body = Unirest.post(Requester.DISCORD_API_PREFIX + route.getCompiledRoute())
+        Route.CompiledRoute route = Route.Messages.SEND_MESSAGE.compile(getId());
+        MultipartBody body = Unirest.post(((JDAImpl) getJDA()).getRequester().getApiPrefix() + route.getCompiledRoute())
                 .fields(null); //We use this to change from an HttpRequest to a MultipartBody
 
         body.field("file", data, fileName);
@@ -251,7 +251,7 @@ public class PrivateChannelImpl implements PrivateChannel
     @Override
     public RestAction sendTyping()
     {
-        Route.CompiledRoute route = Route.Channels.SEND_TYPING.compile(id);
+        Route.CompiledRoute route = Route.Channels.SEND_TYPING.compile(getId());
         return new RestAction<Void>(getJDA(), route, null)
         {
             @Override
@@ -336,7 +336,7 @@ public class PrivateChannelImpl implements PrivateChannel
     @Override
     public RestAction<Void> close()
     {
-        Route.CompiledRoute route = Route.Channels.DELETE_CHANNEL.compile(id);
+        Route.CompiledRoute route = Route.Channels.DELETE_CHANNEL.compile(getId());
         return new RestAction<Void>(getJDA(), route, null)
         {
             @Override
@@ -351,7 +351,7 @@ public class PrivateChannelImpl implements PrivateChannel
     }
 
     @Override
-    public String getId()
+    public long getIdLong()
     {
         return id;
     }
@@ -28,18 +28,18 @@ import net.dv8tion.jda.core.requests.Request;
 import net.dv8tion.jda.core.requests.Response;
 import net.dv8tion.jda.core.requests.RestAction;
 import net.dv8tion.jda.core.requests.Route;
+import net.dv8tion.jda.core.utils.PermissionList;
 import net.dv8tion.jda.core.utils.PermissionUtil;
 import org.apache.http.util.Args;
 
 import java.awt.*;
 import java.time.OffsetDateTime;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 
 public class RoleImpl implements Role
 {
-    private final String id;
+    private final long id;
     private final Guild guild;
 
     private volatile RoleManager manager;
@@ -52,9 +52,10 @@ public class RoleImpl implements Role
     private boolean hoisted;
     private boolean mentionable;
     private long rawPermissions;
+    private volatile PermissionList permissionList;
     private int rawPosition;
 
-    public RoleImpl(String id, Guild guild)
+    public RoleImpl(long id, Guild guild)
     {
         this.id = id;
         this.guild = guild;
@@ -66,14 +67,11 @@ public class RoleImpl implements Role
         if (this == guild.getPublicRole())
             return -1;
 
+        //Roles are sorted from highest to lowest, so count down from the end.
         //Subtract 1 to get into 0-index, and 1 to disregard the everyone role.
-        int i = guild.getRoles().size() - 2;
-        for (Role r : guild.getRoles())
-        {
-            if (r == this)
-                return i;
-            i--;
-        }
+        int index = ((GuildImpl) guild).getRoleIndex(this);
+        if (index >= 0)
+            return guild.getRoles().size() - 2 - index;
         throw new RuntimeException("Somehow when determining position we never found the role in the Guild's roles? wtf?");
     }
 
@@ -116,8 +114,7 @@ public class RoleImpl implements Role
     @Override
     public List<Permission> getPermissions()
     {
-        return Collections.unmodifiableList(
-                Permission.getPermissions(rawPermissions));
+        return permissionList = PermissionList.of(permissionList, rawPermissions);
     }
 
     @Override
@@ -128,14 +125,15 @@ public class RoleImpl implements Role
 
     @Override
     public boolean hasPermission(Permission... permissions)
+    {
+        return hasPermission(Permission.getRaw(permissions));
+    }
+
+    @Override
+    public boolean hasPermission(long permissions)
     {
         long effectivePerms = rawPermissions | guild.getPublicRole().getPermissionsRaw();
-        for (Permission perm : permissions)
-        {
-            if (((effectivePerms >> perm.getOffset()) & 1) != 1)
-                return false;
-        }
-        return true;
+        return (effectivePerms & permissions) == permissions;
     }
 
     @Override
@@ -143,19 +141,20 @@ public class RoleImpl implements Role
     {
         Args.notNull(permissions, "Permission Collection");
 
-        return hasPermission(permissions.toArray(new Permission[permissions.size()]));
+        return hasPermission(Permission.getRaw(permissions));
     }
 
     @Override
     public boolean hasPermission(Channel channel, Permission... permissions)
+    {
+        return hasPermission(channel, Permission.getRaw(permissions));
+    }
+
+    @Override
+    public boolean hasPermission(Channel channel, long permissions)
     {
         long effectivePerms = PermissionUtil.getEffectivePermission(channel, this);
-        for (Permission perm : permissions)
-        {
-            if (((effectivePerms >> perm.getOffset()) & 1) != 1)
-                return false;
-        }
-        return true;
+        return (effectivePerms & permissions) == permissions;
     }
 
     @Override
@@ -163,7 +162,7 @@ public class RoleImpl implements Role
     {
         Args.notNull(permissions, "Permission Collection");
 
-        return hasPermission(channel, permissions.toArray(new Permission[permissions.size()]));
+        return hasPermission(channel, Permission.getRaw(permissions));
     }
 
     @Override
@@ -220,7 +219,7 @@ public class RoleImpl implements Role
         if (managed)
             throw new UnsupportedOperationException("Cannot delete a Role that is managed. ");
 
-        Route.CompiledRoute route = Route.Roles.DELETE_ROLE.compile(guild.getId(), id);
+        Route.CompiledRoute route = Route.Roles.DELETE_ROLE.compile(guild.getId(), getId());
         return new RestAction<Void>(getJDA(), route, null)
         {
             @Override
@@ -247,7 +246,7 @@ public class RoleImpl implements Role
     }
 
     @Override
-    public String getId()
+    public long getIdLong()
     {
         return id;
     }
@@ -258,13 +257,13 @@ public class RoleImpl implements Role
         if (!(o instanceof Role))
             return false;
         Role oRole = (Role) o;
-        return this == oRole || this.getId().equals(oRole.getId());
+        return this == oRole || this.getIdLong() == oRole.getIdLong();
     }
 
     @Override
     public int hashCode()
     {
-        return getId().hashCode();
+        return Long.hashCode(getIdLong());
     }
 
     @Override
@@ -285,13 +284,12 @@ public class RoleImpl implements Role
         if (this.getPositionRaw() != r.getPositionRaw())
             return this.getPositionRaw() - r.getPositionRaw();
 
-        OffsetDateTime thisTime = this.getCreationTime();
-        OffsetDateTime rTime = r.getCreationTime();
-
-        //We compare the provided role's time to this's time instead of the reverse as one would expect due to how
+        //Snowflake ids grow with the creation time, so comparing them orders the same as comparing creation times
+        // without creating OffsetDateTimes.
+        //We compare the provided role's id to this's id instead of the reverse as one would expect due to how
         // discord deals with hierarchy. The more recent a role was created, the lower its hierarchy ranking when
         // it shares the same position as another role.
-        return rTime.compareTo(thisTime);
+        return Long.compare(r.getIdLong(), this.getIdLong());
     }
 
     // -- Setters --
@@ -0,0 +1,184 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.core.entities.impl;
+
+import net.dv8tion.jda.core.entities.Member;
+import net.dv8tion.jda.core.entities.Role;
+import net.dv8tion.jda.core.utils.ConcurrentLongObjectMap;
+import net.dv8tion.jda.core.utils.IndexedLongObjectMap;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reverse index from the roles of a guild to the cached members holding them.
+ * <br>Kept in sync with the member cache of a {@link GuildImpl}: when a member is put or re-indexed its role set is
+ * compared with the roles it was last indexed with, so roles it lost are removed as well.
+ * <br>The {@link #getVersion() version} changes whenever a member is added, removed or changes its roles, which lets
+ * views over the members of the guild detect that they are outdated.
+ */
+public class RoleMemberIndex implements IndexedLongObjectMap.Index<Member>
+{
+    private final ConcurrentLongObjectMap<Set<Member>> roleMembers = new ConcurrentLongObjectMap<>();
+    private final AtomicInteger version = new AtomicInteger();
+    //The (sorted) role ids every member was last indexed with
+    private final ConcurrentMap<Member, long[]> indexedRoles = new ConcurrentHashMap<>();
+
+    @Override
+    public void update(Member member)
+    {
+        version.incrementAndGet();
+        long[] roleIds = ((MemberImpl) member).getRoleIds();
+        long[] old = indexedRoles.put(member, roleIds);
+        if (old == roleIds)
+            return;
+        if (old != null)
+        {
+            for (long roleId : old)
+            {
+                if (Arrays.binarySearch(roleIds, roleId) < 0)
+                    unlink(roleId, member);
+            }
+        }
+        for (long roleId : roleIds)
+        {
+            if (old == null || Arrays.binarySearch(old, roleId) < 0)
+                membersOf(roleId, true).add(member);
+        }
+    }
+
+    @Override
+    public void remove(Member member)
+    {
+        version.incrementAndGet();
+        long[] old = indexedRoles.remove(member);
+        if (old == null)
+            return;
+        for (long roleId : old)
+            unlink(roleId, member);
+    }
+
+    @Override
+    public void clear()
+    {
+        version.incrementAndGet();
+        indexedRoles.clear();
+        roleMembers.clear();
+    }
+
+    public void removeRole(long roleId)
+    {
+        version.incrementAndGet();
+        roleMembers.remove(roleId);
+    }
+
+    /**
+     * Marks the member views of the guild as outdated, used when the roles of a member change.
+     */
+    public void increaseVersion()
+    {
+        version.incrementAndGet();
+    }
+
+    /**
+     * The current version of the member cache of the guild.
+     *
+     * @return The version
+     */
+    public int getVersion()
+    {
+        return version.get();
+    }
+
+    /**
+     * The amount of cached members holding the role.
+     *
+     * @param  roleId
+     *         The id of the role
+     *
+     * @return The member count
+     */
+    public int count(long roleId)
+    {
+        Set<Member> members = roleMembers.get(roleId);
+        return members == null ? 0 : members.size();
+    }
+
+    /**
+     * All cached members holding every one of the provided roles.
+     * <br>Iterates the smallest of the member sets and checks the others, so the cost is bound by the
+     * least common role instead of the member count of the guild.
+     *
+     * @param  roles
+     *         The roles, all members are returned if this is empty
+     * @param  allMembers
+     *         The members of the guild, used if no roles are provided
+     *
+     * @return Modifiable list of matching members
+     */
+    public List<Member> getMembersWithRoles(Collection<Role> roles, Collection<Member> allMembers)
+    {
+        if (roles.isEmpty())
+            return new ArrayList<>(allMembers);
+
+        List<Set<Member>> sets = new ArrayList<>(roles.size());
+        for (Role role : roles)
+        {
+            Set<Member> members = membersOf(role.getIdLong(), false);
+            if (members == null || members.isEmpty())
+                return new ArrayList<>();
+            sets.add(members);
+        }
+        sets.sort(Comparator.comparingInt(Set::size));
+
+        Set<Member> smallest = sets.get(0);
+        List<Member> result = new ArrayList<>(smallest.size());
+        outer:
+        for (Member member : smallest)
+        {
+            for (int i = 1; i < sets.size(); i++)
+            {
+                if (!sets.get(i).contains(member))
+                    continue outer;
+            }
+            result.add(member);
+        }
+        return result;
+    }
+
+    private void unlink(long roleId, Member member)
+    {
+        Set<Member> members = roleMembers.get(roleId);
+        if (members != null)
+            members.remove(member);
+    }
+
+    private Set<Member> membersOf(long roleId, boolean create)
+    {
+        Set<Member> members = roleMembers.get(roleId);
+        if (members == null && create)
+        {
+            members = ConcurrentHashMap.newKeySet();
+            Set<Member> existing = roleMembers.putIfAbsent(roleId, members);
+            if (existing != null)
+                members = existing;
+        }
+        return members;
+    }
+}
@@ -27,6 +27,7 @@ import net.dv8tion.jda.core.managers.ChannelManager;
 import net.dv8tion.jda.core.managers.ChannelManagerUpdatable;
 import net.dv8tion.jda.core.requests.*;
 import net.dv8tion.jda.core.utils.IOUtil;
+import net.dv8tion.jda.core.utils.PermissionUtil;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
 import org.apache.http.util.Args;
 import org.json.JSONArray;
@@ -37,14 +38,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 public class TextChannelImpl implements TextChannel
 {
-    private final String id;
+    private final long id;
     private final GuildImpl guild;
-    private final HashMap<Member, PermissionOverride> memberOverrides = new HashMap<>();
-    private final HashMap<Role, PermissionOverride> roleOverrides = new HashMap<>();
+    private final ConcurrentMap<Member, PermissionOverride> memberOverrides = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Role, PermissionOverride> roleOverrides = new ConcurrentHashMap<>();
+    private volatile int overrideVersion;
+    private volatile MemberView memberView;
 
     private volatile ChannelManager manager;
     private volatile ChannelManagerUpdatable managerUpdatable;
@@ -54,7 +59,7 @@ public class TextChannelImpl implements TextChannel
     private String topic;
     private int rawPosition;
 
-    public TextChannelImpl(String id, Guild guild)
+    public TextChannelImpl(long id, Guild guild)
     {
         this.id = id;
         this.guild = (GuildImpl) guild;
@@ -67,7 +72,7 @@ public class TextChannelImpl implements TextChannel
     }
 
     @Override
-    public String getId()
+    public long getIdLong()
     {
         return id;
     }
@@ -88,7 +93,7 @@ public class TextChannelImpl implements TextChannel
             throw new IllegalArgumentException("Must provide at least 2 or at most 100 messages to be deleted.");
 
         JSONObject body = new JSONObject().put("messages", messageIds);
-        Route.CompiledRoute route = Route.Messages.DELETE_MESSAGES.compile(id);
+        Route.CompiledRoute route = Route.Messages.DELETE_MESSAGES.compile(getId());
         return new RestAction<Void>(getJDA(), route, body)
         {
             @Override
@@ -144,23 +149,28 @@ public class TextChannelImpl implements TextChannel
     @Override
     public List<Member> getMembers()
     {
-        return Collections.unmodifiableList(
-        ((GuildImpl) getGuild()).getMembersMap().values().stream()
-                .filter(m -> m.getPermissions(this).contains(Permission.MESSAGE_READ))
-                .collect(Collectors.toList()));
+        //The versions are read before computing, a change in the meantime only leaves an outdated view behind
+        int permissionVersion = guild.getPermissionVersion();
+        int memberVersion = guild.getRoleMemberIndex().getVersion();
+        int overrideVersion = this.overrideVersion;
+
+        MemberView view = memberView;
+        if (view != null && view.permissionVersion == permissionVersion
+                && view.memberVersion == memberVersion && view.overrideVersion == overrideVersion)
+            return view.members;
+
+        List<Member> members = Collections.unmodifiableList(
+                PermissionUtil.getMembersWithPermission(this, Permission.MESSAGE_READ));
+        memberView = new MemberView(members, permissionVersion, memberVersion, overrideVersion);
+        return members;
     }
 
     @Override
     public int getPosition()
     {
-        //We call getTextChannels instead of directly accessing the GuildImpl.getTextChannelMap because
-        // getTextChannels does the sorting logic.
-        List<TextChannel> channels = guild.getTextChannels();
-        for (int i = 0; i < channels.size(); i++)
-        {
-            if (channels.get(i) == this)
-                return i;
-        }
+        int position = guild.getTextChannelIndex(this);
+        if (position >= 0)
+            return position;
         throw new RuntimeException("Somehow when determining position we never found the TextChannel in the Guild's channels? wtf?");
     }
 
@@ -239,8 +249,8 @@ public class TextChannelImpl implements TextChannel
         checkNull(data, "data InputStream");
         checkNull(fileName, "fileName");
 
-        Route.CompiledRoute route = Route.Messages.SEND_MESSAGE.compile(id);
-        MultipartBody body = Unirest.post(Requester.DISCORD_API_PREFIX + route.getCompiledRoute())
+        Route.CompiledRoute route = Route.Messages.SEND_MESSAGE.compile(getId());
+        MultipartBody body = Unirest.post(((JDAImpl) getJDA()).getRequester().getApiPrefix() + route.getCompiledRoute())
                 .fields(null); //We use this to change from an HttpRequest to a MultipartBody
 
         body.field("file", data, fileName);
@@ -275,8 +285,8 @@ public class TextChannelImpl implements TextChannel
         if (data.length > 8<<20)   //8MB
             throw new IllegalArgumentException("Provided data is too large! Max file-size is 8MB");
 
-        Route.CompiledRoute route = Route.Messages.SEND_MESSAGE.compile(id);
-        MultipartBody body = Unirest.post(Requester.DISCORD_API_PREFIX + route.getCompiledRoute())
+        Route.CompiledRoute route = Route.Messages.SEND_MESSAGE.compile(getId());
+        MultipartBody body = Unirest.post(((JDAImpl) getJDA()).getRequester().getApiPrefix() + route.getCompiledRoute())
                 .fields(null); //We use this to change from an HttpRequest to a MultipartBody
 
         body.field("file", data, fileName);
@@ -382,7 +392,7 @@ public class TextChannelImpl implements TextChannel
     @Override
     public RestAction<Void> sendTyping()
     {
-        Route.CompiledRoute route = Route.Channels.SEND_TYPING.compile(id);
+        Route.CompiledRoute route = Route.Channels.SEND_TYPING.compile(getId());
         return new RestAction<Void>(getJDA(), route, null)
         {
             @Override
@@ -540,7 +550,7 @@ public class TextChannelImpl implements TextChannel
     {
         checkPermission(Permission.MANAGE_CHANNEL);
 
-        Route.CompiledRoute route = Route.Channels.DELETE_CHANNEL.compile(id);
+        Route.CompiledRoute route = Route.Channels.DELETE_CHANNEL.compile(getId());
         return new RestAction<Void>(getJDA(), route, null)
         {
             @Override
@@ -572,7 +582,7 @@ public class TextChannelImpl implements TextChannel
                 .put("allow", 0)
                 .put("deny", 0);
 
-        Route.CompiledRoute route = Route.Channels.CREATE_PERM_OVERRIDE.compile(id, member.getUser().getId());
+        Route.CompiledRoute route = Route.Channels.CREATE_PERM_OVERRIDE.compile(getId(), member.getUser().getId());
         return new RestAction<PermissionOverride>(getJDA(), route, body)
         {
             @Override
@@ -605,7 +615,7 @@ public class TextChannelImpl implements TextChannel
                 .put("allow", 0)
                 .put("deny", 0);
 
-        Route.CompiledRoute route = Route.Channels.CREATE_PERM_OVERRIDE.compile(id, role.getId());
+        Route.CompiledRoute route = Route.Channels.CREATE_PERM_OVERRIDE.compile(getId(), role.getId());
         return new RestAction<PermissionOverride>(getJDA(), route, body)
         {
             @Override
@@ -626,13 +636,13 @@ public class TextChannelImpl implements TextChannel
         if (!(o instanceof TextChannel))
             return false;
         TextChannel oTChannel = (TextChannel) o;
-        return this == oTChannel || this.getId().equals(oTChannel.getId());
+        return this == oTChannel || this.getIdLong() == oTChannel.getIdLong();
     }
 
     @Override
     public int hashCode()
     {
-        return getId().hashCode();
+        return Long.hashCode(getIdLong());
     }
 
     @Override
@@ -653,13 +663,12 @@ public class TextChannelImpl implements TextChannel
         if (this.getPositionRaw() != chan.getPositionRaw())
             return chan.getPositionRaw() - this.getPositionRaw();
 
-        OffsetDateTime thisTime = this.getCreationTime();
-        OffsetDateTime chanTime = chan.getCreationTime();
-
-        //We compare the provided channel's time to this's time instead of the reverse as one would expect due to how
+        //Snowflake ids grow with the creation time, so comparing them orders the same as comparing creation times
+        // without creating OffsetDateTimes.
+        //We compare the provided channel's id to this's id instead of the reverse as one would expect due to how
         // discord deals with hierarchy. The more recent a channel was created, the lower its hierarchy ranking when
         // it shares the same position as another channel.
-        return chanTime.compareTo(thisTime);
+        return Long.compare(chan.getIdLong(), this.getIdLong());
     }
 
     // -- Setters --
@@ -684,16 +693,32 @@ public class TextChannelImpl implements TextChannel
 
     // -- Map Getters --
 
-    public HashMap<Member, PermissionOverride> getMemberOverrideMap()
+    public ConcurrentMap<Member, PermissionOverride> getMemberOverrideMap()
     {
         return memberOverrides;
     }
 
-    public HashMap<Role, PermissionOverride> getRoleOverrideMap()
+    public ConcurrentMap<Role, PermissionOverride> getRoleOverrideMap()
     {
         return roleOverrides;
     }
 
+    /**
+     * Version of the overrides of this channel, used by the {@link net.dv8tion.jda.core.utils.PermissionCache}.
+     */
+    public int getOverrideVersion()
+    {
+        return overrideVersion;
+    }
+
+    /**
+     * Invalidates the cached permissions of this channel. Only called by the websocket thread.
+     */
+    public void increaseOverrideVersion()
+    {
+        overrideVersion++;
+    }
+
     // -- internal --
 
     private void checkVerification()
@@ -719,4 +744,23 @@ public class TextChannelImpl implements TextChannel
         if (obj == null)
             throw new NullPointerException("Provided " + name + " was null!");
     }
+
+    /**
+     * The members that can read this channel, stamped with the versions it was computed for.
+     */
+    private static class MemberView
+    {
+        final List<Member> members;
+        final int permissionVersion;
+        final int memberVersion;
+        final int overrideVersion;
+
+        MemberView(List<Member> members, int permissionVersion, int memberVersion, int overrideVersion)
+        {
+            this.members = members;
+            this.permissionVersion = permissionVersion;
+            this.memberVersion = memberVersion;
+            this.overrideVersion = overrideVersion;
+        }
+    }
 }
@@ -28,9 +28,14 @@ import net.dv8tion.jda.core.requests.RestAction;
 import net.dv8tion.jda.core.requests.Route;
 import org.json.JSONObject;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 public class UserImpl implements User
 {
-    protected final String id;
+    private static final AtomicIntegerFieldUpdater<UserImpl> MEMBERSHIPS =
+            AtomicIntegerFieldUpdater.newUpdater(UserImpl.class, "memberships");
+
+    protected final long id;
     protected final JDAImpl api;
 
     protected String name;
@@ -39,13 +44,25 @@ public class UserImpl implements User
     protected PrivateChannel privateChannel;
     protected boolean bot;
     protected boolean fake = false;
+    //The amount of Guild member caches this User is part of, see JDAImpl#releaseUser(long)
+    private volatile int memberships;
 
-    public UserImpl(String id, JDAImpl api)
+    public UserImpl(long id, JDAImpl api)
     {
         this.id = id;
         this.api = api;
     }
 
+    int adjustMemberships(int delta)
+    {
+        return MEMBERSHIPS.addAndGet(this, delta);
+    }
+
+    int getMemberships()
+    {
+        return memberships;
+    }
+
     @Override
     public String getName()
     {
@@ -146,7 +163,7 @@ public class UserImpl implements User
     }
 
     @Override
-    public String getId()
+    public long getIdLong()
     {
         return id;
     }
@@ -163,13 +180,13 @@ public class UserImpl implements User
         if (!(o instanceof User))
             return false;
         User oUser = (User) o;
-        return this == oUser || this.getId().equals(oUser.getId());
+        return this == oUser || this.getIdLong() == oUser.getIdLong();
     }
 
     @Override
     public int hashCode()
     {
-        return getId().hashCode();
+        return Long.hashCode(getIdLong());
     }
 
     @Override
@@ -16,6 +16,7 @@
 
 package net.dv8tion.jda.core.entities.impl;
 
+import gnu.trove.map.TLongObjectMap;
 import net.dv8tion.jda.core.JDA;
 import net.dv8tion.jda.core.Permission;
 import net.dv8tion.jda.core.entities.*;
@@ -26,6 +27,7 @@ import net.dv8tion.jda.core.requests.Request;
 import net.dv8tion.jda.core.requests.Response;
 import net.dv8tion.jda.core.requests.RestAction;
 import net.dv8tion.jda.core.requests.Route;
+import net.dv8tion.jda.core.utils.ConcurrentLongObjectMap;
 import net.dv8tion.jda.core.utils.MiscUtil;
 import org.apache.http.util.Args;
 import org.json.JSONObject;
@@ -33,17 +35,19 @@ import org.json.JSONObject;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class VoiceChannelImpl implements VoiceChannel
 {
-    private final String id;
+    private final long id;
     private final GuildImpl guild;
 
-    private final HashMap<Member, PermissionOverride> memberOverrides = new HashMap<>();
-    private final HashMap<Role, PermissionOverride> roleOverrides = new HashMap<>();
-    private final HashMap<String, Member> connectedMembers = new HashMap<>();
+    private final ConcurrentMap<Member, PermissionOverride> memberOverrides = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Role, PermissionOverride> roleOverrides = new ConcurrentHashMap<>();
+    private volatile int overrideVersion;
+    private final TLongObjectMap<Member> connectedMembers = new ConcurrentLongObjectMap<>();
 
     private volatile ChannelManager manager;
     private volatile ChannelManagerUpdatable managerUpdatable;
@@ -54,7 +58,7 @@ public class VoiceChannelImpl implements VoiceChannel
     private int userLimit;
     private int bitrate;
 
-    public VoiceChannelImpl(String id, Guild guild)
+    public VoiceChannelImpl(long id, Guild guild)
     {
         this.id = id;
         this.guild = (GuildImpl) guild;
@@ -87,18 +91,15 @@ public class VoiceChannelImpl implements VoiceChannel
     @Override
     public List<Member> getMembers()
     {
-        return Collections.unmodifiableList(new ArrayList<>(connectedMembers.values()));
+        return Collections.unmodifiableList(new ArrayList<>(connectedMembers.valueCollection()));
     }
 
     @Override
     public int getPosition()
     {
-        List<VoiceChannel> channels = guild.getVoiceChannels();
-        for (int i = 0; i < channels.size(); i++)
-        {
-            if (channels.get(i) == this)
-                return i;
-        }
+        int position = guild.getVoiceChannelIndex(this);
+        if (position >= 0)
+            return position;
         throw new RuntimeException("Somehow when determining position we never found the VoiceChannel in the Guild's channels? wtf?");
     }
 
@@ -184,7 +185,7 @@ public class VoiceChannelImpl implements VoiceChannel
     {
         checkPermission(Permission.MANAGE_CHANNEL);
 
-        Route.CompiledRoute route = Route.Channels.DELETE_CHANNEL.compile(id);
+        Route.CompiledRoute route = Route.Channels.DELETE_CHANNEL.compile(getId());
         return new RestAction<Void>(getJDA(), route, null)
         {
             @Override
@@ -216,7 +217,7 @@ public class VoiceChannelImpl implements VoiceChannel
                 .put("allow", 0)
                 .put("deny", 0);
 
-        Route.CompiledRoute route = Route.Channels.CREATE_PERM_OVERRIDE.compile(id, member.getUser().getId());
+        Route.CompiledRoute route = Route.Channels.CREATE_PERM_OVERRIDE.compile(getId(), member.getUser().getId());
         return new RestAction<PermissionOverride>(getJDA(), route, body)
         {
             @Override
@@ -249,7 +250,7 @@ public class VoiceChannelImpl implements VoiceChannel
                 .put("allow", 0)
                 .put("deny", 0);
 
-        Route.CompiledRoute route = Route.Channels.CREATE_PERM_OVERRIDE.compile(id, role.getId());
+        Route.CompiledRoute route = Route.Channels.CREATE_PERM_OVERRIDE.compile(getId(), role.getId());
         return new RestAction<PermissionOverride>(getJDA(), route, body)
         {
             @Override
@@ -265,7 +266,7 @@ public class VoiceChannelImpl implements VoiceChannel
     }
 
     @Override
-    public String getId()
+    public long getIdLong()
     {
         return id;
     }
@@ -276,13 +277,13 @@ public class VoiceChannelImpl implements VoiceChannel
         if (!(o instanceof VoiceChannel))
             return false;
         VoiceChannel oVChannel = (VoiceChannel) o;
-        return this == oVChannel || this.getId().equals(oVChannel.getId());
+        return this == oVChannel || this.getIdLong() == oVChannel.getIdLong();
     }
 
     @Override
     public int hashCode()
     {
-        return getId().hashCode();
+        return Long.hashCode(getIdLong());
     }
 
     @Override
@@ -303,13 +304,12 @@ public class VoiceChannelImpl implements VoiceChannel
         if (this.getPositionRaw() != chan.getPositionRaw())
             return chan.getPositionRaw() - this.getPositionRaw();
 
-        OffsetDateTime thisTime = this.getCreationTime();
-        OffsetDateTime chanTime = chan.getCreationTime();
-
-        //We compare the provided channel's time to this's time instead of the reverse as one would expect due to how
+        //Snowflake ids grow with the creation time, so comparing them orders the same as comparing creation times
+        // without creating OffsetDateTimes.
+        //We compare the provided channel's id to this's id instead of the reverse as one would expect due to how
         // discord deals with hierarchy. The more recent a channel was created, the lower its hierarchy ranking when
         // it shares the same position as another channel.
-        return chanTime.compareTo(thisTime);
+        return Long.compare(chan.getIdLong(), this.getIdLong());
     }
 
     // -- Setters --
@@ -340,17 +340,33 @@ public class VoiceChannelImpl implements VoiceChannel
 
     // -- Map Getters --
 
-    public HashMap<Member, PermissionOverride> getMemberOverrideMap()
+    public ConcurrentMap<Member, PermissionOverride> getMemberOverrideMap()
     {
         return memberOverrides;
     }
 
-    public HashMap<Role, PermissionOverride> getRoleOverrideMap()
+    public ConcurrentMap<Role, PermissionOverride> getRoleOverrideMap()
     {
         return roleOverrides;
     }
 
-    public HashMap<String, Member> getConnectedMembersMap()
+    /**
+     * Version of the overrides of this channel, used by the {@link net.dv8tion.jda.core.utils.PermissionCache}.
+     */
+    public int getOverrideVersion()
+    {
+        return overrideVersion;
+    }
+
+    /**
+     * Invalidates the cached permissions of this channel. Only called by the websocket thread.
+     */
+    public void increaseOverrideVersion()
+    {
+        overrideVersion++;
+    }
+
+    public TLongObjectMap<Member> getConnectedMembersMap()
     {
         return connectedMembers;
     }
@@ -0,0 +1,62 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.core.events.guild;
+
+import net.dv8tion.jda.core.JDA;
+import net.dv8tion.jda.core.entities.Guild;
+
+/**
+ * <b><u>GuildMembersChunkEvent</u></b><br/>
+ * Fired for every chunk of {@link net.dv8tion.jda.core.entities.Member Members} received while a large
+ * {@link net.dv8tion.jda.core.entities.Guild Guild} is being loaded.<br/>
+ * <br/>
+ * Use: Follow the loading progress of a Guild. The Members of the chunk are already available through the Guild.
+ */
+public class GuildMembersChunkEvent extends GenericGuildEvent
+{
+    private final int chunkSize;
+    private final int loadedMembers;
+    private final int expectedMembers;
+
+    public GuildMembersChunkEvent(JDA api, long responseNumber, Guild guild, int chunkSize, int loadedMembers, int expectedMembers)
+    {
+        super(api, responseNumber, guild);
+        this.chunkSize = chunkSize;
+        this.loadedMembers = loadedMembers;
+        this.expectedMembers = expectedMembers;
+    }
+
+    public int getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    public int getLoadedMemberCount()
+    {
+        return loadedMembers;
+    }
+
+    public int getExpectedMemberCount()
+    {
+        return expectedMembers;
+    }
+
+    public boolean isLastChunk()
+    {
+        return loadedMembers >= expectedMembers;
+    }
+}
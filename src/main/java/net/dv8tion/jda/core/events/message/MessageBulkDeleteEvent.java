@@ -17,6 +17,7 @@ package net.dv8tion.jda.core.events.message;
 
 import net.dv8tion.jda.core.JDA;
 import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.Message;
 import net.dv8tion.jda.core.entities.TextChannel;
 import net.dv8tion.jda.core.events.Event;
 
@@ -33,12 +34,19 @@ public class MessageBulkDeleteEvent extends Event
 {
     protected final TextChannel channel;
     protected final List<String> messageIds;
+    protected final List<Message> cachedMessages;
 
     public MessageBulkDeleteEvent(JDA api, long responseNumber, TextChannel channel, List<String> messageIds)
+    {
+        this(api, responseNumber, channel, messageIds, Collections.emptyList());
+    }
+
+    public MessageBulkDeleteEvent(JDA api, long responseNumber, TextChannel channel, List<String> messageIds, List<Message> cachedMessages)
     {
         super(api, responseNumber);
         this.channel = channel;
         this.messageIds = Collections.unmodifiableList(messageIds);
+        this.cachedMessages = Collections.unmodifiableList(cachedMessages);
     }
 
     public TextChannel getChannel()
@@ -55,4 +63,15 @@ public class MessageBulkDeleteEvent extends Event
     {
         return messageIds;
     }
+
+    /**
+     * The deleted messages that were kept by the message cache.
+     * <br>Messages that were not cached are missing, use {@link #getMessageIds()} to get every deleted id.
+     *
+     * @return Immutable list of the cached deleted messages
+     */
+    public List<Message> getCachedMessages()
+    {
+        return cachedMessages;
+    }
 }
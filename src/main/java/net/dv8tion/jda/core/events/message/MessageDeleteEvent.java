@@ -30,12 +30,19 @@ public class MessageDeleteEvent extends Event
 {
     private final String messageId;
     private final MessageChannel channel;
+    private final Message message;
 
     public MessageDeleteEvent(JDA api, long responseNumber, String messageId, MessageChannel channel)
+    {
+        this(api, responseNumber, messageId, channel, null);
+    }
+
+    public MessageDeleteEvent(JDA api, long responseNumber, String messageId, MessageChannel channel, Message message)
     {
         super(api, responseNumber);
         this.messageId = messageId;
         this.channel = channel;
+        this.message = message;
     }
 
     public String getMessageId()
@@ -43,6 +50,16 @@ public class MessageDeleteEvent extends Event
         return messageId;
     }
 
+    /**
+     * The deleted message, if it was kept by the message cache.
+     *
+     * @return The deleted message, or null if it was not cached
+     */
+    public Message getMessage()
+    {
+        return message;
+    }
+
     public boolean isFromType(ChannelType type)
     {
         return channel.getType() == type;
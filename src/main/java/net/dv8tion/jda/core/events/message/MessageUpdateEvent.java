@@ -29,11 +29,18 @@ import net.dv8tion.jda.core.events.Event;
 public class MessageUpdateEvent extends Event
 {
     private final Message message;
+    private final Message previousMessage;
 
     public MessageUpdateEvent(JDA api, long responseNumber, Message message)
+    {
+        this(api, responseNumber, message, null);
+    }
+
+    public MessageUpdateEvent(JDA api, long responseNumber, Message message, Message previousMessage)
     {
         super(api, responseNumber);
         this.message = message;
+        this.previousMessage = previousMessage;
     }
 
     public boolean isFromType(ChannelType channelType)
@@ -51,6 +58,16 @@ public class MessageUpdateEvent extends Event
         return message;
     }
 
+    /**
+     * The message as it was before the update, if it was kept by the message cache.
+     *
+     * @return The previous version of the message, or null if it was not cached
+     */
+    public Message getPreviousMessage()
+    {
+        return previousMessage;
+    }
+
     public User getAuthor()
     {
         return message.getAuthor();
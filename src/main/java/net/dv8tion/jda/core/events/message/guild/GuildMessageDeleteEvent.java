@@ -16,6 +16,7 @@
 package net.dv8tion.jda.core.events.message.guild;
 
 import net.dv8tion.jda.core.JDA;
+import net.dv8tion.jda.core.entities.Message;
 import net.dv8tion.jda.core.entities.TextChannel;
 
 /**
@@ -30,7 +31,12 @@ public class GuildMessageDeleteEvent extends GenericGuildMessageEvent
 
     public GuildMessageDeleteEvent(JDA api, long responseNumber, String messageId, TextChannel channel)
     {
-        super(api, responseNumber, null, channel);
+        this(api, responseNumber, messageId, channel, null);
+    }
+
+    public GuildMessageDeleteEvent(JDA api, long responseNumber, String messageId, TextChannel channel, Message message)
+    {
+        super(api, responseNumber, message, channel);
         this.messageId = messageId;
     }
 
@@ -27,8 +27,26 @@ import net.dv8tion.jda.core.entities.TextChannel;
  */
 public class GuildMessageUpdateEvent extends GenericGuildMessageEvent
 {
+    private final Message previousMessage;
+
     public GuildMessageUpdateEvent(JDA api, long responseNumber, Message message)
+    {
+        this(api, responseNumber, message, null);
+    }
+
+    public GuildMessageUpdateEvent(JDA api, long responseNumber, Message message, Message previousMessage)
     {
         super(api, responseNumber, message, message.getTextChannel());
+        this.previousMessage = previousMessage;
+    }
+
+    /**
+     * The message as it was before the update, if it was kept by the message cache.
+     *
+     * @return The previous version of the message, or null if it was not cached
+     */
+    public Message getPreviousMessage()
+    {
+        return previousMessage;
     }
 }
@@ -16,6 +16,7 @@
 package net.dv8tion.jda.core.events.message.priv;
 
 import net.dv8tion.jda.core.JDA;
+import net.dv8tion.jda.core.entities.Message;
 import net.dv8tion.jda.core.entities.PrivateChannel;
 
 /**
@@ -30,7 +31,12 @@ public class PrivateMessageDeleteEvent extends GenericPrivateMessageEvent
 
     public PrivateMessageDeleteEvent(JDA api, long responseNumber, String messageId, PrivateChannel channel)
     {
-        super(api, responseNumber, null, channel);
+        this(api, responseNumber, messageId, channel, null);
+    }
+
+    public PrivateMessageDeleteEvent(JDA api, long responseNumber, String messageId, PrivateChannel channel, Message message)
+    {
+        super(api, responseNumber, message, channel);
         this.messageId = messageId;
     }
 
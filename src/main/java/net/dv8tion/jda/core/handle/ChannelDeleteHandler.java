@@ -38,14 +38,14 @@ public class ChannelDeleteHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
         ChannelType type = ChannelType.fromId(content.getInt("type"));
         if (type == ChannelType.TEXT || type == ChannelType.VOICE)
         {
-            if (GuildLock.get(api).isLocked(content.getString("guild_id")))
+            if (GuildLock.get(api).isLocked(content.getLong("guild_id")))
             {
-                return content.getString("guild_id");
+                return content.getLong("guild_id");
             }
         }
 
@@ -53,11 +53,11 @@ public class ChannelDeleteHandler extends SocketHandler
         {
             case TEXT:
             {
-                GuildImpl guild = (GuildImpl) api.getGuildMap().get(content.getString("guild_id"));
-                TextChannel channel = api.getTextChannelMap().remove(content.getString("id"));
+                GuildImpl guild = (GuildImpl) api.getGuildMap().get(content.getLong("guild_id"));
+                TextChannel channel = api.getTextChannelMap().remove(content.getLong("id"));
                 if (channel == null)
                 {
-                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getString("id"), () ->
+                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getLong("id"), () ->
                     {
                         handle(responseNumber, allContent);
                     });
@@ -65,7 +65,9 @@ public class ChannelDeleteHandler extends SocketHandler
                     return null;
                 }
 
-                guild.getTextChannelsMap().remove(channel.getId());
+                guild.getTextChannelsMap().remove(channel.getIdLong());
+                if (api.getMessageCache() != null)
+                    api.getMessageCache().removeChannel(channel.getIdLong());
                 api.getEventManager().handle(
                         new TextChannelDeleteEvent(
                                 api, responseNumber,
@@ -74,11 +76,11 @@ public class ChannelDeleteHandler extends SocketHandler
             }
             case VOICE:
             {
-                GuildImpl guild = (GuildImpl) api.getGuildMap().get(content.getString("guild_id"));
-                VoiceChannel channel = guild.getVoiceChannelMap().remove(content.getString("id"));
+                GuildImpl guild = (GuildImpl) api.getGuildMap().get(content.getLong("guild_id"));
+                VoiceChannel channel = guild.getVoiceChannelMap().remove(content.getLong("id"));
                 if (channel == null)
                 {
-                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getString("id"), () ->
+                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getLong("id"), () ->
                     {
                         handle(responseNumber, allContent);
                     });
@@ -92,7 +94,7 @@ public class ChannelDeleteHandler extends SocketHandler
 //                {
 //                    manager.closeAudioConnection();
 //                }
-                guild.getVoiceChannelMap().remove(channel.getId());
+                guild.getVoiceChannelMap().remove(channel.getIdLong());
                 api.getEventManager().handle(
                         new VoiceChannelDeleteEvent(
                                 api, responseNumber,
@@ -101,14 +103,14 @@ public class ChannelDeleteHandler extends SocketHandler
             }
             case PRIVATE:
             {
-                String channelId = content.getString("id");
+                long channelId = content.getLong("id");
                 PrivateChannel channel = api.getPrivateChannelMap().remove(channelId);
 
                 if (channel == null)
                     channel = api.getFakePrivateChannelMap().remove(channelId);
                 if (channel == null)
                 {
-                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getString("id"), () ->
+                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getLong("id"), () ->
                     {
                         handle(responseNumber, allContent);
                     });
@@ -117,7 +119,7 @@ public class ChannelDeleteHandler extends SocketHandler
                 }
 
                 if (channel.getUser().isFake())
-                    api.getFakeUserMap().remove(channel.getUser().getId());
+                    api.getFakeUserMap().remove(channel.getUser().getIdLong());
 
                 ((UserImpl) channel.getUser()).setPrivateChannel(null);
 
@@ -130,11 +132,11 @@ public class ChannelDeleteHandler extends SocketHandler
             case GROUP:
             {
                 //TODO: close call on group leave (kill audio manager)
-                String groupId = content.getString("id");
+                long groupId = content.getLong("id");
                 GroupImpl group = (GroupImpl) ((JDAClientImpl) api.asClient()).getGroupMap().remove(groupId);
                 if (group == null)
                 {
-                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getString("id"), () ->
+                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getLong("id"), () ->
                     {
                         handle(responseNumber, allContent);
                     });
@@ -142,7 +144,7 @@ public class ChannelDeleteHandler extends SocketHandler
                     return null;
                 }
 
-                group.getUserMap().forEach((userId, user) ->
+                group.getUserMap().forEachEntry((userId, user) ->
                 {
                     //User is fake, has no privateChannel, is not in a relationship, and is not in any other groups
                     // then we remove the fake user from the fake cache as it was only in this group
@@ -154,6 +156,7 @@ public class ChannelDeleteHandler extends SocketHandler
                     {
                         api.getFakeUserMap().remove(userId);
                     }
+                    return true;
                 });
 
                 api.getEventManager().handle(
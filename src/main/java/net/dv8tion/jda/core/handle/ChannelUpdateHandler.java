@@ -27,6 +27,7 @@ import net.dv8tion.jda.core.events.channel.text.update.TextChannelUpdatePermissi
 import net.dv8tion.jda.core.events.channel.text.update.TextChannelUpdatePositionEvent;
 import net.dv8tion.jda.core.events.channel.text.update.TextChannelUpdateTopicEvent;
 import net.dv8tion.jda.core.events.channel.voice.update.*;
+import net.dv8tion.jda.core.utils.PermissionCache;
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -44,7 +45,7 @@ public class ChannelUpdateHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
         ChannelType type = ChannelType.fromId(content.getInt("type"));
         if (type == ChannelType.GROUP)
@@ -66,10 +67,10 @@ public class ChannelUpdateHandler extends SocketHandler
             case TEXT:
             {
                 String topic = content.isNull("topic") ? null : content.getString("topic");
-                TextChannelImpl channel = (TextChannelImpl) api.getTextChannelMap().get(content.getString("id"));
+                TextChannelImpl channel = (TextChannelImpl) api.getTextChannelMap().get(content.getLong("id"));
                 if (channel == null)
                 {
-                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getString("id"), () ->
+                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getLong("id"), () ->
                     {
                         handle(responseNumber, allContent);
                     });
@@ -82,28 +83,40 @@ public class ChannelUpdateHandler extends SocketHandler
                 {
                     String oldName = channel.getName();
                     channel.setName(name);
-                    api.getEventManager().handle(
-                            new TextChannelUpdateNameEvent(
-                                    api, responseNumber,
-                                    channel, oldName));
+                    ((GuildImpl) channel.getGuild()).getTextChannelsMap().reindex(channel.getIdLong());
+                    api.getTextChannelMap().reindex(channel.getIdLong());
+                    if (api.getEventManager().isInterested(TextChannelUpdateNameEvent.class))
+                    {
+                        api.getEventManager().handle(
+                                new TextChannelUpdateNameEvent(
+                                        api, responseNumber,
+                                        channel, oldName));
+                    }
                 }
                 if (!StringUtils.equals(channel.getTopic(), topic))
                 {
                     String oldTopic = channel.getTopic();
                     channel.setTopic(topic);
-                    api.getEventManager().handle(
-                            new TextChannelUpdateTopicEvent(
-                                    api, responseNumber,
-                                    channel, oldTopic));
+                    if (api.getEventManager().isInterested(TextChannelUpdateTopicEvent.class))
+                    {
+                        api.getEventManager().handle(
+                                new TextChannelUpdateTopicEvent(
+                                        api, responseNumber,
+                                        channel, oldTopic));
+                    }
                 }
                 if (channel.getPositionRaw() != position)
                 {
                     int oldPosition = channel.getPositionRaw();
                     channel.setRawPosition(position);
-                    api.getEventManager().handle(
-                            new TextChannelUpdatePositionEvent(
-                                    api, responseNumber,
-                                    channel, oldPosition));
+                    ((GuildImpl) channel.getGuild()).getTextChannelsMap().reindex(channel.getIdLong());
+                    if (api.getEventManager().isInterested(TextChannelUpdatePositionEvent.class))
+                    {
+                        api.getEventManager().handle(
+                                new TextChannelUpdatePositionEvent(
+                                        api, responseNumber,
+                                        channel, oldPosition));
+                    }
                 }
 
                 //Determines if a new PermissionOverride was created or updated.
@@ -132,22 +145,26 @@ public class ChannelUpdateHandler extends SocketHandler
                 if (!changedRoles.isEmpty()
                         || !changedMembers.isEmpty())
                 {
-                    api.getEventManager().handle(
-                            new TextChannelUpdatePermissionsEvent(
-                                    api, responseNumber,
-                                    channel,
-                                    changedRoles, changedMembers));
+                    PermissionCache.invalidate(channel);
+                    if (api.getEventManager().isInterested(TextChannelUpdatePermissionsEvent.class))
+                    {
+                        api.getEventManager().handle(
+                                new TextChannelUpdatePermissionsEvent(
+                                        api, responseNumber,
+                                        channel,
+                                        changedRoles, changedMembers));
+                    }
                 }
                 break;  //Finish the TextChannelUpdate case
             }
             case VOICE:
             {
-                VoiceChannelImpl channel = (VoiceChannelImpl) api.getVoiceChannelMap().get(content.getString("id"));
+                VoiceChannelImpl channel = (VoiceChannelImpl) api.getVoiceChannelMap().get(content.getLong("id"));
                 int userLimit = content.getInt("user_limit");
                 int bitrate = content.getInt("bitrate");
                 if (channel == null)
                 {
-                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getString("id"), () ->
+                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getLong("id"), () ->
                     {
                         handle(responseNumber, allContent);
                     });
@@ -159,37 +176,52 @@ public class ChannelUpdateHandler extends SocketHandler
                 {
                     String oldName = channel.getName();
                     channel.setName(name);
-                    api.getEventManager().handle(
-                            new VoiceChannelUpdateNameEvent(
-                                    api, responseNumber,
-                                    channel, oldName));
+                    ((GuildImpl) channel.getGuild()).getVoiceChannelMap().reindex(channel.getIdLong());
+                    api.getVoiceChannelMap().reindex(channel.getIdLong());
+                    if (api.getEventManager().isInterested(VoiceChannelUpdateNameEvent.class))
+                    {
+                        api.getEventManager().handle(
+                                new VoiceChannelUpdateNameEvent(
+                                        api, responseNumber,
+                                        channel, oldName));
+                    }
                 }
                 if (channel.getPositionRaw() != position)
                 {
                     int oldPosition = channel.getPositionRaw();
                     channel.setRawPosition(position);
-                    api.getEventManager().handle(
-                            new VoiceChannelUpdatePositionEvent(
-                                    api, responseNumber,
-                                    channel, oldPosition));
+                    ((GuildImpl) channel.getGuild()).getVoiceChannelMap().reindex(channel.getIdLong());
+                    if (api.getEventManager().isInterested(VoiceChannelUpdatePositionEvent.class))
+                    {
+                        api.getEventManager().handle(
+                                new VoiceChannelUpdatePositionEvent(
+                                        api, responseNumber,
+                                        channel, oldPosition));
+                    }
                 }
                 if (channel.getUserLimit() != userLimit)
                 {
                     int oldLimit = channel.getUserLimit();
                     channel.setUserLimit(userLimit);
-                    api.getEventManager().handle(
-                            new VoiceChannelUpdateUserLimitEvent(
-                                    api, responseNumber,
-                                    channel, oldLimit));
+                    if (api.getEventManager().isInterested(VoiceChannelUpdateUserLimitEvent.class))
+                    {
+                        api.getEventManager().handle(
+                                new VoiceChannelUpdateUserLimitEvent(
+                                        api, responseNumber,
+                                        channel, oldLimit));
+                    }
                 }
                 if (channel.getBitrate() != bitrate)
                 {
                     int oldBitrate = channel.getBitrate();
                     channel.setBitrate(bitrate);
-                    api.getEventManager().handle(
-                            new VoiceChannelUpdateBitrateEvent(
-                                    api, responseNumber,
-                                    channel, oldBitrate));
+                    if (api.getEventManager().isInterested(VoiceChannelUpdateBitrateEvent.class))
+                    {
+                        api.getEventManager().handle(
+                                new VoiceChannelUpdateBitrateEvent(
+                                        api, responseNumber,
+                                        channel, oldBitrate));
+                    }
                 }
 
                 //Determines if a new PermissionOverride was created or updated.
@@ -218,11 +250,15 @@ public class ChannelUpdateHandler extends SocketHandler
                 if (!changedRoles.isEmpty()
                         || !changedMembers.isEmpty())
                 {
-                    api.getEventManager().handle(
-                            new VoiceChannelUpdatePermissionsEvent(
-                                    api, responseNumber,
-                                    channel,
-                                    changedRoles, changedMembers));
+                    PermissionCache.invalidate(channel);
+                    if (api.getEventManager().isInterested(VoiceChannelUpdatePermissionsEvent.class))
+                    {
+                        api.getEventManager().handle(
+                                new VoiceChannelUpdatePermissionsEvent(
+                                        api, responseNumber,
+                                        channel,
+                                        changedRoles, changedMembers));
+                    }
                 }
                 break;  //Finish the TextChannelUpdate case
             }
@@ -235,7 +271,7 @@ public class ChannelUpdateHandler extends SocketHandler
     private void handlePermissionOverride(JSONObject override, Channel channel, JSONObject content,
                                           List<Role> changedRoles, List<Role> containedRoles,List<Member> changedMembers, List<Member> containedMembers)
     {
-        String id = override.getString("id");
+        long id = override.getLong("id");
         int allow = override.getInt("allow");
         int deny = override.getInt("deny");
 
@@ -276,7 +312,21 @@ public class ChannelUpdateHandler extends SocketHandler
             }
             case "member":
             {
-                Member member = channel.getGuild().getMemberById(override.getString("id"));
+                Member member = channel.getGuild().getMemberById(override.getLong("id"));
+                if (member == null && api.isMemberCacheRestricted())
+                {
+                    //The Member is not cached due to the MemberCachePolicy. Overrides that were loaded with the
+                    // Guild still reference the Member, so update those. New overrides can't be created.
+                    member = channel.getPermissionOverrides().stream()
+                            .map(PermissionOverride::getMember)
+                            .filter(m -> m != null && m.getUser().getIdLong() == id)
+                            .findFirst().orElse(null);
+                    if (member == null)
+                    {
+                        EventCache.LOG.debug("CHANNEL_UPDATE attempted to create a PermissionOverride for an uncached Member. JSON: " + content);
+                        return;
+                    }
+                }
                 if (member == null)
                 {
                     EventCache.get(api).cache(EventCache.Type.USER, id, () ->
@@ -314,10 +364,10 @@ public class ChannelUpdateHandler extends SocketHandler
 
     private void handleGroup(JSONObject content)
     {
-        String groupId = content.getString("id");
+        long groupId = content.getLong("id");
         String name = !content.isNull("name") ? content.getString("name") : null;
         String iconId = !content.isNull("icon") ? content.getString("icon") : null;
-        String ownerId = content.getString("owner_id");
+        long ownerId = content.getLong("owner_id");
 
         GroupImpl group = (GroupImpl) api.asClient().getGroupById(groupId);
         if (group == null)
@@ -336,28 +386,37 @@ public class ChannelUpdateHandler extends SocketHandler
         {
             String oldName = group.getName();
             group.setName(name);
-            api.getEventManager().handle(
-                    new GroupUpdateNameEvent(
-                            api, responseNumber,
-                            group, oldName));
+            if (api.getEventManager().isInterested(GroupUpdateNameEvent.class))
+            {
+                api.getEventManager().handle(
+                        new GroupUpdateNameEvent(
+                                api, responseNumber,
+                                group, oldName));
+            }
         }
         if (!Objects.equals(iconId, group.getIconId()))
         {
             String oldIconId = group.getIconId();
             group.setIconId(iconId);
-            api.getEventManager().handle(
-                    new GroupUpdateIconEvent(
-                            api, responseNumber,
-                            group, oldIconId));
+            if (api.getEventManager().isInterested(GroupUpdateIconEvent.class))
+            {
+                api.getEventManager().handle(
+                        new GroupUpdateIconEvent(
+                                api, responseNumber,
+                                group, oldIconId));
+            }
         }
         if (!Objects.equals(owner, group.getOwner()))
         {
             User oldOwner = group.getOwner();
             group.setOwner(owner);
-            api.getEventManager().handle(
-                    new GroupUpdateOwnerEvent(
-                            api, responseNumber,
-                            group, oldOwner));
+            if (api.getEventManager().isInterested(GroupUpdateOwnerEvent.class))
+            {
+                api.getEventManager().handle(
+                        new GroupUpdateOwnerEvent(
+                                api, responseNumber,
+                                group, oldOwner));
+            }
         }
     }
 }
@@ -23,6 +23,8 @@ import net.dv8tion.jda.core.events.guild.GuildJoinEvent;
 import net.dv8tion.jda.core.events.guild.UnavailableGuildJoinedEvent;
 import org.json.JSONObject;
 
+import java.util.function.Consumer;
+
 public class GuildCreateHandler extends SocketHandler
 {
 
@@ -32,11 +34,28 @@ public class GuildCreateHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
+    {
+        EntityBuilder.get(api).createGuildFirstPass(content, createCallback(responseNumber, content));
+        return null;
+    }
+
+    /**
+     * Creates the callback completing a GUILD_CREATE once its Guild is set up.
+     * <br>Has to be called before the Guild is built, as it checks whether the Guild was known and available before.
+     *
+     * @param  responseNumber
+     *         The response number of the GUILD_CREATE
+     * @param  content
+     *         The guild json
+     *
+     * @return The second pass callback
+     */
+    public Consumer<Guild> createCallback(long responseNumber, JSONObject content)
     {
-        Guild g = api.getGuildById(content.getString("id"));
+        Guild g = api.getGuildById(content.getLong("id"));
         Boolean wasAvail = (g == null || g.getName() == null) ? null : g.isAvailable();
-        EntityBuilder.get(api).createGuildFirstPass(content, guild ->
+        return guild ->
         {
             if (guild.isAvailable())
             {
@@ -52,7 +71,7 @@ public class GuildCreateHandler extends SocketHandler
                                 new GuildJoinEvent(
                                         api, responseNumber,
                                         guild));
-                        EventCache.get(api).playbackCache(EventCache.Type.GUILD, guild.getId());
+                        EventCache.get(api).playbackCache(EventCache.Type.GUILD, guild.getIdLong());
                     }
                     else if (!wasAvail)                     //was previously unavailable
                     {
@@ -82,7 +101,6 @@ public class GuildCreateHandler extends SocketHandler
                                     guild.getId()));
                 }
             }
-        });
-        return null;
+        };
     }
 }
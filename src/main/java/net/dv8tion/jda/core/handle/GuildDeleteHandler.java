@@ -18,11 +18,6 @@ package net.dv8tion.jda.core.handle;
 
 import net.dv8tion.jda.client.JDAClient;
 import net.dv8tion.jda.client.entities.Friend;
-import net.dv8tion.jda.client.entities.Group;
-import net.dv8tion.jda.client.entities.Relationship;
-import net.dv8tion.jda.client.entities.RelationshipType;
-import net.dv8tion.jda.client.entities.impl.JDAClientImpl;
-import net.dv8tion.jda.core.AccountType;
 import net.dv8tion.jda.core.entities.Guild;
 import net.dv8tion.jda.core.entities.User;
 import net.dv8tion.jda.core.entities.impl.*;
@@ -41,14 +36,14 @@ public class GuildDeleteHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
-        if (GuildLock.get(api).isLocked(content.getString("id")))
+        if (GuildLock.get(api).isLocked(content.getLong("id")))
         {
-            return content.getString("id");
+            return content.getLong("id");
         }
 
-        GuildImpl guild = (GuildImpl) api.getGuildMap().get(content.getString("id"));
+        GuildImpl guild = (GuildImpl) api.getGuildMap().get(content.getLong("id"));
 //        AudioManager manager = api.getAudioManagersMap().get(guild);
 //        if (manager != null)
 //            manager.closeAudioConnection();
@@ -68,66 +63,16 @@ public class GuildDeleteHandler extends SocketHandler
 //            api.getAudioManagersMap().remove(guild);
 
         //cleaning up all users that we do not share a guild with anymore
-        // Anything left in memberIds will be removed from the main userMap
-        Set<String> memberIds = guild.getMembersMap().keySet();
-        for (Guild guildI : api.getGuilds())
-        {
-            GuildImpl g = (GuildImpl) guildI;
-            if (g.equals(guild))
-                continue;
-
-            for (Iterator<String> it = memberIds.iterator(); it.hasNext();)
-            {
-
-                if (g.getMembersMap().containsKey(it.next()))
-                    it.remove();
-            }
-        }
-
-        //If we are a client account, be sure to not remove any users from the cache that are Friends.
-        // Remember, everything left in memberIds is removed from the userMap
-        if (api.getAccountType() == AccountType.CLIENT)
-        {
-            HashMap<String, Relationship> relationships = ((JDAClientImpl) api.asClient()).getRelationshipMap();
-            for (Iterator<String> it = memberIds.iterator(); it.hasNext();)
-            {
-                Relationship rel = relationships.get(it.next());
-                if (rel != null && rel.getType() == RelationshipType.FRIEND)
-                    it.remove();
-            }
-        }
-
-        for (String memberId : memberIds)
-        {
-            UserImpl user = (UserImpl) api.getUserMap().remove(memberId);
-            if (user.hasPrivateChannel())
-            {
-                PrivateChannelImpl priv = (PrivateChannelImpl) user.getPrivateChannel();
-                user.setFake(true);
-                priv.setFake(true);
-                api.getFakeUserMap().put(user.getId(), user);
-                api.getFakePrivateChannelMap().put(priv.getId(), priv);
-            }
-            else if (api.getAccountType() == AccountType.CLIENT)
-            {
-                //While the user might not have a private channel, if this is a client account then the user
-                // could be in a Group, and if so we need to change the User object to be fake and
-                // place it in the FakeUserMap
-                for (Group grp : api.asClient().getGroups())
-                {
-                    if (grp.getNonFriendUsers().contains(user))
-                    {
-                        user.setFake(true);
-                        api.getFakeUserMap().put(user.getId(), user);
-                        break; //Breaks from groups loop, not memberIds loop
-                    }
-                }
-            }
-        }
+        // Users that are still Members of another Guild (or Friends) stay in the main userMap
+        guild.detachMembers();
+        for (long memberId : guild.getMembersMap().keys())
+            api.releaseUser(memberId);
 
-        api.getGuildMap().remove(guild.getId());
-        guild.getTextChannels().forEach(chan -> api.getTextChannelMap().remove(chan.getId()));
-        guild.getVoiceChannels().forEach(chan -> api.getVoiceChannelMap().remove(chan.getId()));
+        api.getGuildMap().remove(guild.getIdLong());
+        guild.getTextChannels().forEach(chan -> api.getTextChannelMap().remove(chan.getIdLong()));
+        if (api.getMessageCache() != null)
+            guild.getTextChannels().forEach(chan -> api.getMessageCache().removeChannel(chan.getIdLong()));
+        guild.getVoiceChannels().forEach(chan -> api.getVoiceChannelMap().remove(chan.getIdLong()));
         api.getEventManager().handle(
                 new GuildLeaveEvent(
                         api, responseNumber,
@@ -15,8 +15,6 @@
  */
 package net.dv8tion.jda.core.handle;
 
-import net.dv8tion.jda.client.entities.Group;
-import net.dv8tion.jda.core.AccountType;
 import net.dv8tion.jda.core.entities.VoiceChannel;
 import net.dv8tion.jda.core.entities.impl.*;
 import net.dv8tion.jda.core.events.guild.member.GuildMemberLeaveEvent;
@@ -34,30 +32,36 @@ public class GuildMemberRemoveHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
-        if (GuildLock.get(api).isLocked(content.getString("guild_id")))
+        if (GuildLock.get(api).isLocked(content.getLong("guild_id")))
         {
-            return content.getString("guild_id");
+            return content.getLong("guild_id");
         }
 
-        GuildImpl guild = (GuildImpl) api.getGuildMap().get(content.getString("guild_id"));
+        GuildImpl guild = (GuildImpl) api.getGuildMap().get(content.getLong("guild_id"));
         if(guild == null)
         {
             //We probably just left the guild and this event is trying to remove us from the guild, therefore ignore
             return null;
         }
 
-        String userId = content.getJSONObject("user").getString("id");
+        long userId = content.getJSONObject("user").getLong("id");
         MemberImpl member = (MemberImpl) guild.getMembersMap().remove(userId);
-
-        if (member.getVoiceState().inVoiceChannel())//If this user was in a VoiceChannel, fire VoiceLeaveEvent.
+        guild.getCachedPresenceMap().remove(userId);
+        if (member == null)
         {
+            //The Member was not cached, most likely because of the MemberCachePolicy. Nothing left to clean up.
+            return null;
+        }
+        guild.forgetMemberActivity(userId);
 
-            GuildVoiceStateImpl vState = (GuildVoiceStateImpl) member.getVoiceState();
+        GuildVoiceStateImpl vState = member.getVoiceStateIfPresent();
+        if (vState != null && vState.inVoiceChannel())//If this user was in a VoiceChannel, fire VoiceLeaveEvent.
+        {
             VoiceChannel channel = vState.getChannel();
             vState.setConnectedChannel(null);
-            ((VoiceChannelImpl) channel).getConnectedMembersMap().remove(member);
+            ((VoiceChannelImpl) channel).getConnectedMembersMap().remove(userId);
             //TODO: Implement after deciding how to handle VoiceChannel vs GroupCall for VoiceState.
             //  After further study, might not need to actually have the event or the above code.
 //            api.getEventManager().handle(
@@ -68,34 +72,7 @@ public class GuildMemberRemoveHandler extends SocketHandler
 
         //The user is not in a different guild that we share
         // The user also is not a friend of this account in the case that the logged in account is a client account.
-        if (!api.getGuildMap().values().stream().anyMatch(g -> ((GuildImpl) g).getMembersMap().containsKey(userId))
-                && !(api.getAccountType() == AccountType.CLIENT && api.asClient().getFriendById(userId) != null))
-        {
-            UserImpl user = (UserImpl) api.getUserMap().remove(userId);
-            if (user.hasPrivateChannel())
-            {
-                PrivateChannelImpl priv = (PrivateChannelImpl) user.getPrivateChannel();
-                user.setFake(true);
-                priv.setFake(true);
-                api.getFakeUserMap().put(user.getId(), user);
-                api.getFakePrivateChannelMap().put(priv.getId(), priv);
-            }
-            else if (api.getAccountType() == AccountType.CLIENT)
-            {
-                //While the user might not have a private channel, if this is a client account then the user
-                // could be in a Group, and if so we need to change the User object to be fake and
-                // place it in the FakeUserMap
-                for (Group grp : api.asClient().getGroups())
-                {
-                    if (grp.getNonFriendUsers().contains(user))
-                    {
-                        user.setFake(true);
-                        api.getFakeUserMap().put(user.getId(), user);
-                        break; //Breaks from groups loop
-                    }
-                }
-            }
-        }
+        api.releaseUser(userId);
         api.getEventManager().handle(
                 new GuildMemberLeaveEvent(
                         api, responseNumber,
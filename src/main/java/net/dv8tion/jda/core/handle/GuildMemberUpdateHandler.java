@@ -39,18 +39,18 @@ public class GuildMemberUpdateHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
-        if (GuildLock.get(api).isLocked(content.getString("guild_id")))
+        if (GuildLock.get(api).isLocked(content.getLong("guild_id")))
         {
-            return content.getString("guild_id");
+            return content.getLong("guild_id");
         }
 
         JSONObject userJson = content.getJSONObject("user");
-        GuildImpl guild = (GuildImpl) api.getGuildMap().get(content.getString("guild_id"));
+        GuildImpl guild = (GuildImpl) api.getGuildMap().get(content.getLong("guild_id"));
         if (guild == null)
         {
-            EventCache.get(api).cache(EventCache.Type.GUILD, userJson.getString("id"), () ->
+            EventCache.get(api).cache(EventCache.Type.GUILD, userJson.getLong("id"), () ->
             {
                 handle(responseNumber, allContent);
             });
@@ -58,10 +58,15 @@ public class GuildMemberUpdateHandler extends SocketHandler
             return null;
         }
 
-        MemberImpl member = (MemberImpl) guild.getMembersMap().get(userJson.getString("id"));
+        MemberImpl member = (MemberImpl) guild.getMembersMap().get(userJson.getLong("id"));
+        if (member == null && api.isMemberCacheRestricted())
+        {
+            //The Member is not cached due to the MemberCachePolicy, there is nothing to update.
+            return null;
+        }
         if (member == null)
         {
-            EventCache.get(api).cache(EventCache.Type.USER, userJson.getString("id"), () ->
+            EventCache.get(api).cache(EventCache.Type.USER, userJson.getLong("id"), () ->
             {
                 handle(responseNumber, allContent);
             });
@@ -69,7 +74,7 @@ public class GuildMemberUpdateHandler extends SocketHandler
             return null;
         }
 
-        Set<Role> currentRoles = member.getRoleSet();
+        List<Role> currentRoles = member.getRoles();
         List<Role> newRoles = toRolesList(guild, content.getJSONArray("roles"));
 
         //If newRoles is null that means that we didn't find a role that was in the array and was cached this event
@@ -95,19 +100,16 @@ public class GuildMemberUpdateHandler extends SocketHandler
                 removedRoles.add(role);
         }
 
-        if (removedRoles.size() > 0)
-            currentRoles.removeAll(removedRoles);
-        if (newRoles.size() > 0)
-            currentRoles.addAll(newRoles);
+        guild.updateMemberRoles(member, removedRoles, newRoles);
 
-        if (removedRoles.size() > 0)
+        if (removedRoles.size() > 0 && api.getEventManager().isInterested(GuildMemberRoleRemoveEvent.class))
         {
             api.getEventManager().handle(
                     new GuildMemberRoleRemoveEvent(
                             api, responseNumber,
                             guild, member, removedRoles));
         }
-        if (newRoles.size() > 0)
+        if (newRoles.size() > 0 && api.getEventManager().isInterested(GuildMemberRoleAddEvent.class))
         {
             api.getEventManager().handle(
                     new GuildMemberRoleAddEvent(
@@ -121,10 +123,14 @@ public class GuildMemberUpdateHandler extends SocketHandler
             if (!StringUtils.equals(prevNick, newNick))
             {
                 member.setNickname(newNick);
-                api.getEventManager().handle(
-                        new GuildMemberNickChangeEvent(
-                                api, responseNumber,
-                                guild, member, prevNick, newNick));
+                guild.getMembersMap().reindex(member.getUser().getIdLong());
+                if (api.getEventManager().isInterested(GuildMemberNickChangeEvent.class))
+                {
+                    api.getEventManager().handle(
+                            new GuildMemberNickChangeEvent(
+                                    api, responseNumber,
+                                    guild, member, prevNick, newNick));
+                }
             }
         }
         return null;
@@ -135,14 +141,15 @@ public class GuildMemberUpdateHandler extends SocketHandler
         LinkedList<Role> roles = new LinkedList<>();
         for(int i = 0; i < array.length(); i++)
         {
-            Role r = guild.getRolesMap().get(array.getString(i));
+            final long id = array.getLong(i);
+            Role r = guild.getRolesMap().get(id);
             if (r != null)
             {
                 roles.add(r);
             }
             else
             {
-                EventCache.get(api).cache(EventCache.Type.ROLE, array.getString(i), () ->
+                EventCache.get(api).cache(EventCache.Type.ROLE, id, () ->
                 {
                     handle(responseNumber, allContent);
                 });
@@ -16,20 +16,40 @@
 
 package net.dv8tion.jda.core.handle;
 
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import net.dv8tion.jda.core.entities.EntityBuilder;
+import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.Member;
+import net.dv8tion.jda.core.entities.impl.GuildImpl;
 import net.dv8tion.jda.core.entities.impl.JDAImpl;
+import net.dv8tion.jda.core.events.guild.GuildMembersChunkEvent;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
 
 public class GuildMembersChunkHandler extends SocketHandler
 {
-    HashMap<String, Integer> expectedGuildMembers = new HashMap<>();
-    HashMap<String, List<JSONArray>> memberChunksCache = new HashMap<>();
+    /** Seconds after which a member request that Discord did not answer is failed. */
+    public static final long MEMBER_REQUEST_TIMEOUT = 30;
+    //Milliseconds queued member loads of a Guild are collected before they are requested
+    private static final long MEMBER_LOAD_DELAY = 500;
+    //The maximum amount of user ids in one member request
+    private static final int MAX_REQUESTED_IDS = 100;
 
+    TLongIntMap expectedGuildMembers = new TLongIntHashMap();
+    TLongIntMap receivedGuildMembers = new TLongIntHashMap();
+    final Map<String, MemberRequest> memberRequests = new HashMap<>();
+    final Map<String, MemberRequest> memberRequestsByNonce = new HashMap<>();
+    final TLongObjectMap<TLongSet> queuedMemberLoads = new TLongObjectHashMap<>();
+    long nextNonce = 0;
 
     public GuildMembersChunkHandler(JDAImpl api)
     {
@@ -37,60 +57,311 @@ public class GuildMembersChunkHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
-        String guildId = content.getString("guild_id");
-        List<JSONArray> memberChunks = memberChunksCache.get(guildId);
-        Integer expectMemberCount = (Integer) expectedGuildMembers.get(guildId);
+        long guildId = content.getLong("guild_id");
+        if (content.has("nonce") && !content.isNull("nonce"))
+        {
+            handleRequestedChunk(guildId, content);
+            return null;
+        }
+
+        if (!expectedGuildMembers.containsKey(guildId))
+        {
+            JDAImpl.LOG.debug("Received a GUILD_MEMBERS_CHUNK for a Guild that is not being chunked. GuildId: " + guildId);
+            return null;
+        }
 
         JSONArray members = content.getJSONArray("members");
         JDAImpl.LOG.debug("GUILD_MEMBER_CHUNK for: " + guildId + " \tMembers: " + members.length());
-        memberChunks.add(members);
 
-        int currentTotal = 0;
-        for (JSONArray arr : memberChunks)
-        {
-            currentTotal += arr.length();
-        }
+        //Members are built right away so the chunk can be dropped as soon as this method returns.
+        EntityBuilder.get(api).createGuildMemberChunk(guildId, members);
+        int currentTotal = receivedGuildMembers.adjustOrPutValue(guildId, members.length(), members.length());
+        int expectMemberCount = expectedGuildMembers.get(guildId);
+
+        Guild guild = api.getGuildMap().get(guildId);
+        api.getEventManager().handle(
+                new GuildMembersChunkEvent(
+                        api, responseNumber,
+                        guild, members.length(), currentTotal, expectMemberCount));
 
         if (currentTotal >= expectMemberCount)
         {
             JDAImpl.LOG.debug("Finished chunking for: " + guildId);
-            EntityBuilder.get(api).createGuildSecondPass(guildId, memberChunks);
-            memberChunksCache.remove(guildId);
             expectedGuildMembers.remove(guildId);
+            receivedGuildMembers.remove(guildId);
+            EntityBuilder.get(api).createGuildSecondPass(guildId);
         }
         return null;
     }
 
-    public void setExpectedGuildMembers(String guildId, int count)
+    /**
+     * Sends an op 8 member request for the provided Guild. The response is correlated by the nonce of the request,
+     * identical requests that are still pending share one request.
+     *
+     * @param guild
+     *        The Guild to request the members of
+     * @param query
+     *        The name prefix, or null if userIds is used
+     * @param userIds
+     *        The ids of the requested members, or null if query is used
+     * @param limit
+     *        The maximum amount of members
+     *
+     * @return A future completed with the members of all chunks of the response, or completed exceptionally with a
+     *         {@link java.util.concurrent.TimeoutException TimeoutException} if the response did not arrive within
+     *         {@value #MEMBER_REQUEST_TIMEOUT} seconds
+     */
+    public CompletableFuture<List<Member>> requestMembers(GuildImpl guild, String query, long[] userIds, int limit)
+    {
+        String key;
+        if (userIds != null)
+        {
+            long[] sorted = userIds.clone();
+            Arrays.sort(sorted);
+            key = guild.getId() + ":ids:" + Arrays.toString(sorted);
+        }
+        else
+        {
+            key = guild.getId() + ":query:" + limit + ":" + query;
+        }
+
+        MemberRequest request;
+        synchronized (memberRequests)
+        {
+            request = memberRequests.get(key);
+            if (request != null)
+                return request.future.thenApply(Function.identity());
+
+            request = new MemberRequest(key, Long.toString(nextNonce++));
+            memberRequests.put(key, request);
+            memberRequestsByNonce.put(request.nonce, request);
+            final MemberRequest expiring = request;
+            request.timeout = TimeoutHolder.SCHEDULER.schedule(() -> expireRequest(expiring), MEMBER_REQUEST_TIMEOUT, TimeUnit.SECONDS);
+        }
+
+        JSONObject data = new JSONObject()
+                .put("guild_id", guild.getId())
+                .put("limit", limit)
+                .put("nonce", request.nonce);
+        if (userIds != null)
+        {
+            JSONArray ids = new JSONArray();
+            for (long id : userIds)
+                ids.put(Long.toUnsignedString(id));
+            data.put("user_ids", ids);
+        }
+        else
+        {
+            data.put("query", query);
+        }
+        api.getClient().send(new JSONObject()
+                .put("op", 8)
+                .put("d", data).toString());
+
+        //Every caller gets its own dependent future, so cancelling one does not affect the others
+        return request.future.thenApply(Function.identity());
+    }
+
+    /**
+     * Queues an uncached member to be loaded. The queued members of a Guild are collected for a short time and then
+     * loaded using {@link #requestMembers(GuildImpl, String, long[], int) member requests}, so the Members are
+     * created on the websocket thread.
+     * <br>The cached presence of a queued member is applied when it is created and removed if it was not returned.
+     *
+     * @param guild
+     *        The Guild of the member
+     * @param userId
+     *        The id of the member
+     */
+    public void queueMemberLoad(GuildImpl guild, long userId)
+    {
+        long guildId = guild.getIdLong();
+        synchronized (queuedMemberLoads)
+        {
+            TLongSet queued = queuedMemberLoads.get(guildId);
+            if (queued != null)
+            {
+                queued.add(userId);
+                return;
+            }
+            queued = new TLongHashSet();
+            queued.add(userId);
+            queuedMemberLoads.put(guildId, queued);
+        }
+        TimeoutHolder.SCHEDULER.schedule(() -> loadQueuedMembers(guildId), MEMBER_LOAD_DELAY, TimeUnit.MILLISECONDS);
+    }
+
+    private void loadQueuedMembers(long guildId)
+    {
+        TLongSet queued;
+        synchronized (queuedMemberLoads)
+        {
+            queued = queuedMemberLoads.remove(guildId);
+        }
+        GuildImpl guild = (GuildImpl) api.getGuildMap().get(guildId);
+        if (queued == null || guild == null)
+            return;
+
+        long[] userIds = queued.toArray();
+        for (int i = 0; i < userIds.length; i += MAX_REQUESTED_IDS)
+        {
+            long[] batch = Arrays.copyOfRange(userIds, i, Math.min(userIds.length, i + MAX_REQUESTED_IDS));
+            requestMembers(guild, null, batch, batch.length).whenComplete((members, error) ->
+            {
+                if (error != null)
+                    JDAImpl.LOG.debug("Could not load queued members of Guild " + guild.getId() + ": " + error);
+                //Members that were returned already took their presence, the others are not loaded
+                for (long userId : batch)
+                {
+                    if (!isMemberLoadQueued(guildId, userId))
+                        guild.getCachedPresenceMap().remove(userId);
+                }
+            });
+        }
+    }
+
+    private boolean isMemberLoadQueued(long guildId, long userId)
+    {
+        synchronized (queuedMemberLoads)
+        {
+            TLongSet queued = queuedMemberLoads.get(guildId);
+            return queued != null && queued.contains(userId);
+        }
+    }
+
+    private void handleRequestedChunk(long guildId, JSONObject content)
+    {
+        String nonce = content.getString("nonce");
+        MemberRequest request;
+        synchronized (memberRequests)
+        {
+            request = memberRequestsByNonce.get(nonce);
+        }
+        if (request == null)
+        {
+            JDAImpl.LOG.debug("Received a GUILD_MEMBERS_CHUNK for an unknown member request. Nonce: " + nonce);
+            return;
+        }
+
+        GuildImpl guild = (GuildImpl) api.getGuildMap().get(guildId);
+        if (guild == null)
+        {
+            removeRequest(request);
+            request.future.completeExceptionally(new IllegalStateException("The Guild of a member request is no longer available. GuildId: " + guildId));
+            return;
+        }
+
+        EntityBuilder builder = EntityBuilder.get(api);
+        JSONArray members = content.getJSONArray("members");
+        for (int i = 0; i < members.length(); i++)
+            request.members.add(builder.createMember(guild, members.getJSONObject(i)));
+
+        //Older gateway versions send a single chunk without chunk_count
+        request.receivedChunks++;
+        if (request.receivedChunks >= content.optInt("chunk_count", 1))
+        {
+            removeRequest(request);
+            request.future.complete(Collections.unmodifiableList(request.members));
+        }
+    }
+
+    private void removeRequest(MemberRequest request)
+    {
+        synchronized (memberRequests)
+        {
+            memberRequests.remove(request.key);
+            memberRequestsByNonce.remove(request.nonce);
+        }
+        request.timeout.cancel(false);
+    }
+
+    private void expireRequest(MemberRequest request)
+    {
+        synchronized (memberRequests)
+        {
+            //Already answered or cleared
+            if (memberRequestsByNonce.get(request.nonce) != request)
+                return;
+            memberRequests.remove(request.key);
+            memberRequestsByNonce.remove(request.nonce);
+        }
+        request.future.completeExceptionally(new TimeoutException("Did not receive the requested members within "
+                + MEMBER_REQUEST_TIMEOUT + " seconds. Request: " + request.key));
+    }
+
+    public void setExpectedGuildMembers(long guildId, int count)
     {
-        if (expectedGuildMembers.get(guildId) != null)
+        if (expectedGuildMembers.containsKey(guildId))
             JDAImpl.LOG.warn("Set the count of expected users from GuildMembersChunk even though a value already exists! GuildId: " + guildId);
 
         expectedGuildMembers.put(guildId, count);
 
-        if (memberChunksCache.get(guildId) != null)
+        if (receivedGuildMembers.containsKey(guildId))
             JDAImpl.LOG.warn("Set the memberChunks for MemberChunking for a guild that was already setup for chunking! GuildId: " + guildId);
 
-        memberChunksCache.put(guildId, new LinkedList<>());
+        receivedGuildMembers.put(guildId, 0);
     }
 
-    public void modifyExpectedGuildMember(String guildId, int changeAmount)
+    public void modifyExpectedGuildMember(long guildId, int changeAmount)
     {
-        try
-        {
-            Integer i = (Integer) expectedGuildMembers.get(guildId);
-            i += changeAmount;
-            expectedGuildMembers.put(guildId, i);
-        }
-        //Ignore. If one of the above things doesn't exist, causing an NPE, then we don't need to worry.
-        catch (NullPointerException ignored) {}
+        //Ignore. If the guild isn't currently being chunked, then we don't need to worry.
+        expectedGuildMembers.adjustValue(guildId, changeAmount);
     }
 
     public void clearCache()
     {
         expectedGuildMembers.clear();
-        memberChunksCache.clear();
+        receivedGuildMembers.clear();
+        synchronized (queuedMemberLoads)
+        {
+            queuedMemberLoads.clear();
+        }
+
+        List<MemberRequest> pending;
+        synchronized (memberRequests)
+        {
+            pending = new ArrayList<>(memberRequests.values());
+            memberRequests.clear();
+            memberRequestsByNonce.clear();
+        }
+        for (MemberRequest request : pending)
+        {
+            request.timeout.cancel(false);
+            request.future.completeExceptionally(new IllegalStateException("The session was invalidated before the requested members were received"));
+        }
+    }
+
+    private static class MemberRequest
+    {
+        final String key;
+        final String nonce;
+        final CompletableFuture<List<Member>> future = new CompletableFuture<>();
+        final List<Member> members = new ArrayList<>();
+        int receivedChunks = 0;
+        ScheduledFuture<?> timeout;
+
+        MemberRequest(String key, String nonce)
+        {
+            this.key = key;
+            this.nonce = nonce;
+        }
+    }
+
+    //Lazily started, shared by all JDA instances
+    private static class TimeoutHolder
+    {
+        private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, r ->
+        {
+            Thread t = new Thread(r, "JDA MemberRequest Timeout");
+            t.setDaemon(true);
+            return t;
+        });
+
+        static
+        {
+            SCHEDULER.setRemoveOnCancelPolicy(true);
+        }
     }
 }
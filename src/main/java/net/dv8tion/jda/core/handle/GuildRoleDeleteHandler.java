@@ -24,6 +24,7 @@ import net.dv8tion.jda.core.events.role.RoleDeleteEvent;
 import net.dv8tion.jda.core.requests.GuildLock;
 import org.json.JSONObject;
 
+import java.util.Collections;
 import java.util.List;
 
 public class GuildRoleDeleteHandler extends SocketHandler
@@ -35,9 +36,9 @@ public class GuildRoleDeleteHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
-        String guildId = content.getString("guild_id");
+        long guildId = content.getLong("guild_id");
         if (GuildLock.get(api).isLocked(guildId))
         {
             return guildId;
@@ -54,10 +55,10 @@ public class GuildRoleDeleteHandler extends SocketHandler
             return null;
         }
 
-        Role removedRole = guild.getRolesMap().remove(content.getString("role_id"));
+        Role removedRole = guild.getRolesMap().remove(content.getLong("role_id"));
         if (removedRole == null)
         {
-            EventCache.get(api).cache(EventCache.Type.ROLE, content.getString("role_id"), () ->
+            EventCache.get(api).cache(EventCache.Type.ROLE, content.getLong("role_id"), () ->
             {
                 handle(responseNumber, allContent);
             });
@@ -65,12 +66,14 @@ public class GuildRoleDeleteHandler extends SocketHandler
             return null;
         }
 
-        //Now that the role is removed from the Guild, remove it from all users.
-        for (Member m : guild.getMembersMap().values())
+        //Now that the role is removed from the Guild, remove it from all users that had it.
+        for (Member m : guild.getRoleMemberIndex().getMembersWithRoles(Collections.singleton(removedRole), Collections.emptyList()))
         {
             MemberImpl member = (MemberImpl) m;
-            member.getRoleSet().remove(removedRole);
+            member.removeRoles(Collections.singleton(removedRole));
         }
+        guild.getRoleMemberIndex().removeRole(removedRole.getIdLong());
+        guild.increasePermissionVersion();
         api.getEventManager().handle(
                 new RoleDeleteEvent(
                         api, responseNumber,
@@ -0,0 +1,225 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.core.handle;
+
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import net.dv8tion.jda.core.entities.EntityBuilder;
+import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.impl.GuildImpl;
+import net.dv8tion.jda.core.entities.impl.JDAImpl;
+import net.dv8tion.jda.core.requests.WebSocketClient;
+import org.json.JSONObject;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Builds the Guilds of the GUILD_CREATE burst that follows READY in parallel.
+ * <br>The entities of every Guild are created on the guild setup pool of JDA, after which the first pass is finished
+ * in the order the GUILD_CREATEs were received. This keeps the bookkeeping of the {@link ReadyHandler}, the
+ * {@link net.dv8tion.jda.core.requests.GuildLock GuildLock} and all fired events in the same order as if the Guilds
+ * were built one after another. Finishing is serialized and done by the pool thread that completed the oldest
+ * pending build.
+ * <br>All other events have to wait for the pending Guilds using {@link #await()} before they are handled.
+ */
+public class GuildSetupPipeline
+{
+    private final JDAImpl api;
+    private final ArrayDeque<PendingGuild> pending = new ArrayDeque<>();
+    private final TLongSet pendingGuilds = new TLongHashSet();
+    private final AtomicBoolean finishing = new AtomicBoolean(false);
+    private volatile Thread finishingThread;
+
+    public GuildSetupPipeline(JDAImpl api)
+    {
+        this.api = api;
+    }
+
+    /**
+     * Starts building the Guild of a GUILD_CREATE on the guild setup pool.
+     *
+     * @param  responseNumber
+     *         The response number of the GUILD_CREATE
+     * @param  raw
+     *         The GUILD_CREATE event
+     *
+     * @return False, if the GUILD_CREATE could not be submitted and has to be handled by the caller after {@link #await()}
+     */
+    public boolean submit(long responseNumber, JSONObject raw)
+    {
+        ForkJoinPool pool = api.getGuildSetupPool();
+        if (pool == null || isFinishingThread())
+            return false;
+
+        JSONObject content = raw.getJSONObject("d");
+        long guildId = content.getLong("id");
+        PendingGuild guild;
+        synchronized (this)
+        {
+            //Two GUILD_CREATEs of the same Guild may not be built concurrently
+            if (pendingGuilds.contains(guildId))
+                return false;
+            GuildCreateHandler handler = api.getClient().getHandler("GUILD_CREATE");
+            guild = new PendingGuild(guildId, content, handler.createCallback(responseNumber, content));
+            pending.add(guild);
+            pendingGuilds.add(guildId);
+        }
+
+        try
+        {
+            pool.execute(() -> build(guild));
+        }
+        catch (RejectedExecutionException e)
+        {
+            synchronized (this)
+            {
+                pending.remove(guild);
+                pendingGuilds.remove(guildId);
+                notifyAll();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Blocks until all submitted Guilds are finished.
+     * <br>Returns immediately when called while finishing a Guild, for example when the
+     * {@link net.dv8tion.jda.core.requests.GuildLock GuildLock} replays the events of an unlocked Guild.
+     */
+    public void await()
+    {
+        if (isFinishingThread())
+            return;
+        synchronized (this)
+        {
+            while (!pending.isEmpty())
+            {
+                try
+                {
+                    wait();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    public boolean isFinishingThread()
+    {
+        return finishingThread == Thread.currentThread();
+    }
+
+    private void build(PendingGuild guild)
+    {
+        try
+        {
+            guild.guildObj = EntityBuilder.get(api).buildGuild(guild.content);
+        }
+        catch (Exception e)
+        {
+            guild.failure = e;
+        }
+        guild.built = true;
+        finishBuilt();
+    }
+
+    private void finishBuilt()
+    {
+        //Only one thread finishes at a time, the others return to building instead of waiting for it
+        while (finishing.compareAndSet(false, true))
+        {
+            finishingThread = Thread.currentThread();
+            try
+            {
+                finishBuiltHeads();
+            }
+            finally
+            {
+                finishingThread = null;
+                finishing.set(false);
+            }
+
+            //A build that completed while the flag was still set left finishing to us
+            synchronized (this)
+            {
+                PendingGuild head = pending.peek();
+                if (head == null || !head.built)
+                    return;
+            }
+        }
+    }
+
+    private void finishBuiltHeads()
+    {
+        while (true)
+        {
+            PendingGuild head;
+            synchronized (this)
+            {
+                head = pending.peek();
+                if (head == null || !head.built)
+                    return;
+            }
+
+            try
+            {
+                if (head.failure != null)
+                    throw head.failure;
+                EntityBuilder.get(api).finishGuildFirstPass(head.guildObj, head.content, head.callback);
+            }
+            catch (Exception e)
+            {
+                WebSocketClient.LOG.warn("Could not set up Guild " + head.guildId);
+                WebSocketClient.LOG.log(e);
+            }
+            finally
+            {
+                synchronized (this)
+                {
+                    pending.poll();
+                    pendingGuilds.remove(head.guildId);
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    private static class PendingGuild
+    {
+        private final long guildId;
+        private final JSONObject content;
+        private final Consumer<Guild> callback;
+        private GuildImpl guildObj;
+        private Exception failure;
+        private volatile boolean built = false;
+
+        private PendingGuild(long guildId, JSONObject content, Consumer<Guild> callback)
+        {
+            this.guildId = guildId;
+            this.content = content;
+            this.callback = callback;
+        }
+    }
+}
@@ -37,15 +37,15 @@ public class GuildUpdateHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
-        if (GuildLock.get(api).isLocked(content.getString("id")))
+        if (GuildLock.get(api).isLocked(content.getLong("id")))
         {
-            return content.getString("id");
+            return content.getLong("id");
         }
 
-        GuildImpl guild = (GuildImpl) api.getGuildMap().get(content.getString("id"));
-        Member owner = guild.getMembersMap().get(content.getString("owner_id"));
+        GuildImpl guild = (GuildImpl) api.getGuildMap().get(content.getLong("id"));
+        long ownerId = content.getLong("owner_id");
         String name = content.getString("name");
         String iconId = !content.isNull("icon") ? content.getString("icon") : null;
         String splashId = !content.isNull("splash") ? content.getString("splash") : null;
@@ -55,22 +55,36 @@ public class GuildUpdateHandler extends SocketHandler
         Guild.MFALevel mfaLevel = Guild.MFALevel.fromKey(content.getInt("mfa_level"));
         Guild.Timeout afkTimeout = Guild.Timeout.fromKey(content.getInt("afk_timeout"));
         VoiceChannel afkChannel = !content.isNull("afk_channel_id")
-                ? guild.getVoiceChannelMap().get(content.getString("afk_channel_id"))
+                ? guild.getVoiceChannelMap().get(content.getLong("afk_channel_id"))
                 : null;
 
-        if (!Objects.equals(owner, guild.getOwner()))
+        if (ownerId != guild.getOwnerIdLong() || guild.getOwner() == null)
         {
-            Member oldOwner = guild.getOwner();
-            guild.setOwner(owner);
-            api.getEventManager().handle(
-                    new GuildUpdateOwnerEvent(
-                        api, responseNumber,
-                        guild, oldOwner));
+            //The owner is always cached, but the new owner might not have been cached due to the MemberCachePolicy.
+            // Setting the id first keeps it cached once loaded. The old owner is kept until then.
+            guild.setOwnerId(ownerId);
+            Member owner = guild.getMembersMap().get(ownerId);
+            if (owner != null)
+            {
+                updateOwner(guild, owner, responseNumber);
+            }
+            else
+            {
+                final long responseTotal = responseNumber;
+                guild.retrieveMemberById(ownerId).queue(
+                    member ->
+                    {
+                        if (guild.getOwnerIdLong() == ownerId)
+                            updateOwner(guild, member, responseTotal);
+                    },
+                    t -> WebSocketClient.LOG.warn("Could not load the new owner " + ownerId + " of Guild " + guild.getId() + ": " + t));
+            }
         }
         if (!Objects.equals(name, guild.getName()))
         {
             String oldName = guild.getName();
             guild.setName(name);
+            api.getGuildMap().reindex(guild.getIdLong());
             api.getEventManager().handle(
                     new GuildUpdateNameEvent(
                             api, responseNumber,
@@ -150,4 +164,19 @@ public class GuildUpdateHandler extends SocketHandler
         }
         return null;
     }
+
+    private void updateOwner(GuildImpl guild, Member owner, long responseNumber)
+    {
+        Member oldOwner = guild.getOwner();
+        if (owner.equals(oldOwner))
+            return;
+        guild.setOwner(owner);
+        //The old owner is no longer pinned in the cache
+        if (oldOwner != null && guild.getMembersMap().containsKey(oldOwner.getUser().getIdLong()))
+            guild.updateMemberCache(oldOwner);
+        api.getEventManager().handle(
+                new GuildUpdateOwnerEvent(
+                    api, responseNumber,
+                    guild, oldOwner));
+    }
 }
@@ -16,13 +16,17 @@
 
 package net.dv8tion.jda.core.handle;
 
+import net.dv8tion.jda.core.entities.Message;
 import net.dv8tion.jda.core.entities.TextChannel;
 import net.dv8tion.jda.core.entities.impl.JDAImpl;
+import net.dv8tion.jda.core.entities.impl.MessageCache;
 import net.dv8tion.jda.core.events.message.MessageBulkDeleteEvent;
 import net.dv8tion.jda.core.requests.GuildLock;
 import org.json.JSONObject;
 
+import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
 
 public class MessageBulkDeleteHandler extends SocketHandler
 {
@@ -32,9 +36,9 @@ public class MessageBulkDeleteHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
-        String channelId = content.getString("channel_id");
+        long channelId = content.getLong("channel_id");
 
         if (api.isBulkDeleteSplittingEnabled())
         {
@@ -61,17 +65,19 @@ public class MessageBulkDeleteHandler extends SocketHandler
                 return null;
             }
 
-            if (GuildLock.get(api).isLocked(channel.getGuild().getId()))
+            if (GuildLock.get(api).isLocked(channel.getGuild().getIdLong()))
             {
-                return channel.getGuild().getId();
+                return channel.getGuild().getIdLong();
             }
 
             LinkedList<String> msgIds = new LinkedList<>();
             content.getJSONArray("ids").forEach(id -> msgIds.add((String) id));
+            MessageCache cache = api.getMessageCache();
+            List<Message> cachedMessages = cache == null ? Collections.emptyList() : cache.removeAll(msgIds);
             api.getEventManager().handle(
                     new MessageBulkDeleteEvent(
                             api, responseNumber,
-                            channel, msgIds));
+                            channel, msgIds, cachedMessages));
         }
         return null;
     }
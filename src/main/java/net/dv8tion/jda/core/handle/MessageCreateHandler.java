@@ -17,7 +17,9 @@ package net.dv8tion.jda.core.handle;
 
 import net.dv8tion.jda.client.events.message.group.GroupMessageReceivedEvent;
 import net.dv8tion.jda.core.entities.*;
+import net.dv8tion.jda.core.entities.impl.GuildImpl;
 import net.dv8tion.jda.core.entities.impl.JDAImpl;
+import net.dv8tion.jda.core.entities.impl.MessageCache;
 //import net.dv8tion.jda.core.events.InviteReceivedEvent;
 import net.dv8tion.jda.core.events.message.MessageReceivedEvent;
 //import net.dv8tion.jda.core.events.message.guild.GuildMessageReceivedEvent;
@@ -41,7 +43,7 @@ public class MessageCreateHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
         MessageType type = MessageType.fromId(content.getInt("type"));
 
@@ -55,7 +57,7 @@ public class MessageCreateHandler extends SocketHandler
         return null;
     }
 
-    private String handleDefaultMessage(JSONObject content)
+    private Long handleDefaultMessage(JSONObject content)
     {
         Message message;
         try
@@ -68,7 +70,7 @@ public class MessageCreateHandler extends SocketHandler
             {
                 case EntityBuilder.MISSING_CHANNEL:
                 {
-                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getString("channel_id"), () ->
+                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getLong("channel_id"), () ->
                     {
                         handle(responseNumber, allContent);
                     });
@@ -77,7 +79,7 @@ public class MessageCreateHandler extends SocketHandler
                 }
                 case EntityBuilder.MISSING_USER:
                 {
-                    EventCache.get(api).cache(EventCache.Type.USER, content.getJSONObject("author").getString("id"), () ->
+                    EventCache.get(api).cache(EventCache.Type.USER, content.getJSONObject("author").getLong("id"), () ->
                     {
                         handle(responseNumber, allContent);
                     });
@@ -94,10 +96,14 @@ public class MessageCreateHandler extends SocketHandler
             case TEXT:
             {
                 TextChannel channel = message.getTextChannel();
-                if (GuildLock.get(api).isLocked(channel.getGuild().getId()))
+                if (GuildLock.get(api).isLocked(channel.getGuild().getIdLong()))
                 {
-                    return channel.getGuild().getId();
+                    return channel.getGuild().getIdLong();
                 }
+                GuildImpl guild = (GuildImpl) channel.getGuild();
+                Member member = guild.getMemberById(message.getAuthor().getIdLong());
+                if (member != null)
+                    guild.touchMember(member);
                 api.getEventManager().handle(
                         new GuildMessageReceivedEvent(
                                 api, responseNumber,
@@ -125,6 +131,10 @@ public class MessageCreateHandler extends SocketHandler
                 return null;
         }
 
+        MessageCache cache = api.getMessageCache();
+        if (cache != null)
+            cache.put(content);
+
         //Combo event
         api.getEventManager().handle(
                 new MessageReceivedEvent(
@@ -18,10 +18,12 @@ package net.dv8tion.jda.core.handle;
 import net.dv8tion.jda.client.entities.Group;
 import net.dv8tion.jda.client.events.message.group.GroupMessageDeleteEvent;
 import net.dv8tion.jda.core.AccountType;
+import net.dv8tion.jda.core.entities.Message;
 import net.dv8tion.jda.core.entities.MessageChannel;
 import net.dv8tion.jda.core.entities.PrivateChannel;
 import net.dv8tion.jda.core.entities.TextChannel;
 import net.dv8tion.jda.core.entities.impl.JDAImpl;
+import net.dv8tion.jda.core.entities.impl.MessageCache;
 import net.dv8tion.jda.core.entities.impl.UserImpl;
 import net.dv8tion.jda.core.events.message.MessageDeleteEvent;
 import net.dv8tion.jda.core.events.message.guild.GuildMessageDeleteEvent;
@@ -38,10 +40,10 @@ public class MessageDeleteHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
         String messageId = content.getString("id");
-        String channelId = content.getString("channel_id");
+        long channelId = content.getLong("channel_id");
 
         MessageChannel channel = api.getTextChannelById(channelId);
         if (channel == null)
@@ -63,35 +65,42 @@ public class MessageDeleteHandler extends SocketHandler
         if (channel instanceof TextChannel)
         {
             TextChannel tChan = (TextChannel) channel;
-            if (GuildLock.get(api).isLocked(tChan.getGuild().getId()))
+            if (GuildLock.get(api).isLocked(tChan.getGuild().getIdLong()))
             {
-                return tChan.getGuild().getId();
+                return tChan.getGuild().getIdLong();
             }
+        }
+
+        MessageCache cache = api.getMessageCache();
+        Message message = cache == null ? null : cache.remove(Long.parseLong(messageId));
+
+        if (channel instanceof TextChannel)
+        {
             api.getEventManager().handle(
                     new GuildMessageDeleteEvent(
                             api, responseNumber,
-                            messageId, tChan));
+                            messageId, (TextChannel) channel, message));
         }
         else if (channel instanceof PrivateChannel)
         {
             api.getEventManager().handle(
                     new PrivateMessageDeleteEvent(
                             api, responseNumber,
-                            messageId, (PrivateChannel) channel));
+                            messageId, (PrivateChannel) channel, message));
         }
         else
         {
             api.getEventManager().handle(
                     new GroupMessageDeleteEvent(
                             api, responseNumber,
-                            messageId, (Group) channel));
+                            messageId, (Group) channel, message));
         }
 
         //Combo event
         api.getEventManager().handle(
                 new MessageDeleteEvent(
                         api, responseNumber,
-                        messageId, channel));
+                        messageId, channel, message));
         return null;
     }
 }
@@ -21,6 +21,7 @@ import net.dv8tion.jda.client.events.message.group.GroupMessageUpdateEvent;
 import net.dv8tion.jda.core.AccountType;
 import net.dv8tion.jda.core.entities.*;
 import net.dv8tion.jda.core.entities.impl.JDAImpl;
+import net.dv8tion.jda.core.entities.impl.MessageCache;
 import net.dv8tion.jda.core.events.message.MessageEmbedEvent;
 import net.dv8tion.jda.core.events.message.MessageUpdateEvent;
 import net.dv8tion.jda.core.events.message.guild.GuildMessageEmbedEvent;
@@ -43,7 +44,7 @@ public class MessageUpdateHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
         if (content.has("author"))
         {
@@ -76,7 +77,7 @@ public class MessageUpdateHandler extends SocketHandler
             return handleMessageEmbed(content);
     }
 
-    private String handleDefaultMessage(JSONObject content)
+    private Long handleDefaultMessage(JSONObject content)
     {
         Message message;
         try
@@ -89,7 +90,7 @@ public class MessageUpdateHandler extends SocketHandler
             {
                 case EntityBuilder.MISSING_CHANNEL:
                 {
-                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getString("channel_id"), () ->
+                    EventCache.get(api).cache(EventCache.Type.CHANNEL, content.getLong("channel_id"), () ->
                     {
                         handle(responseNumber, allContent);
                     });
@@ -98,7 +99,7 @@ public class MessageUpdateHandler extends SocketHandler
                 }
                 case EntityBuilder.MISSING_USER:
                 {
-                    EventCache.get(api).cache(EventCache.Type.USER, content.getJSONObject("author").getString("id"), () ->
+                    EventCache.get(api).cache(EventCache.Type.USER, content.getJSONObject("author").getLong("id"), () ->
                     {
                         handle(responseNumber, allContent);
                     });
@@ -110,19 +111,32 @@ public class MessageUpdateHandler extends SocketHandler
             }
         }
 
+        if (message.isFromType(ChannelType.TEXT))
+        {
+            TextChannel channel = message.getTextChannel();
+            if (GuildLock.get(api).isLocked(channel.getGuild().getIdLong()))
+            {
+                return channel.getGuild().getIdLong();
+            }
+        }
+
+        //Swap the cached version only once the update is handled, a locked guild replays it later
+        MessageCache cache = api.getMessageCache();
+        Message previous = null;
+        if (cache != null)
+        {
+            previous = cache.get(message.getIdLong());
+            cache.put(content);
+        }
+
         switch (message.getChannelType())
         {
             case TEXT:
             {
-                TextChannel channel = message.getTextChannel();
-                if (GuildLock.get(api).isLocked(channel.getGuild().getId()))
-                {
-                    return channel.getGuild().getId();
-                }
                 api.getEventManager().handle(
                         new GuildMessageUpdateEvent(
                                 api, responseNumber,
-                                message));
+                                message, previous));
                 break;
             }
             case PRIVATE:
@@ -130,14 +144,15 @@ public class MessageUpdateHandler extends SocketHandler
                 api.getEventManager().handle(
                         new PrivateMessageUpdateEvent(
                                 api, responseNumber,
-                                message));
+                                message, previous));
+                break;
             }
             case GROUP:
             {
                 api.getEventManager().handle(
                         new GroupMessageUpdateEvent(
                                 api, responseNumber,
-                                message));
+                                message, previous));
                 break;
             }
 
@@ -150,15 +165,15 @@ public class MessageUpdateHandler extends SocketHandler
         api.getEventManager().handle(
                 new MessageUpdateEvent(
                         api, responseNumber,
-                        message));
+                        message, previous));
         return null;
     }
 
-    private String handleMessageEmbed(JSONObject content)
+    private Long handleMessageEmbed(JSONObject content)
     {
         EntityBuilder builder = EntityBuilder.get(api);
         String messageId = content.getString("id");
-        String channelId = content.getString("channel_id");
+        long channelId = content.getLong("channel_id");
         LinkedList<MessageEmbed> embeds = new LinkedList<>();
         MessageChannel channel = api.getTextChannelMap().get(channelId);
         if (channel == null)
@@ -186,9 +201,9 @@ public class MessageUpdateHandler extends SocketHandler
         if (channel instanceof TextChannel)
         {
             TextChannel tChannel = (TextChannel) channel;
-            if (GuildLock.get(api).isLocked(tChannel.getGuild().getId()))
+            if (GuildLock.get(api).isLocked(tChannel.getGuild().getIdLong()))
             {
-                return tChannel.getGuild().getId();
+                return tChannel.getGuild().getIdLong();
             }
             api.getEventManager().handle(
                     new GuildMessageEmbedEvent(
@@ -209,6 +224,10 @@ public class MessageUpdateHandler extends SocketHandler
                             api, responseNumber,
                             messageId, (Group) channel, embeds));
         }
+        MessageCache cache = api.getMessageCache();
+        if (cache != null)
+            cache.updateEmbeds(Long.parseLong(messageId), embedsJson);
+
         //Combo event
         api.getEventManager().handle(
                 new MessageEmbedEvent(
@@ -15,12 +15,17 @@
  */
 package net.dv8tion.jda.core.handle;
 
+import gnu.trove.map.TLongObjectMap;
 import net.dv8tion.jda.core.OnlineStatus;
+import net.dv8tion.jda.core.entities.EntityBuilder;
 import net.dv8tion.jda.core.entities.Game;
 import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.User;
 import net.dv8tion.jda.core.entities.impl.*;
 import net.dv8tion.jda.core.events.user.*;
 import net.dv8tion.jda.core.requests.GuildLock;
+import net.dv8tion.jda.core.utils.InternPool;
+import net.dv8tion.jda.core.utils.MemberCachePolicy;
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONObject;
 
@@ -33,16 +38,20 @@ public class PresenceUpdateHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
+        //Presence updates were disabled using JDABuilder#setPresenceAndTypingEnabled(false), ignore them completely.
+        if (!api.isPresenceAndTypingEnabled())
+            return null;
+
         //Do a pre-check to see if this is for a Guild, and if it is, if the guild is currently locked.
-        if (content.has("guild_id") && GuildLock.get(api).isLocked(content.getString("guild_id")))
+        if (content.has("guild_id") && GuildLock.get(api).isLocked(content.getLong("guild_id")))
         {
-            return content.getString("guild_id");
+            return content.getLong("guild_id");
         }
 
         JSONObject jsonUser = content.getJSONObject("user");
-        String userId = jsonUser.getString("id");
+        long userId = jsonUser.getLong("id");
         UserImpl user = (UserImpl) api.getUserMap().get(userId);
 
         //If we do know about the user, lets update the user's specific info.
@@ -55,7 +64,7 @@ public class PresenceUpdateHandler extends SocketHandler
             if (jsonUser.has("username"))
             {
                 String name = jsonUser.getString("username");
-                String discriminator = jsonUser.get("discriminator").toString();
+                String discriminator = InternPool.STRINGS.intern(jsonUser.get("discriminator").toString());
                 String avatarId = jsonUser.isNull("avatar") ? null : jsonUser.getString("avatar");
 
                 if (!user.getName().equals(name))
@@ -64,53 +73,40 @@ public class PresenceUpdateHandler extends SocketHandler
                     String oldDiscriminator = user.getDiscriminator();
                     user.setName(name);
                     user.setDiscriminator(discriminator);
-                    api.getEventManager().handle(
-                            new UserNameUpdateEvent(
-                                    api, responseNumber,
-                                    user, oldUsername, oldDiscriminator));
+                    api.reindexUser(userId);
+                    if (api.getEventManager().isInterested(UserNameUpdateEvent.class))
+                    {
+                        api.getEventManager().handle(
+                                new UserNameUpdateEvent(
+                                        api, responseNumber,
+                                        user, oldUsername, oldDiscriminator));
+                    }
                 }
                 String oldAvatar = user.getAvatarId();
                 if (!(avatarId == null && oldAvatar == null) && !StringUtils.equals(avatarId, oldAvatar))
                 {
                     String oldAvatarId = user.getAvatarId();
                     user.setAvatarId(avatarId);
-                    api.getEventManager().handle(
-                            new UserAvatarUpdateEvent(
-                                    api, responseNumber,
-                                    user, oldAvatarId));
+                    if (api.getEventManager().isInterested(UserAvatarUpdateEvent.class))
+                    {
+                        api.getEventManager().handle(
+                                new UserAvatarUpdateEvent(
+                                        api, responseNumber,
+                                        user, oldAvatarId));
+                    }
                 }
             }
 
             //Now that we've update the User's info, lets see if we need to set the specific Presence information.
             // This is stored in the Member or Relation objects.
-            String gameName = null;
-            String gameUrl = null;
-            Game.GameType type = null;
-            if ( !content.isNull("game") && !content.getJSONObject("game").isNull("name") )
-            {
-                gameName = content.getJSONObject("game").get("name").toString();
-                gameUrl = ( content.getJSONObject("game").isNull("url") ? null : content.getJSONObject("game").get("url").toString() );
-                try
-                {
-                    type = content.getJSONObject("game").isNull("type")
-                            ? Game.GameType.DEFAULT
-                            : Game.GameType.fromKey(Integer.parseInt(content.getJSONObject("game").get("type").toString()));
-                }
-                catch (NumberFormatException ex)
-                {
-                    type = Game.GameType.DEFAULT;
-                }
-            }
-            Game nextGame = (gameName == null
-                    ? null
-                    : new GameImpl(gameName, gameUrl, type));
+            Game nextGame = EntityBuilder.get(api).createGame(content.isNull("game") ? null : content.getJSONObject("game"));
             OnlineStatus status = OnlineStatus.fromKey(content.getString("status"));
 
             //If we are in a Guild, then we will use Member.
             // If we aren't we'll be dealing with the Relation system.
             if (content.has("guild_id"))
             {
-                GuildImpl guild = (GuildImpl) api.getGuildById(content.getString("guild_id"));
+                GuildImpl guild = (GuildImpl) api.getGuildById(content.getLong("guild_id"));
                 MemberImpl member = (MemberImpl) guild.getMember(user);
 
                 //If the Member is null, then User isn't in the Guild.
@@ -119,14 +115,12 @@ public class PresenceUpdateHandler extends SocketHandler
                 //If it is because a Member recently left, then the status should be OFFLINE. As such, we will ignore
                 // the event if this is the case. If the status isn't OFFLINE, we will cache and use it when the
                 // Member object is setup during GUILD_MEMBER_ADD
+                //The Member might also just not be cached due to the MemberCachePolicy. In that case the Member
+                // is loaded if the policy accepts it with this presence, otherwise the presence is dropped.
                 if (member == null)
                 {
-                    //Cache the presence and return to finish up.
-                    if (status != OnlineStatus.OFFLINE)
-                    {
-                        guild.getCachedPresenceMap().put(userId, content);
-                        return null;
-                    }
+                    handleUncachedPresence(guild, user, userId, content, status, nextGame);
+                    return null;
                 }
                 else
                 {
@@ -135,20 +129,27 @@ public class PresenceUpdateHandler extends SocketHandler
                     {
                         OnlineStatus oldStatus = member.getOnlineStatus();
                         member.setOnlineStatus(status);
-                        api.getEventManager().handle(
-                                new UserOnlineStatusUpdateEvent(
-                                        api, responseNumber,
-                                        user, guild, oldStatus));
+                        if (api.getEventManager().isInterested(UserOnlineStatusUpdateEvent.class))
+                        {
+                            api.getEventManager().handle(
+                                    new UserOnlineStatusUpdateEvent(
+                                            api, responseNumber,
+                                            user, guild, oldStatus));
+                        }
                     }
                     if(member.getGame() == null ? nextGame != null : !member.getGame().equals(nextGame))
                     {
                         Game oldGame = member.getGame();
                         member.setGame(nextGame);
-                        api.getEventManager().handle(
-                                new UserGameUpdateEvent(
-                                        api, responseNumber,
-                                        user, guild, oldGame));
+                        if (api.getEventManager().isInterested(UserGameUpdateEvent.class))
+                        {
+                            api.getEventManager().handle(
+                                    new UserGameUpdateEvent(
+                                            api, responseNumber,
+                                            user, guild, oldGame));
+                        }
                     }
+                    guild.updateMemberCache(member);
                 }
             }
             else
@@ -167,16 +168,16 @@ public class PresenceUpdateHandler extends SocketHandler
             //Either way, we don't have the User cached so we need to cache the Presence information if
             // the OnlineStatus is not OFFLINE.
 
-            //If the OnlineStatus is OFFLINE, ignore the event and return.
+            //If the OnlineStatus is OFFLINE, the presence is ignored.
             OnlineStatus status = OnlineStatus.fromKey(content.getString("status"));
-            if (status == OnlineStatus.OFFLINE)
-                return null;
 
-            //If this was for a Guild, cache it in the Guild for later use in GUILD_MEMBER_ADD
+            //If this was for a Guild, cache it in the Guild for later use in GUILD_MEMBER_ADD or load the Member
             if (content.has("guild_id"))
             {
-                GuildImpl guild = (GuildImpl) api.getGuildById(content.getString("guild_id"));
-                guild.getCachedPresenceMap().put(userId, content);
+                GuildImpl guild = (GuildImpl) api.getGuildById(content.getLong("guild_id"));
+                Game nextGame = status == OnlineStatus.OFFLINE ? null
+                        : EntityBuilder.get(api).createGame(content.isNull("game") ? null : content.getJSONObject("game"));
+                handleUncachedPresence(guild, null, userId, content, status, nextGame);
             }
             else
             {
@@ -185,4 +186,46 @@ public class PresenceUpdateHandler extends SocketHandler
         }
         return null;
     }
+
+    /**
+     * Handles the presence of a Member that is not cached.
+     * <br>Without a restricted member cache the presence most likely arrived before GUILD_MEMBER_ADD, so it is
+     * kept until the Member is created. Otherwise the presence is only kept while the Member is loaded, which
+     * happens if the {@link net.dv8tion.jda.core.utils.MemberCachePolicy MemberCachePolicy} accepts the Member
+     * with this presence (for example {@link MemberCachePolicy#ONLINE}).
+     */
+    private void handleUncachedPresence(GuildImpl guild, User user, long userId, JSONObject content, OnlineStatus status, Game game)
+    {
+        TLongObjectMap<JSONObject> cachedPresences = guild.getCachedPresenceMap();
+        if (status == OnlineStatus.OFFLINE)
+        {
+            cachedPresences.remove(userId);
+            return;
+        }
+        if (!api.isMemberCacheRestricted())
+        {
+            cachedPresences.put(userId, content);
+            return;
+        }
+
+        //No events are fired for Members that were not cached.
+        // If the member cache limit is reached loading would only unload another Member, which could then be
+        // loaded again by its next presence.
+        MemberCachePolicy policy = api.getMemberCachePolicy();
+        int limit = api.getMemberCacheLimit();
+        MemberImpl probe = new MemberImpl(guild, user != null ? user : new UserImpl(userId, api));
+        probe.setOnlineStatus(status);
+        probe.setGame(game);
+        if (policy == MemberCachePolicy.ALL || (limit > 0 && guild.getMembersMap().size() >= limit)
+                || !policy.cacheMember(probe))
+        {
+            cachedPresences.remove(userId);
+            return;
+        }
+
+        //Members are loaded in batches using member requests, the presence is applied by EntityBuilder#createMember
+        // when the chunk arrives. If the Member is already being loaded only the presence is replaced.
+        if (cachedPresences.put(userId, content) == null)
+            api.getClient().<GuildMembersChunkHandler>getHandler("GUILD_MEMBERS_CHUNK").queueMemberLoad(guild, userId);
+    }
 }
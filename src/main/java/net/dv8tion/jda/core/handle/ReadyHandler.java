@@ -16,6 +16,9 @@
 
 package net.dv8tion.jda.core.handle;
 
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
 import net.dv8tion.jda.client.entities.Relationship;
 import net.dv8tion.jda.client.entities.impl.FriendImpl;
 import net.dv8tion.jda.client.entities.impl.UserSettingsImpl;
@@ -24,22 +27,24 @@ import net.dv8tion.jda.core.OnlineStatus;
 import net.dv8tion.jda.core.entities.ChannelType;
 import net.dv8tion.jda.core.entities.EntityBuilder;
 import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.impl.GuildImpl;
 import net.dv8tion.jda.core.entities.impl.JDAImpl;
 import net.dv8tion.jda.core.managers.impl.PresenceImpl;
 import net.dv8tion.jda.core.requests.WebSocketClient;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 public class ReadyHandler extends SocketHandler
 {
-    private final Set<String> incompleteGuilds = new HashSet<>();
-    private final Set<String> acknowledgedGuilds = new HashSet<>();
-    private final Set<String> unavailableGuilds = new HashSet<>();
-    private final Set<String> guildsRequiringChunking = new HashSet<>();
-    private final Set<String> guildsRequiringSyncing = new HashSet<>();
+    private final TLongSet incompleteGuilds = new TLongHashSet();
+    private final TLongSet acknowledgedGuilds = new TLongHashSet();
+    private final TLongSet unavailableGuilds = new TLongHashSet();
+    private final TLongSet guildsRequiringChunking = new TLongHashSet();
+    private final TLongSet guildsRequiringSyncing = new TLongHashSet();
+    private final TLongSet expectedGuildCreates = new TLongHashSet();
 
     public ReadyHandler(JDAImpl api)
     {
@@ -47,7 +52,7 @@ public class ReadyHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
         EntityBuilder builder = EntityBuilder.get(api);
 
@@ -79,7 +84,14 @@ public class ReadyHandler extends SocketHandler
         for (int i = 0; i < guilds.length(); i++)
         {
             JSONObject guild = guilds.getJSONObject(i);
-            incompleteGuilds.add(guild.getString("id"));
+            incompleteGuilds.add(guild.getLong("id"));
+        }
+
+        //Guilds restored from a snapshot that are not part of READY were left while we were offline
+        for (Guild guild : api.getGuilds())
+        {
+            if (!incompleteGuilds.contains(guild.getIdLong()))
+                removeRestoredGuild((GuildImpl) guild);
         }
 
         //We use two different for-loops here so that we cache all of the ids before sending them off to the EntityBuilder
@@ -87,6 +99,20 @@ public class ReadyHandler extends SocketHandler
         // Specifically: incompleteGuilds.size() == acknowledgedGuilds.size() and
         //  incompleteGuilds.size() == unavailableGuilds.size() respectively.
 
+        //The entities of the Guilds are built in parallel, the first pass is finished in READY order afterwards
+        GuildImpl[] built = new GuildImpl[guilds.length()];
+        ForkJoinPool pool = api.getGuildSetupPool();
+        if (pool != null && guilds.length() > 1)
+        {
+            pool.submit(() -> IntStream.range(0, guilds.length()).parallel()
+                    .forEach(i -> built[i] = builder.buildGuild(guilds.getJSONObject(i)))).join();
+        }
+        else
+        {
+            for (int i = 0; i < guilds.length(); i++)
+                built[i] = builder.buildGuild(guilds.getJSONObject(i));
+        }
+
         for (int i = 0; i < guilds.length(); i++)
         {
             JSONObject guild = guilds.getJSONObject(i);
@@ -98,9 +124,14 @@ public class ReadyHandler extends SocketHandler
             //If a Guild is unavailable it won't have the information needed, so we pass null as the secondPassCallback
             // for now and wait for the GUILD_CREATE event to give us the required information.
             if (guild.has("unavailable") && guild.getBoolean("unavailable"))
-                builder.createGuildFirstPass(guild, null);
+            {
+                expectedGuildCreates.add(built[i].getIdLong());
+                builder.finishGuildFirstPass(built[i], guild, null);
+            }
             else
-                builder.createGuildFirstPass(guild, this::guildSetupComplete);
+            {
+                builder.finishGuildFirstPass(built[i], guild, this::guildSetupComplete);
+            }
         }
 
         if (guilds.length() == 0)
@@ -134,7 +165,7 @@ public class ReadyHandler extends SocketHandler
             for (int i = 0; i < presences.length(); i++)
             {
                 JSONObject presence = presences.getJSONObject(i);
-                String userId = presence.getJSONObject("user").getString("id");
+                long userId = presence.getJSONObject("user").getLong("id");
                 FriendImpl friend = (FriendImpl) api.asClient().getFriendById(userId);
                 if (friend == null)
                     WebSocketClient.LOG.warn("Received a presence in the Presences array in READY that did not corrospond to a cached Friend! JSON: " + presence);
@@ -165,28 +196,28 @@ public class ReadyHandler extends SocketHandler
         api.getClient().ready();
     }
 
-    public void acknowledgeGuild(Guild guild, boolean available, boolean requiresChunking, boolean requiresSync)
+    public synchronized void acknowledgeGuild(Guild guild, boolean available, boolean requiresChunking, boolean requiresSync)
     {
-        acknowledgedGuilds.add(guild.getId());
+        acknowledgedGuilds.add(guild.getIdLong());
         if (available)
         {
             //We remove from unavailable guilds because it is possible that we were told it was unavailable, but
             // during a long READY load it could have become available and was sent to us.
-            unavailableGuilds.remove(guild.getId());
+            unavailableGuilds.remove(guild.getIdLong());
             if (requiresChunking)
-                guildsRequiringChunking.add(guild.getId());
+                guildsRequiringChunking.add(guild.getIdLong());
             if (requiresSync)
-                guildsRequiringSyncing.add(guild.getId());
+                guildsRequiringSyncing.add(guild.getIdLong());
         }
         else
-            unavailableGuilds.add(guild.getId());
+            unavailableGuilds.add(guild.getIdLong());
 
         checkIfReadyToSendRequests();
     }
 
-    public void guildSetupComplete(Guild guild)
+    public synchronized void guildSetupComplete(Guild guild)
     {
-        incompleteGuilds.remove(guild.getId());
+        incompleteGuilds.remove(guild.getIdLong());
         if (incompleteGuilds.size() == unavailableGuilds.size())
             guildLoadComplete(allContent.getJSONObject("d"));
         else
@@ -194,9 +225,37 @@ public class ReadyHandler extends SocketHandler
     }
 
 
-    public void clearCache()
+    private void removeRestoredGuild(GuildImpl guild)
+    {
+        api.getGuildMap().remove(guild.getIdLong());
+        for (long channelId : guild.getTextChannelsMap().keys())
+            api.getTextChannelMap().remove(channelId);
+        for (long channelId : guild.getVoiceChannelMap().keys())
+            api.getVoiceChannelMap().remove(channelId);
+        guild.detachMembers();
+        for (long userId : guild.getMembersMap().keys())
+            api.releaseUser(userId);
+    }
+
+    /**
+     * Whether the GUILD_CREATE of a Guild that was unavailable in READY is still outstanding.
+     * <br>Only true for the first GUILD_CREATE of such a Guild, these are built in parallel by the
+     * {@link GuildSetupPipeline}.
+     *
+     * @param  guildId
+     *         The id of the Guild
+     *
+     * @return True, if this is the first GUILD_CREATE of a Guild from READY
+     */
+    public synchronized boolean takeExpectedGuildCreate(long guildId)
+    {
+        return expectedGuildCreates.remove(guildId);
+    }
+
+    public synchronized void clearCache()
     {
         incompleteGuilds.clear();
+        expectedGuildCreates.clear();
         acknowledgedGuilds.clear();
         unavailableGuilds.clear();
         guildsRequiringChunking.clear();
@@ -220,9 +279,9 @@ public class ReadyHandler extends SocketHandler
             return;
 
         JSONArray guildIds = new JSONArray();
-        for (String guildId : guildsRequiringSyncing)
+        for (TLongIterator it = guildsRequiringSyncing.iterator(); it.hasNext(); )
         {
-            guildIds.put(guildId);
+            guildIds.put(Long.toUnsignedString(it.next()));
 
             //We can only request 50 guilds in a single request, so after we've reached 50, send them
             // and reset the
@@ -251,9 +310,9 @@ public class ReadyHandler extends SocketHandler
             return;
 
         JSONArray guildIds = new JSONArray();
-        for (String guildId : guildsRequiringChunking)
+        for (TLongIterator it = guildsRequiringChunking.iterator(); it.hasNext(); )
         {
-            guildIds.put(guildId);
+            guildIds.put(Long.toUnsignedString(it.next()));
 
             //We can only request 50 guilds in a single request, so after we've reached 50, send them
             // and reset the
@@ -41,9 +41,13 @@ public class TypingStartHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
-        String channelId = content.getString("channel_id");
+        //Typing doesn't change the cache, so there is nothing to do if nobody would receive the event.
+        if (!api.isPresenceAndTypingEnabled() || !api.getEventManager().isInterested(UserTypingEvent.class))
+            return null;
+
+        long channelId = content.getLong("channel_id");
         MessageChannel channel = api.getTextChannelMap().get(channelId);
         if (channel == null)
             channel = api.getPrivateChannelMap().get(channelId);
@@ -58,14 +62,14 @@ public class TypingStartHandler extends SocketHandler
 
         if (channel instanceof TextChannel)
         {
-            String guildId = ((TextChannel) channel).getGuild().getId();
+            long guildId = ((TextChannel) channel).getGuild().getIdLong();
             if (GuildLock.get(api).isLocked(guildId))
             {
                 return guildId;
             }
         }
 
-        String userId = content.getString("user_id");
+        long userId = content.getLong("user_id");
         User user;
         if (channel instanceof PrivateChannel)
             user = ((PrivateChannel) channel).getUser();
@@ -32,7 +32,7 @@ public class UserUpdateHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
         SelfUserImpl self = (SelfUserImpl) api.getSelfUser();
 
@@ -51,6 +51,7 @@ public class UserUpdateHandler extends SocketHandler
             String oldDiscriminator = self.getDiscriminator();
             self.setName(name);
             self.setDiscriminator(discriminator);
+            api.reindexUser(self.getIdLong());
             api.getEventManager().handle(
                     new SelfUpdateNameEvent(
                             api, responseNumber,
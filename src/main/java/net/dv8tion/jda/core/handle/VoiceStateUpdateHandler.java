@@ -24,14 +24,15 @@ import net.dv8tion.jda.client.events.call.voice.CallVoiceJoinEvent;
 import net.dv8tion.jda.client.events.call.voice.CallVoiceLeaveEvent;
 import net.dv8tion.jda.client.events.call.voice.CallVoiceSelfDeafenEvent;
 import net.dv8tion.jda.client.events.call.voice.CallVoiceSelfMuteEvent;
+import net.dv8tion.jda.core.entities.EntityBuilder;
 import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.impl.GuildImpl;
 import net.dv8tion.jda.core.entities.impl.GuildVoiceStateImpl;
 import net.dv8tion.jda.core.entities.impl.JDAImpl;
 import net.dv8tion.jda.core.entities.impl.MemberImpl;
 import net.dv8tion.jda.core.entities.impl.VoiceChannelImpl;
 import net.dv8tion.jda.core.events.guild.voice.*;
-import net.dv8tion.jda.core.requests.GuildLock;
-import net.dv8tion.jda.core.requests.WebSocketClient;
+import net.dv8tion.jda.core.requests.*;
 import org.json.JSONObject;
 
 import java.util.Objects;
@@ -44,15 +45,15 @@ public class VoiceStateUpdateHandler extends SocketHandler
     }
 
     @Override
-    protected String handleInternally(JSONObject content)
+    protected Long handleInternally(JSONObject content)
     {
-        String guildId = content.has("guild_id") ? content.getString("guild_id") : null;
-        if (guildId != null && GuildLock.get(api).isLocked(guildId))
+        long guildId = content.has("guild_id") ? content.getLong("guild_id") : 0;
+        if (guildId != 0 && GuildLock.get(api).isLocked(guildId))
         {
             return guildId;
         }
 
-        if (guildId != null)
+        if (guildId != 0)
         {
             handleGuildVoiceState(content);
         }
@@ -65,9 +66,9 @@ public class VoiceStateUpdateHandler extends SocketHandler
 
     private void handleGuildVoiceState(JSONObject content)
     {
-        String userId = content.getString("user_id");
-        String guildId = content.getString("guild_id");
-        String channelId = !content.isNull("channel_id") ? content.getString("channel_id") : null;
+        long userId = content.getLong("user_id");
+        long guildId = content.getLong("guild_id");
+        long channelId = !content.isNull("channel_id") ? content.getLong("channel_id") : 0;
         String sessionId = !content.isNull("session_id") ? content.getString("session_id") : null;
         boolean selfMuted = content.getBoolean("self_mute");
         boolean selfDeafened = content.getBoolean("self_deaf");
@@ -78,7 +79,7 @@ public class VoiceStateUpdateHandler extends SocketHandler
         Guild guild = api.getGuildById(guildId);
         if (guild == null)
         {
-            EventCache.get(api).cache(EventCache.Type.GUILD, content.getString("guild_id"), () ->
+            EventCache.get(api).cache(EventCache.Type.GUILD, content.getLong("guild_id"), () ->
             {
                 handle(responseNumber, allContent);
             });
@@ -87,7 +88,7 @@ public class VoiceStateUpdateHandler extends SocketHandler
         }
 
         VoiceChannelImpl channel = (VoiceChannelImpl) guild.getVoiceChannelById(channelId);
-        if (channel == null && channelId != null)
+        if (channel == null && channelId != 0)
         {
             EventCache.get(api).cache(EventCache.Type.CHANNEL, channelId, () ->
             {
@@ -98,6 +99,31 @@ public class VoiceStateUpdateHandler extends SocketHandler
         }
 
         MemberImpl member = (MemberImpl) guild.getMemberById(userId);
+        if (member == null && api.isMemberCacheRestricted())
+        {
+            //The Member is most likely not cached due to the MemberCachePolicy. If it joined a VoiceChannel,
+            // load it with this voice state so that the policy can decide whether to keep it.
+            // No events are fired for Members that were not cached.
+            if (channel != null)
+            {
+                Route.CompiledRoute route = Route.Guilds.GET_MEMBER.compile(guild.getId(), Long.toUnsignedString(userId));
+                new RestAction<Void>(api, route, null)
+                {
+                    @Override
+                    protected void handleResponse(Response response, Request request)
+                    {
+                        if (response.isOk())
+                        {
+                            EntityBuilder.get(api).createMember((GuildImpl) guild, response.getObject(), content);
+                            request.onSuccess(null);
+                        }
+                        else
+                            request.onFailure(response);
+                    }
+                }.queue(null, t -> WebSocketClient.LOG.debug("Could not load uncached Member " + userId + " for VOICE_STATE_UPDATE: " + t));
+            }
+            return;
+        }
         if (member == null)
         {
             //Caching of this might not be valid. It is possible that we received this
@@ -185,12 +211,14 @@ public class VoiceStateUpdateHandler extends SocketHandler
             api.getEventManager().handle(new GuildVoiceMuteEvent(api, responseNumber, member));
         if (wasDeaf != vState.isDeafened())
             api.getEventManager().handle(new GuildVoiceDeafenEvent(api, responseNumber, member));
+
+        ((GuildImpl) guild).updateMemberCache(member);
     }
 
     private void handleCallVoiceState(JSONObject content)
     {
-        String userId = content.getString("user_id");
-        String channelId = !content.isNull("channel_id") ? content.getString("channel_id") : null;
+        long userId = content.getLong("user_id");
+        long channelId = !content.isNull("channel_id") ? content.getLong("channel_id") : 0;
         String sessionId = !content.isNull("session_id") ? content.getString("session_id") : null;
         boolean selfMuted = content.getBoolean("self_mute");
         boolean selfDeafened = content.getBoolean("self_deaf");
@@ -198,7 +226,7 @@ public class VoiceStateUpdateHandler extends SocketHandler
         //Joining a call
         CallableChannel channel;
         CallVoiceStateImpl vState;
-        if (channelId != null)
+        if (channelId != 0)
         {
             channel = api.asClient().getGroupById(channelId);
             if (channel == null)
@@ -220,7 +248,7 @@ public class VoiceStateUpdateHandler extends SocketHandler
             }
 
             CallUser cUser = ((JDAClientImpl) api.asClient()).getCallUserMap().get(userId);
-            if (cUser != null && !channelId.equals(cUser.getCall().getCallableChannel().getId()))
+            if (cUser != null && channelId != cUser.getCall().getCallableChannel().getIdLong())
             {
                 WebSocketClient.LOG.fatal("Received a VOICE_STATE_UPDATE for a user joining a call, but the user was already in a different call! Big error! JSON: " + content);
                 ((CallVoiceStateImpl) cUser.getVoiceState()).setInCall(false);
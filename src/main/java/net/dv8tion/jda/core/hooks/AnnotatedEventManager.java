@@ -18,105 +18,240 @@ package net.dv8tion.jda.core.hooks;
 import net.dv8tion.jda.core.entities.impl.JDAImpl;
 import net.dv8tion.jda.core.events.Event;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.*;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * An {@link net.dv8tion.jda.core.hooks.IEventManager IEventManager} that calls the methods annotated with
+ * {@link net.dv8tion.jda.core.hooks.SubscribeEvent SubscribeEvent} of its listeners.
+ * <p>
+ * Annotated methods are turned into invokers once on registration. Public methods of public classes get a generated
+ * class calling them directly (via {@link java.lang.invoke.LambdaMetafactory LambdaMetafactory}), all other methods
+ * are called through a {@link java.lang.invoke.MethodHandle MethodHandle}.
+ * <br>For every concrete event class the invokers of the class and all of its superclasses are collected into one
+ * array on the first event of that class, so handling an event is a map lookup and a loop.
+ * <p>
+ * Registering and unregistering replaces the whole table (copy-on-write), which makes this manager safe to use from
+ * multiple threads. Listeners are expected to change rarely compared to the amount of handled events.
+ */
 public class AnnotatedEventManager implements IEventManager
 {
-    private final Set<Object> listeners = new HashSet<>();
-    private final Map<Class<? extends Event>, Map<Object, List<Method>>> methods = new HashMap<>();
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(void.class, Object.class, Event.class);
+
+    private final Object lock = new Object();
+    private volatile Registry registry = new Registry(Collections.emptyList(), Collections.emptyMap());
 
     @Override
     public void register(Object listener)
     {
-        if (listeners.add(listener))
+        synchronized (lock)
         {
-            updateMethods();
+            if (registry.listeners.contains(listener))
+                return;
+            List<Object> listeners = new ArrayList<>(registry.listeners);
+            listeners.add(listener);
+            Map<Class<?>, List<Subscriber>> subscribers = copy(registry.subscribers);
+            for (Subscriber subscriber : createSubscribers(listener))
+                subscribers.computeIfAbsent(subscriber.eventClass, c -> new ArrayList<>()).add(subscriber);
+            registry = new Registry(listeners, subscribers);
         }
     }
 
     @Override
     public void unregister(Object listener)
     {
-        if (listeners.remove(listener))
+        synchronized (lock)
         {
-            updateMethods();
+            if (!registry.listeners.contains(listener))
+                return;
+            List<Object> listeners = new ArrayList<>(registry.listeners);
+            listeners.remove(listener);
+            Map<Class<?>, List<Subscriber>> subscribers = copy(registry.subscribers);
+            for (Iterator<List<Subscriber>> it = subscribers.values().iterator(); it.hasNext();)
+            {
+                List<Subscriber> list = it.next();
+                list.removeIf(subscriber -> subscriber.listener.equals(listener));
+                if (list.isEmpty())
+                    it.remove();
+            }
+            registry = new Registry(listeners, subscribers);
         }
     }
 
     @Override
     public List<Object> getRegisteredListeners()
     {
-        return Collections.unmodifiableList(new LinkedList<>(listeners));
+        return Collections.unmodifiableList(new LinkedList<>(registry.listeners));
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void handle(Event event)
     {
-        Class<? extends Event> eventClass = event.getClass();
-        do
+        for (Subscriber subscriber : registry.getSubscribers(event.getClass()))
         {
-            Map<Object, List<Method>> listeners = methods.get(eventClass);
-            if (listeners != null)
+            try
             {
-                listeners.entrySet().forEach(e -> e.getValue().forEach(method ->
-                {
-                    try
-                    {
-                        method.setAccessible(true);
-                        method.invoke(e.getKey(), event);
-                    }
-                    catch (IllegalAccessException | InvocationTargetException e1)
-                    {
-                        JDAImpl.LOG.log(e1);
-                    }
-                    catch (Throwable throwable)
-                    {
-                        JDAImpl.LOG.fatal("One of the EventListeners had an uncaught exception");
-                        JDAImpl.LOG.log(throwable);
-                    }
-                }));
+                subscriber.invoker.invoke(subscriber.listener, event);
+            }
+            catch (Throwable throwable)
+            {
+                JDAImpl.LOG.fatal("One of the EventListeners had an uncaught exception");
+                JDAImpl.LOG.log(throwable);
             }
-            eventClass = eventClass == Event.class ? null : (Class<? extends Event>) eventClass.getSuperclass();
         }
-        while (eventClass != null);
     }
 
-    private void updateMethods()
+    @Override
+    public boolean isInterested(Class<? extends Event> eventClass)
     {
-        methods.clear();
-        for (Object listener : listeners)
+        return registry.getSubscribers(eventClass).length > 0;
+    }
+
+    private static Map<Class<?>, List<Subscriber>> copy(Map<Class<?>, List<Subscriber>> subscribers)
+    {
+        Map<Class<?>, List<Subscriber>> copy = new HashMap<>();
+        subscribers.forEach((eventClass, list) -> copy.put(eventClass, new ArrayList<>(list)));
+        return copy;
+    }
+
+    private static List<Subscriber> createSubscribers(Object listener)
+    {
+        boolean isClass = listener instanceof Class;
+        Class<?> c = isClass ? (Class<?>) listener : listener.getClass();
+        List<Subscriber> subscribers = new ArrayList<>();
+        for (Method m : c.getDeclaredMethods())
         {
-            boolean isClass = listener instanceof Class;
-            Class<?> c = isClass ? (Class) listener : listener.getClass();
-            Method[] allMethods = c.getDeclaredMethods();
-            for (Method m : allMethods)
+            if (!m.isAnnotationPresent(SubscribeEvent.class) || (isClass && !Modifier.isStatic(m.getModifiers())))
+            {
+                continue;
+            }
+            Class<?>[] pType = m.getParameterTypes();
+            if (pType.length == 1 && Event.class.isAssignableFrom(pType[0]))
             {
-                if (!m.isAnnotationPresent(SubscribeEvent.class) || (isClass && !Modifier.isStatic(m.getModifiers())))
+                try
                 {
-                    continue;
+                    subscribers.add(new Subscriber(pType[0], listener, createInvoker(m)));
                 }
-                Class<?>[] pType  = m.getParameterTypes();
-                if (pType.length == 1 && Event.class.isAssignableFrom(pType[0]))
+                catch (Throwable t)
                 {
-                    @SuppressWarnings("unchecked")
-                    Class<? extends Event> eventClass = (Class<? extends Event>) pType[0];
-                    if (!methods.containsKey(eventClass))
-                    {
-                        methods.put(eventClass, new HashMap<>());
-                    }
-
-                    if (!methods.get(eventClass).containsKey(listener))
-                    {
-                        methods.get(eventClass).put(listener, new ArrayList<>());
-                    }
-
-                    methods.get(eventClass).get(listener).add(m);
+                    JDAImpl.LOG.fatal("Could not create an invoker for " + m + ", it will not receive events");
+                    JDAImpl.LOG.log(t);
                 }
             }
         }
+        return subscribers;
+    }
+
+    private static Invoker createInvoker(Method method) throws Throwable
+    {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        if (canGenerateInvoker(method))
+        {
+            MethodHandle handle = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "invoke",
+                    MethodType.methodType(Invoker.class), INVOKER_TYPE, handle,
+                    MethodType.methodType(void.class, method.getDeclaringClass(), method.getParameterTypes()[0]));
+            return (Invoker) site.getTarget().invokeExact();
+        }
+
+        method.setAccessible(true);
+        MethodHandle handle = lookup.unreflect(method);
+        if (Modifier.isStatic(method.getModifiers()))
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        MethodHandle invoker = handle.asType(INVOKER_TYPE);
+        //A statement lambda, as an expression lambda would make invokeExact expect an Object return type
+        return (listener, event) ->
+        {
+            invoker.invokeExact(listener, event);
+        };
+    }
+
+    /*
+     * The generated class calls the method by name, so the method has to be accessible from this package
+     * and its class has to be visible to the ClassLoader of JDA.
+     */
+    private static boolean canGenerateInvoker(Method method)
+    {
+        if (Modifier.isStatic(method.getModifiers()) || !Modifier.isPublic(method.getModifiers()))
+            return false;
+        for (Class<?> c = method.getDeclaringClass(); c != null; c = c.getEnclosingClass())
+        {
+            if (!Modifier.isPublic(c.getModifiers()))
+                return false;
+        }
+        Class<?> declaringClass = method.getDeclaringClass();
+        Class<?> eventClass = method.getParameterTypes()[0];
+        return isVisible(declaringClass) && isVisible(eventClass);
+    }
+
+    private static boolean isVisible(Class<?> c)
+    {
+        try
+        {
+            return Class.forName(c.getName(), false, AnnotatedEventManager.class.getClassLoader()) == c;
+        }
+        catch (ClassNotFoundException | LinkageError e)
+        {
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Invoker
+    {
+        void invoke(Object listener, Event event) throws Throwable;
+    }
+
+    private static final class Subscriber
+    {
+        private final Class<?> eventClass;
+        private final Object listener;
+        private final Invoker invoker;
+
+        private Subscriber(Class<?> eventClass, Object listener, Invoker invoker)
+        {
+            this.eventClass = eventClass;
+            this.listener = listener;
+            this.invoker = invoker;
+        }
+    }
+
+    private static final class Registry
+    {
+        private static final Subscriber[] EMPTY = new Subscriber[0];
+
+        private final List<Object> listeners;
+        private final Map<Class<?>, List<Subscriber>> subscribers;
+        private final Map<Class<?>, Subscriber[]> dispatch = new ConcurrentHashMap<>();
+
+        private Registry(List<Object> listeners, Map<Class<?>, List<Subscriber>> subscribers)
+        {
+            this.listeners = listeners;
+            this.subscribers = subscribers;
+        }
+
+        private Subscriber[] getSubscribers(Class<? extends Event> eventClass)
+        {
+            Subscriber[] result = dispatch.get(eventClass);
+            if (result == null)
+                result = dispatch.computeIfAbsent(eventClass, this::resolve);
+            return result;
+        }
+
+        //Subscribers of the event class itself come first, followed by the ones of each superclass up to Event
+        private Subscriber[] resolve(Class<?> eventClass)
+        {
+            List<Subscriber> result = new ArrayList<>();
+            for (Class<?> c = eventClass; c != null && Event.class.isAssignableFrom(c); c = c.getSuperclass())
+            {
+                List<Subscriber> list = subscribers.get(c);
+                if (list != null)
+                    result.addAll(list);
+            }
+            return result.isEmpty() ? EMPTY : result.toArray(EMPTY);
+        }
     }
-}
\ No newline at end of file
+}
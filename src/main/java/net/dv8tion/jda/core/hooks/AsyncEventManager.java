@@ -0,0 +1,495 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package net.dv8tion.jda.core.hooks;
+
+import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.MessageChannel;
+import net.dv8tion.jda.core.entities.impl.JDAImpl;
+import net.dv8tion.jda.core.events.Event;
+import net.dv8tion.jda.core.events.channel.text.GenericTextChannelEvent;
+import net.dv8tion.jda.core.events.channel.voice.GenericVoiceChannelEvent;
+import net.dv8tion.jda.core.events.guild.GenericGuildEvent;
+import net.dv8tion.jda.core.events.message.*;
+import net.dv8tion.jda.core.events.message.guild.GenericGuildMessageEvent;
+import net.dv8tion.jda.core.events.message.priv.GenericPrivateMessageEvent;
+import net.dv8tion.jda.core.events.role.GenericRoleEvent;
+import net.dv8tion.jda.core.events.user.GenericUserEvent;
+import net.dv8tion.jda.core.events.user.UserTypingEvent;
+import org.apache.http.util.Args;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link net.dv8tion.jda.core.hooks.IEventManager IEventManager} that hands events to another IEventManager
+ * on an {@link java.util.concurrent.Executor Executor} instead of the websocket thread, so a slow listener does not
+ * delay the gateway or the heartbeat.
+ * <p>
+ * Events are split into partitions by their Guild, or by their Channel for events outside of Guilds (see
+ * {@link #getPartitionKey(Event)}). Every partition has a bounded queue and is drained by at most one task at a time,
+ * so the events of one Guild keep their order while different Guilds are handled in parallel.
+ * <br>What happens when a queue is full is decided by the {@link RejectPolicy RejectPolicy}.
+ * <p>
+ * Usage: {@code new JDABuilder(AccountType.BOT).setEventManager(new AsyncEventManager())}
+ * <br>Listeners are registered through JDA as usual, they are passed to the wrapped IEventManager.
+ */
+public class AsyncEventManager implements IEventManager
+{
+    //The amount of events a partition handles before giving the executor thread to another partition
+    private static final int BATCH_SIZE = 64;
+
+    private final IEventManager delegate;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final RejectPolicy rejectPolicy;
+    private final Partition[] partitions;
+
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalQueueTime = new LongAdder();
+    private final LongAccumulator maxQueueTime = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates an AsyncEventManager that dispatches to an {@link net.dv8tion.jda.core.hooks.InterfacedEventManager}
+     * on its own daemon threads, using one partition per available processor, queues of 1000 events and
+     * {@link RejectPolicy#BLOCK}.
+     */
+    public AsyncEventManager()
+    {
+        this(new InterfacedEventManager());
+    }
+
+    /**
+     * Creates an AsyncEventManager that dispatches to the provided IEventManager
+     * on its own daemon threads, using one partition per available processor, queues of 1000 events and
+     * {@link RejectPolicy#BLOCK}.
+     *
+     * @param delegate
+     *      The IEventManager the events are passed to, e.g. an {@link net.dv8tion.jda.core.hooks.AnnotatedEventManager}
+     */
+    public AsyncEventManager(IEventManager delegate)
+    {
+        this(delegate, null, Runtime.getRuntime().availableProcessors(), 1000, RejectPolicy.BLOCK);
+    }
+
+    /**
+     * Creates an AsyncEventManager.
+     *
+     * @param delegate
+     *      The IEventManager the events are passed to
+     * @param executor
+     *      The executor handling the events, or {@code null} to create a pool with one daemon thread per partition.
+     *      A provided executor is not shut down by {@link #shutdown()}.
+     * @param partitions
+     *      The amount of partitions the events are split into, this limits how many events are handled in parallel
+     * @param queueCapacity
+     *      The amount of events each partition can hold before the RejectPolicy applies
+     * @param rejectPolicy
+     *      The {@link RejectPolicy RejectPolicy} used when the queue of a partition is full
+     *
+     * @throws java.lang.IllegalArgumentException
+     *      If the delegate or rejectPolicy are null or partitions or queueCapacity are less than 1
+     */
+    public AsyncEventManager(IEventManager delegate, ExecutorService executor, int partitions, int queueCapacity, RejectPolicy rejectPolicy)
+    {
+        Args.notNull(delegate, "delegate IEventManager");
+        Args.notNull(rejectPolicy, "RejectPolicy");
+        Args.check(partitions > 0, "partitions must be at least 1");
+        Args.check(queueCapacity > 0, "queueCapacity must be at least 1");
+
+        this.delegate = delegate;
+        this.ownsExecutor = executor == null;
+        this.executor = executor != null ? executor : Executors.newFixedThreadPool(partitions, new ThreadFactory()
+        {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r)
+            {
+                Thread thread = new Thread(r, "JDA AsyncEventManager Worker " + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.rejectPolicy = rejectPolicy;
+        this.partitions = new Partition[partitions];
+        for (int i = 0; i < partitions; i++)
+            this.partitions[i] = new Partition(queueCapacity);
+    }
+
+    @Override
+    public void register(Object listener)
+    {
+        delegate.register(listener);
+    }
+
+    @Override
+    public void unregister(Object listener)
+    {
+        delegate.unregister(listener);
+    }
+
+    @Override
+    public List<Object> getRegisteredListeners()
+    {
+        return delegate.getRegisteredListeners();
+    }
+
+    @Override
+    public boolean isInterested(Class<? extends Event> eventClass)
+    {
+        return delegate.isInterested(eventClass);
+    }
+
+    @Override
+    public void handle(Event event)
+    {
+        handle(event, null);
+    }
+
+    /**
+     * Queues the event like {@link #handle(Event)} and runs the callback on the executor once the wrapped
+     * IEventManager handled the event, even if a listener failed.
+     * <br>JDA uses this to pass events to its {@link net.dv8tion.jda.core.hooks.EventWaiter EventWaiter} after the
+     * listeners ran. The callback is not run for events that are rejected.
+     *
+     * @param event
+     *        The event
+     * @param afterHandled
+     *        The callback, or {@code null}
+     */
+    public void handle(Event event, Runnable afterHandled)
+    {
+        long key = getPartitionKey(event);
+        int hash = Long.hashCode(key);
+        hash ^= hash >>> 16;
+        partitions[Math.floorMod(hash, partitions.length)].offer(new QueuedEvent(event, afterHandled));
+    }
+
+    /**
+     * The key deciding which partition an event is handled in. Events with the same key are handled in the order
+     * they were received.
+     * <br>By default this is the id of the Guild of the event, the id of the Channel for private and group messages,
+     * the id of the User for user updates and {@code 0} for all other events.
+     * <p>
+     * Override this to partition differently, e.g. by channel to handle the channels of a Guild in parallel.
+     *
+     * @param  event
+     *         The event
+     *
+     * @return The partition key of the event
+     */
+    protected long getPartitionKey(Event event)
+    {
+        if (event instanceof GenericGuildEvent)
+            return ((GenericGuildEvent) event).getGuild().getIdLong();
+        if (event instanceof GenericGuildMessageEvent)
+            return ((GenericGuildMessageEvent) event).getGuild().getIdLong();
+        if (event instanceof GenericPrivateMessageEvent)
+            return ((GenericPrivateMessageEvent) event).getChannel().getIdLong();
+        if (event instanceof GenericTextChannelEvent)
+            return ((GenericTextChannelEvent) event).getGuild().getIdLong();
+        if (event instanceof GenericVoiceChannelEvent)
+            return ((GenericVoiceChannelEvent) event).getGuild().getIdLong();
+        if (event instanceof GenericRoleEvent)
+            return ((GenericRoleEvent) event).getGuild().getIdLong();
+        if (event instanceof MessageReceivedEvent)
+            return getKey(((MessageReceivedEvent) event).getGuild(), ((MessageReceivedEvent) event).getChannel());
+        if (event instanceof MessageUpdateEvent)
+            return getKey(((MessageUpdateEvent) event).getGuild(), ((MessageUpdateEvent) event).getChannel());
+        if (event instanceof MessageDeleteEvent)
+            return getKey(((MessageDeleteEvent) event).getGuild(), ((MessageDeleteEvent) event).getChannel());
+        if (event instanceof MessageEmbedEvent)
+            return getKey(((MessageEmbedEvent) event).getGuild(), ((MessageEmbedEvent) event).getChannel());
+        if (event instanceof MessageBulkDeleteEvent)
+            return ((MessageBulkDeleteEvent) event).getGuild().getIdLong();
+        if (event instanceof UserTypingEvent)
+            return getKey(((UserTypingEvent) event).getGuild(), ((UserTypingEvent) event).getChannel());
+        if (event instanceof GenericUserEvent)
+            return ((GenericUserEvent) event).getUser().getIdLong();
+        return 0;
+    }
+
+    private static long getKey(Guild guild, MessageChannel channel)
+    {
+        return guild != null ? guild.getIdLong() : channel.getIdLong();
+    }
+
+    /**
+     * Stops accepting events, handles all queued events and shuts down the executor if it was created by this
+     * AsyncEventManager. Called by JDA on shutdown.
+     * <br>Events passed to {@link #handle(Event)} afterwards are rejected.
+     */
+    public void shutdown()
+    {
+        for (Partition partition : partitions)
+            partition.close();
+        if (ownsExecutor)
+            executor.shutdown();
+    }
+
+    /**
+     * The amount of events that are waiting to be handled.
+     *
+     * @return The amount of queued events
+     */
+    public int getQueuedCount()
+    {
+        int queued = 0;
+        for (Partition partition : partitions)
+            queued += partition.queue.size();
+        return queued;
+    }
+
+    /**
+     * The amount of events that were passed to the wrapped IEventManager.
+     *
+     * @return The dispatched count
+     */
+    public long getDispatchedCount()
+    {
+        return dispatched.sum();
+    }
+
+    /**
+     * The amount of events that were dropped by the {@link RejectPolicy RejectPolicy} or because this manager was
+     * shut down.
+     *
+     * @return The rejected count
+     */
+    public long getRejectedCount()
+    {
+        return rejected.sum();
+    }
+
+    /**
+     * The average time events waited in their queue before they were dispatched.
+     *
+     * @param  unit
+     *         The unit of the returned time
+     *
+     * @return The average queue latency, 0 if no event was dispatched yet
+     */
+    public long getAverageQueueLatency(TimeUnit unit)
+    {
+        long count = getDispatchedCount();
+        return count == 0 ? 0 : unit.convert(totalQueueTime.sum() / count, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The longest time an event waited in its queue before it was dispatched.
+     *
+     * @param  unit
+     *         The unit of the returned time
+     *
+     * @return The maximum queue latency
+     */
+    public long getMaxQueueLatency(TimeUnit unit)
+    {
+        return unit.convert(maxQueueTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Resets the metrics.
+     */
+    public void resetMetrics()
+    {
+        dispatched.reset();
+        rejected.reset();
+        totalQueueTime.reset();
+        maxQueueTime.reset();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("AsyncEventManager(queued: %d, dispatched: %d, rejected: %d, avg latency: %dus)",
+                getQueuedCount(), getDispatchedCount(), getRejectedCount(), getAverageQueueLatency(TimeUnit.MICROSECONDS));
+    }
+
+    private void dispatch(QueuedEvent queued)
+    {
+        long queueTime = System.nanoTime() - queued.queuedAt;
+        totalQueueTime.add(queueTime);
+        maxQueueTime.accumulate(queueTime);
+        dispatched.increment();
+        try
+        {
+            delegate.handle(queued.event);
+        }
+        catch (Throwable throwable)
+        {
+            JDAImpl.LOG.fatal("The IEventManager wrapped by the AsyncEventManager had an uncaught exception");
+            JDAImpl.LOG.log(throwable);
+        }
+        if (queued.afterHandled == null)
+            return;
+        try
+        {
+            queued.afterHandled.run();
+        }
+        catch (Throwable throwable)
+        {
+            JDAImpl.LOG.fatal("The callback of an event handled by the AsyncEventManager had an uncaught exception");
+            JDAImpl.LOG.log(throwable);
+        }
+    }
+
+    private void reject(Event event)
+    {
+        rejected.increment();
+        JDAImpl.LOG.debug("AsyncEventManager dropped a " + event.getClass().getSimpleName());
+    }
+
+    /**
+     * Decides what happens to an event when the queue of its partition is full.
+     */
+    public enum RejectPolicy
+    {
+        /**
+         * Waits for space in the queue. Nothing is lost, but the websocket thread stalls until the listeners of
+         * the partition catch up.
+         */
+        BLOCK,
+        /**
+         * Drops the new event.
+         */
+        DROP_NEWEST,
+        /**
+         * Drops the oldest queued event of the partition to make room for the new event.
+         */
+        DROP_OLDEST
+    }
+
+    private static final class QueuedEvent
+    {
+        private final Event event;
+        private final Runnable afterHandled;
+        private final long queuedAt;
+
+        private QueuedEvent(Event event, Runnable afterHandled)
+        {
+            this.event = event;
+            this.afterHandled = afterHandled;
+            this.queuedAt = System.nanoTime();
+        }
+    }
+
+    private final class Partition implements Runnable
+    {
+        private final BlockingQueue<QueuedEvent> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Partition(int capacity)
+        {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void offer(QueuedEvent queued)
+        {
+            if (closed)
+            {
+                reject(queued.event);
+                return;
+            }
+            if (!queue.offer(queued))
+            {
+                switch (rejectPolicy)
+                {
+                    case BLOCK:
+                        try
+                        {
+                            schedule();
+                            queue.put(queued);
+                        }
+                        catch (InterruptedException e)
+                        {
+                            Thread.currentThread().interrupt();
+                            reject(queued.event);
+                        }
+                        break;
+                    case DROP_OLDEST:
+                        while (!queue.offer(queued))
+                        {
+                            QueuedEvent dropped = queue.poll();
+                            if (dropped != null)
+                                reject(dropped.event);
+                        }
+                        break;
+                    default:
+                        reject(queued.event);
+                }
+            }
+            schedule();
+        }
+
+        private void schedule()
+        {
+            if (queue.isEmpty() || !scheduled.compareAndSet(false, true))
+                return;
+            try
+            {
+                executor.execute(this);
+            }
+            catch (RejectedExecutionException e)
+            {
+                //The executor is gone, handle the remaining events on this thread to not lose them
+                JDAImpl.LOG.warn("The executor of the AsyncEventManager rejected a task, handling events on the calling thread");
+                try
+                {
+                    drain(Integer.MAX_VALUE);
+                }
+                finally
+                {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void close()
+        {
+            closed = true;
+            schedule();
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                drain(BATCH_SIZE);
+            }
+            finally
+            {
+                scheduled.set(false);
+            }
+            //Events offered while the flag was still set have to be picked up here
+            schedule();
+        }
+
+        private void drain(int limit)
+        {
+            QueuedEvent queued;
+            for (int i = 0; i < limit && (queued = queue.poll()) != null; i++)
+                dispatch(queued);
+        }
+    }
+}
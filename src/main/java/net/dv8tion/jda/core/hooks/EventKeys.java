@@ -0,0 +1,138 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package net.dv8tion.jda.core.hooks;
+
+import net.dv8tion.jda.client.events.message.group.GenericGroupMessageEvent;
+import net.dv8tion.jda.core.entities.Guild;
+import net.dv8tion.jda.core.entities.ISnowflake;
+import net.dv8tion.jda.core.entities.Member;
+import net.dv8tion.jda.core.entities.User;
+import net.dv8tion.jda.core.events.Event;
+import net.dv8tion.jda.core.events.channel.text.GenericTextChannelEvent;
+import net.dv8tion.jda.core.events.channel.voice.GenericVoiceChannelEvent;
+import net.dv8tion.jda.core.events.guild.GenericGuildEvent;
+import net.dv8tion.jda.core.events.guild.GuildBanEvent;
+import net.dv8tion.jda.core.events.guild.GuildUnbanEvent;
+import net.dv8tion.jda.core.events.guild.member.GenericGuildMemberEvent;
+import net.dv8tion.jda.core.events.guild.voice.GenericGuildVoiceEvent;
+import net.dv8tion.jda.core.events.message.*;
+import net.dv8tion.jda.core.events.message.guild.GenericGuildMessageEvent;
+import net.dv8tion.jda.core.events.message.priv.GenericPrivateMessageEvent;
+import net.dv8tion.jda.core.events.role.GenericRoleEvent;
+import net.dv8tion.jda.core.events.user.GenericUserEvent;
+import net.dv8tion.jda.core.events.user.UserGameUpdateEvent;
+import net.dv8tion.jda.core.events.user.UserOnlineStatusUpdateEvent;
+import net.dv8tion.jda.core.events.user.UserTypingEvent;
+
+/**
+ * Resolves the Guild, Channel and User ids an event belongs to, {@code 0} where the event has none.
+ */
+final class EventKeys
+{
+    private EventKeys() {}
+
+    static long getGuildId(Event event)
+    {
+        Guild guild = null;
+        if (event instanceof GenericGuildEvent)
+            guild = ((GenericGuildEvent) event).getGuild();
+        else if (event instanceof GenericGuildMessageEvent)
+            guild = ((GenericGuildMessageEvent) event).getGuild();
+        else if (event instanceof GenericTextChannelEvent)
+            guild = ((GenericTextChannelEvent) event).getGuild();
+        else if (event instanceof GenericVoiceChannelEvent)
+            guild = ((GenericVoiceChannelEvent) event).getGuild();
+        else if (event instanceof GenericRoleEvent)
+            guild = ((GenericRoleEvent) event).getGuild();
+        else if (event instanceof MessageReceivedEvent)
+            guild = ((MessageReceivedEvent) event).getGuild();
+        else if (event instanceof MessageUpdateEvent)
+            guild = ((MessageUpdateEvent) event).getGuild();
+        else if (event instanceof MessageDeleteEvent)
+            guild = ((MessageDeleteEvent) event).getGuild();
+        else if (event instanceof MessageEmbedEvent)
+            guild = ((MessageEmbedEvent) event).getGuild();
+        else if (event instanceof MessageBulkDeleteEvent)
+            guild = ((MessageBulkDeleteEvent) event).getGuild();
+        else if (event instanceof UserTypingEvent)
+            guild = ((UserTypingEvent) event).getGuild();
+        else if (event instanceof UserOnlineStatusUpdateEvent)
+            guild = ((UserOnlineStatusUpdateEvent) event).getGuild();
+        else if (event instanceof UserGameUpdateEvent)
+            guild = ((UserGameUpdateEvent) event).getGuild();
+        return getId(guild);
+    }
+
+    static long getChannelId(Event event)
+    {
+        ISnowflake channel = null;
+        if (event instanceof GenericGuildMessageEvent)
+            channel = ((GenericGuildMessageEvent) event).getChannel();
+        else if (event instanceof GenericPrivateMessageEvent)
+            channel = ((GenericPrivateMessageEvent) event).getChannel();
+        else if (event instanceof GenericGroupMessageEvent)
+            channel = ((GenericGroupMessageEvent) event).getGroup();
+        else if (event instanceof MessageReceivedEvent)
+            channel = ((MessageReceivedEvent) event).getChannel();
+        else if (event instanceof MessageUpdateEvent)
+            channel = ((MessageUpdateEvent) event).getChannel();
+        else if (event instanceof MessageDeleteEvent)
+            channel = ((MessageDeleteEvent) event).getChannel();
+        else if (event instanceof MessageEmbedEvent)
+            channel = ((MessageEmbedEvent) event).getChannel();
+        else if (event instanceof MessageBulkDeleteEvent)
+            channel = ((MessageBulkDeleteEvent) event).getChannel();
+        else if (event instanceof GenericTextChannelEvent)
+            channel = ((GenericTextChannelEvent) event).getChannel();
+        else if (event instanceof GenericVoiceChannelEvent)
+            channel = ((GenericVoiceChannelEvent) event).getChannel();
+        else if (event instanceof UserTypingEvent)
+            channel = ((UserTypingEvent) event).getChannel();
+        return getId(channel);
+    }
+
+    static long getUserId(Event event)
+    {
+        User user = null;
+        if (event instanceof GenericMessageEvent)
+            user = ((GenericMessageEvent) event).getAuthor();
+        else if (event instanceof MessageReceivedEvent)
+            user = ((MessageReceivedEvent) event).getAuthor();
+        else if (event instanceof MessageUpdateEvent)
+            user = ((MessageUpdateEvent) event).getAuthor();
+        else if (event instanceof GenericUserEvent)
+            user = ((GenericUserEvent) event).getUser();
+        else if (event instanceof GenericGuildMemberEvent)
+            user = getUser(((GenericGuildMemberEvent) event).getMember());
+        else if (event instanceof GenericGuildVoiceEvent)
+            user = getUser(((GenericGuildVoiceEvent) event).getMember());
+        else if (event instanceof GuildBanEvent)
+            user = ((GuildBanEvent) event).getUser();
+        else if (event instanceof GuildUnbanEvent)
+            user = ((GuildUnbanEvent) event).getUser();
+        return getId(user);
+    }
+
+    private static User getUser(Member member)
+    {
+        return member == null ? null : member.getUser();
+    }
+
+    private static long getId(ISnowflake snowflake)
+    {
+        return snowflake == null ? 0 : snowflake.getIdLong();
+    }
+}
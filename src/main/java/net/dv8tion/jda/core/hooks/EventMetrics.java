@@ -0,0 +1,249 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package net.dv8tion.jda.core.hooks;
+
+import net.dv8tion.jda.core.events.Event;
+import net.dv8tion.jda.core.utils.LatencyHistogram;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link net.dv8tion.jda.core.hooks.EventMetricsListener EventMetricsListener} that aggregates the latencies of
+ * every gateway event type and every {@link net.dv8tion.jda.core.events.Event Event} class into
+ * {@link net.dv8tion.jda.core.utils.LatencyHistogram LatencyHistograms} and counts their rate.
+ * <p>
+ * Gateway event types record {@link Stage#DECODE DECODE}, {@link Stage#HANDLER HANDLER} and
+ * {@link Stage#TOTAL TOTAL}, Event classes record {@link Stage#LISTENERS LISTENERS} and {@link Stage#TOTAL TOTAL}.
+ *
+ * <p><b>Example</b>
+ * <pre>{@code
+ * EventMetrics metrics = new EventMetrics();
+ * JDA jda = new JDABuilder(AccountType.BOT).setEventMetricsListener(metrics)...;
+ * long p99 = metrics.getEventStats(GuildMessageReceivedEvent.class).getHistogram(Stage.TOTAL).getPercentile(99, TimeUnit.MILLISECONDS);
+ * }</pre>
+ */
+public class EventMetrics implements EventMetricsListener
+{
+    private final Map<String, Stats> gatewayStats = new ConcurrentHashMap<>();
+    private final Map<Class<? extends Event>, Stats> eventStats = new ConcurrentHashMap<>();
+
+    @Override
+    public void onGatewayEvent(String type, long receivedAt, long decodedAt, long handledAt)
+    {
+        Stats stats = gatewayStats.get(type);
+        if (stats == null)
+            stats = gatewayStats.computeIfAbsent(type, t -> new Stats(Stage.DECODE, Stage.HANDLER, Stage.TOTAL));
+        stats.record(handledAt);
+        stats.histograms[Stage.DECODE.ordinal()].record(decodedAt - receivedAt);
+        stats.histograms[Stage.HANDLER.ordinal()].record(handledAt - decodedAt);
+        stats.histograms[Stage.TOTAL.ordinal()].record(handledAt - receivedAt);
+    }
+
+    @Override
+    public void onEvent(Event event, long receivedAt, long dispatchedAt, long completedAt)
+    {
+        Stats stats = eventStats.get(event.getClass());
+        if (stats == null)
+            stats = eventStats.computeIfAbsent(event.getClass(), c -> new Stats(Stage.LISTENERS, Stage.TOTAL));
+        stats.record(completedAt);
+        stats.histograms[Stage.LISTENERS.ordinal()].record(completedAt - dispatchedAt);
+        stats.histograms[Stage.TOTAL.ordinal()].record(completedAt - receivedAt);
+    }
+
+    /**
+     * The statistics of every gateway event type that was received.
+     *
+     * @return Immutable map from gateway event type (e.g. {@code MESSAGE_CREATE}) to its {@link Stats Stats}
+     */
+    public Map<String, Stats> getGatewayStats()
+    {
+        return Collections.unmodifiableMap(new HashMap<>(gatewayStats));
+    }
+
+    /**
+     * The statistics of a gateway event type.
+     *
+     * @param  type
+     *         The gateway event type, e.g. {@code MESSAGE_CREATE}
+     *
+     * @return The {@link Stats Stats}, or {@code null} if no such event was received
+     */
+    public Stats getGatewayStats(String type)
+    {
+        return gatewayStats.get(type);
+    }
+
+    /**
+     * The statistics of every Event class that was fired.
+     *
+     * @return Immutable map from Event class to its {@link Stats Stats}
+     */
+    public Map<Class<? extends Event>, Stats> getEventStats()
+    {
+        return Collections.unmodifiableMap(new HashMap<>(eventStats));
+    }
+
+    /**
+     * The statistics of an Event class. Only counts events of exactly this class, not of its subclasses.
+     *
+     * @param  eventClass
+     *         The class of the event
+     *
+     * @return The {@link Stats Stats}, or {@code null} if no such event was fired
+     */
+    public Stats getEventStats(Class<? extends Event> eventClass)
+    {
+        return eventStats.get(eventClass);
+    }
+
+    /**
+     * Removes all statistics.
+     */
+    public void reset()
+    {
+        gatewayStats.clear();
+        eventStats.clear();
+    }
+
+    /**
+     * A report of the rate, median and 99th percentile of all gateway event types and Event classes, one per line.
+     *
+     * @return The report
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder("EventMetrics");
+        gatewayStats.forEach((type, stats) -> builder.append("\n  ").append(type).append(": ").append(stats));
+        eventStats.forEach((type, stats) -> builder.append("\n  ").append(type.getSimpleName()).append(": ").append(stats));
+        return builder.toString();
+    }
+
+    /**
+     * The span between two timestamps recorded by a {@link Stats Stats}.
+     */
+    public enum Stage
+    {
+        /**
+         * From receiving the frame until it was parsed to JSON, including decompression.
+         */
+        DECODE,
+        /**
+         * From the parsed JSON until the handler updated the cache and fired its events.
+         */
+        HANDLER,
+        /**
+         * From passing an Event to the IEventManager until its listeners returned, including the time it was queued
+         * by an {@link net.dv8tion.jda.core.hooks.AsyncEventManager AsyncEventManager}.
+         */
+        LISTENERS,
+        /**
+         * From receiving the frame until the handler (gateway events) or the listeners (Events) returned.
+         */
+        TOTAL
+    }
+
+    /**
+     * The count, rate and latency histograms of a gateway event type or Event class.
+     */
+    public static class Stats
+    {
+        //The rate is averaged over the complete seconds of this window
+        private static final int RATE_WINDOW = 10;
+        private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+        private final LatencyHistogram[] histograms = new LatencyHistogram[Stage.values().length];
+        private final LongAdder count = new LongAdder();
+        private final AtomicLongArray secondCounts = new AtomicLongArray(RATE_WINDOW);
+        private final AtomicLongArray seconds = new AtomicLongArray(RATE_WINDOW);
+
+        private Stats(Stage... stages)
+        {
+            for (Stage stage : stages)
+                histograms[stage.ordinal()] = new LatencyHistogram();
+            for (int i = 0; i < RATE_WINDOW; i++)
+                seconds.set(i, Long.MIN_VALUE);
+        }
+
+        /**
+         * The amount of recorded events.
+         *
+         * @return The count
+         */
+        public long getCount()
+        {
+            return count.sum();
+        }
+
+        /**
+         * The amount of events per second, averaged over the last 9 complete seconds.
+         *
+         * @return The rate
+         */
+        public double getRate()
+        {
+            long current = Math.floorDiv(System.nanoTime(), SECOND);
+            long events = 0;
+            for (int i = 0; i < RATE_WINDOW; i++)
+            {
+                long second = seconds.get(i);
+                if (second < current && second >= current - (RATE_WINDOW - 1))
+                    events += secondCounts.get(i);
+            }
+            return events / (double) (RATE_WINDOW - 1);
+        }
+
+        /**
+         * The latency histogram of a {@link Stage Stage}.
+         *
+         * @param  stage
+         *         The stage
+         *
+         * @return The {@link net.dv8tion.jda.core.utils.LatencyHistogram LatencyHistogram}, or {@code null} if
+         *         this stage does not apply to the event
+         */
+        public LatencyHistogram getHistogram(Stage stage)
+        {
+            return histograms[stage.ordinal()];
+        }
+
+        @Override
+        public String toString()
+        {
+            LatencyHistogram total = histograms[Stage.TOTAL.ordinal()];
+            return String.format("%d events, %.1f/s, p50: %dus, p99: %dus, max: %dus", getCount(), getRate(),
+                    total.getPercentile(50, TimeUnit.MICROSECONDS), total.getPercentile(99, TimeUnit.MICROSECONDS),
+                    total.getMax(TimeUnit.MICROSECONDS));
+        }
+
+        private void record(long now)
+        {
+            count.increment();
+            long second = Math.floorDiv(now, SECOND);
+            int slot = (int) Math.floorMod(second, (long) RATE_WINDOW);
+            long previous = seconds.get(slot);
+            if (previous != second && seconds.compareAndSet(slot, previous, second))
+                secondCounts.set(slot, 0);
+            secondCounts.incrementAndGet(slot);
+        }
+    }
+}
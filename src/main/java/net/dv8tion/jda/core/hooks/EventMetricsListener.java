@@ -0,0 +1,65 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package net.dv8tion.jda.core.hooks;
+
+import net.dv8tion.jda.core.events.Event;
+
+/**
+ * Receives the timestamps of every gateway event and every fired {@link net.dv8tion.jda.core.events.Event Event},
+ * to find out where the time between a frame arriving and the listeners finishing is spent.
+ * <br>Set it using {@link net.dv8tion.jda.core.JDABuilder#setEventMetricsListener(EventMetricsListener)} or
+ * {@link net.dv8tion.jda.core.JDA#setEventMetricsListener(EventMetricsListener)}. Without one, JDA does not take any
+ * timestamps. {@link net.dv8tion.jda.core.hooks.EventMetrics EventMetrics} aggregates them into histograms.
+ * <p>
+ * All timestamps are {@link System#nanoTime()} values. The methods are called on the thread handling the event,
+ * the websocket thread or the worker of an {@link net.dv8tion.jda.core.hooks.AsyncEventManager AsyncEventManager},
+ * and must return quickly.
+ */
+public interface EventMetricsListener
+{
+    /**
+     * Called after a gateway event (op 0) was handled, meaning the cache was updated and all resulting events were
+     * passed to the {@link net.dv8tion.jda.core.hooks.IEventManager IEventManager}.
+     *
+     * @param type
+     *        The gateway event type, e.g. {@code MESSAGE_CREATE}
+     * @param receivedAt
+     *        When the frame arrived, before it was decompressed
+     * @param decodedAt
+     *        When the frame was parsed to JSON
+     * @param handledAt
+     *        When its handler returned
+     */
+    void onGatewayEvent(String type, long receivedAt, long decodedAt, long handledAt);
+
+    /**
+     * Called after the listeners of the {@link net.dv8tion.jda.core.hooks.IEventManager IEventManager} handled an event.
+     * <br>With an {@link net.dv8tion.jda.core.hooks.AsyncEventManager AsyncEventManager} this is called on its worker
+     * once the wrapped IEventManager returned, so the time spent in the queue is included. Events rejected by the
+     * AsyncEventManager are not reported.
+     *
+     * @param event
+     *        The event
+     * @param receivedAt
+     *        When the gateway frame that caused the event arrived, equal to {@code dispatchedAt} if the event was
+     *        not fired while handling a frame on this thread
+     * @param dispatchedAt
+     *        When the event was passed to the IEventManager
+     * @param completedAt
+     *        When the listeners returned
+     */
+    void onEvent(Event event, long receivedAt, long dispatchedAt, long completedAt);
+}
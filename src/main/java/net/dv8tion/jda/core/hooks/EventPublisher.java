@@ -0,0 +1,759 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package net.dv8tion.jda.core.hooks;
+
+import net.dv8tion.jda.core.entities.impl.JDAImpl;
+import net.dv8tion.jda.core.events.Event;
+import org.apache.http.util.Args;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link net.dv8tion.jda.core.hooks.IEventManager IEventManager} that publishes events to
+ * {@link Subscriber Subscribers} with demand-driven delivery, following the contract of Reactive Streams.
+ * <br>{@link Subscriber Subscriber} and {@link Subscription Subscription} have the same methods as their Reactive
+ * Streams counterparts, so bridging to a stream library only takes a thin adapter.
+ * <p>
+ * A subscription can be limited to an event class (including subclasses) and to the events of one Guild.
+ * Every subscription has its own bounded buffer. Events are delivered from that buffer on an executor, only as many
+ * as the Subscriber {@link Subscription#request(long) requested}. If a Subscriber falls behind and its buffer is
+ * full, the {@link OverflowStrategy OverflowStrategy} of the subscription decides which event is lost, instead of
+ * events piling up in memory.
+ * <p>
+ * Listeners registered through JDA are passed to the wrapped IEventManager and are not affected by subscriptions.
+ * <br>Usage: {@code new JDABuilder(AccountType.BOT).setEventManager(publisher)}, or
+ * {@code new AsyncEventManager(publisher)} to keep {@link OverflowStrategy#BLOCK} from stalling the websocket thread.
+ */
+public class EventPublisher implements IEventManager
+{
+    //The amount of events a subscription delivers before giving the executor thread to another subscription
+    private static final int BATCH_SIZE = 64;
+
+    private final IEventManager delegate;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int defaultBufferSize;
+    private final OverflowStrategy defaultOverflow;
+
+    private final Object lock = new Object();
+    private volatile Subscriptions subscriptions = new Subscriptions(Collections.emptyList());
+    private volatile boolean closed;
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Creates an EventPublisher that passes listeners to an {@link net.dv8tion.jda.core.hooks.InterfacedEventManager}
+     * and delivers to subscribers on its own daemon threads, using buffers of 256 events and
+     * {@link OverflowStrategy#DROP_OLDEST}.
+     */
+    public EventPublisher()
+    {
+        this(new InterfacedEventManager());
+    }
+
+    /**
+     * Creates an EventPublisher that passes listeners to the provided IEventManager
+     * and delivers to subscribers on its own daemon threads, using buffers of 256 events and
+     * {@link OverflowStrategy#DROP_OLDEST}.
+     *
+     * @param delegate
+     *      The IEventManager handling the registered listeners
+     */
+    public EventPublisher(IEventManager delegate)
+    {
+        this(delegate, null, 256, OverflowStrategy.DROP_OLDEST);
+    }
+
+    /**
+     * Creates an EventPublisher.
+     *
+     * @param delegate
+     *      The IEventManager handling the registered listeners
+     * @param executor
+     *      The executor delivering events to subscribers, or {@code null} to create a pool with one daemon thread
+     *      per available processor. A provided executor is not shut down by {@link #shutdown()}.
+     * @param defaultBufferSize
+     *      The buffer size of subscriptions that don't specify one
+     * @param defaultOverflow
+     *      The {@link OverflowStrategy OverflowStrategy} of subscriptions that don't specify one
+     *
+     * @throws java.lang.IllegalArgumentException
+     *      If the delegate or defaultOverflow are null or defaultBufferSize is less than 1
+     */
+    public EventPublisher(IEventManager delegate, ExecutorService executor, int defaultBufferSize, OverflowStrategy defaultOverflow)
+    {
+        Args.notNull(delegate, "delegate IEventManager");
+        Args.notNull(defaultOverflow, "OverflowStrategy");
+        Args.check(defaultBufferSize > 0, "defaultBufferSize must be at least 1");
+
+        this.delegate = delegate;
+        this.ownsExecutor = executor == null;
+        this.executor = executor != null ? executor : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory()
+        {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r)
+            {
+                Thread thread = new Thread(r, "JDA EventPublisher Worker " + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.defaultBufferSize = defaultBufferSize;
+        this.defaultOverflow = defaultOverflow;
+    }
+
+    /**
+     * Subscribes to all events, using the default buffer size and {@link OverflowStrategy OverflowStrategy}.
+     *
+     * @param  subscriber
+     *         The Subscriber
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If the subscriber is null
+     * @throws java.lang.IllegalStateException
+     *         If this EventPublisher was shut down
+     *
+     * @return The {@link Subscription Subscription}, which was also passed to
+     *         {@link Subscriber#onSubscribe(Subscription)}
+     */
+    public Subscription subscribe(Subscriber<? super Event> subscriber)
+    {
+        return subscribe(Event.class, 0, subscriber, defaultBufferSize, defaultOverflow);
+    }
+
+    /**
+     * Subscribes to the events of the provided class and its subclasses, using the default buffer size and
+     * {@link OverflowStrategy OverflowStrategy}.
+     *
+     * @param  eventClass
+     *         The class of the events, e.g. {@code GenericGuildMessageEvent.class}
+     * @param  subscriber
+     *         The Subscriber
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If the eventClass or subscriber are null
+     * @throws java.lang.IllegalStateException
+     *         If this EventPublisher was shut down
+     *
+     * @return The {@link Subscription Subscription}, which was also passed to
+     *         {@link Subscriber#onSubscribe(Subscription)}
+     */
+    public <T extends Event> Subscription subscribe(Class<T> eventClass, Subscriber<? super T> subscriber)
+    {
+        return subscribe(eventClass, 0, subscriber, defaultBufferSize, defaultOverflow);
+    }
+
+    /**
+     * Subscribes to the events of the provided class and its subclasses that belong to the Guild with the provided id,
+     * using the default buffer size and {@link OverflowStrategy OverflowStrategy}.
+     *
+     * @param  eventClass
+     *         The class of the events, e.g. {@code GenericGuildMessageEvent.class}
+     * @param  guildId
+     *         The id of the Guild, or {@code 0} to receive the events of all Guilds and those without a Guild
+     * @param  subscriber
+     *         The Subscriber
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If the eventClass or subscriber are null
+     * @throws java.lang.IllegalStateException
+     *         If this EventPublisher was shut down
+     *
+     * @return The {@link Subscription Subscription}, which was also passed to
+     *         {@link Subscriber#onSubscribe(Subscription)}
+     */
+    public <T extends Event> Subscription subscribe(Class<T> eventClass, long guildId, Subscriber<? super T> subscriber)
+    {
+        return subscribe(eventClass, guildId, subscriber, defaultBufferSize, defaultOverflow);
+    }
+
+    /**
+     * Subscribes to the events of the provided class and its subclasses that belong to the Guild with the provided id.
+     * <br>{@link Subscriber#onSubscribe(Subscription)} is called on the current thread before this method returns,
+     * events are only buffered after that.
+     *
+     * @param  eventClass
+     *         The class of the events, e.g. {@code GenericGuildMessageEvent.class}
+     * @param  guildId
+     *         The id of the Guild, or {@code 0} to receive the events of all Guilds and those without a Guild
+     * @param  subscriber
+     *         The Subscriber
+     * @param  bufferSize
+     *         The amount of events held for the Subscriber before the overflow strategy applies
+     * @param  overflow
+     *         The {@link OverflowStrategy OverflowStrategy} used when the buffer is full
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If the eventClass, subscriber or overflow are null or the bufferSize is less than 1
+     * @throws java.lang.IllegalStateException
+     *         If this EventPublisher was shut down
+     *
+     * @return The {@link Subscription Subscription}, which was also passed to
+     *         {@link Subscriber#onSubscribe(Subscription)}
+     */
+    public <T extends Event> Subscription subscribe(Class<T> eventClass, long guildId, Subscriber<? super T> subscriber,
+                                                    int bufferSize, OverflowStrategy overflow)
+    {
+        Args.notNull(eventClass, "event class");
+        Args.notNull(subscriber, "Subscriber");
+        Args.notNull(overflow, "OverflowStrategy");
+        Args.check(bufferSize > 0, "bufferSize must be at least 1");
+        if (closed)
+            throw new IllegalStateException("This EventPublisher was shut down");
+
+        SubscriptionImpl<T> subscription = new SubscriptionImpl<>(eventClass, guildId, subscriber, bufferSize, overflow);
+        try
+        {
+            subscriber.onSubscribe(subscription);
+        }
+        catch (Throwable throwable)
+        {
+            JDAImpl.LOG.fatal("A Subscriber of the EventPublisher had an uncaught exception in onSubscribe");
+            JDAImpl.LOG.log(throwable);
+            subscription.cancelled = true;
+            return subscription;
+        }
+        synchronized (lock)
+        {
+            if (!subscription.cancelled)
+            {
+                List<SubscriptionImpl<?>> list = new ArrayList<>(subscriptions.list);
+                list.add(subscription);
+                subscriptions = new Subscriptions(list);
+            }
+        }
+        return subscription;
+    }
+
+    @Override
+    public void register(Object listener)
+    {
+        delegate.register(listener);
+    }
+
+    @Override
+    public void unregister(Object listener)
+    {
+        delegate.unregister(listener);
+    }
+
+    @Override
+    public List<Object> getRegisteredListeners()
+    {
+        return delegate.getRegisteredListeners();
+    }
+
+    @Override
+    public boolean isInterested(Class<? extends Event> eventClass)
+    {
+        return subscriptions.get(eventClass).length > 0 || delegate.isInterested(eventClass);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void handle(Event event)
+    {
+        delegate.handle(event);
+
+        SubscriptionImpl<?>[] matching = subscriptions.get(event.getClass());
+        if (matching.length == 0 || closed)
+            return;
+        long guildId = -1;
+        for (SubscriptionImpl<?> subscription : matching)
+        {
+            if (subscription.guildId != 0)
+            {
+                if (guildId == -1)
+                    guildId = getGuildId(event);
+                if (subscription.guildId != guildId)
+                    continue;
+            }
+            ((SubscriptionImpl<Event>) subscription).offer(event);
+        }
+    }
+
+    /**
+     * The id of the Guild an event belongs to, used for subscriptions limited to a Guild.
+     *
+     * @param  event
+     *         The event
+     *
+     * @return The id of the Guild of the event, or {@code 0} if it doesn't belong to a Guild
+     */
+    protected long getGuildId(Event event)
+    {
+        return EventKeys.getGuildId(event);
+    }
+
+    /**
+     * Stops accepting subscriptions and events. Every Subscriber receives {@link Subscriber#onComplete()} once it
+     * requested the events left in its buffer. Shuts down the executor if it was created by this EventPublisher.
+     * Called by JDA on shutdown.
+     */
+    public void shutdown()
+    {
+        closed = true;
+        for (SubscriptionImpl<?> subscription : subscriptions.list)
+            subscription.complete();
+        if (ownsExecutor)
+            executor.shutdown();
+    }
+
+    /**
+     * The active subscriptions.
+     *
+     * @return Immutable list of the {@link Subscription Subscriptions} that were not cancelled or completed
+     */
+    public List<Subscription> getSubscriptions()
+    {
+        return Collections.unmodifiableList(new ArrayList<>(subscriptions.list));
+    }
+
+    /**
+     * The amount of events that were dropped for any subscription because its buffer was full.
+     *
+     * @return The dropped count
+     *
+     * @see    Subscription#getDroppedCount()
+     */
+    public long getDroppedCount()
+    {
+        return dropped.sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("EventPublisher(subscriptions: %d, dropped: %d)", subscriptions.list.size(), getDroppedCount());
+    }
+
+    private void remove(SubscriptionImpl<?> subscription)
+    {
+        synchronized (lock)
+        {
+            List<SubscriptionImpl<?>> list = new ArrayList<>(subscriptions.list);
+            if (list.remove(subscription))
+                subscriptions = new Subscriptions(list);
+        }
+    }
+
+    /**
+     * Receives the events of a subscription. Mirrors {@code org.reactivestreams.Subscriber}.
+     * <br>All methods of a Subscriber are called one at a time, but not necessarily on the same thread.
+     *
+     * @param <T>
+     *        The type of the received events
+     */
+    public interface Subscriber<T>
+    {
+        /**
+         * Called once before any other method with the Subscription used to request events.
+         * No events are delivered until {@link Subscription#request(long)} is called.
+         *
+         * @param subscription
+         *        The Subscription
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Receives the next event. Called at most as often as requested.
+         *
+         * @param event
+         *        The event
+         */
+        void onNext(T event);
+
+        /**
+         * Called when the subscription failed, e.g. because a non-positive amount was requested.
+         * No other method is called afterwards.
+         *
+         * @param throwable
+         *        The cause
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * Called after the {@link EventPublisher EventPublisher} was shut down and the remaining buffered events were
+         * delivered. No other method is called afterwards.
+         */
+        void onComplete();
+    }
+
+    /**
+     * The link between an {@link EventPublisher EventPublisher} and a {@link Subscriber Subscriber}.
+     * Mirrors {@code org.reactivestreams.Subscription} and adds access to the buffer metrics.
+     */
+    public interface Subscription
+    {
+        /**
+         * Allows the delivery of the provided amount of additional events.
+         * <br>{@link Long#MAX_VALUE} disables the demand accounting. A non-positive amount fails the subscription
+         * with an {@link java.lang.IllegalArgumentException IllegalArgumentException}.
+         *
+         * @param n
+         *        The amount of events
+         */
+        void request(long n);
+
+        /**
+         * Stops the delivery of events and discards the buffer. Calling this more than once has no effect.
+         */
+        void cancel();
+
+        /**
+         * The amount of events waiting in the buffer of this subscription.
+         *
+         * @return The buffered count
+         */
+        int getBufferedCount();
+
+        /**
+         * The amount of events that were dropped because the buffer of this subscription was full.
+         *
+         * @return The dropped count
+         */
+        long getDroppedCount();
+    }
+
+    /**
+     * Decides what happens to an event when the buffer of a subscription is full.
+     */
+    public enum OverflowStrategy
+    {
+        /**
+         * Waits for space in the buffer. Nothing is lost, but the thread handling events stalls until the Subscriber
+         * catches up, which is the websocket thread unless the EventPublisher is wrapped by an
+         * {@link net.dv8tion.jda.core.hooks.AsyncEventManager AsyncEventManager}. Then only the partition of the
+         * Guild is blocked.
+         * <br>On {@link #shutdown()} waiting events are dropped instead.
+         */
+        BLOCK,
+        /**
+         * Drops the new event.
+         */
+        DROP_NEWEST,
+        /**
+         * Drops the oldest buffered event to make room for the new event.
+         */
+        DROP_OLDEST
+    }
+
+    private final class SubscriptionImpl<T extends Event> implements Subscription, Runnable
+    {
+        private final Class<T> eventClass;
+        private final long guildId;
+        private final Subscriber<? super T> subscriber;
+        private final int capacity;
+        private final OverflowStrategy overflow;
+
+        //Guarded by this
+        private final ArrayDeque<T> buffer = new ArrayDeque<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final LongAdder droppedCount = new LongAdder();
+        private volatile Throwable error;
+        private volatile boolean completed;
+        private volatile boolean cancelled;
+
+        private SubscriptionImpl(Class<T> eventClass, long guildId, Subscriber<? super T> subscriber, int capacity, OverflowStrategy overflow)
+        {
+            this.eventClass = eventClass;
+            this.guildId = guildId;
+            this.subscriber = subscriber;
+            this.capacity = capacity;
+            this.overflow = overflow;
+        }
+
+        @Override
+        public void request(long n)
+        {
+            if (cancelled)
+                return;
+            if (n <= 0)
+            {
+                error = new IllegalArgumentException("Requested amount must be positive, was " + n);
+            }
+            else
+            {
+                long current, next;
+                do
+                {
+                    current = requested.get();
+                    if (current == Long.MAX_VALUE)
+                        break;
+                    next = current + n;
+                    if (next < 0)
+                        next = Long.MAX_VALUE;
+                }
+                while (!requested.compareAndSet(current, next));
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel()
+        {
+            cancelled = true;
+            synchronized (this)
+            {
+                buffer.clear();
+                notifyAll();
+            }
+            remove(this);
+        }
+
+        @Override
+        public synchronized int getBufferedCount()
+        {
+            return buffer.size();
+        }
+
+        @Override
+        public long getDroppedCount()
+        {
+            return droppedCount.sum();
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("Subscription(%s, guild: %d, buffered: %d, dropped: %d)",
+                    eventClass.getSimpleName(), guildId, getBufferedCount(), getDroppedCount());
+        }
+
+        private void offer(T event)
+        {
+            synchronized (this)
+            {
+                if (cancelled)
+                    return;
+                if (completed)
+                {
+                    //The EventPublisher was shut down while this event was dispatched
+                    drop(event);
+                    return;
+                }
+                if (buffer.size() >= capacity)
+                {
+                    switch (overflow)
+                    {
+                        case BLOCK:
+                            schedule();
+                            try
+                            {
+                                while (buffer.size() >= capacity && !cancelled && !completed)
+                                    wait();
+                            }
+                            catch (InterruptedException e)
+                            {
+                                Thread.currentThread().interrupt();
+                                drop(event);
+                                return;
+                            }
+                            if (cancelled)
+                                return;
+                            if (completed)
+                            {
+                                //Shut down while waiting, the Subscriber might never request the buffered events
+                                drop(event);
+                                return;
+                            }
+                            break;
+                        case DROP_OLDEST:
+                            drop(buffer.poll());
+                            break;
+                        default:
+                            drop(event);
+                            return;
+                    }
+                }
+                buffer.add(event);
+            }
+            schedule();
+        }
+
+        private void drop(Event event)
+        {
+            droppedCount.increment();
+            dropped.increment();
+            JDAImpl.LOG.debug("EventPublisher dropped a " + event.getClass().getSimpleName() + " for " + subscriber);
+        }
+
+        private void complete()
+        {
+            synchronized (this)
+            {
+                completed = true;
+                //Wakes up producers blocked by OverflowStrategy.BLOCK
+                notifyAll();
+            }
+            schedule();
+        }
+
+        private synchronized boolean hasWork()
+        {
+            if (cancelled)
+                return false;
+            return error != null || (completed && buffer.isEmpty()) || (!buffer.isEmpty() && requested.get() > 0);
+        }
+
+        private void schedule()
+        {
+            if (!hasWork() || !scheduled.compareAndSet(false, true))
+                return;
+            try
+            {
+                executor.execute(this);
+            }
+            catch (RejectedExecutionException e)
+            {
+                //The executor is gone (e.g. after shutdown), deliver on this thread to still reach the terminal signal
+                try
+                {
+                    drain(Integer.MAX_VALUE);
+                }
+                finally
+                {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                drain(BATCH_SIZE);
+            }
+            finally
+            {
+                scheduled.set(false);
+            }
+            //Events or demand added while the flag was still set have to be picked up here
+            schedule();
+        }
+
+        private void drain(int limit)
+        {
+            for (int i = 0; i < limit && !cancelled; i++)
+            {
+                if (error != null)
+                {
+                    Throwable throwable = error;
+                    cancel();
+                    try
+                    {
+                        subscriber.onError(throwable);
+                    }
+                    catch (Throwable t)
+                    {
+                        JDAImpl.LOG.fatal("A Subscriber of the EventPublisher had an uncaught exception in onError");
+                        JDAImpl.LOG.log(t);
+                    }
+                    return;
+                }
+
+                T event;
+                synchronized (this)
+                {
+                    if (buffer.isEmpty())
+                    {
+                        if (!completed)
+                            return;
+                        event = null;
+                    }
+                    else
+                    {
+                        if (requested.get() == 0)
+                            return;
+                        event = buffer.poll();
+                        notifyAll();
+                    }
+                }
+
+                if (event == null)
+                {
+                    cancel();
+                    try
+                    {
+                        subscriber.onComplete();
+                    }
+                    catch (Throwable t)
+                    {
+                        JDAImpl.LOG.fatal("A Subscriber of the EventPublisher had an uncaught exception in onComplete");
+                        JDAImpl.LOG.log(t);
+                    }
+                    return;
+                }
+
+                if (requested.get() != Long.MAX_VALUE)
+                    requested.decrementAndGet();
+                try
+                {
+                    subscriber.onNext(event);
+                }
+                catch (Throwable t)
+                {
+                    //A Subscriber must not throw, the subscription is considered cancelled
+                    JDAImpl.LOG.fatal("A Subscriber of the EventPublisher had an uncaught exception, cancelling its subscription");
+                    JDAImpl.LOG.log(t);
+                    cancel();
+                }
+            }
+        }
+    }
+
+    //Immutable snapshot of the subscriptions, replaced on every change
+    private static final class Subscriptions
+    {
+        private static final SubscriptionImpl<?>[] EMPTY = new SubscriptionImpl<?>[0];
+
+        private final List<SubscriptionImpl<?>> list;
+        private final Map<Class<?>, SubscriptionImpl<?>[]> byClass = new ConcurrentHashMap<>();
+
+        private Subscriptions(List<SubscriptionImpl<?>> list)
+        {
+            this.list = list;
+        }
+
+        private SubscriptionImpl<?>[] get(Class<? extends Event> eventClass)
+        {
+            SubscriptionImpl<?>[] result = byClass.get(eventClass);
+            if (result == null)
+                result = byClass.computeIfAbsent(eventClass, this::resolve);
+            return result;
+        }
+
+        private SubscriptionImpl<?>[] resolve(Class<?> eventClass)
+        {
+            List<SubscriptionImpl<?>> result = new ArrayList<>();
+            for (SubscriptionImpl<?> subscription : list)
+            {
+                if (subscription.eventClass.isAssignableFrom(eventClass))
+                    result.add(subscription);
+            }
+            return result.isEmpty() ? EMPTY : result.toArray(EMPTY);
+        }
+    }
+}
@@ -0,0 +1,496 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package net.dv8tion.jda.core.hooks;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.core.entities.impl.JDAImpl;
+import net.dv8tion.jda.core.events.Event;
+import org.apache.http.util.Args;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * Waits for future events, e.g. the answer to a question asked by a command.
+ * <br>Every wait completes a {@link java.util.concurrent.CompletableFuture CompletableFuture} with the first event
+ * of the requested class (or a subclass) that matches its condition. If no event matched within the timeout, the
+ * future completes exceptionally with a {@link java.util.concurrent.TimeoutException TimeoutException}.
+ * Cancelling the future ends the wait.
+ * <p>
+ * Waits are indexed by event class and, if requested, by the id of the Channel, User or Guild the event has to
+ * belong to. An event is only tested against the waits registered for its class and its own ids, so the cost of
+ * dispatching does not grow with the amount of pending waits. Timeouts of all EventWaiters share one timer wheel
+ * with a resolution of 100 milliseconds.
+ * <p>
+ * The EventWaiter of a JDA instance is available through {@link net.dv8tion.jda.core.JDA#getEventWaiter()}.
+ * It receives every event after the listeners of the {@link net.dv8tion.jda.core.hooks.IEventManager IEventManager}
+ * handled it, on the same thread. With an {@link net.dv8tion.jda.core.hooks.AsyncEventManager AsyncEventManager}
+ * that is the worker thread, so conditions and continuations don't block the websocket thread.
+ * Conditions are tested and futures completed on that thread, timeouts on the timer thread.
+ * Use the async methods of CompletableFuture for long running continuations.
+ *
+ * <p><b>Example</b>
+ * <pre>{@code
+ * jda.getEventWaiter()
+ *    .waitForUser(GuildMessageReceivedEvent.class, author.getIdLong(),
+ *                 e -> e.getChannel().equals(channel), 30, TimeUnit.SECONDS)
+ *    .thenAccept(e -> channel.sendMessage("You said: " + e.getMessage().getContent()).queue());
+ * }</pre>
+ */
+public class EventWaiter
+{
+    private final Object lock = new Object();
+    private final Map<Class<?>, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * Waits for an event of the provided class that matches the condition.
+     *
+     * @param  eventClass
+     *         The class of the event, subclasses are accepted as well
+     * @param  condition
+     *         The condition the event has to match, or {@code null} to accept the first event
+     * @param  timeout
+     *         The time to wait, {@code 0} or less to wait until the future is cancelled
+     * @param  unit
+     *         The unit of the timeout
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If the eventClass is null, or the unit is null for a positive timeout
+     *
+     * @return A CompletableFuture completed with the matching event
+     */
+    public <T extends Event> CompletableFuture<T> waitFor(Class<T> eventClass, Predicate<? super T> condition, long timeout, TimeUnit unit)
+    {
+        return register(eventClass, Key.NONE, 0, condition, timeout, unit);
+    }
+
+    /**
+     * Waits for an event of the provided class in the Channel with the provided id that matches the condition.
+     * <br>This applies to message events, typing and Channel update events.
+     *
+     * @param  eventClass
+     *         The class of the event, subclasses are accepted as well
+     * @param  channelId
+     *         The id of the Channel the event has to belong to
+     * @param  condition
+     *         The condition the event has to match, or {@code null} to accept the first event
+     * @param  timeout
+     *         The time to wait, {@code 0} or less to wait until the future is cancelled
+     * @param  unit
+     *         The unit of the timeout
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If the eventClass is null, or the unit is null for a positive timeout
+     *
+     * @return A CompletableFuture completed with the matching event
+     */
+    public <T extends Event> CompletableFuture<T> waitForChannel(Class<T> eventClass, long channelId, Predicate<? super T> condition, long timeout, TimeUnit unit)
+    {
+        return register(eventClass, Key.CHANNEL, channelId, condition, timeout, unit);
+    }
+
+    /**
+     * Waits for an event of the provided class caused by the User with the provided id that matches the condition.
+     * <br>This applies to message events (the author), User, Member, voice and ban events.
+     *
+     * @param  eventClass
+     *         The class of the event, subclasses are accepted as well
+     * @param  userId
+     *         The id of the User the event has to belong to
+     * @param  condition
+     *         The condition the event has to match, or {@code null} to accept the first event
+     * @param  timeout
+     *         The time to wait, {@code 0} or less to wait until the future is cancelled
+     * @param  unit
+     *         The unit of the timeout
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If the eventClass is null, or the unit is null for a positive timeout
+     *
+     * @return A CompletableFuture completed with the matching event
+     */
+    public <T extends Event> CompletableFuture<T> waitForUser(Class<T> eventClass, long userId, Predicate<? super T> condition, long timeout, TimeUnit unit)
+    {
+        return register(eventClass, Key.USER, userId, condition, timeout, unit);
+    }
+
+    /**
+     * Waits for an event of the provided class in the Guild with the provided id that matches the condition.
+     *
+     * @param  eventClass
+     *         The class of the event, subclasses are accepted as well
+     * @param  guildId
+     *         The id of the Guild the event has to belong to
+     * @param  condition
+     *         The condition the event has to match, or {@code null} to accept the first event
+     * @param  timeout
+     *         The time to wait, {@code 0} or less to wait until the future is cancelled
+     * @param  unit
+     *         The unit of the timeout
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If the eventClass is null, or the unit is null for a positive timeout
+     *
+     * @return A CompletableFuture completed with the matching event
+     */
+    public <T extends Event> CompletableFuture<T> waitForGuild(Class<T> eventClass, long guildId, Predicate<? super T> condition, long timeout, TimeUnit unit)
+    {
+        return register(eventClass, Key.GUILD, guildId, condition, timeout, unit);
+    }
+
+    /**
+     * Tests the provided event against the waits registered for its class and ids.
+     * <br>Called by JDA for every event after the {@link net.dv8tion.jda.core.hooks.IEventManager} handled it.
+     *
+     * @param event
+     *        The event
+     */
+    public void handle(Event event)
+    {
+        if (pending.get() == 0)
+            return;
+
+        List<Waiter<?>> candidates = null;
+        for (Class<?> c = event.getClass(); c != null && c != Object.class; c = c.getSuperclass())
+        {
+            Bucket bucket = buckets.get(c);
+            if (bucket == null)
+                continue;
+            if (candidates == null)
+                candidates = new ArrayList<>();
+            synchronized (lock)
+            {
+                bucket.collect(event, candidates);
+            }
+        }
+        if (candidates == null)
+            return;
+        for (Waiter<?> waiter : candidates)
+            waiter.test(event);
+    }
+
+    /**
+     * Whether there is a pending wait for events of the provided class.
+     *
+     * @param  eventClass
+     *         The class of the event
+     *
+     * @return True, if an event of this class could complete a wait
+     */
+    public boolean isWaitingFor(Class<? extends Event> eventClass)
+    {
+        if (pending.get() == 0)
+            return false;
+        for (Class<?> c = eventClass; c != null && c != Object.class; c = c.getSuperclass())
+        {
+            if (buckets.containsKey(c))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * The amount of waits that are not completed yet.
+     *
+     * @return The pending count
+     */
+    public int getPendingCount()
+    {
+        return pending.get();
+    }
+
+    /**
+     * Cancels all pending waits. Called by JDA on shutdown.
+     */
+    public void cancelAll()
+    {
+        List<Waiter<?>> waiters = new ArrayList<>();
+        synchronized (lock)
+        {
+            for (Bucket bucket : buckets.values())
+                bucket.collectAll(waiters);
+        }
+        for (Waiter<?> waiter : waiters)
+            waiter.future.cancel(false);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "EventWaiter(pending: " + getPendingCount() + ")";
+    }
+
+    private <T extends Event> CompletableFuture<T> register(Class<T> eventClass, Key key, long id, Predicate<? super T> condition, long timeout, TimeUnit unit)
+    {
+        Args.notNull(eventClass, "event class");
+        if (timeout > 0)
+            Args.notNull(unit, "TimeUnit");
+
+        Waiter<T> waiter = new Waiter<>(eventClass, key, id, condition);
+        synchronized (lock)
+        {
+            buckets.computeIfAbsent(eventClass, c -> new Bucket()).add(waiter);
+            pending.incrementAndGet();
+        }
+        waiter.future.whenComplete((event, throwable) -> remove(waiter));
+        if (timeout > 0)
+        {
+            waiter.deadline = System.nanoTime() + unit.toNanos(timeout);
+            TimerHolder.WHEEL.schedule(waiter);
+        }
+        return waiter.future;
+    }
+
+    private void remove(Waiter<?> waiter)
+    {
+        synchronized (lock)
+        {
+            Bucket bucket = buckets.get(waiter.eventClass);
+            if (bucket != null && bucket.remove(waiter))
+            {
+                pending.decrementAndGet();
+                if (bucket.isEmpty())
+                    buckets.remove(waiter.eventClass);
+            }
+        }
+    }
+
+    private enum Key
+    {
+        NONE, CHANNEL, USER, GUILD
+    }
+
+    private static final class Waiter<T extends Event>
+    {
+        private final Class<T> eventClass;
+        private final Key key;
+        private final long id;
+        private final Predicate<? super T> condition;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        //Only used by the TimerWheel
+        private long deadline;
+        private long remainingRounds;
+
+        private Waiter(Class<T> eventClass, Key key, long id, Predicate<? super T> condition)
+        {
+            this.eventClass = eventClass;
+            this.key = key;
+            this.id = id;
+            this.condition = condition;
+        }
+
+        private void test(Event event)
+        {
+            if (future.isDone())
+                return;
+            T cast = eventClass.cast(event);
+            try
+            {
+                if (condition == null || condition.test(cast))
+                    future.complete(cast);
+            }
+            catch (Throwable throwable)
+            {
+                future.completeExceptionally(throwable);
+            }
+        }
+    }
+
+    //The waits for a single event class, guarded by the lock of the EventWaiter
+    private static final class Bucket
+    {
+        private final Set<Waiter<?>> any = new LinkedHashSet<>();
+        private final TLongObjectMap<Set<Waiter<?>>> byChannel = new TLongObjectHashMap<>();
+        private final TLongObjectMap<Set<Waiter<?>>> byUser = new TLongObjectHashMap<>();
+        private final TLongObjectMap<Set<Waiter<?>>> byGuild = new TLongObjectHashMap<>();
+
+        private void add(Waiter<?> waiter)
+        {
+            if (waiter.key == Key.NONE)
+            {
+                any.add(waiter);
+                return;
+            }
+            TLongObjectMap<Set<Waiter<?>>> map = getMap(waiter.key);
+            Set<Waiter<?>> set = map.get(waiter.id);
+            if (set == null)
+                map.put(waiter.id, set = new LinkedHashSet<>());
+            set.add(waiter);
+        }
+
+        private boolean remove(Waiter<?> waiter)
+        {
+            if (waiter.key == Key.NONE)
+                return any.remove(waiter);
+            TLongObjectMap<Set<Waiter<?>>> map = getMap(waiter.key);
+            Set<Waiter<?>> set = map.get(waiter.id);
+            if (set == null || !set.remove(waiter))
+                return false;
+            if (set.isEmpty())
+                map.remove(waiter.id);
+            return true;
+        }
+
+        private boolean isEmpty()
+        {
+            return any.isEmpty() && byChannel.isEmpty() && byUser.isEmpty() && byGuild.isEmpty();
+        }
+
+        private void collect(Event event, List<Waiter<?>> candidates)
+        {
+            candidates.addAll(any);
+            if (!byChannel.isEmpty())
+                collect(byChannel.get(EventKeys.getChannelId(event)), candidates);
+            if (!byUser.isEmpty())
+                collect(byUser.get(EventKeys.getUserId(event)), candidates);
+            if (!byGuild.isEmpty())
+                collect(byGuild.get(EventKeys.getGuildId(event)), candidates);
+        }
+
+        private void collect(Set<Waiter<?>> set, List<Waiter<?>> candidates)
+        {
+            if (set != null)
+                candidates.addAll(set);
+        }
+
+        private void collectAll(List<Waiter<?>> waiters)
+        {
+            waiters.addAll(any);
+            for (TLongObjectMap<Set<Waiter<?>>> map : Arrays.asList(byChannel, byUser, byGuild))
+                map.forEachValue(waiters::addAll);
+        }
+
+        private TLongObjectMap<Set<Waiter<?>>> getMap(Key key)
+        {
+            switch (key)
+            {
+                case CHANNEL:
+                    return byChannel;
+                case USER:
+                    return byUser;
+                default:
+                    return byGuild;
+            }
+        }
+    }
+
+    //Starts the timer thread with the first timed wait
+    private static final class TimerHolder
+    {
+        private static final TimerWheel WHEEL = new TimerWheel();
+    }
+
+    /*
+     * A hashed timer wheel: every slot holds the waits that time out during one tick, waits more than one revolution
+     * away count down their remaining rounds. Adding a wait is a queue offer, completed waits are dropped when the
+     * wheel reaches their slot.
+     */
+    private static final class TimerWheel implements Runnable
+    {
+        private static final long TICK = TimeUnit.MILLISECONDS.toNanos(100);
+        private static final int SIZE = 512;
+        private static final int MASK = SIZE - 1;
+
+        private final Queue<Waiter<?>> added = new ConcurrentLinkedQueue<>();
+        private final List<List<Waiter<?>>> slots = new ArrayList<>(SIZE);
+        private final long start = System.nanoTime();
+        private long tick;
+
+        private TimerWheel()
+        {
+            for (int i = 0; i < SIZE; i++)
+                slots.add(new LinkedList<>());
+            Thread thread = new Thread(this, "JDA EventWaiter Timer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void schedule(Waiter<?> waiter)
+        {
+            added.add(waiter);
+        }
+
+        @Override
+        public void run()
+        {
+            while (true)
+            {
+                long deadline = start + (tick + 1) * TICK;
+                long sleep;
+                while ((sleep = deadline - System.nanoTime()) > 0)
+                    LockSupport.parkNanos(this, sleep);
+
+                transferAdded();
+                expire(slots.get((int) (tick & MASK)));
+                tick++;
+            }
+        }
+
+        private void transferAdded()
+        {
+            Waiter<?> waiter;
+            while ((waiter = added.poll()) != null)
+            {
+                if (waiter.future.isDone())
+                    continue;
+                //Waits that are already due end up in the current slot
+                long ticks = Math.max((waiter.deadline - start) / TICK, tick);
+                waiter.remainingRounds = (ticks - tick) / SIZE;
+                slots.get((int) (ticks & MASK)).add(waiter);
+            }
+        }
+
+        private void expire(List<Waiter<?>> slot)
+        {
+            for (Iterator<Waiter<?>> it = slot.iterator(); it.hasNext();)
+            {
+                Waiter<?> waiter = it.next();
+                if (waiter.future.isDone())
+                {
+                    it.remove();
+                }
+                else if (waiter.remainingRounds <= 0)
+                {
+                    it.remove();
+                    try
+                    {
+                        waiter.future.completeExceptionally(new TimeoutException(
+                                "Timed out waiting for " + waiter.eventClass.getSimpleName()));
+                    }
+                    catch (Throwable throwable)
+                    {
+                        JDAImpl.LOG.fatal("Encountered an exception while timing out an EventWaiter wait");
+                        JDAImpl.LOG.log(throwable);
+                    }
+                }
+                else
+                {
+                    waiter.remainingRounds--;
+                }
+            }
+        }
+    }
+}
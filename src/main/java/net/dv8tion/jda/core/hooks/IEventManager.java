@@ -28,4 +28,22 @@ public interface IEventManager
     void handle(Event event);
 
     List<Object> getRegisteredListeners();
+
+    /**
+     * Whether any of the registered listeners would receive events of the provided class.
+     * <br>JDA checks this before constructing frequent update events (presences, typing, member and channel updates)
+     * and skips creating and dispatching them if nobody listens. The cache is updated either way.
+     *
+     * <p>The result has to account for listeners that receive the event through one of its superclasses.
+     * Implementations that can not tell should return {@code true}, which is the default.
+     *
+     * @param  eventClass
+     *         The concrete class of the event
+     *
+     * @return {@code true} if an event of this class could reach a listener
+     */
+    default boolean isInterested(Class<? extends Event> eventClass)
+    {
+        return true;
+    }
 }
@@ -18,14 +18,23 @@ package net.dv8tion.jda.core.hooks;
 import net.dv8tion.jda.core.entities.impl.JDAImpl;
 import net.dv8tion.jda.core.events.Event;
 
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * The default {@link net.dv8tion.jda.core.hooks.IEventManager IEventManager}, which passes every event to the
+ * {@link net.dv8tion.jda.core.hooks.EventListener#onEvent(Event) onEvent} method of its listeners.
+ * <p>
+ * For {@link net.dv8tion.jda.core.hooks.ListenerAdapter ListenerAdapters} the overridden methods are determined on
+ * registration, and an adapter is skipped for events that would only reach methods it does not override.
+ * If only such adapters are registered, {@link #isInterested(Class)} lets JDA skip creating the event at all.
+ */
 public class InterfacedEventManager implements IEventManager
 {
-    private final CopyOnWriteArrayList<EventListener> listeners = new CopyOnWriteArrayList<>();
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
 
     public InterfacedEventManager()
     {
@@ -39,29 +48,41 @@ public class InterfacedEventManager implements IEventManager
         {
             throw new IllegalArgumentException("Listener must implement EventListener");
         }
-        listeners.add(((EventListener) listener));
+        listeners.add(new Listener((EventListener) listener));
     }
 
     @Override
     public void unregister(Object listener)
     {
-        listeners.remove(listener);
+        for (Listener l : listeners)
+        {
+            if (l.listener.equals(listener))
+            {
+                listeners.remove(l);
+                return;
+            }
+        }
     }
 
     @Override
     public List<Object> getRegisteredListeners()
     {
-        return Collections.unmodifiableList(new LinkedList<>(listeners));
+        List<Object> registered = new LinkedList<>();
+        for (Listener l : listeners)
+            registered.add(l.listener);
+        return Collections.unmodifiableList(registered);
     }
 
     @Override
     public void handle(Event event)
     {
-        for (EventListener listener : listeners)
+        for (Listener l : listeners)
         {
+            if (l.overridden != null && !ListenerAdapter.isInterested(l.overridden, event.getClass()))
+                continue;
             try
             {
-                listener.onEvent(event);
+                l.listener.onEvent(event);
             }
             catch (Throwable throwable)
             {
@@ -70,4 +91,29 @@ public class InterfacedEventManager implements IEventManager
             }
         }
     }
+
+    @Override
+    public boolean isInterested(Class<? extends Event> eventClass)
+    {
+        for (Listener l : listeners)
+        {
+            if (l.overridden == null || ListenerAdapter.isInterested(l.overridden, eventClass))
+                return true;
+        }
+        return false;
+    }
+
+    private static final class Listener
+    {
+        private final EventListener listener;
+        //The overridden methods of a ListenerAdapter, null for other listeners
+        private final BitSet overridden;
+
+        private Listener(EventListener listener)
+        {
+            this.listener = listener;
+            this.overridden = listener instanceof ListenerAdapter
+                    ? ListenerAdapter.getOverriddenHandlers(((ListenerAdapter) listener).getClass()) : null;
+        }
+    }
 }
@@ -51,6 +51,11 @@ import net.dv8tion.jda.core.events.role.update.*;
 import net.dv8tion.jda.core.events.self.*;
 import net.dv8tion.jda.core.events.user.*;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.function.BiConsumer;
+
 /**
  * An abstract implementation of {@link net.dv8tion.jda.core.hooks.EventListener EventListener} which divides {@link net.dv8tion.jda.core.events.Event Events}
  * for the you.<p>
@@ -145,6 +150,7 @@ public abstract class ListenerAdapter implements EventListener
     public void onGuildAvailable(GuildAvailableEvent event) {}
     public void onGuildUnavailable(GuildUnavailableEvent event) {}
     public void onUnavailableGuildJoined(UnavailableGuildJoinedEvent event) {}
+    public void onGuildMembersChunk(GuildMembersChunkEvent event) {}
     public void onGuildBan(GuildBanEvent event) {}
     public void onGuildUnban(GuildUnbanEvent event) {}
 
@@ -276,355 +282,327 @@ public abstract class ListenerAdapter implements EventListener
     @Override
     public final void onEvent(Event event)
     {
-        //JDA Events
-        if (event instanceof ReadyEvent)
-            onReady((ReadyEvent) event);
-        else if (event instanceof ResumedEvent)
-            onResume((ResumedEvent) event);
-        else if (event instanceof ReconnectedEvent)
-            onReconnect((ReconnectedEvent) event);
-        else if (event instanceof DisconnectEvent)
-            onDisconnect((DisconnectEvent) event);
-        else if (event instanceof ShutdownEvent)
-            onShutdown((ShutdownEvent) event);
-        else if (event instanceof StatusChangeEvent)
-            onStatusChange((StatusChangeEvent) event);
-
-        //Message Events
-        //Guild (TextChannel) Message Events
-        else if (event instanceof GuildMessageReceivedEvent)
-            onGuildMessageReceived((GuildMessageReceivedEvent) event);
-        else if (event instanceof GuildMessageUpdateEvent)
-            onGuildMessageUpdate((GuildMessageUpdateEvent) event);
-        else if (event instanceof GuildMessageDeleteEvent)
-            onGuildMessageDelete((GuildMessageDeleteEvent) event);
-        else if (event instanceof GuildMessageEmbedEvent)
-            onGuildMessageEmbed((GuildMessageEmbedEvent) event);
-
-        //Private Message Events
-        else if (event instanceof PrivateMessageReceivedEvent)
-            onPrivateMessageReceived((PrivateMessageReceivedEvent) event);
-        else if (event instanceof PrivateMessageUpdateEvent)
-            onPrivateMessageUpdate((PrivateMessageUpdateEvent) event);
-        else if (event instanceof PrivateMessageDeleteEvent)
-            onPrivateMessageDelete((PrivateMessageDeleteEvent) event);
-        else if (event instanceof PrivateMessageEmbedEvent)
-            onPrivateMessageEmbed((PrivateMessageEmbedEvent) event);
-
-        //Combined Message Events (Combines Guild and Private message into 1 event)
-        else if (event instanceof MessageReceivedEvent)
-            onMessageReceived((MessageReceivedEvent) event);
-        else if (event instanceof MessageUpdateEvent)
-            onMessageUpdate((MessageUpdateEvent) event);
-        else if (event instanceof MessageDeleteEvent)
-            onMessageDelete((MessageDeleteEvent) event);
-        else if (event instanceof MessageBulkDeleteEvent)
-            onMessageBulkDelete((MessageBulkDeleteEvent) event);
-        else if (event instanceof MessageEmbedEvent)
-            onMessageEmbed((MessageEmbedEvent) event);
-//        //Invite Messages
-//        else if (event instanceof InviteReceivedEvent)
-//            onInviteReceived(((InviteReceivedEvent) event));
-
-        //User Events
-        else if (event instanceof UserNameUpdateEvent)
-            onUserNameUpdate((UserNameUpdateEvent) event);
-        else if (event instanceof UserAvatarUpdateEvent)
-            onUserAvatarUpdate((UserAvatarUpdateEvent) event);
-        else if (event instanceof UserGameUpdateEvent)
-            onUserGameUpdate((UserGameUpdateEvent) event);
-        else if (event instanceof UserOnlineStatusUpdateEvent)
-            onUserOnlineStatusUpdate((UserOnlineStatusUpdateEvent) event);
-        else if (event instanceof UserTypingEvent)
-            onUserTyping((UserTypingEvent) event);
-
-        //Self Events
-        else if (event instanceof SelfUpdateAvatarEvent)
-            onSelfUpdateAvatar((SelfUpdateAvatarEvent) event);
-        else if (event instanceof SelfUpdateEmailEvent)
-            onSelfUpdateEmail((SelfUpdateEmailEvent) event);
-        else if (event instanceof SelfUpdateMFAEvent)
-            onSelfUpdateMFA((SelfUpdateMFAEvent) event);
-        else if (event instanceof SelfUpdateNameEvent)
-            onSelfUpdateName((SelfUpdateNameEvent) event);
-        else if (event instanceof SelfUpdateVerifiedEvent)
-            onSelfUpdateVerified((SelfUpdateVerifiedEvent) event);
-
-        //TextChannel Events
-        else if (event instanceof TextChannelCreateEvent)
-            onTextChannelCreate((TextChannelCreateEvent) event);
-        else if (event instanceof TextChannelUpdateNameEvent)
-            onTextChannelUpdateName((TextChannelUpdateNameEvent) event);
-        else if (event instanceof TextChannelUpdateTopicEvent)
-            onTextChannelUpdateTopic((TextChannelUpdateTopicEvent) event);
-        else if (event instanceof TextChannelUpdatePositionEvent)
-            onTextChannelUpdatePosition((TextChannelUpdatePositionEvent) event);
-        else if (event instanceof TextChannelDeleteEvent)
-            onTextChannelDelete((TextChannelDeleteEvent) event);
-        else if (event instanceof TextChannelUpdatePermissionsEvent)
-            onTextChannelUpdatePermissions((TextChannelUpdatePermissionsEvent) event);
-
-        //VoiceChannel Events
-        else if (event instanceof VoiceChannelCreateEvent)
-            onVoiceChannelCreate((VoiceChannelCreateEvent) event);
-        else if (event instanceof VoiceChannelUpdateNameEvent)
-            onVoiceChannelUpdateName((VoiceChannelUpdateNameEvent) event);
-        else if (event instanceof VoiceChannelUpdatePositionEvent)
-            onVoiceChannelUpdatePosition((VoiceChannelUpdatePositionEvent) event);
-        else if (event instanceof VoiceChannelUpdateUserLimitEvent)
-            onVoiceChannelUpdateUserLimit((VoiceChannelUpdateUserLimitEvent) event);
-        else if (event instanceof VoiceChannelUpdateBitrateEvent)
-            onVoiceChannelUpdateBitrate((VoiceChannelUpdateBitrateEvent) event);
-        else if (event instanceof VoiceChannelUpdatePermissionsEvent)
-            onVoiceChannelUpdatePermissions((VoiceChannelUpdatePermissionsEvent) event);
-        else if (event instanceof VoiceChannelDeleteEvent)
-            onVoiceChannelDelete((VoiceChannelDeleteEvent) event);
-
-        //PrivateChannel Events
-        else if (event instanceof PrivateChannelCreateEvent)
-            onPrivateChannelCreate((PrivateChannelCreateEvent) event);
-        else if (event instanceof PrivateChannelDeleteEvent)
-            onPrivateChannelDelete((PrivateChannelDeleteEvent) event);
-
-        //Guild Events
-        else if (event instanceof GuildJoinEvent)
-            onGuildJoin((GuildJoinEvent) event);
-        else if (event instanceof GuildLeaveEvent)
-            onGuildLeave((GuildLeaveEvent) event);
-        else if (event instanceof GuildAvailableEvent)
-            onGuildAvailable((GuildAvailableEvent) event);
-        else if (event instanceof GuildUnavailableEvent)
-            onGuildUnavailable((GuildUnavailableEvent) event);
-        else if (event instanceof UnavailableGuildJoinedEvent)
-            onUnavailableGuildJoined((UnavailableGuildJoinedEvent) event);
-        else if (event instanceof GuildBanEvent)
-            onGuildBan((GuildBanEvent) event);
-        else if (event instanceof GuildUnbanEvent)
-            onGuildUnban((GuildUnbanEvent) event);
-
-        //Guild Update Events
-        else if (event instanceof GuildUpdateAfkChannelEvent)
-            onGuildUpdateAfkChannel((GuildUpdateAfkChannelEvent) event);
-        else if (event instanceof GuildUpdateAfkTimeoutEvent)
-            onGuildUpdateAfkTimeout((GuildUpdateAfkTimeoutEvent) event);
-        else if (event instanceof GuildUpdateIconEvent)
-            onGuildUpdateIcon((GuildUpdateIconEvent) event);
-        else if (event instanceof GuildUpdateMFALevelEvent)
-            onGuildUpdateMFALevel((GuildUpdateMFALevelEvent) event);
-        else if (event instanceof GuildUpdateNameEvent)
-            onGuildUpdateName((GuildUpdateNameEvent) event);
-        else if (event instanceof GuildUpdateNotificationLevelEvent)
-            onGuildUpdateNotificationLevel((GuildUpdateNotificationLevelEvent) event);
-        else if (event instanceof GuildUpdateOwnerEvent)
-            onGuildUpdateOwner((GuildUpdateOwnerEvent) event);
-        else if (event instanceof GuildUpdateRegionEvent)
-            onGuildUpdateRegion((GuildUpdateRegionEvent) event);
-        else if (event instanceof GuildUpdateSplashEvent)
-            onGuildUpdateSplash((GuildUpdateSplashEvent) event);
-        else if (event instanceof GuildUpdateVerificationLevelEvent)
-            onGuildUpdateVerificationLevel((GuildUpdateVerificationLevelEvent) event);
-
-        //Guild Member Events
-        else if (event instanceof GuildMemberJoinEvent)
-            onGuildMemberJoin((GuildMemberJoinEvent) event);
-        else if (event instanceof GuildMemberLeaveEvent)
-            onGuildMemberLeave((GuildMemberLeaveEvent) event);
-        else if (event instanceof GuildMemberRoleAddEvent)
-            onGuildMemberRoleAdd((GuildMemberRoleAddEvent) event);
-        else if (event instanceof GuildMemberRoleRemoveEvent)
-            onGuildMemberRoleRemove((GuildMemberRoleRemoveEvent) event);
-        else if (event instanceof GuildMemberNickChangeEvent)
-            onGuildMemberNickChange((GuildMemberNickChangeEvent) event);
-
-        //Guild Voice Events
-        else if (event instanceof GuildVoiceJoinEvent)
-            onGuildVoiceJoin((GuildVoiceJoinEvent) event);
-        else if (event instanceof GuildVoiceMoveEvent)
-            onGuildVoiceMove((GuildVoiceMoveEvent) event);
-        else if (event instanceof GuildVoiceLeaveEvent)
-            onGuildVoiceLeave((GuildVoiceLeaveEvent) event);
-        else if (event instanceof GuildVoiceMuteEvent)
-            onGuildVoiceMute((GuildVoiceMuteEvent) event);
-        else if (event instanceof GuildVoiceDeafenEvent)
-            onGuildVoiceDeafen((GuildVoiceDeafenEvent) event);
-        else if (event instanceof GuildVoiceGuildMuteEvent)
-            onGuildVoiceGuildMute((GuildVoiceGuildMuteEvent) event);
-        else if (event instanceof GuildVoiceGuildDeafenEvent)
-            onGuildVoiceGuildDeafen((GuildVoiceGuildDeafenEvent) event);
-        else if (event instanceof GuildVoiceSelfMuteEvent)
-            onGuildVoiceSelfMute((GuildVoiceSelfMuteEvent) event);
-        else if (event instanceof GuildVoiceSelfDeafenEvent)
-            onGuildVoiceSelfDeafen((GuildVoiceSelfDeafenEvent) event);
-        else if (event instanceof GuildVoiceSuppressEvent)
-            onGuildVoiceSuppress((GuildVoiceSuppressEvent) event);
-
-        //Role Events
-        else if (event instanceof RoleCreateEvent)
-            onRoleCreate((RoleCreateEvent) event);
-        else if (event instanceof RoleDeleteEvent)
-            onRoleDelete((RoleDeleteEvent) event);
-
-        //Role Update Events
-        else if (event instanceof RoleUpdateColorEvent)
-            onRoleUpdateColor(((RoleUpdateColorEvent) event));
-        else if (event instanceof RoleUpdateHoistedEvent)
-            onRoleUpdateHoisted(((RoleUpdateHoistedEvent) event));
-        else if (event instanceof RoleUpdateMentionableEvent)
-            onRoleUpdateMentionable((RoleUpdateMentionableEvent) event);
-        else if (event instanceof RoleUpdateNameEvent)
-            onRoleUpdateName(((RoleUpdateNameEvent) event));
-        else if (event instanceof RoleUpdatePermissionsEvent)
-            onRoleUpdatePermissions(((RoleUpdatePermissionsEvent) event));
-        else if (event instanceof RoleUpdatePositionEvent)
-            onRoleUpdatePosition(((RoleUpdatePositionEvent) event));
-
-//        //Audio System Events
-//        else if (event instanceof AudioConnectEvent)
-//            onAudioConnect((AudioConnectEvent) event);
-//        else if (event instanceof AudioDisconnectEvent)
-//            onAudioDisconnect((AudioDisconnectEvent) event);
-//        else if (event instanceof AudioUnableToConnectEvent)
-//            onAudioUnableToConnect((AudioUnableToConnectEvent) event);
-//        else if (event instanceof AudioTimeoutEvent)
-//            onAudioTimeout((AudioTimeoutEvent) event);
-//        else if (event instanceof AudioRegionChangeEvent)
-//            onAudioRegionChange((AudioRegionChangeEvent) event);
-//
-//        //Grouped Mute/Deaf events
-//        if (event instanceof VoiceMuteEvent)
-//            onVoiceMute((VoiceMuteEvent) event);
-//        else if (event instanceof VoiceDeafEvent)
-//            onVoiceDeaf((VoiceDeafEvent) event);
-
-        //Generic Events
-        //Start a new if statement so that these are no overridden by the above events.
-        if (event instanceof GenericGuildMessageEvent)
-            onGenericGuildMessage((GenericGuildMessageEvent) event);
-        else if (event instanceof GenericPrivateMessageEvent)
-            onGenericPrivateMessage((GenericPrivateMessageEvent) event);
-        else if (event instanceof GenericTextChannelUpdateEvent)
-            onGenericTextChannelUpdate((GenericTextChannelUpdateEvent) event);
-        else if (event instanceof GenericVoiceChannelUpdateEvent)
-            onGenericVoiceChannelUpdate((GenericVoiceChannelUpdateEvent) event);
-        else if (event instanceof GenericGuildUpdateEvent)
-            onGenericGuildUpdate((GenericGuildUpdateEvent) event);
-        else if (event instanceof GenericGuildMemberEvent)
-            onGenericGuildMember((GenericGuildMemberEvent) event);
-        else if (event instanceof GenericGuildVoiceEvent)
-            onGenericGuildVoice((GenericGuildVoiceEvent) event);
-        else if (event instanceof GenericRoleUpdateEvent)
-            onGenericRoleUpdate(((GenericRoleUpdateEvent) event));
-//        else if (event instanceof GenericAudioEvent)
-//            onGenericAudio((GenericAudioEvent) event);
-//
-        //Generic events that have generic subclasses (the subclasses as above).
-
-        if (event instanceof GenericMessageEvent)
-            onGenericMessage((GenericMessageEvent) event);
-        else if (event instanceof GenericUserEvent)
-            onGenericUser((GenericUserEvent) event);
-        else if (event instanceof GenericSelfUpdateEvent)
-            onGenericSelfUpdate((GenericSelfUpdateEvent) event);
-        else if (event instanceof GenericTextChannelEvent)
-            onGenericTextChannel((GenericTextChannelEvent) event);
-        else if (event instanceof GenericVoiceChannelEvent)
-            onGenericVoiceChannel((GenericVoiceChannelEvent) event);
-        else if (event instanceof GenericGuildEvent)
-            onGenericGuild((GenericGuildEvent) event);
-        else if (event instanceof GenericRoleEvent)
-            onGenericRole((GenericRoleEvent) event);
-
-        if (event.getJDA().getAccountType() == AccountType.CLIENT)
+        Dispatch dispatch = DISPATCH.get(event.getClass());
+        for (Handler handler : dispatch.handlers)
+            handler.method.accept(this, event);
+
+        if (dispatch.clientHandlers.length > 0 && event.getJDA().getAccountType() == AccountType.CLIENT)
         {
-            //Relationship Events
-            if (event instanceof FriendAddedEvent)
-                onFriendAdded((FriendAddedEvent) event);
-            else if (event instanceof FriendRemovedEvent)
-                onFriendRemoved((FriendRemovedEvent) event);
-            else if (event instanceof UserBlockedEvent)
-                onUserBlocked((UserBlockedEvent) event);
-            else if (event instanceof UserUnblockedEvent)
-                onUserUnblocked((UserUnblockedEvent) event);
-            else if (event instanceof FriendRequestSentEvent)
-                onFriendRequestSent((FriendRequestSentEvent) event);
-            else if (event instanceof FriendRequestCanceledEvent)
-                onFriendRequestCanceled((FriendRequestCanceledEvent) event);
-            else if (event instanceof FriendRequestReceivedEvent)
-                onFriendRequestReceived((FriendRequestReceivedEvent) event);
-            else if (event instanceof FriendRequestIgnoredEvent)
-                onFriendRequestIgnored((FriendRequestIgnoredEvent) event);
-
-            //Group Events
-            else if (event instanceof GroupJoinEvent)
-                onGroupJoin((GroupJoinEvent) event);
-            else if (event instanceof GroupLeaveEvent)
-                onGroupLeave((GroupLeaveEvent) event);
-            else if (event instanceof GroupUserJoinEvent)
-                onGroupUserJoin((GroupUserJoinEvent) event);
-            else if (event instanceof GroupUserLeaveEvent)
-                onGroupUserLeave((GroupUserLeaveEvent) event);
-
-            //Group Message Events
-            if (event instanceof GroupMessageReceivedEvent)
-                onGroupMessageReceived((GroupMessageReceivedEvent) event);
-            else if (event instanceof GroupMessageUpdateEvent)
-                onGroupMessageUpdate((GroupMessageUpdateEvent) event);
-            else if (event instanceof GroupMessageDeleteEvent)
-                onGroupMessageDelete((GroupMessageDeleteEvent) event);
-            else if (event instanceof GroupMessageEmbedEvent)
-                onGroupMessageEmbed((GroupMessageEmbedEvent) event);
-
-            //Group Update Events
-            else if (event instanceof GroupUpdateIconEvent)
-                onGroupUpdateIcon((GroupUpdateIconEvent) event);
-            else if (event instanceof GroupUpdateNameEvent)
-                onGroupUpdateName((GroupUpdateNameEvent) event);
-            else if (event instanceof GroupUpdateOwnerEvent)
-                onGroupUpdateOwner((GroupUpdateOwnerEvent) event);
-
-            //Call Events
-            else if (event instanceof CallCreateEvent)
-                onCallCreate((CallCreateEvent) event);
-            else if (event instanceof CallDeleteEvent)
-                onCallDelete((CallDeleteEvent) event);
-
-            //Call Update Events
-            else if (event instanceof CallUpdateRegionEvent)
-                onCallUpdateRegion((CallUpdateRegionEvent) event);
-            else if (event instanceof CallUpdateRingingUsersEvent)
-                onCallUpdateRingingUsers((CallUpdateRingingUsersEvent) event);
-
-            //Call Voice Events
-            else if (event instanceof CallVoiceJoinEvent)
-                onCallVoiceJoin((CallVoiceJoinEvent) event);
-            else if (event instanceof CallVoiceLeaveEvent)
-                onCallVoiceLeave((CallVoiceLeaveEvent) event);
-            else if (event instanceof CallVoiceSelfMuteEvent)
-                onCallVoiceSelfMute((CallVoiceSelfMuteEvent) event);
-            else if (event instanceof CallVoiceSelfDeafenEvent)
-                onCallVoiceSelfDeafen((CallVoiceSelfDeafenEvent) event);
+            for (Handler handler : dispatch.clientHandlers)
+                handler.method.accept(this, event);
+        }
+    }
 
-            //Client Only Child-Generic Events
-            if (event instanceof GenericRelationshipAddEvent)
-                onGenericRelationshipAdd((GenericRelationshipAddEvent) event);
-            else if (event instanceof GenericRelationshipRemoveEvent)
-                onGenericRelationshipRemove((GenericRelationshipRemoveEvent) event);
-            else if (event instanceof GenericGroupMessageEvent)
-                onGenericGroupMessage((GenericGroupMessageEvent) event);
-            else if (event instanceof GenericGroupUpdateEvent)
-                onGenericGroupUpdate((GenericGroupUpdateEvent) event);
-            else if (event instanceof GenericCallUpdateEvent)
-                onGenericCallUpdate((GenericCallUpdateEvent) event);
-            else if (event instanceof GenericCallVoiceEvent)
-                onGenericCallVoice((GenericCallVoiceEvent) event);
+    /**
+     * The methods of the provided ListenerAdapter class that are overridden, as indices into the handler tables.
+     * Computed once per class.
+     */
+    static BitSet getOverriddenHandlers(Class<? extends ListenerAdapter> adapterClass)
+    {
+        return OVERRIDDEN.get(adapterClass);
+    }
+
+    /**
+     * Whether any of the methods {@link #onEvent(Event)} calls for the provided event class is overridden. Used by the
+     * {@link net.dv8tion.jda.core.hooks.InterfacedEventManager} to skip adapters that would only run empty methods.
+     *
+     * @param overridden
+     *        The result of {@link #getOverriddenHandlers(Class)} for the adapter class
+     * @param eventClass
+     *        The class of the event
+     */
+    static boolean isInterested(BitSet overridden, Class<? extends Event> eventClass)
+    {
+        Dispatch dispatch = DISPATCH.get(eventClass);
+        for (Handler handler : dispatch.handlers)
+        {
+            if (overridden.get(handler.index))
+                return true;
+        }
+        for (Handler handler : dispatch.clientHandlers)
+        {
+            if (overridden.get(handler.index))
+                return true;
+        }
+        return false;
+    }
 
+    /*
+     * Every inner array is a chain of which only the first matching handler is called, in the order the chains are
+     * listed. Specific events come first, so a GuildMessageReceivedEvent calls onGuildMessageReceived,
+     * onGenericGuildMessage and onGenericMessage, but never onMessageReceived.
+     * The handlers of a concrete event class are looked up once and cached in DISPATCH.
+     */
+    private static final Handler[][] CHAINS = {
+            //JDA, Message, User, Self, Channel, Guild and Role Events
+            {
+                handler(ReadyEvent.class, ListenerAdapter::onReady),
+                handler(ResumedEvent.class, ListenerAdapter::onResume),
+                handler(ReconnectedEvent.class, ListenerAdapter::onReconnect),
+                handler(DisconnectEvent.class, ListenerAdapter::onDisconnect),
+                handler(ShutdownEvent.class, ListenerAdapter::onShutdown),
+                handler(StatusChangeEvent.class, ListenerAdapter::onStatusChange),
+                handler(GuildMessageReceivedEvent.class, ListenerAdapter::onGuildMessageReceived),
+                handler(GuildMessageUpdateEvent.class, ListenerAdapter::onGuildMessageUpdate),
+                handler(GuildMessageDeleteEvent.class, ListenerAdapter::onGuildMessageDelete),
+                handler(GuildMessageEmbedEvent.class, ListenerAdapter::onGuildMessageEmbed),
+                handler(PrivateMessageReceivedEvent.class, ListenerAdapter::onPrivateMessageReceived),
+                handler(PrivateMessageUpdateEvent.class, ListenerAdapter::onPrivateMessageUpdate),
+                handler(PrivateMessageDeleteEvent.class, ListenerAdapter::onPrivateMessageDelete),
+                handler(PrivateMessageEmbedEvent.class, ListenerAdapter::onPrivateMessageEmbed),
+                handler(MessageReceivedEvent.class, ListenerAdapter::onMessageReceived),
+                handler(MessageUpdateEvent.class, ListenerAdapter::onMessageUpdate),
+                handler(MessageDeleteEvent.class, ListenerAdapter::onMessageDelete),
+                handler(MessageBulkDeleteEvent.class, ListenerAdapter::onMessageBulkDelete),
+                handler(MessageEmbedEvent.class, ListenerAdapter::onMessageEmbed),
+                handler(UserNameUpdateEvent.class, ListenerAdapter::onUserNameUpdate),
+                handler(UserAvatarUpdateEvent.class, ListenerAdapter::onUserAvatarUpdate),
+                handler(UserGameUpdateEvent.class, ListenerAdapter::onUserGameUpdate),
+                handler(UserOnlineStatusUpdateEvent.class, ListenerAdapter::onUserOnlineStatusUpdate),
+                handler(UserTypingEvent.class, ListenerAdapter::onUserTyping),
+                handler(SelfUpdateAvatarEvent.class, ListenerAdapter::onSelfUpdateAvatar),
+                handler(SelfUpdateEmailEvent.class, ListenerAdapter::onSelfUpdateEmail),
+                handler(SelfUpdateMFAEvent.class, ListenerAdapter::onSelfUpdateMFA),
+                handler(SelfUpdateNameEvent.class, ListenerAdapter::onSelfUpdateName),
+                handler(SelfUpdateVerifiedEvent.class, ListenerAdapter::onSelfUpdateVerified),
+                handler(TextChannelCreateEvent.class, ListenerAdapter::onTextChannelCreate),
+                handler(TextChannelUpdateNameEvent.class, ListenerAdapter::onTextChannelUpdateName),
+                handler(TextChannelUpdateTopicEvent.class, ListenerAdapter::onTextChannelUpdateTopic),
+                handler(TextChannelUpdatePositionEvent.class, ListenerAdapter::onTextChannelUpdatePosition),
+                handler(TextChannelDeleteEvent.class, ListenerAdapter::onTextChannelDelete),
+                handler(TextChannelUpdatePermissionsEvent.class, ListenerAdapter::onTextChannelUpdatePermissions),
+                handler(VoiceChannelCreateEvent.class, ListenerAdapter::onVoiceChannelCreate),
+                handler(VoiceChannelUpdateNameEvent.class, ListenerAdapter::onVoiceChannelUpdateName),
+                handler(VoiceChannelUpdatePositionEvent.class, ListenerAdapter::onVoiceChannelUpdatePosition),
+                handler(VoiceChannelUpdateUserLimitEvent.class, ListenerAdapter::onVoiceChannelUpdateUserLimit),
+                handler(VoiceChannelUpdateBitrateEvent.class, ListenerAdapter::onVoiceChannelUpdateBitrate),
+                handler(VoiceChannelUpdatePermissionsEvent.class, ListenerAdapter::onVoiceChannelUpdatePermissions),
+                handler(VoiceChannelDeleteEvent.class, ListenerAdapter::onVoiceChannelDelete),
+                handler(PrivateChannelCreateEvent.class, ListenerAdapter::onPrivateChannelCreate),
+                handler(PrivateChannelDeleteEvent.class, ListenerAdapter::onPrivateChannelDelete),
+                handler(GuildJoinEvent.class, ListenerAdapter::onGuildJoin),
+                handler(GuildLeaveEvent.class, ListenerAdapter::onGuildLeave),
+                handler(GuildAvailableEvent.class, ListenerAdapter::onGuildAvailable),
+                handler(GuildUnavailableEvent.class, ListenerAdapter::onGuildUnavailable),
+                handler(UnavailableGuildJoinedEvent.class, ListenerAdapter::onUnavailableGuildJoined),
+                handler(GuildMembersChunkEvent.class, ListenerAdapter::onGuildMembersChunk),
+                handler(GuildBanEvent.class, ListenerAdapter::onGuildBan),
+                handler(GuildUnbanEvent.class, ListenerAdapter::onGuildUnban),
+                handler(GuildUpdateAfkChannelEvent.class, ListenerAdapter::onGuildUpdateAfkChannel),
+                handler(GuildUpdateAfkTimeoutEvent.class, ListenerAdapter::onGuildUpdateAfkTimeout),
+                handler(GuildUpdateIconEvent.class, ListenerAdapter::onGuildUpdateIcon),
+                handler(GuildUpdateMFALevelEvent.class, ListenerAdapter::onGuildUpdateMFALevel),
+                handler(GuildUpdateNameEvent.class, ListenerAdapter::onGuildUpdateName),
+                handler(GuildUpdateNotificationLevelEvent.class, ListenerAdapter::onGuildUpdateNotificationLevel),
+                handler(GuildUpdateOwnerEvent.class, ListenerAdapter::onGuildUpdateOwner),
+                handler(GuildUpdateRegionEvent.class, ListenerAdapter::onGuildUpdateRegion),
+                handler(GuildUpdateSplashEvent.class, ListenerAdapter::onGuildUpdateSplash),
+                handler(GuildUpdateVerificationLevelEvent.class, ListenerAdapter::onGuildUpdateVerificationLevel),
+                handler(GuildMemberJoinEvent.class, ListenerAdapter::onGuildMemberJoin),
+                handler(GuildMemberLeaveEvent.class, ListenerAdapter::onGuildMemberLeave),
+                handler(GuildMemberRoleAddEvent.class, ListenerAdapter::onGuildMemberRoleAdd),
+                handler(GuildMemberRoleRemoveEvent.class, ListenerAdapter::onGuildMemberRoleRemove),
+                handler(GuildMemberNickChangeEvent.class, ListenerAdapter::onGuildMemberNickChange),
+                handler(GuildVoiceJoinEvent.class, ListenerAdapter::onGuildVoiceJoin),
+                handler(GuildVoiceMoveEvent.class, ListenerAdapter::onGuildVoiceMove),
+                handler(GuildVoiceLeaveEvent.class, ListenerAdapter::onGuildVoiceLeave),
+                handler(GuildVoiceMuteEvent.class, ListenerAdapter::onGuildVoiceMute),
+                handler(GuildVoiceDeafenEvent.class, ListenerAdapter::onGuildVoiceDeafen),
+                handler(GuildVoiceGuildMuteEvent.class, ListenerAdapter::onGuildVoiceGuildMute),
+                handler(GuildVoiceGuildDeafenEvent.class, ListenerAdapter::onGuildVoiceGuildDeafen),
+                handler(GuildVoiceSelfMuteEvent.class, ListenerAdapter::onGuildVoiceSelfMute),
+                handler(GuildVoiceSelfDeafenEvent.class, ListenerAdapter::onGuildVoiceSelfDeafen),
+                handler(GuildVoiceSuppressEvent.class, ListenerAdapter::onGuildVoiceSuppress),
+                handler(RoleCreateEvent.class, ListenerAdapter::onRoleCreate),
+                handler(RoleDeleteEvent.class, ListenerAdapter::onRoleDelete),
+                handler(RoleUpdateColorEvent.class, ListenerAdapter::onRoleUpdateColor),
+                handler(RoleUpdateHoistedEvent.class, ListenerAdapter::onRoleUpdateHoisted),
+                handler(RoleUpdateMentionableEvent.class, ListenerAdapter::onRoleUpdateMentionable),
+                handler(RoleUpdateNameEvent.class, ListenerAdapter::onRoleUpdateName),
+                handler(RoleUpdatePermissionsEvent.class, ListenerAdapter::onRoleUpdatePermissions),
+                handler(RoleUpdatePositionEvent.class, ListenerAdapter::onRoleUpdatePosition)
+            },
+            //Child-Generic Events
+            {
+                handler(GenericGuildMessageEvent.class, ListenerAdapter::onGenericGuildMessage),
+                handler(GenericPrivateMessageEvent.class, ListenerAdapter::onGenericPrivateMessage),
+                handler(GenericTextChannelUpdateEvent.class, ListenerAdapter::onGenericTextChannelUpdate),
+                handler(GenericVoiceChannelUpdateEvent.class, ListenerAdapter::onGenericVoiceChannelUpdate),
+                handler(GenericGuildUpdateEvent.class, ListenerAdapter::onGenericGuildUpdate),
+                handler(GenericGuildMemberEvent.class, ListenerAdapter::onGenericGuildMember),
+                handler(GenericGuildVoiceEvent.class, ListenerAdapter::onGenericGuildVoice),
+                handler(GenericRoleUpdateEvent.class, ListenerAdapter::onGenericRoleUpdate)
+            },
+            //Generic Events
+            {
+                handler(GenericMessageEvent.class, ListenerAdapter::onGenericMessage),
+                handler(GenericUserEvent.class, ListenerAdapter::onGenericUser),
+                handler(GenericSelfUpdateEvent.class, ListenerAdapter::onGenericSelfUpdate),
+                handler(GenericTextChannelEvent.class, ListenerAdapter::onGenericTextChannel),
+                handler(GenericVoiceChannelEvent.class, ListenerAdapter::onGenericVoiceChannel),
+                handler(GenericGuildEvent.class, ListenerAdapter::onGenericGuild),
+                handler(GenericRoleEvent.class, ListenerAdapter::onGenericRole)
+            }
+    };
+
+    private static final Handler[][] CLIENT_CHAINS = {
+            //Client Only Relationship and Group Events
+            {
+                handler(FriendAddedEvent.class, ListenerAdapter::onFriendAdded),
+                handler(FriendRemovedEvent.class, ListenerAdapter::onFriendRemoved),
+                handler(UserBlockedEvent.class, ListenerAdapter::onUserBlocked),
+                handler(UserUnblockedEvent.class, ListenerAdapter::onUserUnblocked),
+                handler(FriendRequestSentEvent.class, ListenerAdapter::onFriendRequestSent),
+                handler(FriendRequestCanceledEvent.class, ListenerAdapter::onFriendRequestCanceled),
+                handler(FriendRequestReceivedEvent.class, ListenerAdapter::onFriendRequestReceived),
+                handler(FriendRequestIgnoredEvent.class, ListenerAdapter::onFriendRequestIgnored),
+                handler(GroupJoinEvent.class, ListenerAdapter::onGroupJoin),
+                handler(GroupLeaveEvent.class, ListenerAdapter::onGroupLeave),
+                handler(GroupUserJoinEvent.class, ListenerAdapter::onGroupUserJoin),
+                handler(GroupUserLeaveEvent.class, ListenerAdapter::onGroupUserLeave)
+            },
+            //Client Only Group Message, Group Update and Call Events
+            {
+                handler(GroupMessageReceivedEvent.class, ListenerAdapter::onGroupMessageReceived),
+                handler(GroupMessageUpdateEvent.class, ListenerAdapter::onGroupMessageUpdate),
+                handler(GroupMessageDeleteEvent.class, ListenerAdapter::onGroupMessageDelete),
+                handler(GroupMessageEmbedEvent.class, ListenerAdapter::onGroupMessageEmbed),
+                handler(GroupUpdateIconEvent.class, ListenerAdapter::onGroupUpdateIcon),
+                handler(GroupUpdateNameEvent.class, ListenerAdapter::onGroupUpdateName),
+                handler(GroupUpdateOwnerEvent.class, ListenerAdapter::onGroupUpdateOwner),
+                handler(CallCreateEvent.class, ListenerAdapter::onCallCreate),
+                handler(CallDeleteEvent.class, ListenerAdapter::onCallDelete),
+                handler(CallUpdateRegionEvent.class, ListenerAdapter::onCallUpdateRegion),
+                handler(CallUpdateRingingUsersEvent.class, ListenerAdapter::onCallUpdateRingingUsers),
+                handler(CallVoiceJoinEvent.class, ListenerAdapter::onCallVoiceJoin),
+                handler(CallVoiceLeaveEvent.class, ListenerAdapter::onCallVoiceLeave),
+                handler(CallVoiceSelfMuteEvent.class, ListenerAdapter::onCallVoiceSelfMute),
+                handler(CallVoiceSelfDeafenEvent.class, ListenerAdapter::onCallVoiceSelfDeafen)
+            },
+            //Client Only Child-Generic Events
+            {
+                handler(GenericRelationshipAddEvent.class, ListenerAdapter::onGenericRelationshipAdd),
+                handler(GenericRelationshipRemoveEvent.class, ListenerAdapter::onGenericRelationshipRemove),
+                handler(GenericGroupMessageEvent.class, ListenerAdapter::onGenericGroupMessage),
+                handler(GenericGroupUpdateEvent.class, ListenerAdapter::onGenericGroupUpdate),
+                handler(GenericCallUpdateEvent.class, ListenerAdapter::onGenericCallUpdate),
+                handler(GenericCallVoiceEvent.class, ListenerAdapter::onGenericCallVoice)
+            },
             //Client Only Generic Events
-            if (event instanceof GenericRelationshipEvent)
-                onGenericRelationship((GenericRelationshipEvent) event);
-            else if (event instanceof GenericGroupEvent)
-                onGenericGroup((GenericGroupEvent) event);
-            else if (event instanceof GenericCallEvent)
-                onGenericCall((GenericCallEvent) event);
+            {
+                handler(GenericRelationshipEvent.class, ListenerAdapter::onGenericRelationship),
+                handler(GenericGroupEvent.class, ListenerAdapter::onGenericGroup),
+                handler(GenericCallEvent.class, ListenerAdapter::onGenericCall)
+            }
+    };
+
+    private static final ClassValue<Dispatch> DISPATCH = new ClassValue<Dispatch>()
+    {
+        @Override
+        protected Dispatch computeValue(Class<?> eventClass)
+        {
+            return new Dispatch(resolve(CHAINS, eventClass), resolve(CLIENT_CHAINS, eventClass));
+        }
+    };
+
+    private static final ClassValue<BitSet> OVERRIDDEN = new ClassValue<BitSet>()
+    {
+        @Override
+        protected BitSet computeValue(Class<?> adapterClass)
+        {
+            BitSet overridden = new BitSet();
+            for (Handler[][] chains : Arrays.asList(CHAINS, CLIENT_CHAINS))
+            {
+                for (Handler[] chain : chains)
+                {
+                    for (Handler handler : chain)
+                    {
+                        try
+                        {
+                            if (adapterClass.getMethod(handler.name, handler.eventClass).getDeclaringClass() != ListenerAdapter.class)
+                                overridden.set(handler.index);
+                        }
+                        catch (NoSuchMethodException e)
+                        {
+                            //Cannot happen, every handler is a public method of ListenerAdapter
+                            overridden.set(handler.index);
+                        }
+                    }
+                }
+            }
+            return overridden;
+        }
+    };
+
+    static
+    {
+        Map<Class<?>, String> names = new HashMap<>();
+        for (Method method : ListenerAdapter.class.getDeclaredMethods())
+        {
+            if (method.getParameterCount() == 1 && Modifier.isPublic(method.getModifiers()) && !method.getName().equals("onEvent"))
+                names.put(method.getParameterTypes()[0], method.getName());
+        }
+
+        int index = 0;
+        for (Handler[][] chains : Arrays.asList(CHAINS, CLIENT_CHAINS))
+        {
+            for (Handler[] chain : chains)
+            {
+                for (Handler handler : chain)
+                {
+                    handler.index = index++;
+                    handler.name = names.get(handler.eventClass);
+                }
+            }
+        }
+    }
+
+    private static Handler[] resolve(Handler[][] chains, Class<?> eventClass)
+    {
+        List<Handler> handlers = new ArrayList<>(chains.length);
+        for (Handler[] chain : chains)
+        {
+            for (Handler handler : chain)
+            {
+                if (handler.eventClass.isAssignableFrom(eventClass))
+                {
+                    handlers.add(handler);
+                    break;
+                }
+            }
+        }
+        return handlers.toArray(new Handler[handlers.size()]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Event> Handler handler(Class<T> eventClass, BiConsumer<ListenerAdapter, T> method)
+    {
+        return new Handler(eventClass, (BiConsumer) method);
+    }
+
+    private static final class Handler
+    {
+        private final Class<? extends Event> eventClass;
+        private final BiConsumer<ListenerAdapter, Event> method;
+        private int index;
+        private String name;
+
+        private Handler(Class<? extends Event> eventClass, BiConsumer<ListenerAdapter, Event> method)
+        {
+            this.eventClass = eventClass;
+            this.method = method;
+        }
+    }
+
+    private static final class Dispatch
+    {
+        private final Handler[] handlers;
+        private final Handler[] clientHandlers;
+
+        private Dispatch(Handler[] handlers, Handler[] clientHandlers)
+        {
+            this.handlers = handlers;
+            this.clientHandlers = clientHandlers;
         }
     }
 }
@@ -597,7 +597,7 @@ public class GuildController
 
         //We check the owner instead of Position because, apparently, Discord doesn't care about position for
         // muting and deafening, only whether the affected Member is the owner.
-        if (guild.getOwner().equals(member))
+        if (((GuildImpl) guild).isOwner(member))
             throw new PermissionException("Cannot modified Guild Deafen status the Owner of the Guild");
 
         if (member.getVoiceState().isGuildDeafened() == deafen)
@@ -652,7 +652,7 @@ public class GuildController
 
         //We check the owner instead of Position because, apparently, Discord doesn't care about position for
         // muting and deafening, only whether the affected Member is the owner.
-        if (guild.getOwner().equals(member))
+        if (((GuildImpl) guild).isOwner(member))
             throw new PermissionException("Cannot modified Guild Mute status the Owner of the Guild");
 
         if (member.getVoiceState().isGuildMuted() == mute)
@@ -763,7 +763,7 @@ public class GuildController
                 throw new IllegalArgumentException("Cannot remove a Managed role from a Member. Role: " + role.toString());
         });
 
-        Set<Role> currentRoles = new HashSet<>(((MemberImpl) member).getRoleSet());
+        Set<Role> currentRoles = new HashSet<>(member.getRoles());
         currentRoles.addAll(rolesToAdd);
         currentRoles.removeAll(rolesToRemove);
 
@@ -855,7 +855,7 @@ public class GuildController
         checkAvailable();
         checkNull(newOwner, "newOwner member");
         checkGuild(newOwner.getGuild(), "newOwner member");
-        if (!guild.getOwner().equals(guild.getSelfMember()))
+        if (!((GuildImpl) guild).isOwner(guild.getSelfMember()))
             throw new PermissionException("The logged in account must be the owner of this Guild to be able to transfer ownership");
 
         if (guild.getSelfMember().equals(newOwner))
@@ -919,7 +919,7 @@ public class GuildController
                     request.onFailure(response);
 
                 JSONObject chanJson = response.getObject();
-                TextChannel tc = EntityBuilder.get(api).createTextChannel(chanJson, guild.getId());
+                TextChannel tc = EntityBuilder.get(api).createTextChannel(chanJson, guild.getIdLong());
 
                 request.onSuccess(tc);
             }
@@ -966,7 +966,7 @@ public class GuildController
                     request.onFailure(response);
 
                 JSONObject chanJson = response.getObject();
-                VoiceChannel vc = EntityBuilder.get(api).createVoiceChannel(chanJson, guild.getId());
+                VoiceChannel vc = EntityBuilder.get(api).createVoiceChannel(chanJson, guild.getIdLong());
 
                 request.onSuccess(vc);
             }
@@ -1003,7 +1003,7 @@ public class GuildController
                     request.onFailure(response);
 
                 JSONObject roleJson = response.getObject();
-                Role role = EntityBuilder.get(api).createRole(roleJson, guild.getId());
+                Role role = EntityBuilder.get(api).createRole(roleJson, guild.getIdLong());
 
                 request.onSuccess(role);
             }
@@ -1045,7 +1045,7 @@ public class GuildController
                     request.onFailure(response);
 
                 JSONObject roleJson = response.getObject();
-                Role r = EntityBuilder.get(api).createRole(roleJson, guild.getId());
+                Role r = EntityBuilder.get(api).createRole(roleJson, guild.getIdLong());
 
                 RoleManagerUpdatable mng = r.getManagerUpdatable()
                         .getNameField().setValue(role.getName())
@@ -1105,7 +1105,7 @@ public class GuildController
                 if (response.isOk())
                 {
                     JSONObject obj = response.getObject();
-                    String id = obj.getString("id");
+                    long id = obj.getLong("id");
                     String name = obj.getString("name");
                     EmoteImpl emote = new EmoteImpl(id, guild).setName(name);
                     // managed is false by default, should always be false for emotes created by client accounts.
@@ -1114,7 +1114,7 @@ public class GuildController
                     Set<Role> roleSet = emote.getRoleSet();
                     for (int i = 0; i < rolesArr.length(); i++)
                     {
-                        roleSet.add(guild.getRoleById(rolesArr.getString(i)));
+                        roleSet.add(guild.getRoleById(rolesArr.getLong(i)));
                     }
 
                     // put emote into cache
@@ -162,15 +162,7 @@ public class PermOverrideManagerUpdatable
         if (!set)
             return null;
 
-        long maxPerms = 0;
-        for (Permission perm : Permission.values())
-        {
-            if (perm.getOffset() > maxPerms)
-                maxPerms = perm.getOffset();
-        }
-        maxPerms = ~(1 << (maxPerms + 1)); //push 1 to max offset + 1, then flip to get a full-permission bit mask.
-
-        return (~allow | ~deny) & maxPerms;
+        return (~allow | ~deny) & Permission.ALL_PERMISSIONS;
     }
 
     public boolean isSet()
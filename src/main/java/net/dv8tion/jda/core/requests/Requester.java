@@ -44,6 +44,7 @@ public class Requester
 
     private final JDA api;
     private final RateLimiter rateLimiter;
+    private final String apiPrefix;
 
     public Requester(JDA api)
     {
@@ -51,11 +52,30 @@ public class Requester
     }
 
     public Requester(JDA api, AccountType accountType)
+    {
+        this(api, accountType, DISCORD_API_PREFIX);
+    }
+
+    /**
+     * Creates a Requester that sends all of its requests to the provided api prefix instead of
+     * {@link #DISCORD_API_PREFIX}. This is used to point JDA at a local stand-in for the Discord REST api.
+     *
+     * @param api
+     *          The JDA instance this Requester belongs to.
+     * @param accountType
+     *          The AccountType used to decide which RateLimiter implementation is used.
+     * @param apiPrefix
+     *          The base url that compiled routes are appended to. Must end with a '/'.
+     */
+    public Requester(JDA api, AccountType accountType, String apiPrefix)
     {
         if (accountType == null)
             throw new NullPointerException("Provided accountType was null!");
+        if (apiPrefix == null)
+            throw new NullPointerException("Provided apiPrefix was null!");
 
         this.api = api;
+        this.apiPrefix = apiPrefix;
         if (accountType == AccountType.BOT)
             rateLimiter = new BotRateLimiter(this, 5);
         else
@@ -149,6 +169,11 @@ public class Requester
         }
     }
 
+    public String getApiPrefix()
+    {
+        return apiPrefix;
+    }
+
     public RateLimiter getRateLimiter()
     {
         return rateLimiter;
@@ -166,7 +191,7 @@ public class Requester
 
     private BaseRequest createRequest(Route.CompiledRoute route, String body)
     {
-        String url = DISCORD_API_PREFIX + route.getCompiledRoute();
+        String url = apiPrefix + route.getCompiledRoute();
         BaseRequest request = null;
         switch (route.getMethod())
         {
@@ -22,11 +22,13 @@ import net.dv8tion.jda.client.handle.*;
 import net.dv8tion.jda.core.AccountType;
 import net.dv8tion.jda.core.JDA;
 import net.dv8tion.jda.core.entities.EntityBuilder;
+import net.dv8tion.jda.core.entities.impl.GuildImpl;
 import net.dv8tion.jda.core.entities.impl.JDAImpl;
 import net.dv8tion.jda.core.events.ReadyEvent;
 import net.dv8tion.jda.core.events.ReconnectedEvent;
 import net.dv8tion.jda.core.events.ResumedEvent;
 import net.dv8tion.jda.core.handle.*;
+import net.dv8tion.jda.core.hooks.EventMetricsListener;
 import net.dv8tion.jda.core.managers.impl.PresenceImpl;
 import net.dv8tion.jda.core.utils.SimpleLog;
 import org.apache.http.HttpHost;
@@ -63,8 +65,9 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     protected boolean connected;
 
     protected volatile boolean chunkingAndSyncing = false;
-    protected boolean initiating;             //cache all events?
+    protected volatile boolean initiating;    //cache all events?
     protected final List<JSONObject> cachedEvents = new LinkedList<>();
+    protected final GuildSetupPipeline guildSetup;
 
     protected boolean shouldReconnect = true;
     protected int reconnectTimeoutS = 2;
@@ -81,6 +84,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         this.shardInfo = api.getShardInfo();
         this.proxy = api.getGlobalProxy();
         this.shouldReconnect = api.isAutoReconnect();
+        this.guildSetup = new GuildSetupPipeline(api);
         setupHandlers();
         connect();
     }
@@ -99,7 +103,10 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     {
         if (initiating)
         {
-            initiating = false;
+            synchronized (cachedEvents)
+            {
+                initiating = false;
+            }
             reconnectTimeoutS = 2;
             if (firstInit)
             {
@@ -145,6 +152,51 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         return !initiating;
     }
 
+    private boolean isForServableRestoredGuild(JSONObject raw)
+    {
+        JSONObject content = raw.optJSONObject("d");
+        if (content == null || !content.has("guild_id") || content.isNull("guild_id"))
+            return false;
+        GuildImpl guild = (GuildImpl) api.getGuildMap().get(content.getLong("guild_id"));
+        return guild != null && guild.isRestored() && guild.isAvailable()
+                && !GuildLock.get(api).isLocked(guild.getIdLong());
+    }
+
+    /**
+     * Whether the event is always cached during the initial load, regardless of the state of the Guilds being loaded.
+     */
+    private boolean isCachedDuringInit(String type, JSONObject raw)
+    {
+        switch (type)
+        {
+            case "READY":
+            case "RESUMED":
+            case "GUILD_CREATE":
+            case "GUILD_MEMBERS_CHUNK":
+            case "GUILD_SYNC":
+            case "GUILD_MEMBER_ADD":
+            case "GUILD_MEMBER_REMOVE":
+                return false;
+        }
+        JSONObject content = raw.optJSONObject("d");
+        if (content == null || !content.has("guild_id") || content.isNull("guild_id"))
+            return true;
+        GuildImpl guild = (GuildImpl) api.getGuildMap().get(content.getLong("guild_id"));
+        return guild == null || !guild.isRestored();
+    }
+
+    private boolean cacheDuringInit(JSONObject raw)
+    {
+        synchronized (cachedEvents)
+        {
+            if (!initiating)
+                return false;
+            LOG.debug("Caching " + raw.getString("t") + " event during init!");
+            cachedEvents.add(raw);
+            return true;
+        }
+    }
+
     public void handle(List<JSONObject> events)
     {
         events.forEach(this::handleEvent);
@@ -324,8 +376,25 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
     @Override
     public void onTextMessage(WebSocket websocket, String message)
+    {
+        EventMetricsListener metrics = api.getEventMetricsListener();
+        handleMessage(message, metrics, metrics != null ? System.nanoTime() : 0);
+    }
+
+    /**
+     * Handles a received frame.
+     *
+     * @param message
+     *        The JSON text of the frame
+     * @param metrics
+     *        The EventMetricsListener to report the timing of dispatches to, or {@code null}
+     * @param receivedAt
+     *        The {@link System#nanoTime()} the frame was received at, only used with metrics
+     */
+    protected void handleMessage(String message, EventMetricsListener metrics, long receivedAt)
     {
         JSONObject content = new JSONObject(message);
+        long decodedAt = metrics != null ? System.nanoTime() : 0;
         int opCode = content.getInt("op");
 
         if (content.has("s") && !content.isNull("s"))
@@ -336,7 +405,29 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         switch (opCode)
         {
             case 0:
-                handleEvent(content);
+                if (metrics == null)
+                {
+                    handleEvent(content);
+                    break;
+                }
+                api.setFrameReceivedAt(receivedAt);
+                try
+                {
+                    handleEvent(content);
+                }
+                finally
+                {
+                    api.setFrameReceivedAt(0);
+                }
+                try
+                {
+                    metrics.onGatewayEvent(content.getString("t"), receivedAt, decodedAt, System.nanoTime());
+                }
+                catch (Throwable throwable)
+                {
+                    LOG.fatal("The EventMetricsListener had an uncaught exception");
+                    LOG.log(throwable);
+                }
                 break;
             case 1:
                 LOG.debug("Got Keep-Alive request (OP 1). Sending response...");
@@ -413,7 +504,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
                                 .put("$referrer", "")
                         )
                         .put("v", DISCORD_GATEWAY_VERSION)
-                        .put("large_threshold", 250)
+                        .put("large_threshold", api.getLargeThreshold())
                         .put("compress", true));    //Used to make the READY event be given as compressed binary data when over a certain size. TY @ShadowLordAlpha
         if (shardInfo != null)
         {
@@ -439,6 +530,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
     protected void invalidate()
     {
+        guildSetup.await();
         sessionId = null;
         chunkingAndSyncing = false;
 
@@ -465,6 +557,8 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         api.getPrivateChannelMap().clear();
         api.getFakeUserMap().clear();
         api.getFakePrivateChannelMap().clear();
+        if (api.getMessageCache() != null)
+            api.getMessageCache().clear();
         EntityBuilder.get(api).clearCache();
         EventCache.get(api).clear();
         GuildLock.get(api).clear();
@@ -576,22 +670,40 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         String type = raw.getString("t");
         long responseTotal = api.getResponseTotal();
 
+        //During the initial load the GUILD_CREATEs of the Guilds from READY are built in parallel. Events that are
+        // cached until the load is done can skip the queue, everything else waits for the pending Guilds.
+        if (api.getGuildSetupParallelism() > 1 && !guildSetup.isFinishingThread())
+        {
+            if (initiating && type.equals("GUILD_CREATE")
+                    && this.<ReadyHandler>getHandler("READY").takeExpectedGuildCreate(raw.getJSONObject("d").getLong("id"))
+                    && guildSetup.submit(responseTotal, raw))
+                return;
+            if (initiating && isCachedDuringInit(type, raw) && cacheDuringInit(raw))
+                return;
+            guildSetup.await();
+        }
+
         if (type.equals("GUILD_MEMBER_ADD"))
-            ((GuildMembersChunkHandler) getHandler("GUILD_MEMBERS_CHUNK")).modifyExpectedGuildMember(raw.getJSONObject("d").getString("guild_id"), 1);
+            ((GuildMembersChunkHandler) getHandler("GUILD_MEMBERS_CHUNK")).modifyExpectedGuildMember(raw.getJSONObject("d").getLong("guild_id"), 1);
         if (type.equals("GUILD_MEMBER_REMOVE"))
-            ((GuildMembersChunkHandler) getHandler("GUILD_MEMBERS_CHUNK")).modifyExpectedGuildMember(raw.getJSONObject("d").getString("guild_id"), -1);
+            ((GuildMembersChunkHandler) getHandler("GUILD_MEMBERS_CHUNK")).modifyExpectedGuildMember(raw.getJSONObject("d").getLong("guild_id"), -1);
 
         //If initiating, only allows READY, RESUMED, GUILD_MEMBERS_CHUNK, GUILD_SYNC, and GUILD_CREATE through.
         // If we are currently chunking, we don't allow GUILD_CREATE through anymore.
+        // Events of Guilds restored from a snapshot are let through once their GUILD_CREATE was applied.
         if (initiating
                 &&  !(type.equals("READY")
                 || type.equals("GUILD_MEMBERS_CHUNK")
                 || type.equals("RESUMED")
                 || type.equals("GUILD_SYNC")
-                || (!chunkingAndSyncing && type.equals("GUILD_CREATE"))))
+                || (!chunkingAndSyncing && type.equals("GUILD_CREATE"))
+                || (!type.equals("GUILD_CREATE") && isForServableRestoredGuild(raw))))
         {
             LOG.debug("Caching " + type + " event during init!");
-            cachedEvents.add(raw);
+            synchronized (cachedEvents)
+            {
+                cachedEvents.add(raw);
+            }
             return;
         }
 //
@@ -681,6 +793,9 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     @Override
     public void onBinaryMessage(WebSocket websocket, byte[] binary) throws UnsupportedEncodingException, DataFormatException
     {
+        EventMetricsListener metrics = api.getEventMetricsListener();
+        long receivedAt = metrics != null ? System.nanoTime() : 0;
+
         //Thanks to ShadowLordAlpha for code and debugging.
         //Get the compressed message and inflate it
         StringBuilder builder = new StringBuilder();
@@ -694,8 +809,8 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         }
         decompresser.end();
 
-        // send the inflated message to the TextMessage method
-        onTextMessage(websocket, builder.toString());
+        // handle the inflated message like a text message
+        handleMessage(builder.toString(), metrics, receivedAt);
     }
 
     @Override
@@ -768,7 +883,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             handlers.put("MESSAGE_ACK", new SocketHandler(api)
             {
                 @Override
-                protected String handleInternally(JSONObject content)
+                protected Long handleInternally(JSONObject content)
                 {
                     return null;
                 }
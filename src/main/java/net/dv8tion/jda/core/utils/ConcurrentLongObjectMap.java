@@ -0,0 +1,656 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.core.utils;
+
+import gnu.trove.TCollections;
+import gnu.trove.function.TObjectFunction;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.list.array.TLongArrayList;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.procedure.TLongObjectProcedure;
+import gnu.trove.procedure.TLongProcedure;
+import gnu.trove.procedure.TObjectProcedure;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Open-addressing {@link gnu.trove.map.TLongObjectMap TLongObjectMap} that may be read from any thread without
+ * locking while it is being modified.
+ * <p>
+ * Writes are serialized on an internal lock, so they may come from several threads (for example while Guilds are
+ * built in parallel during the initial load), reads never block. A value is always published before its key, so a
+ * lookup either misses a concurrently added entry or sees it completely. Removed slots keep their key as a tombstone
+ * until the next resize, and a resize builds a complete new table before publishing it.
+ * <p>
+ * Iteration is weakly consistent: iterators, {@link #valueCollection()} and the bulk methods walk the table that was
+ * current when they started. They never throw {@link java.util.ConcurrentModificationException} and never return
+ * half-written entries, but may or may not reflect writes that happen during the iteration.
+ * <br>{@link #keySet()} is an unmodifiable copy and {@code null} values are not permitted.
+ *
+ * @param <V>
+ *      The value type
+ */
+public class ConcurrentLongObjectMap<V> implements TLongObjectMap<V>
+{
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final long FREE = 0L;
+    private static final Object REMOVED = new Object();
+
+    private final Object writeLock = new Object();
+    private volatile Table table;
+    // 0 marks free slots in the table, so the (never used by discord) key 0 lives here.
+    private volatile Object zeroValue;
+    private volatile int size;
+
+    public ConcurrentLongObjectMap()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ConcurrentLongObjectMap(int expectedSize)
+    {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("Provided expectedSize was negative!");
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    @Override
+    public long getNoEntryKey()
+    {
+        return FREE;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(long key)
+    {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value)
+    {
+        if (value == null)
+            return false;
+        for (V v : valueCollection())
+        {
+            if (value.equals(v))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(long key)
+    {
+        if (key == FREE)
+            return (V) zeroValue;
+
+        Table t = table;
+        int index = t.find(key);
+        if (index < 0)
+            return null;
+        Object value = t.values.get(index);
+        return value == REMOVED ? null : (V) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value)
+    {
+        if (value == null)
+            throw new NullPointerException("Provided value was null!");
+        synchronized (writeLock)
+        {
+            if (key == FREE)
+            {
+                Object old = zeroValue;
+                zeroValue = value;
+                if (old == null)
+                    size++;
+                onPut((V) old, value);
+                return (V) old;
+            }
+
+            Table t = table;
+            int index = t.slotFor(key);
+            if (t.keys.get(index) == key)
+            {
+                Object old = t.values.get(index);
+                t.values.set(index, value);
+                if (old == REMOVED)
+                {
+                    size++;
+                    onPut(null, value);
+                    return null;
+                }
+                onPut((V) old, value);
+                return (V) old;
+            }
+
+            if (t.occupied + 1 > t.threshold)
+            {
+                t = resize(size + 1);
+                index = t.slotFor(key);
+            }
+            //Publish the value before the key so readers that find the key always see the value.
+            t.values.set(index, value);
+            t.keys.set(index, key);
+            t.occupied++;
+            size++;
+            onPut(null, value);
+            return null;
+        }
+    }
+
+    @Override
+    public V putIfAbsent(long key, V value)
+    {
+        synchronized (writeLock)
+        {
+            V current = get(key);
+            if (current != null)
+                return current;
+            put(key, value);
+            return null;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(long key)
+    {
+        synchronized (writeLock)
+        {
+            if (key == FREE)
+            {
+                Object old = zeroValue;
+                zeroValue = null;
+                if (old != null)
+                {
+                    size--;
+                    onRemove((V) old);
+                }
+                return (V) old;
+            }
+
+            Table t = table;
+            int index = t.find(key);
+            if (index < 0)
+                return null;
+            Object old = t.values.get(index);
+            if (old == REMOVED)
+                return null;
+            t.values.set(index, REMOVED);
+            size--;
+            onRemove((V) old);
+            return (V) old;
+        }
+    }
+
+    @Override
+    public void putAll(Map<? extends Long, ? extends V> map)
+    {
+        synchronized (writeLock)
+        {
+            map.forEach(this::put);
+        }
+    }
+
+    @Override
+    public void putAll(TLongObjectMap<? extends V> map)
+    {
+        synchronized (writeLock)
+        {
+            map.forEachEntry((key, value) ->
+            {
+                put(key, value);
+                return true;
+            });
+        }
+    }
+
+    @Override
+    public void clear()
+    {
+        synchronized (writeLock)
+        {
+            table = new Table(capacityFor(0));
+            zeroValue = null;
+            size = 0;
+            onClear();
+        }
+    }
+
+    @Override
+    public TLongSet keySet()
+    {
+        return TCollections.unmodifiableSet(new TLongHashSet(keys()));
+    }
+
+    @Override
+    public long[] keys()
+    {
+        TLongArrayList keys = new TLongArrayList(size);
+        forEachKey(keys::add);
+        return keys.toArray();
+    }
+
+    @Override
+    public long[] keys(long[] array)
+    {
+        long[] keys = keys();
+        if (array.length < keys.length)
+            return keys;
+        System.arraycopy(keys, 0, array, 0, keys.length);
+        return array;
+    }
+
+    @Override
+    public Collection<V> valueCollection()
+    {
+        return new AbstractCollection<V>()
+        {
+            @Override
+            public Iterator<V> iterator()
+            {
+                EntryIterator it = new EntryIterator();
+                return new Iterator<V>()
+                {
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public V next()
+                    {
+                        it.advance();
+                        return it.value();
+                    }
+
+                    @Override
+                    public void remove()
+                    {
+                        it.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size()
+            {
+                return ConcurrentLongObjectMap.this.size();
+            }
+
+            @Override
+            public boolean contains(Object o)
+            {
+                return containsValue(o);
+            }
+        };
+    }
+
+    @Override
+    public Object[] values()
+    {
+        return new ArrayList<>(valueCollection()).toArray();
+    }
+
+    @Override
+    public V[] values(V[] array)
+    {
+        return new ArrayList<>(valueCollection()).toArray(array);
+    }
+
+    @Override
+    public TLongObjectIterator<V> iterator()
+    {
+        return new EntryIterator();
+    }
+
+    @Override
+    public boolean forEachKey(TLongProcedure procedure)
+    {
+        for (EntryIterator it = new EntryIterator(); it.hasNext(); )
+        {
+            it.advance();
+            if (!procedure.execute(it.key()))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean forEachValue(TObjectProcedure<? super V> procedure)
+    {
+        for (EntryIterator it = new EntryIterator(); it.hasNext(); )
+        {
+            it.advance();
+            if (!procedure.execute(it.value()))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean forEachEntry(TLongObjectProcedure<? super V> procedure)
+    {
+        for (EntryIterator it = new EntryIterator(); it.hasNext(); )
+        {
+            it.advance();
+            if (!procedure.execute(it.key(), it.value()))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void transformValues(TObjectFunction<V, V> function)
+    {
+        synchronized (writeLock)
+        {
+            for (EntryIterator it = new EntryIterator(); it.hasNext(); )
+            {
+                it.advance();
+                put(it.key(), function.execute(it.value()));
+            }
+        }
+    }
+
+    @Override
+    public boolean retainEntries(TLongObjectProcedure<? super V> procedure)
+    {
+        boolean modified = false;
+        synchronized (writeLock)
+        {
+            for (EntryIterator it = new EntryIterator(); it.hasNext(); )
+            {
+                it.advance();
+                if (!procedure.execute(it.key(), it.value()))
+                {
+                    remove(it.key());
+                    modified = true;
+                }
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (o == this)
+            return true;
+        if (!(o instanceof TLongObjectMap))
+            return false;
+        TLongObjectMap<?> other = (TLongObjectMap<?>) o;
+        if (other.size() != size())
+            return false;
+        return forEachEntry((key, value) -> value.equals(other.get(key)));
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int[] hash = {0};
+        forEachEntry((key, value) ->
+        {
+            hash[0] += Long.hashCode(key) ^ value.hashCode();
+            return true;
+        });
+        return hash[0];
+    }
+
+    @Override
+    public String toString()
+    {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        forEachEntry((key, value) ->
+        {
+            joiner.add(Long.toUnsignedString(key) + "=" + value);
+            return true;
+        });
+        return joiner.toString();
+    }
+
+    /**
+     * Called after a value was stored, while holding the write lock.
+     *
+     * @param oldValue
+     *        The value previously mapped to the same key, or {@code null}
+     * @param value
+     *        The new value
+     */
+    protected void onPut(V oldValue, V value) {}
+
+    /**
+     * Called after a value was removed, while holding the write lock.
+     *
+     * @param oldValue
+     *        The removed value
+     */
+    protected void onRemove(V oldValue) {}
+
+    /**
+     * Called after the map was cleared, while holding the write lock.
+     */
+    protected void onClear() {}
+
+    /**
+     * Runs the provided action while holding the write lock, serializing it with all modifications of this map.
+     *
+     * @param action
+     *        The action to run
+     */
+    protected void locked(Runnable action)
+    {
+        synchronized (writeLock)
+        {
+            action.run();
+        }
+    }
+
+    // Must be called while holding the writeLock
+    private Table resize(int minSize)
+    {
+        Table old = table;
+        Table t = new Table(capacityFor(minSize));
+        for (int i = 0; i < old.keys.length(); i++)
+        {
+            long key = old.keys.get(i);
+            if (key == FREE)
+                continue;
+            Object value = old.values.get(i);
+            if (value == REMOVED)
+                continue;
+            int index = t.slotFor(key);
+            t.values.set(index, value);
+            t.keys.set(index, key);
+            t.occupied++;
+        }
+        table = t;
+        return t;
+    }
+
+    private static int capacityFor(int size)
+    {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * LOAD_FACTOR < size)
+            capacity <<= 1;
+        return capacity;
+    }
+
+    private static int hash(long key)
+    {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Table
+    {
+        final AtomicLongArray keys;
+        final AtomicReferenceArray<Object> values;
+        final int mask;
+        final int threshold;
+        int occupied; // includes tombstones, only touched by the writer
+
+        Table(int capacity)
+        {
+            this.keys = new AtomicLongArray(capacity);
+            this.values = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+            this.threshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        /** Index of the slot holding the key, or -1 */
+        int find(long key)
+        {
+            int index = hash(key) & mask;
+            for (int probes = 0; probes <= mask; probes++)
+            {
+                long k = keys.get(index);
+                if (k == key)
+                    return index;
+                if (k == FREE)
+                    return -1;
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        /** Index of the slot holding the key, or of the free slot it would be inserted into */
+        int slotFor(long key)
+        {
+            int index = hash(key) & mask;
+            while (true)
+            {
+                long k = keys.get(index);
+                if (k == key || k == FREE)
+                    return index;
+                index = (index + 1) & mask;
+            }
+        }
+    }
+
+    private class EntryIterator implements TLongObjectIterator<V>
+    {
+        private final Table t = table;
+        private Object zero = zeroValue;
+        private int nextIndex = -1;
+        private long nextKey;
+        private Object nextValue;
+        private long key;
+        private V value;
+        private boolean current = false;
+
+        EntryIterator()
+        {
+            findNext();
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return nextValue != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void advance()
+        {
+            if (nextValue == null)
+                throw new NoSuchElementException();
+            key = nextKey;
+            value = (V) nextValue;
+            current = true;
+            findNext();
+        }
+
+        @Override
+        public long key()
+        {
+            return key;
+        }
+
+        @Override
+        public V value()
+        {
+            return value;
+        }
+
+        @Override
+        public V setValue(V val)
+        {
+            if (!current)
+                throw new IllegalStateException();
+            value = val;
+            return put(key, val);
+        }
+
+        @Override
+        public void remove()
+        {
+            if (!current)
+                throw new IllegalStateException();
+            ConcurrentLongObjectMap.this.remove(key);
+            current = false;
+        }
+
+        private void findNext()
+        {
+            if (zero != null)
+            {
+                nextKey = FREE;
+                nextValue = zero;
+                zero = null;
+                return;
+            }
+            while (++nextIndex < t.keys.length())
+            {
+                long k = t.keys.get(nextIndex);
+                if (k == FREE)
+                    continue;
+                Object v = t.values.get(nextIndex);
+                if (v == REMOVED)
+                    continue;
+                nextKey = k;
+                nextValue = v;
+                return;
+            }
+            nextValue = null;
+        }
+    }
+}
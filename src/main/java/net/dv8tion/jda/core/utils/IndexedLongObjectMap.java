@@ -0,0 +1,109 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.core.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link net.dv8tion.jda.core.utils.ConcurrentLongObjectMap ConcurrentLongObjectMap} that keeps a set of secondary
+ * {@link net.dv8tion.jda.core.utils.IndexedLongObjectMap.Index Indexes} (for example
+ * {@link net.dv8tion.jda.core.utils.NameIndex NameIndexes}) in sync with its values.
+ * <br>Values are indexed when they are put and removed from the indexes when they are removed from the map.
+ * After changing the name of a value {@link #reindex(long)} has to be called.
+ *
+ * @param <V>
+ *      The value type
+ */
+public class IndexedLongObjectMap<V> extends ConcurrentLongObjectMap<V>
+{
+    private final List<Index<V>> indexes;
+
+    @SafeVarargs
+    public IndexedLongObjectMap(Index<V>... indexes)
+    {
+        this.indexes = new ArrayList<>(indexes.length);
+        for (Index<V> index : indexes)
+            this.indexes.add(index);
+    }
+
+    /**
+     * Updates all indexes for the value mapped to the provided key, if any.
+     *
+     * @param key
+     *        The key of the value whose name might have changed
+     */
+    public void reindex(long key)
+    {
+        locked(() ->
+        {
+            V value = get(key);
+            if (value != null)
+                indexes.forEach(index -> index.update(value));
+        });
+    }
+
+    @Override
+    protected void onPut(V oldValue, V value)
+    {
+        for (Index<V> index : indexes)
+        {
+            if (oldValue != null && oldValue != value)
+                index.remove(oldValue);
+            index.update(value);
+        }
+    }
+
+    @Override
+    protected void onRemove(V oldValue)
+    {
+        indexes.forEach(index -> index.remove(oldValue));
+    }
+
+    @Override
+    protected void onClear()
+    {
+        indexes.forEach(Index::clear);
+    }
+
+    /**
+     * A secondary index over the values of an {@link net.dv8tion.jda.core.utils.IndexedLongObjectMap}.
+     *
+     * @param <V>
+     *      The value type
+     */
+    public interface Index<V>
+    {
+        /**
+         * Adds the value to the index or updates its position in the index.
+         *
+         * @param value
+         *        The added or changed value
+         */
+        void update(V value);
+
+        /**
+         * Removes the value from the index.
+         *
+         * @param value
+         *        The removed value
+         */
+        void remove(V value);
+
+        void clear();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.core.utils;
+
+import net.dv8tion.jda.core.entities.Game;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lossy pool used to share equal values (discriminators, game names,
+ * {@link net.dv8tion.jda.core.entities.Game Games}) between entities instead of keeping a separate copy parsed from
+ * every JSON payload.
+ * <p>
+ * The pool is a fixed size hash table with one value per slot. A value that is not found replaces whatever was in
+ * its slot, so frequent values stay pooled while rare ones get evicted, and the memory used by the pool never grows.
+ * Lookups and replacements are lock-free; a lost race only means a value is not shared.
+ * <br>The pools are static so that all shards of a process share them.
+ *
+ * @param <T>
+ *      The type of the pooled values, must be immutable and implement {@code equals} and {@code hashCode}
+ */
+public class InternPool<T>
+{
+    /** Pool for discriminators and game names. User names are mostly unique and would only evict these. */
+    public static final InternPool<String> STRINGS = new InternPool<>(1 << 16);
+    /** Pool for the {@link net.dv8tion.jda.core.entities.Game Games} of members and friends. */
+    public static final InternPool<Game> GAMES = new InternPool<>(1 << 12);
+
+    private final AtomicReferenceArray<T> table;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a new pool.
+     *
+     * @param  capacity
+     *         The amount of slots, rounded up to the next power of two
+     *
+     * @throws IllegalArgumentException
+     *         If the capacity is not positive
+     */
+    public InternPool(int capacity)
+    {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive! Provided: " + capacity);
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+        this.table = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the pooled value equal to the provided value, or pools and returns the provided value.
+     *
+     * @param  value
+     *         The value to share, may be {@code null}
+     *
+     * @return An equal value that may be shared, {@code null} if the provided value was {@code null}
+     */
+    public T intern(T value)
+    {
+        if (value == null)
+            return null;
+
+        int hash = value.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        T pooled = table.get(slot);
+        if (pooled != null && (pooled == value || pooled.equals(value)))
+        {
+            hits.increment();
+            return pooled;
+        }
+        table.lazySet(slot, value);
+        misses.increment();
+        return value;
+    }
+
+    /**
+     * The amount of {@link #intern(Object)} calls that returned an already pooled value.
+     *
+     * @return The hit count
+     */
+    public long getHitCount()
+    {
+        return hits.sum();
+    }
+
+    /**
+     * The amount of {@link #intern(Object)} calls that did not find an equal value.
+     *
+     * @return The miss count
+     */
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+    /**
+     * The ratio of hits to all non-null {@link #intern(Object)} calls.
+     *
+     * @return The hit rate between 0 and 1, 0 if the pool was never used
+     */
+    public double getHitRate()
+    {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * The amount of values currently pooled.
+     * <br>This iterates all slots.
+     *
+     * @return The amount of occupied slots
+     */
+    public int size()
+    {
+        int size = 0;
+        for (int i = 0; i < table.length(); i++)
+        {
+            if (table.get(i) != null)
+                size++;
+        }
+        return size;
+    }
+
+    /**
+     * Removes all pooled values and resets the metrics.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < table.length(); i++)
+            table.set(i, null);
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("InternPool(size: %d, hits: %d, misses: %d)", size(), getHitCount(), getMissCount());
+    }
+}
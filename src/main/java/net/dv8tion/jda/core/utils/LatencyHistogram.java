@@ -0,0 +1,177 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package net.dv8tion.jda.core.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds with a fixed amount of buckets, in the style of HdrHistogram.
+ * <p>
+ * Values below 64ns are counted exactly. Above that every power of two is split into 32 linear buckets, so a
+ * reported percentile is at most about 3% above the recorded value. Values above {@link #MAX_TRACKABLE_NANOS}
+ * (about 68 seconds) are counted in the last bucket, {@link #getMax(TimeUnit)} stays exact.
+ * <br>Recording is a few bit operations and an atomic increment and never allocates.
+ */
+public class LatencyHistogram
+{
+    public static final long MAX_TRACKABLE_NANOS = (1L << 36) - 1;
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    //Values up to this bound are stored in their own bucket
+    private static final int LINEAR_BOUND = SUB_BUCKETS << 1;
+    private static final int FIRST_EXPONENT = SUB_BUCKET_BITS + 1;
+    private static final int BUCKETS = indexOf(MAX_TRACKABLE_NANOS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos
+     *        The latency in nanoseconds, negative values are recorded as 0
+     */
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+            nanos = 0;
+        counts.incrementAndGet(indexOf(Math.min(nanos, MAX_TRACKABLE_NANOS)));
+        count.increment();
+        total.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    /**
+     * The amount of recorded latencies.
+     *
+     * @return The count
+     */
+    public long getCount()
+    {
+        return count.sum();
+    }
+
+    /**
+     * The latency below which the provided percentage of the recorded latencies fall.
+     *
+     * @param  percentile
+     *         The percentile, between 0 and 100, e.g. {@code 99.9}
+     * @param  unit
+     *         The unit of the returned latency
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If the percentile is not between 0 and 100
+     *
+     * @return The latency at the percentile, 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile, TimeUnit unit)
+    {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Percentile must be between 0 and 100, was " + percentile);
+        long[] snapshot = new long[BUCKETS];
+        long recorded = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            recorded += snapshot[i] = counts.get(i);
+        if (recorded == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += snapshot[i];
+            if (seen >= rank)
+            {
+                //The last bucket holds everything above MAX_TRACKABLE_NANOS
+                long value = i == BUCKETS - 1 ? max.get() : Math.min(highestValueOf(i), max.get());
+                return unit.convert(value, TimeUnit.NANOSECONDS);
+            }
+        }
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The mean of the recorded latencies.
+     *
+     * @param  unit
+     *         The unit of the returned latency
+     *
+     * @return The mean latency, 0 if nothing was recorded
+     */
+    public long getMean(TimeUnit unit)
+    {
+        long recorded = getCount();
+        return recorded == 0 ? 0 : unit.convert(total.sum() / recorded, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The highest recorded latency.
+     *
+     * @param  unit
+     *         The unit of the returned latency
+     *
+     * @return The maximum latency
+     */
+    public long getMax(TimeUnit unit)
+    {
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Removes all recorded latencies.
+     * <br>Latencies recorded concurrently may partially survive the reset.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+            counts.set(i, 0);
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("LatencyHistogram(count: %d, mean: %dus, p50: %dus, p99: %dus, max: %dus)", getCount(),
+                getMean(TimeUnit.MICROSECONDS), getPercentile(50, TimeUnit.MICROSECONDS),
+                getPercentile(99, TimeUnit.MICROSECONDS), getMax(TimeUnit.MICROSECONDS));
+    }
+
+    private static int indexOf(long value)
+    {
+        if (value < LINEAR_BOUND)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return LINEAR_BOUND + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValueOf(int index)
+    {
+        if (index < LINEAR_BOUND)
+            return index;
+        int exponent = FIRST_EXPONENT + (index - LINEAR_BOUND) / SUB_BUCKETS;
+        long mantissa = SUB_BUCKETS + (index - LINEAR_BOUND) % SUB_BUCKETS;
+        return ((mantissa + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.core.utils;
+
+import net.dv8tion.jda.core.OnlineStatus;
+import net.dv8tion.jda.core.entities.GuildVoiceState;
+import net.dv8tion.jda.core.entities.Member;
+import net.dv8tion.jda.core.entities.impl.MemberImpl;
+
+/**
+ * Decides which {@link net.dv8tion.jda.core.entities.Member Members} JDA keeps in its cache.
+ * <br>Set using {@link net.dv8tion.jda.core.JDABuilder#setMemberCachePolicy(MemberCachePolicy)}.
+ *
+ * <p>The policy is evaluated once a Guild has been fully loaded and again whenever the presence or voice state
+ * of a Member changes or a Member joins. Members that are not accepted are removed from the cache
+ * (the currently logged in account and the owner of each Guild are always kept).
+ * Uncached Members can be loaded on demand using
+ * {@link net.dv8tion.jda.core.entities.Guild#retrieveMemberById(String) Guild.retrieveMemberById(String)}.
+ *
+ * <p>Policies can be combined using {@link #or(MemberCachePolicy)} and {@link #and(MemberCachePolicy)}:
+ * <pre><code>
+ * builder.setMemberCachePolicy(MemberCachePolicy.ONLINE.or(MemberCachePolicy.VOICE));
+ * </code></pre>
+ */
+@FunctionalInterface
+public interface MemberCachePolicy
+{
+    /** Caches every Member. This is the default. */
+    MemberCachePolicy ALL = member -> true;
+    /** Caches no Members other than the currently logged in account and the Guild owners. */
+    MemberCachePolicy NONE = member -> false;
+    /** Caches Members whose {@link net.dv8tion.jda.core.OnlineStatus OnlineStatus} is not OFFLINE. */
+    MemberCachePolicy ONLINE = member -> member.getOnlineStatus() != OnlineStatus.OFFLINE;
+    /** Caches Members that are connected to a {@link net.dv8tion.jda.core.entities.VoiceChannel VoiceChannel}. */
+    MemberCachePolicy VOICE = member ->
+    {
+        //Avoid creating voice states for members that were never seen in voice
+        if (member instanceof MemberImpl)
+        {
+            GuildVoiceState voiceState = ((MemberImpl) member).getVoiceStateIfPresent();
+            return voiceState != null && voiceState.inVoiceChannel();
+        }
+        return member.getVoiceState().inVoiceChannel();
+    };
+    /** Caches the owner of each Guild. */
+    MemberCachePolicy OWNER = member -> member.equals(member.getGuild().getOwner());
+
+    /**
+     * Whether the provided Member should be kept in the cache.
+     *
+     * @param  member
+     *         The Member to check
+     *
+     * @return True, if the Member should be cached
+     */
+    boolean cacheMember(Member member);
+
+    /**
+     * Combines this policy with another one. A Member is cached if either policy accepts it.
+     *
+     * @param  other
+     *         The other policy
+     *
+     * @return The combined policy
+     */
+    default MemberCachePolicy or(MemberCachePolicy other)
+    {
+        if (other == null)
+            throw new NullPointerException("Provided MemberCachePolicy was null!");
+        return member -> cacheMember(member) || other.cacheMember(member);
+    }
+
+    /**
+     * Combines this policy with another one. A Member is cached only if both policies accept it.
+     *
+     * @param  other
+     *         The other policy
+     *
+     * @return The combined policy
+     */
+    default MemberCachePolicy and(MemberCachePolicy other)
+    {
+        if (other == null)
+            throw new NullPointerException("Provided MemberCachePolicy was null!");
+        return member -> cacheMember(member) && other.cacheMember(member);
+    }
+}
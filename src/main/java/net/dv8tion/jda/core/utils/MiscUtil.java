@@ -39,10 +39,7 @@ public class MiscUtil
     public static OffsetDateTime getCreationTime(String entityId) {
         try
         {
-            long timestamp = ((Long.parseLong(entityId) >> 22) + 1420070400000L);
-            Calendar gmt = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
-            gmt.setTimeInMillis(timestamp);
-            return OffsetDateTime.ofInstant(gmt.toInstant(), gmt.getTimeZone().toZoneId());
+            return getCreationTime(parseSnowflake(entityId));
         }
         catch (NumberFormatException ex)
         {
@@ -50,6 +47,51 @@ public class MiscUtil
         }
     }
 
+    /**
+     * Gets the creation-time of a JDA-entity by doing the reverse snowflake algorithm on its id.
+     * This returns the creation-time of the actual entity on Discords side, not inside JDA.
+     *
+     * @param entityId
+     *      The id of the JDA entity where the creation-time should be determined for
+     * @return
+     *      The creation time of the JDA entity as OffsetDateTime
+     */
+    public static OffsetDateTime getCreationTime(long entityId)
+    {
+        long timestamp = ((entityId >>> 22) + 1420070400000L);
+        Calendar gmt = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
+        gmt.setTimeInMillis(timestamp);
+        return OffsetDateTime.ofInstant(gmt.toInstant(), gmt.getTimeZone().toZoneId());
+    }
+
+    /**
+     * Parses the provided String representation of a Snowflake id into its primitive long form.
+     * <br>Discord ids are unsigned 64-bit integers, so this uses {@link Long#parseUnsignedLong(String)}.
+     *
+     * @param input
+     *      The String id to parse
+     *
+     * @throws java.lang.NumberFormatException
+     *      If the provided String is null or not a valid snowflake
+     *
+     * @return
+     *      The id as a primitive long
+     */
+    public static long parseSnowflake(String input)
+    {
+        if (input == null)
+            throw new NumberFormatException("Provided snowflake id was null!");
+        try
+        {
+            return Long.parseUnsignedLong(input);
+        }
+        catch (NumberFormatException ex)
+        {
+            throw new NumberFormatException(
+                String.format("The specified ID is not a valid snowflake (%s). Expecting a valid long value!", input));
+        }
+    }
+
     /**
      * Gets the creation-time of a JDA-entity by doing the reverse snowflake algorithm on its id.
      * This returns the creation-time of the actual entity on Discords side, not inside JDA.
@@ -0,0 +1,192 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.core.utils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+/**
+ * Multimap from names to entities, used to answer {@code getXByName} lookups without scanning the whole cache.
+ * <p>
+ * Every entity is indexed under its exact name and its case-folded name, and the folded names are kept sorted for
+ * prefix searches. The name an entity was indexed under is remembered, so {@link #update(Object)} only needs to be
+ * called after the name of an entity might have changed.
+ * <br>Lookups re-check the current name of each candidate, so a missed update can only cause a miss, never a wrong
+ * result. Entities with a {@code null} name are not indexed.
+ *
+ * @param <T>
+ *      The entity type
+ */
+public class NameIndex<T> implements IndexedLongObjectMap.Index<T>
+{
+    private final Function<T, String> nameFunction;
+    private final ConcurrentMap<String, Set<T>> exact = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<T>> folded = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<String> foldedNames = new ConcurrentSkipListSet<>();
+    private final ConcurrentMap<T, String> indexedNames = new ConcurrentHashMap<>();
+
+    public NameIndex(Function<T, String> nameFunction)
+    {
+        this.nameFunction = nameFunction;
+    }
+
+    /**
+     * Adds the entity to the index or moves it to its current name.
+     *
+     * @param entity
+     *        The entity to (re-)index
+     */
+    @Override
+    public void update(T entity)
+    {
+        String name = nameFunction.apply(entity);
+        String old = name == null ? indexedNames.remove(entity) : indexedNames.put(entity, name);
+        if (Objects.equals(old, name))
+            return;
+        if (old != null)
+            unlink(old, entity);
+        if (name != null)
+            link(name, entity);
+    }
+
+    /**
+     * Removes the entity from the index.
+     *
+     * @param entity
+     *        The entity to remove
+     */
+    @Override
+    public void remove(T entity)
+    {
+        String old = indexedNames.remove(entity);
+        if (old != null)
+            unlink(old, entity);
+    }
+
+    @Override
+    public void clear()
+    {
+        indexedNames.clear();
+        exact.clear();
+        folded.clear();
+        foldedNames.clear();
+    }
+
+    /**
+     * All indexed entities with the provided name.
+     *
+     * @param  name
+     *         The name to look up
+     * @param  ignoreCase
+     *         Whether to compare using {@link String#equalsIgnoreCase(String)}
+     *
+     * @return Modifiable list of matching entities
+     */
+    public List<T> get(String name, boolean ignoreCase)
+    {
+        List<T> result = new ArrayList<>();
+        if (name == null)
+            return result;
+
+        Set<T> candidates = ignoreCase ? folded.get(fold(name)) : exact.get(name);
+        if (candidates == null)
+            return result;
+        for (T entity : candidates)
+        {
+            String current = nameFunction.apply(entity);
+            if (ignoreCase ? name.equalsIgnoreCase(current) : name.equals(current))
+                result.add(entity);
+        }
+        return result;
+    }
+
+    /**
+     * All indexed entities whose name starts with the provided prefix, e.g. for autocompletion.
+     *
+     * @param  prefix
+     *         The prefix
+     * @param  ignoreCase
+     *         Whether the prefix is matched case-insensitively
+     *
+     * @return Modifiable list of matching entities, ordered by folded name
+     */
+    public List<T> getByPrefix(String prefix, boolean ignoreCase)
+    {
+        List<T> result = new ArrayList<>();
+        if (prefix == null)
+            return result;
+
+        String foldedPrefix = fold(prefix);
+        for (String key : foldedNames.subSet(foldedPrefix, true, foldedPrefix + Character.MAX_VALUE, true))
+        {
+            Set<T> candidates = folded.get(key);
+            if (candidates == null)
+                continue;
+            for (T entity : candidates)
+            {
+                String current = nameFunction.apply(entity);
+                if (current != null && current.regionMatches(ignoreCase, 0, prefix, 0, prefix.length()))
+                    result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    private void link(String name, T entity)
+    {
+        exact.computeIfAbsent(name, k -> ConcurrentHashMap.newKeySet()).add(entity);
+        folded.compute(fold(name), (key, set) ->
+        {
+            if (set == null)
+            {
+                set = ConcurrentHashMap.newKeySet();
+                foldedNames.add(key);
+            }
+            set.add(entity);
+            return set;
+        });
+    }
+
+    private void unlink(String name, T entity)
+    {
+        exact.computeIfPresent(name, (key, set) ->
+        {
+            set.remove(entity);
+            return set.isEmpty() ? null : set;
+        });
+        folded.computeIfPresent(fold(name), (key, set) ->
+        {
+            set.remove(entity);
+            if (!set.isEmpty())
+                return set;
+            foldedNames.remove(key);
+            return null;
+        });
+    }
+
+    // Same equivalence as String#equalsIgnoreCase
+    private static String fold(String name)
+    {
+        char[] chars = name.toCharArray();
+        for (int i = 0; i < chars.length; i++)
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        return new String(chars);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package net.dv8tion.jda.core.utils;
+
+import net.dv8tion.jda.core.entities.Channel;
+import net.dv8tion.jda.core.entities.TextChannel;
+import net.dv8tion.jda.core.entities.impl.GuildImpl;
+import net.dv8tion.jda.core.entities.impl.MemberImpl;
+import net.dv8tion.jda.core.entities.impl.TextChannelImpl;
+import net.dv8tion.jda.core.entities.impl.VoiceChannelImpl;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the effective permissions of {@link net.dv8tion.jda.core.entities.Member Members} in
+ * {@link net.dv8tion.jda.core.entities.Channel Channels} as raw longs.
+ * <p>
+ * Entries are stored on their Member and stamped with the permission version of the Guild, the override version of
+ * the Channel and the role array of the Member. The Guild version is increased when the permissions of a role change
+ * or a role is deleted, the Channel version when its overrides change, and a Member gets a new role array whenever its
+ * roles change. An entry is only used while all three still match, so invalidating never has to walk any Members.
+ */
+public class PermissionCache
+{
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Returns the cached effective permissions of the Member in the Channel, or computes and caches them.
+     *
+     * @param  member
+     *         The Member
+     * @param  channel
+     *         The TextChannel or VoiceChannel of the Member's Guild
+     * @param  compute
+     *         Computes the effective permissions on a miss
+     *
+     * @return The effective permissions as raw long
+     */
+    public long getEffectivePermission(MemberImpl member, Channel channel, LongSupplier compute)
+    {
+        //The versions are read before computing, a change in the meantime only leaves an outdated stamp behind
+        int guildVersion = ((GuildImpl) channel.getGuild()).getPermissionVersion();
+        int channelVersion = getOverrideVersion(channel);
+        long[] roleIds = member.getRoleIds();
+
+        ConcurrentLongObjectMap<Entry> entries = member.getPermissionCache();
+        Entry entry = entries.get(channel.getIdLong());
+        if (entry != null && entry.guildVersion == guildVersion && entry.channelVersion == channelVersion && entry.roleIds == roleIds)
+        {
+            hits.increment();
+            return entry.permissions;
+        }
+
+        misses.increment();
+        long permissions = compute.getAsLong();
+        entries.put(channel.getIdLong(), new Entry(permissions, guildVersion, channelVersion, roleIds));
+        return permissions;
+    }
+
+    /**
+     * The amount of lookups that were answered from the cache.
+     *
+     * @return The hit count
+     */
+    public long getHitCount()
+    {
+        return hits.sum();
+    }
+
+    /**
+     * The amount of lookups that had to compute the permissions.
+     *
+     * @return The miss count
+     */
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+    /**
+     * The ratio of hits to all lookups.
+     *
+     * @return The hit rate between 0 and 1, 0 if the cache was never used
+     */
+    public double getHitRate()
+    {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Resets the metrics.
+     */
+    public void resetMetrics()
+    {
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Invalidates all cached permissions of the provided Channel.
+     *
+     * @param channel
+     *        The TextChannel or VoiceChannel whose overrides changed
+     */
+    public static void invalidate(Channel channel)
+    {
+        if (channel instanceof TextChannel)
+            ((TextChannelImpl) channel).increaseOverrideVersion();
+        else
+            ((VoiceChannelImpl) channel).increaseOverrideVersion();
+    }
+
+    private static int getOverrideVersion(Channel channel)
+    {
+        if (channel instanceof TextChannel)
+            return ((TextChannelImpl) channel).getOverrideVersion();
+        else
+            return ((VoiceChannelImpl) channel).getOverrideVersion();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("PermissionCache(hits: %d, misses: %d)", getHitCount(), getMissCount());
+    }
+
+    public static final class Entry
+    {
+        final long permissions;
+        final int guildVersion;
+        final int channelVersion;
+        final long[] roleIds;
+        private volatile PermissionList permissionList;
+
+        Entry(long permissions, int guildVersion, int channelVersion, long[] roleIds)
+        {
+            this.permissions = permissions;
+            this.guildVersion = guildVersion;
+            this.channelVersion = channelVersion;
+            this.roleIds = roleIds;
+        }
+
+        /**
+         * A view of the provided permissions, kept on this entry so repeated lookups of the same
+         * Member and Channel share one view.
+         *
+         * @param  permissions
+         *         The current effective permissions
+         *
+         * @return The view of the permissions
+         */
+        public PermissionList getPermissionList(long permissions)
+        {
+            return permissionList = PermissionList.of(permissionList, permissions);
+        }
+    }
+}
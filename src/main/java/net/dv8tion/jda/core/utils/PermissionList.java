@@ -0,0 +1,110 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package net.dv8tion.jda.core.utils;
+
+import net.dv8tion.jda.core.Permission;
+
+import java.util.AbstractList;
+import java.util.EnumSet;
+import java.util.RandomAccess;
+
+/**
+ * Immutable {@link java.util.List List} view of the {@link net.dv8tion.jda.core.Permission Permissions} of a raw
+ * permission value.
+ * <p>
+ * Entities keep the view of their current raw value and only replace it when that value changes, so repeated
+ * calls to their permission getters do not allocate. {@link #contains(Object)} is answered by an
+ * {@link java.util.EnumSet EnumSet} and therefore is a single bit test.
+ */
+public final class PermissionList extends AbstractList<Permission> implements RandomAccess
+{
+    private final long raw;
+    private final Permission[] permissions;
+    private final EnumSet<Permission> set;
+
+    public PermissionList(long raw)
+    {
+        this.raw = raw;
+        this.set = Permission.toEnumSet(raw);
+        this.permissions = Permission.getPermissions(raw).toArray(new Permission[0]);
+    }
+
+    /**
+     * Returns the provided view if it still represents the raw value, otherwise a new view.
+     *
+     * @param  current
+     *         The currently cached view, or {@code null}
+     * @param  raw
+     *         The raw permission value
+     *
+     * @return A view of the raw permission value
+     */
+    public static PermissionList of(PermissionList current, long raw)
+    {
+        return current != null && current.raw == raw ? current : new PermissionList(raw);
+    }
+
+    /**
+     * The raw permission value this view represents.
+     *
+     * @return The raw permission value
+     */
+    public long getRaw()
+    {
+        return raw;
+    }
+
+    /**
+     * Checks whether all provided permissions are part of this view.
+     *
+     * @param  mask
+     *         The raw permissions to check
+     *
+     * @return True, if all bits of the mask are set
+     */
+    public boolean containsAll(long mask)
+    {
+        return (raw & mask) == mask;
+    }
+
+    /**
+     * A modifiable copy of the permissions of this view.
+     *
+     * @return A new EnumSet
+     */
+    public EnumSet<Permission> toEnumSet()
+    {
+        return EnumSet.copyOf(set);
+    }
+
+    @Override
+    public Permission get(int index)
+    {
+        return permissions[index];
+    }
+
+    @Override
+    public int size()
+    {
+        return permissions.length;
+    }
+
+    @Override
+    public boolean contains(Object o)
+    {
+        return o instanceof Permission && set.contains(o);
+    }
+}
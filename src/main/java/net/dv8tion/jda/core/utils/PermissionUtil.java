@@ -20,8 +20,7 @@ import net.dv8tion.jda.core.entities.*;
 import net.dv8tion.jda.core.entities.impl.*;
 import org.apache.commons.collections4.CollectionUtils;
 
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 public class PermissionUtil
 {
@@ -44,13 +43,13 @@ public class PermissionUtil
         Guild guild = issuer.getGuild();
         if (!guild.equals(target.getGuild()))
             throw new IllegalArgumentException("Provided members must both be Member objects of the same Guild!");
-        if(guild.getOwner().equals(issuer))
+        GuildImpl guildImpl = (GuildImpl) guild;
+        if(guildImpl.isOwner(issuer))
             return true;
-        if(guild.getOwner().equals(target))
+        if(guildImpl.isOwner(target))
             return false;
-        List<Role> issuerRoles = issuer.getRoles();
-        List<Role> targetRoles = target.getRoles();
-        return !issuerRoles.isEmpty() && (targetRoles.isEmpty() || canInteract(issuerRoles.get(0), targetRoles.get(0)));
+        int issuerRank = guildImpl.getTopRoleRank((MemberImpl) issuer);
+        return issuerRank != Integer.MAX_VALUE && issuerRank < guildImpl.getTopRoleRank((MemberImpl) target);
     }
 
     /**
@@ -72,10 +71,11 @@ public class PermissionUtil
         Guild guild = issuer.getGuild();
         if (!guild.equals(target.getGuild()))
             throw new IllegalArgumentException("Provided Member issuer and Role target must be from the same Guild!");
-        if(guild.getOwner().equals(issuer))
+        GuildImpl guildImpl = (GuildImpl) guild;
+        if(guildImpl.isOwner(issuer))
             return true;
-        List<Role> issuerRoles = issuer.getRoles();
-        return !issuerRoles.isEmpty() && canInteract(issuerRoles.get(0), target);
+        int issuerRank = guildImpl.getTopRoleRank((MemberImpl) issuer);
+        return issuerRank != Integer.MAX_VALUE && issuerRank < guildImpl.getRoleRank(target);
     }
     
     /**
@@ -96,7 +96,42 @@ public class PermissionUtil
 
         if(!issuer.getGuild().equals(target.getGuild()))
             throw new IllegalArgumentException("The 2 Roles are not from same Guild!");
-        return target.getPosition() < issuer.getPosition();
+        GuildImpl guild = (GuildImpl) issuer.getGuild();
+        return guild.getRoleRank(issuer) < guild.getRoleRank(target);
+    }
+
+    /**
+     * Filters the provided Members down to the ones the issuer can interact with - in a permission sense (kick/ban/modify perms).
+     * This only checks the Role-Position and does not check the actual permission (kick/ban/manage_role/...)
+     * <br>The top role of the issuer is only resolved once, which makes this cheaper than calling
+     * {@link #canInteract(Member, Member)} for every target.
+     *
+     * @param issuer
+     *      The member that tries to interact with the targets
+     * @param targets
+     *      The members that are the targets of the interaction
+     * @return
+     *      A new List of the targets the issuer can interact with, in the order of the provided targets
+     */
+    public static List<Member> filterInteractable(Member issuer, Collection<? extends Member> targets)
+    {
+        checkNull(issuer, "issuer member");
+        checkNull(targets, "target members");
+
+        GuildImpl guild = (GuildImpl) issuer.getGuild();
+        boolean isOwner = guild.isOwner(issuer);
+        int issuerRank = guild.getTopRoleRank((MemberImpl) issuer);
+        List<Member> interactable = new ArrayList<>(targets.size());
+        for (Member target : targets)
+        {
+            checkNull(target, "target member");
+            if (!guild.equals(target.getGuild()))
+                throw new IllegalArgumentException("Provided members must all be Member objects of the same Guild!");
+            if (isOwner || (!guild.isOwner(target) && issuerRank != Integer.MAX_VALUE
+                    && issuerRank < guild.getTopRoleRank((MemberImpl) target)))
+                interactable.add(target);
+        }
+        return interactable;
     }
 
     /**
@@ -149,14 +184,14 @@ public class PermissionUtil
 
         if (emote.isFake() || !emote.getGuild().isMember(issuer))
             return false; // cannot use an emote if you're not in its guild
-        Member member = emote.getGuild().getMemberById(issuer.getId());
+        Member member = emote.getGuild().getMemberById(issuer.getIdLong());
         if (!canInteract(member, emote))
             return false;
         switch (channel.getType())
         {
             case TEXT:
                 TextChannel text = (TextChannel) channel;
-                member = text.getGuild().getMemberById(issuer.getId());
+                member = text.getGuild().getMemberById(issuer.getIdLong());
                 return emote.getGuild().equals(text.getGuild()) // within the same guild
                     || (emote.isManaged() && checkPermission(text, member, Permission.MESSAGE_EXT_EMOJI)); // in different guild
             default:
@@ -167,15 +202,7 @@ public class PermissionUtil
     public static PermissionOverride getFullPermOverride()
     {
         PermissionOverrideImpl override = new PermissionOverrideImpl(null, null, null);
-        long allow = 0, deny = 0;
-        for (Permission permission : Permission.values())
-        {
-            if(permission != Permission.UNKNOWN)
-            {
-                allow = allow | (1 << permission.getOffset());
-            }
-        }
-        return override.setAllow(allow).setDeny(deny);
+        return override.setAllow(Permission.ALL_PERMISSIONS).setDeny(0);
     }
 
     /**
@@ -198,25 +225,38 @@ public class PermissionUtil
      */
     public static boolean checkPermission(Guild guild, Member member, Permission... permissions)
     {
-        checkNull(guild, "guild");
-        checkNull(member, "member");
         checkNull(permissions, "permissions");
 
-        if (!guild.equals(member.getGuild()))
-            throw new IllegalArgumentException("Provided member is not in the provided guild");
+        return checkPermission(guild, member, Permission.getRaw(permissions));
+    }
 
-        List<Role> roles = member.getRoles();
-        if (guild.getOwner().equals(member) // Admin or owner? If yes: no need to iterate
-                || guild.getPublicRole().hasPermission(Permission.ADMINISTRATOR)
-                || roles.stream().anyMatch(role -> role.hasPermission(Permission.ADMINISTRATOR)))
+    /**
+     * Checks to see if the {@link net.dv8tion.jda.core.entities.Member Member} has all permissions of the provided raw
+     * permission mask in the specified {@link net.dv8tion.jda.core.entities.Guild Guild}.
+     * This method properly deals with Owner status.
+     * <br>This is a single bitwise test against the effective permissions of the Member.
+     *
+     * @param guild
+     *          The {@link net.dv8tion.jda.core.entities.Guild Guild} being checked.
+     * @param member
+     *          The {@link net.dv8tion.jda.core.entities.Member Member} whose permissions are being checked.
+     * @param permissions
+     *          The raw <code>long</code> representation of the permissions being checked for,
+     *          see {@link net.dv8tion.jda.core.Permission#getRaw(Permission...) Permission.getRaw(Permission...)}.
+     * @return
+     *      True - if the {@link net.dv8tion.jda.core.entities.Member Member} effectively has the specified permissions.
+     */
+    public static boolean checkPermission(Guild guild, Member member, long permissions)
+    {
+        checkNull(guild, "guild");
+        checkNull(member, "member");
+
+        if (((GuildImpl) guild).isOwner(member)) // Owner? If yes: no need to compute
             return true;
-        for (Permission perm : permissions)
-        {
-            if (!guild.getPublicRole().hasPermission(perm)
-                    && !roles.parallelStream().anyMatch(role -> role.hasPermission(perm)))
-                return false;
-        }
-        return true;
+
+        long effectivePerms = getEffectivePermission(guild, member);
+        return (effectivePerms & Permission.ADMINISTRATOR.getRawValue()) != 0
+                || (effectivePerms & permissions) == permissions;
     }
 
     /**
@@ -239,39 +279,45 @@ public class PermissionUtil
      *      True - if the {@link net.dv8tion.jda.core.entities.Member Member} effectively has the specified {@link net.dv8tion.jda.core.Permission Permissions}.
      */
     public static boolean checkPermission(Channel channel, Member member, Permission... permissions)
+    {
+        checkNull(permissions, "permissions");
+
+        return checkPermission(channel, member, Permission.getRaw(permissions));
+    }
+
+    /**
+     * Checks to see if the {@link net.dv8tion.jda.core.entities.Member Member} has all permissions of the provided raw
+     * permission mask in the specified {@link net.dv8tion.jda.core.entities.Channel Channel}. This method properly deals with
+     * {@link net.dv8tion.jda.core.entities.PermissionOverride PermissionOverrides} and Owner status.
+     * <br>This is a single bitwise test against the (cached) effective permissions of the Member.
+     *
+     * @param channel
+     *          The {@link net.dv8tion.jda.core.entities.Channel Channel} being checked.
+     * @param member
+     *          The {@link net.dv8tion.jda.core.entities.Member Member} whose permissions are being checked.
+     * @param permissions
+     *          The raw <code>long</code> representation of the permissions being checked for,
+     *          see {@link net.dv8tion.jda.core.Permission#getRaw(Permission...) Permission.getRaw(Permission...)}.
+     * @return
+     *      True - if the {@link net.dv8tion.jda.core.entities.Member Member} effectively has the specified permissions.
+     */
+    public static boolean checkPermission(Channel channel, Member member, long permissions)
     {
         checkNull(channel, "channel");
         checkNull(member, "member");
-        checkNull(permissions, "permissions");
 
         GuildImpl guild = (GuildImpl) channel.getGuild();
         if (!guild.equals(member.getGuild()))
             throw new IllegalArgumentException("Provided channel and member are not from the same guild!");
 
-        if (guild.getOwner().equals(member) // Admin or owner? If yes: no need to iterate
-                || guild.getPublicRole().hasPermission(Permission.ADMINISTRATOR)
-                || member.getRoles().stream().anyMatch(role -> role.hasPermission(Permission.ADMINISTRATOR)))
+        if (guild.isOwner(member) // Admin or owner? If yes: no need to check the overrides
+                || (getEffectivePermission(guild, member) & Permission.ADMINISTRATOR.getRawValue()) != 0)
             return true;
 
-        if (channel instanceof TextChannel)
-        {
-            for (Permission perm : permissions)
-            {
-                if (!checkPermission(member, perm, ((GuildImpl) channel.getGuild()),
-                        ((TextChannelImpl) channel).getRoleOverrideMap(), ((TextChannelImpl) channel).getMemberOverrideMap()))
-                    return false;
-            }
-        }
-        else
-        {
-            for (Permission perm : permissions)
-            {
-                if (!checkPermission(member, perm, ((GuildImpl) channel.getGuild()),
-                        ((VoiceChannelImpl) channel).getRoleOverrideMap(), ((VoiceChannelImpl) channel).getMemberOverrideMap()))
-                    return false;
-            }
-        }
-        return true;
+        //Channel overrides can deny ADMINISTRATOR, so it is checked against the effective permissions again
+        long effectivePerms = getEffectivePermission(channel, member);
+        return (effectivePerms & Permission.ADMINISTRATOR.getRawValue()) != 0
+                || (effectivePerms & permissions) == permissions;
     }
 
     /**
@@ -298,9 +344,12 @@ public class PermissionUtil
             throw new IllegalArgumentException("Provided member is not in the provided guild!");
         //Default to binary OR of all global permissions in this guild
         long permission = guild.getPublicRole().getPermissionsRaw();
-        for (Role role : member.getRoles())
+        //Walks the role ids directly, getRoles() would build and sort a new list
+        for (long roleId : ((MemberImpl) member).getRoleIds())
         {
-            permission = permission | role.getPermissionsRaw();
+            Role role = ((GuildImpl) guild).getRolesMap().get(roleId);
+            if (role != null)
+                permission = permission | role.getPermissionsRaw();
         }
         return permission;
     }
@@ -328,18 +377,75 @@ public class PermissionUtil
         if (!channel.getGuild().equals(member.getGuild()))
             throw new IllegalArgumentException("Provided channel and provided member are not of the same guild!");
 
+        PermissionCache cache = ((JDAImpl) member.getJDA()).getPermissionCache();
         if (channel instanceof TextChannel)
         {
-            return getEffectivePermission(member, ((GuildImpl) channel.getGuild()),
-                    ((TextChannelImpl) channel).getRoleOverrideMap(), ((TextChannelImpl) channel).getMemberOverrideMap());
+            return cache.getEffectivePermission((MemberImpl) member, channel, () ->
+                    getEffectivePermission(member, ((GuildImpl) channel.getGuild()),
+                    ((TextChannelImpl) channel).getRoleOverrideMap(), ((TextChannelImpl) channel).getMemberOverrideMap()));
         }
         else
         {
-            return getEffectivePermission(member, ((GuildImpl) channel.getGuild()),
-                    ((VoiceChannelImpl) channel).getRoleOverrideMap(), ((VoiceChannelImpl) channel).getMemberOverrideMap());
+            return cache.getEffectivePermission((MemberImpl) member, channel, () ->
+                    getEffectivePermission(member, ((GuildImpl) channel.getGuild()),
+                    ((VoiceChannelImpl) channel).getRoleOverrideMap(), ((VoiceChannelImpl) channel).getMemberOverrideMap()));
         }
     }
 
+    /**
+     * Gets all cached {@link net.dv8tion.jda.core.entities.Member Members} of the Channel's Guild whose effective
+     * permissions in the provided {@link net.dv8tion.jda.core.entities.Channel Channel} contain the provided
+     * {@link net.dv8tion.jda.core.Permission Permission}.
+     * <p>
+     * Members are grouped by their roles: the role overrides are evaluated once for every distinct combination of
+     * roles and the member overrides only for the Members that have one. Like
+     * {@link #getEffectivePermission(Channel, Member)} this does not consider Owner status.
+     *
+     * @param channel
+     *          The {@link net.dv8tion.jda.core.entities.Channel Channel} being checked.
+     * @param permission
+     *          The {@link net.dv8tion.jda.core.Permission Permission} being checked for.
+     * @return
+     *      Modifiable list of the Members that have the Permission in the Channel.
+     */
+    public static List<Member> getMembersWithPermission(Channel channel, Permission permission)
+    {
+        checkNull(channel, "channel");
+        checkNull(permission, "permission");
+
+        GuildImpl guild = (GuildImpl) channel.getGuild();
+        Map<Role, PermissionOverride> roleOverrides;
+        Map<Member, PermissionOverride> memberOverrides;
+        if (channel instanceof TextChannel)
+        {
+            roleOverrides = ((TextChannelImpl) channel).getRoleOverrideMap();
+            memberOverrides = ((TextChannelImpl) channel).getMemberOverrideMap();
+        }
+        else
+        {
+            roleOverrides = ((VoiceChannelImpl) channel).getRoleOverrideMap();
+            memberOverrides = ((VoiceChannelImpl) channel).getMemberOverrideMap();
+        }
+
+        long mask = permission.getRawValue();
+        Map<RoleSet, Long> rolePermissions = new HashMap<>();
+        List<Member> members = new ArrayList<>();
+        for (Member member : guild.getMembersMap().valueCollection())
+        {
+            long[] roleIds = ((MemberImpl) member).getRoleIds();
+            long permissions = rolePermissions.computeIfAbsent(new RoleSet(roleIds),
+                    key -> getRolePermission(guild, roleIds, roleOverrides));
+
+            PermissionOverride memberOverride = memberOverrides.isEmpty() ? null : memberOverrides.get(member);
+            if (memberOverride != null)
+                permissions = apply(permissions, memberOverride.getAllowedRaw(), memberOverride.getDeniedRaw());
+
+            if ((permissions & mask) != 0)
+                members.add(member);
+        }
+        return members;
+    }
+
     /**
      * Gets the <code>long</code> representation of the effective permissions allowed for this {@link net.dv8tion.jda.core.entities.Role Role}
      * in this {@link net.dv8tion.jda.core.entities.Channel Channel}. This can be used in conjunction with
@@ -383,25 +489,29 @@ public class PermissionUtil
         return permissions;
     }
 
-    private static boolean checkPermission(Member member, Permission perm, GuildImpl guild, Map<Role, PermissionOverride> roleOverrides, Map<Member, PermissionOverride> memberOverrides)
+    private static long getEffectivePermission(Member member, GuildImpl guild, Map<Role, PermissionOverride> roleOverrides, Map<Member, PermissionOverride> memberOverrides)
     {
-        //--Do we have all permissions possible? (Owner or member has ADMINISTRATOR permission)
-        //--If we have all permissions possible, then we will be able to see this room.
-        //WE DO NOT WANT TO CHECK THIS FOR CHANNELS, AS CHANNELS CAN OVERRIDE MANAGE_PERMISSIONS
-//        if (checkPermission(member, Permission.ADMINISTRATOR, guild))
-//            return true;
-
-        //BUT: WE DO WANT TO CHECK IF HE IS OWNER
-        if (guild.getOwner().equals(member))
-            return true;
+        long permission = getRolePermission(guild, ((MemberImpl) member).getRoleIds(), roleOverrides);
 
-        long effectivePerms = getEffectivePermission(member, guild, roleOverrides, memberOverrides);
-        return ((effectivePerms & (1 << Permission.ADMINISTRATOR.getOffset())) | (effectivePerms & (1 << perm.getOffset()))) > 0;
+        //handle member-specific overrides
+        PermissionOverride memberOverride = memberOverrides.get(member);
+        if (memberOverride != null)
+        {
+            permission = apply(permission, memberOverride.getAllowedRaw(), memberOverride.getDeniedRaw());
+        }
+        return permission;
     }
 
-    private static long getEffectivePermission(Member member, GuildImpl guild, Map<Role, PermissionOverride> roleOverrides, Map<Member, PermissionOverride> memberOverrides)
+    private static long getRolePermission(GuildImpl guild, long[] roleIds, Map<Role, PermissionOverride> roleOverrides)
     {
-        long permission = getEffectivePermission(guild, member);
+        //Default to binary OR of all global permissions in this guild
+        long permission = guild.getPublicRole().getPermissionsRaw();
+        for (long roleId : roleIds)
+        {
+            Role role = guild.getRolesMap().get(roleId);
+            if (role != null)
+                permission = permission | role.getPermissionsRaw();
+        }
 
         //override with channel-specific overrides of @everyone
         PermissionOverride override = roleOverrides.get(guild.getPublicRole());
@@ -413,9 +523,10 @@ public class PermissionUtil
         //handle role-overrides of this member in this channel (allow > disallow)
         long allow = -1;
         long deny = -1;
-        for (Role role : member.getRoles())
+        for (long roleId : roleIds)
         {
-            PermissionOverride po = roleOverrides.get(role);
+            Role role = guild.getRolesMap().get(roleId);
+            PermissionOverride po = role == null ? null : roleOverrides.get(role);
             if (po != null) //If an override exists for this role
             {
                 if (allow == -1 || deny == -1)  //If this is the first role we've encountered.
@@ -436,13 +547,6 @@ public class PermissionUtil
         {
             permission = apply(permission, allow, deny);
         }
-
-        //handle member-specific overrides
-        PermissionOverride memberOverride = memberOverrides.get(member);
-        if (memberOverride != null)
-        {
-            permission = apply(permission, memberOverride.getAllowedRaw(), memberOverride.getDeniedRaw());
-        }
         return permission;
     }
 
@@ -453,6 +557,33 @@ public class PermissionUtil
         return permission;
     }
 
+    /**
+     * Key for the sorted role ids of a Member, equal for Members with the same roles.
+     */
+    private static final class RoleSet
+    {
+        private final long[] roleIds;
+        private final int hash;
+
+        RoleSet(long[] roleIds)
+        {
+            this.roleIds = roleIds;
+            this.hash = Arrays.hashCode(roleIds);
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            return obj instanceof RoleSet && Arrays.equals(roleIds, ((RoleSet) obj).roleIds);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+
     private static void checkNull(Object obj, String name)
     {
         if (obj == null)
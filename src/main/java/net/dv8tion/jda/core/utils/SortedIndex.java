@@ -0,0 +1,147 @@
+/*
+ *     Copyright 2015-2016 Austin Keener & Michael Ritter
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.dv8tion.jda.core.utils;
+
+import gnu.trove.impl.Constants;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps an immutable sorted view of the values of an {@link net.dv8tion.jda.core.utils.IndexedLongObjectMap}
+ * together with the position of every value in that view.
+ * <p>
+ * Adding, removing or {@link net.dv8tion.jda.core.utils.IndexedLongObjectMap#reindex(long) reindexing} a value only
+ * invalidates the view; it is rebuilt once by the next reader. Position updates usually arrive in bursts (one
+ * event per moved channel or role), so this sorts once per burst instead of once per event.
+ * <br>Readers never block writers: a view built while the map changed is discarded on the next read.
+ *
+ * @param <V>
+ *      The value type
+ */
+public class SortedIndex<V> implements IndexedLongObjectMap.Index<V>
+{
+    private final Comparator<? super V> comparator;
+    private final Set<V> values = ConcurrentHashMap.newKeySet();
+    private volatile int version;
+    private volatile Snapshot<V> snapshot;
+
+    public SortedIndex(Comparator<? super V> comparator)
+    {
+        this.comparator = comparator;
+    }
+
+    @Override
+    public void update(V value)
+    {
+        values.add(value);
+        version++;
+    }
+
+    @Override
+    public void remove(V value)
+    {
+        values.remove(value);
+        version++;
+    }
+
+    @Override
+    public void clear()
+    {
+        values.clear();
+        version++;
+    }
+
+    /**
+     * Forces the view to be rebuilt on the next read.
+     * <br>Needed when a property the comparator depends on changed without the value being reindexed.
+     */
+    public void invalidate()
+    {
+        version++;
+    }
+
+    /**
+     * The current version of this index. It changes whenever a value is added, removed, reindexed or the index
+     * is {@link #invalidate() invalidated}, so it can be used to stamp data derived from {@link #getSorted()}.
+     * <br>Read it before {@link #getSorted()}, a change in between only leaves an outdated stamp behind.
+     *
+     * @return The version of this index
+     */
+    public int getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * The sorted, unmodifiable view of all indexed values.
+     * <br>The same instance is returned until the index changes.
+     *
+     * @return Immutable sorted List of the indexed values
+     */
+    public List<V> getSorted()
+    {
+        return snapshot().sorted;
+    }
+
+    /**
+     * The index of the provided value in {@link #getSorted()}.
+     *
+     * @param  value
+     *         The value to look up
+     *
+     * @return The position of the value, or {@code -1} if it is not indexed
+     */
+    public int indexOf(V value)
+    {
+        return snapshot().positions.get(value);
+    }
+
+    private Snapshot<V> snapshot()
+    {
+        int currentVersion = version;
+        Snapshot<V> current = snapshot;
+        if (current != null && current.version == currentVersion)
+            return current;
+
+        List<V> sorted = new ArrayList<>(values);
+        sorted.sort(comparator);
+        TObjectIntMap<V> positions = new TObjectIntHashMap<>(sorted.size(), Constants.DEFAULT_LOAD_FACTOR, -1);
+        for (int i = 0; i < sorted.size(); i++)
+            positions.put(sorted.get(i), i);
+
+        current = new Snapshot<>(currentVersion, Collections.unmodifiableList(sorted), positions);
+        snapshot = current;
+        return current;
+    }
+
+    private static class Snapshot<V>
+    {
+        private final int version;
+        private final List<V> sorted;
+        private final TObjectIntMap<V> positions;
+
+        private Snapshot(int version, List<V> sorted, TObjectIntMap<V> positions)
+        {
+            this.version = version;
+            this.sorted = sorted;
+            this.positions = positions;
+        }
+    }
+}